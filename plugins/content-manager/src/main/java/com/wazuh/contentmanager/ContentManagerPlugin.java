@@ -82,6 +82,7 @@ import com.wazuh.contentmanager.cti.catalog.service.SnapshotServiceImpl;
 import com.wazuh.contentmanager.cti.catalog.service.SpaceService;
 import com.wazuh.contentmanager.cti.catalog.service.SubscriptionService;
 import com.wazuh.contentmanager.cti.catalog.service.SubscriptionServiceImpl;
+import com.wazuh.contentmanager.cti.console.client.ApiClient;
 import com.wazuh.contentmanager.cti.console.service.PlansService;
 import com.wazuh.contentmanager.cti.console.service.PlansServiceImpl;
 import com.wazuh.contentmanager.engine.service.EngineService;
@@ -96,6 +97,7 @@ import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.transport.*;
 import com.wazuh.contentmanager.utils.ClusterInfo;
 import com.wazuh.contentmanager.utils.Constants;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 import com.wazuh.contentmanager.utils.MockEngineService;
 import com.wazuh.contentmanager.utils.MockSecurityAnalyticsService;
 
@@ -163,6 +165,11 @@ public class ContentManagerPlugin extends Plugin
         this.client = client;
         this.threadPool = threadPool;
 
+        // One HTTP client per remote host, shared by all CTI and Console API clients. They are
+        // started now, so that the first requests do not pay for it.
+        HttpClientPool.get(PluginSettings.getInstance().getCtiBaseUrl());
+        HttpClientPool.get(ApiClient.BASE_URI, ApiClient.TIMEOUT);
+
         // Check whether the credentials index is declared as a system index.
         // When not protected, registration is blocked and any stored token is wiped on startup.
         this.isCredentialsIndexProtected = true;
@@ -707,9 +714,25 @@ public class ContentManagerPlugin extends Plugin
                 PluginSettings.MAX_CONCURRENT_BULKS,
                 PluginSettings.MAX_ITEMS_PER_BULK,
                 PluginSettings.MAX_BULK_BYTES,
+                PluginSettings.SNAPSHOT_PARSER_WORKERS,
+                PluginSettings.SNAPSHOT_CHECKPOINT_INTERVAL,
+                PluginSettings.SNAPSHOT_STREAMING,
+                PluginSettings.SNAPSHOT_DIFFERENTIAL,
+                PluginSettings.SNAPSHOT_DIFFERENTIAL_MAX_DOCUMENTS,
+                PluginSettings.SNAPSHOT_BULK_LOAD_ENABLED,
+                PluginSettings.SNAPSHOT_BULK_LOAD_ASYNC_TRANSLOG,
+                PluginSettings.SNAPSHOT_BULK_LOAD_FORCE_MERGE,
+                PluginSettings.SNAPSHOT_DOWNLOAD_CONNECTIONS,
+                PluginSettings.HTTP_MAX_CONNECTIONS_PER_HOST,
+                PluginSettings.HTTP_KEEP_ALIVE,
                 PluginSettings.CATALOG_SYNC_INTERVAL,
                 PluginSettings.UPDATE_ON_START,
                 PluginSettings.UPDATE_ON_SCHEDULE,
+                PluginSettings.CATALOG_ROUTING_CACHE_SIZE,
+                PluginSettings.CATALOG_READ_AHEAD_PAGES,
+                PluginSettings.CATALOG_READ_AHEAD_BYTES,
+                PluginSettings.CATALOG_SNAPSHOT_RELOAD,
+                PluginSettings.CATALOG_MAX_CONCURRENT_SYNCS,
                 PluginSettings.CATALOG_RULESET,
                 PluginSettings.CATALOG_IOCS,
                 PluginSettings.CATALOG_VULNERABILITIES,
@@ -833,6 +856,12 @@ public class ContentManagerPlugin extends Plugin
         return (parser, id, jobDocVersion) -> ContentJobParameter.parse(parser);
     }
 
+    /** Closes the HTTP clients shared by the CTI and Console API clients. */
+    @Override
+    public void close() {
+        HttpClientPool.close();
+    }
+
     /**
      * Returns the version of Wazuh. The version is stored in the
      * '/usr/share/wazuh-indexerVERSION.json' file.
@@ -18,24 +18,12 @@ package com.wazuh.contentmanager.cti.catalog.client;
 
 import org.apache.hc.client5.http.async.methods.*;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
-import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
-import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
-import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.HttpHeaders;
-import org.apache.hc.core5.http.message.BasicHeader;
-import org.apache.hc.core5.io.CloseMode;
-import org.apache.hc.core5.reactor.IOReactorConfig;
-import org.apache.hc.core5.ssl.SSLContextBuilder;
-import org.apache.hc.core5.util.Timeout;
-
-import javax.net.ssl.SSLContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.net.URI;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -43,29 +31,35 @@ import java.util.concurrent.TimeoutException;
 
 import com.wazuh.contentmanager.cti.catalog.utils.HttpResponseCallback;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 
 /**
  * Client for interacting with the Wazuh CTI Catalog API.
  *
- * <p>This client manages an asynchronous HTTP client to perform requests against the catalog
- * service, specifically handling consumer context retrieval.
+ * <p>This client uses an asynchronous HTTP client to perform requests against the catalog service,
+ * specifically handling consumer context retrieval. The HTTP client of the CTI API host is shared
+ * by every instance, see {@link HttpClientPool}, so that its connections are kept alive and reused
+ * across synchronizations.
  */
 public class ApiClient {
+    private static final Logger log = LogManager.getLogger(ApiClient.class);
+
+    /** The content encodings accepted for the responses of the changes endpoint. */
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
 
     private final String baseUri;
     private final ResourceUrlResolver urlResolver;
-    private CloseableHttpAsyncClient client;
+    private final CloseableHttpAsyncClient client;
 
     /**
-     * Constructs an ApiClient instance with a URL resolver and initializes the underlying HTTP
-     * client.
+     * Constructs an ApiClient instance with a URL resolver, using the shared HTTP client.
      *
      * @param urlResolver the resolver used to transform resource URLs before making HTTP requests.
      */
     public ApiClient(ResourceUrlResolver urlResolver) {
         this.baseUri = PluginSettings.getInstance().getCtiBaseUrl();
         this.urlResolver = urlResolver;
-        this.buildClient();
+        this.client = HttpClientPool.get(this.baseUri);
     }
 
     /** Constructs an ApiClient instance with an regular URL resolver. */
@@ -74,46 +68,10 @@ public class ApiClient {
     }
 
     /**
-     * Builds and starts the asynchronous HTTP client.
-     *
-     * @throws RuntimeException if the SSL context cannot be initialized.
+     * Releases this instance. The shared HTTP client is kept open, so that its connections are
+     * reused by the next instances, see {@link HttpClientPool#close()}.
      */
-    private void buildClient() {
-        IOReactorConfig ioReactorConfig =
-                IOReactorConfig.custom()
-                        .setSoTimeout(Timeout.ofSeconds(PluginSettings.getInstance().getClientTimeout()))
-                        .build();
-
-        SSLContext sslContext;
-        try {
-            sslContext =
-                    SSLContextBuilder.create().loadTrustMaterial(null, (chains, authType) -> true).build();
-        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-            throw new RuntimeException("Failed to initialize HttpClient", e);
-        }
-
-        List<Header> defaultHeaders =
-                List.of(
-                        new BasicHeader(HttpHeaders.USER_AGENT, PluginSettings.getInstance().getUserAgent()));
-
-        this.client =
-                HttpAsyncClients.custom()
-                        .setIOReactorConfig(ioReactorConfig)
-                        .setDefaultHeaders(defaultHeaders)
-                        .setConnectionManager(
-                                PoolingAsyncClientConnectionManagerBuilder.create()
-                                        .setTlsStrategy(
-                                                ClientTlsStrategyBuilder.create().setSslContext(sslContext).build())
-                                        .build())
-                        .build();
-
-        this.client.start();
-    }
-
-    /** Closes the underlying HTTP asynchronous client gracefully. */
-    public void close() {
-        this.client.close(CloseMode.GRACEFUL);
-    }
+    public void close() {}
 
     /**
      * Normalizes a consumer URI.
@@ -175,8 +133,29 @@ public class ApiClient {
      */
     public SimpleHttpResponse getConsumer(String consumerUri)
             throws ExecutionException, InterruptedException, TimeoutException {
+        return this.getConsumer(consumerUri, null);
+    }
+
+    /**
+     * Retrieves consumer details from the CTI Catalog, unless they did not change since the response
+     * with the given entity tag, in which case the response is {@code 304 Not Modified} and has no
+     * body.
+     *
+     * @param consumerUri The full URL of the consumer.
+     * @param etag The {@code ETag} of a previous response, or null for an unconditional request.
+     * @return A {@link SimpleHttpResponse} containing the API response.
+     * @throws ExecutionException If the computation threw an exception.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException If the wait timed out.
+     */
+    public SimpleHttpResponse getConsumer(String consumerUri, String etag)
+            throws ExecutionException, InterruptedException, TimeoutException {
         String uri = this.urlResolver.resolve(this.buildConsumerURI(consumerUri));
-        SimpleHttpRequest request = SimpleRequestBuilder.get(uri).build();
+        SimpleRequestBuilder builder = SimpleRequestBuilder.get(uri);
+        if (etag != null) {
+            builder.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        SimpleHttpRequest request = builder.build();
 
         final Future<SimpleHttpResponse> future =
                 this.client.execute(
@@ -193,13 +172,32 @@ public class ApiClient {
      * @param consumerUri The full URL of the consumer.
      * @param fromOffset The starting offset (exclusive).
      * @param toOffset The ending offset (inclusive).
-     * @return A {@link SimpleHttpResponse} containing the API response.
+     * @return The changes parsed from the API response, see {@link ChangesResponseConsumer}.
      * @throws ExecutionException If the computation threw an exception.
      * @throws InterruptedException If the current thread was interrupted while waiting.
      * @throws TimeoutException If the wait timed out.
      */
-    public SimpleHttpResponse getChanges(String consumerUri, long fromOffset, long toOffset)
+    public ChangesResponseConsumer.Result getChanges(
+            String consumerUri, long fromOffset, long toOffset)
             throws ExecutionException, InterruptedException, TimeoutException {
+        return this.requestChanges(consumerUri, fromOffset, toOffset)
+                .get(PluginSettings.getInstance().getClientTimeout(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Requests the changes for a specific consumer within a given context, without waiting for the
+     * response. Used to fetch the next changes while the previous ones are applied.
+     *
+     * <p>The response body is not buffered: the changes are parsed as the body is received, see
+     * {@link ChangesResponseConsumer}.
+     *
+     * @param consumerUri The full URL of the consumer.
+     * @param fromOffset The starting offset (exclusive).
+     * @param toOffset The ending offset (inclusive).
+     * @return A {@link Future} completed with the changes of the API response.
+     */
+    public Future<ChangesResponseConsumer.Result> requestChanges(
+            String consumerUri, long fromOffset, long toOffset) {
         String uri =
                 this.urlResolver.resolve(
                         this.buildConsumerURI(consumerUri)
@@ -208,15 +206,36 @@ public class ApiClient {
                                 + "&to_offset="
                                 + toOffset);
 
-        SimpleHttpRequest request = SimpleRequestBuilder.get(uri).build();
+        // Change pages are large and compress well. They are decompressed as they are received.
+        SimpleHttpRequest request =
+                SimpleRequestBuilder.get(uri)
+                        .addHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING)
+                        .build();
 
-        final Future<SimpleHttpResponse> future =
-                this.client.execute(
-                        SimpleRequestProducer.create(request),
-                        SimpleResponseConsumer.create(),
-                        new HttpResponseCallback(request, "Outgoing request failed"));
+        return this.client.execute(
+                SimpleRequestProducer.create(request),
+                new ChangesResponseConsumer(),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(ChangesResponseConsumer.Result result) {
+                        log.debug(
+                                "{}->{} ({} changes, {} bytes)",
+                                request,
+                                result.code(),
+                                result.changes().size(),
+                                result.size());
+                    }
 
-        return future.get(PluginSettings.getInstance().getClientTimeout(), TimeUnit.SECONDS);
+                    @Override
+                    public void failed(Exception ex) {
+                        log.error("{}->{}", request, ex);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        log.debug("{} cancelled", request);
+                    }
+                });
     }
 
     /**
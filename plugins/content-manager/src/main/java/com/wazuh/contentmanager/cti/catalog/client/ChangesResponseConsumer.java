@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.support.AbstractBinResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.wazuh.contentmanager.cti.catalog.model.Offset;
+
+/**
+ * Consumes the response of the CTI changes endpoint as it is received, instead of buffering the
+ * whole body. The {@code data} array is parsed incrementally, and every {@link Offset} is built as
+ * soon as its JSON object is complete, so the raw body is never held in memory and each change is
+ * deserialized only once. Other fields of the response are ignored.
+ *
+ * <p>Bodies compressed with {@code gzip} or {@code deflate} are decompressed as they are received,
+ * see {@link StreamingInflater}. The body of unsuccessful responses is discarded.
+ *
+ * <p>An instance consumes a single response.
+ */
+public class ChangesResponseConsumer
+        extends AbstractBinResponseConsumer<ChangesResponseConsumer.Result> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DATA = "data";
+
+    private final List<Offset> changes = new ArrayList<>();
+    private JsonParser parser;
+    private StreamingInflater inflater;
+    private int code;
+    private long size;
+
+    /** Nesting depth of the current token: 1 within the response object, 2 within the array. */
+    private int depth;
+
+    private boolean inData;
+    private TokenBuffer change;
+
+    /**
+     * The changes of a response.
+     *
+     * @param code The HTTP status code of the response.
+     * @param changes The changes, in the order received. Empty for unsuccessful responses.
+     * @param size The size of the body in bytes, once decompressed.
+     */
+    public record Result(int code, List<Offset> changes, long size) {}
+
+    @Override
+    protected void start(HttpResponse response, ContentType contentType)
+            throws HttpException, IOException {
+        this.code = response.getCode();
+        if (this.code == HttpStatus.SC_OK) {
+            Header encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+            this.inflater = StreamingInflater.forEncoding(encoding != null ? encoding.getValue() : null);
+            this.parser = MAPPER.getFactory().createNonBlockingByteArrayParser();
+        }
+    }
+
+    @Override
+    protected int capacityIncrement() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+        int length = src.remaining();
+        if (this.parser == null) {
+            src.position(src.limit());
+            return;
+        }
+        if (length > 0) {
+            // The buffer is reused once this method returns, so the parser gets its own copy of
+            // the chunk, which is fully parsed before returning.
+            byte[] chunk = new byte[length];
+            src.get(chunk);
+            if (this.inflater != null) {
+                this.inflater.inflate(chunk, 0, length, this::feed);
+            } else {
+                this.feed(chunk, 0, length);
+            }
+        }
+        if (endOfStream) {
+            if (this.inflater != null) {
+                this.inflater.finish();
+            }
+            ((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).endOfInput();
+            this.parse();
+            if (this.depth != 0) {
+                throw new IOException("Incomplete changes response");
+            }
+        }
+    }
+
+    /**
+     * Feeds the next bytes of the (decompressed) body to the parser, and consumes them.
+     *
+     * @param bytes The buffer holding the bytes.
+     * @param offset The offset of the first byte.
+     * @param length The number of bytes.
+     * @throws IOException If the input is not valid JSON.
+     */
+    private void feed(byte[] bytes, int offset, int length) throws IOException {
+        this.size += length;
+        ((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder())
+                .feedInput(bytes, offset, offset + length);
+        this.parse();
+    }
+
+    /**
+     * Consumes the tokens of the input fed so far.
+     *
+     * @throws IOException If the input is not valid JSON.
+     */
+    private void parse() throws IOException {
+        JsonToken token;
+        while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (this.change != null) {
+                this.change.copyCurrentEvent(this.parser);
+            }
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    this.depth++;
+                    if (token == JsonToken.START_OBJECT && this.inData && this.depth == 3) {
+                        // A change starts
+                        this.change = new TokenBuffer(this.parser, null);
+                        this.change.copyCurrentEvent(this.parser);
+                    } else if (token == JsonToken.START_ARRAY
+                            && this.depth == 2
+                            && DATA.equals(this.parser.currentName())) {
+                        this.inData = true;
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    this.depth--;
+                    if (this.change != null && this.depth == 2) {
+                        // The change is complete
+                        try (JsonParser buffered = this.change.asParser(MAPPER)) {
+                            this.changes.add(MAPPER.readValue(buffered, Offset.class));
+                        }
+                        this.change = null;
+                    } else if (this.depth == 1) {
+                        this.inData = false;
+                    }
+                }
+                default -> {}
+            }
+        }
+    }
+
+    @Override
+    protected Result buildResult() {
+        return new Result(this.code, this.changes, this.size);
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {}
+
+    @Override
+    public void releaseResources() {
+        if (this.parser != null) {
+            try {
+                this.parser.close();
+            } catch (IOException e) {
+                // Nothing to release
+            }
+            this.parser = null;
+        }
+        if (this.inflater != null) {
+            this.inflater.close();
+            this.inflater = null;
+        }
+        this.change = null;
+    }
+}
@@ -20,6 +20,8 @@ import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.message.BasicHeader;
@@ -44,6 +46,10 @@ import com.wazuh.contentmanager.settings.PluginSettings;
 public class SnapshotClient {
 
     private static final Logger log = LogManager.getLogger(SnapshotClient.class);
+
+    /** Size of the buffer used to write a sequential download to disk. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final Environment env;
     private final ResourceUrlResolver urlResolver;
 
@@ -67,28 +73,58 @@ public class SnapshotClient {
         this(env, new RegularUrlResolver());
     }
 
+    /** Consumes the body of a snapshot download while it is being received. */
+    @FunctionalInterface
+    public interface StreamHandler {
+        /**
+         * Reads the snapshot body.
+         *
+         * @param input the response body. Closed by the caller once this method returns.
+         * @throws IOException If the body cannot be read or processed.
+         */
+        void handle(InputStream input) throws IOException;
+    }
+
     /***
      * Downloads the CTI snapshot.
      *
+     * <p>The download starts with a {@code Range: bytes=0-0} probe. When the server supports range
+     * requests, the snapshot is fetched by a {@link SnapshotDownloader} with parallel, resumable range
+     * requests. Otherwise, the probe response already carries the whole file, which is written to
+     * disk sequentially. In both cases, the file is verified against the size and digest advertised by
+     * the server.
+     *
      * @param snapshotURI URI to the file to download.
      * @return The downloaded file's name, or null if the download failed
-     * @throws IOException If an I/O error occurs during download.
+     * @throws IOException If an I/O error occurs during download, or if the downloaded file does not
+     *     match the advertised size or digest.
      * @throws URISyntaxException If the provided URI is invalid.
      */
     public Path downloadFile(String snapshotURI) throws IOException, URISyntaxException {
         List<Header> defaultHeaders =
                 List.of(
                         new BasicHeader(HttpHeaders.USER_AGENT, PluginSettings.getInstance().getUserAgent()));
+        int connections = PluginSettings.getInstance().getSnapshotDownloadConnections();
+        PoolingHttpClientConnectionManager connectionManager =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(connections)
+                        .setMaxConnTotal(connections)
+                        .build();
         try (CloseableHttpClient client =
-                HttpClients.custom().setDefaultHeaders(defaultHeaders).build()) {
+                HttpClients.custom()
+                        .setDefaultHeaders(defaultHeaders)
+                        .setConnectionManager(connectionManager)
+                        .build()) {
             // Setup
             final URI uri = new URI(this.urlResolver.resolve(snapshotURI));
             final HttpGet request = new HttpGet(uri);
+            request.setHeader(HttpHeaders.RANGE, "bytes=0-0");
             final String filename = uri.getPath().substring(uri.getPath().lastIndexOf('/') + 1);
             final Path path = this.env.tmpDir().resolve(filename);
 
             // Download
             log.info("Starting snapshot download from [{}]", uri);
+            SnapshotDownloader.RemoteFile ranged;
             try (CloseableHttpResponse response = client.execute(request)) {
                 if (response.getCode() < 200 || response.getCode() >= 300) {
                     log.error(
@@ -96,30 +132,74 @@ public class SnapshotClient {
                     return null;
                 }
 
-                if (response.getEntity() != null) {
-                    // Write to disk
-                    InputStream input = response.getEntity().getContent();
-                    try (OutputStream out =
-                            new BufferedOutputStream(
-                                    Files.newOutputStream(
-                                            path,
-                                            StandardOpenOption.CREATE,
-                                            StandardOpenOption.WRITE,
-                                            StandardOpenOption.TRUNCATE_EXISTING))) {
-
-                        int bytesRead;
-                        byte[] buffer = new byte[1024];
-                        while ((bytesRead = input.read(buffer)) != -1) {
-                            out.write(buffer, 0, bytesRead);
-                        }
+                ranged = SnapshotDownloader.probe(response);
+                if (ranged == null) {
+                    if (response.getEntity() == null) {
+                        log.error("Failed to download snapshot, empty response entity.");
+                        return null;
                     }
-                } else {
-                    log.error("Failed to download snapshot, empty response entity.");
-                    return null;
+                    // Range requests not supported: the response carries the whole file
+                    try (InputStream input = response.getEntity().getContent();
+                            OutputStream out =
+                                    new BufferedOutputStream(
+                                            Files.newOutputStream(
+                                                    path,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING),
+                                            BUFFER_SIZE)) {
+                        input.transferTo(out);
+                    }
+                    SnapshotDownloader.verify(path, SnapshotDownloader.describe(response));
                 }
             }
+
+            if (ranged != null) {
+                new SnapshotDownloader(client, connections, SnapshotDownloader.DEFAULT_SEGMENT_SIZE)
+                        .download(uri, ranged, path);
+            }
             log.info("Snapshot downloaded to [{}]", path);
             return path;
         }
     }
+
+    /**
+     * Downloads the CTI snapshot, handing the response body to {@code handler} as it arrives instead
+     * of writing it to disk.
+     *
+     * @param snapshotURI URI to the file to download.
+     * @param handler the consumer of the response body.
+     * @return true if the body was handed to the handler, false if the download failed.
+     * @throws IOException If an I/O error occurs during download, or if the handler fails.
+     * @throws URISyntaxException If the provided URI is invalid.
+     */
+    public boolean streamFile(String snapshotURI, StreamHandler handler)
+            throws IOException, URISyntaxException {
+        List<Header> defaultHeaders =
+                List.of(
+                        new BasicHeader(HttpHeaders.USER_AGENT, PluginSettings.getInstance().getUserAgent()));
+        try (CloseableHttpClient client =
+                HttpClients.custom().setDefaultHeaders(defaultHeaders).build()) {
+            final URI uri = new URI(this.urlResolver.resolve(snapshotURI));
+            final HttpGet request = new HttpGet(uri);
+
+            log.info("Starting snapshot stream from [{}]", uri);
+            try (CloseableHttpResponse response = client.execute(request)) {
+                if (response.getCode() < 200 || response.getCode() >= 300) {
+                    log.error(
+                            "Failed to download snapshot, received HTTP status code: {}", response.getCode());
+                    return false;
+                }
+                if (response.getEntity() == null) {
+                    log.error("Failed to download snapshot, empty response entity.");
+                    return false;
+                }
+                try (InputStream input = response.getEntity().getContent()) {
+                    handler.handle(input);
+                }
+            }
+            log.info("Snapshot streamed from [{}]", uri);
+            return true;
+        }
+    }
 }
@@ -0,0 +1,571 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.client;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads a snapshot with parallel HTTP Range requests. The file is split into fixed-size
+ * segments, written in place into a preallocated {@code .part} file with positional writes.
+ *
+ * <p>Completed segments are recorded in a {@code .progress} file next to the partial download, so a
+ * download interrupted by a failure or a restart resumes with the missing segments only, as long as
+ * the remote file keeps the same size and entity tag. Within a segment, a dropped connection is
+ * resumed from the last byte written.
+ *
+ * <p>The final file is verified against the expected size and, when the server advertises one, its
+ * digest, before being moved to its destination.
+ */
+public class SnapshotDownloader {
+    private static final Logger log = LogManager.getLogger(SnapshotDownloader.class);
+
+    /** Name given to the download worker threads. */
+    private static final String DOWNLOAD_THREAD_NAME = "wazuh-content-manager-snapshot-download";
+
+    /** Default size of a segment fetched by a single Range request. */
+    static final long DEFAULT_SEGMENT_SIZE = 8L * 1024 * 1024;
+
+    /** Attempts per segment before the download is abandoned, keeping its progress. */
+    private static final int MAX_SEGMENT_ATTEMPTS = 3;
+
+    /** Pause before retrying a segment, multiplied by the attempt number. */
+    private static final long RETRY_DELAY_MS = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String PROGRESS_SUFFIX = ".progress";
+
+    private final CloseableHttpClient client;
+    private final int connections;
+    private final long segmentSize;
+
+    /**
+     * Constructs a SnapshotDownloader.
+     *
+     * @param client the HTTP client the Range requests are sent with. It must allow at least {@code
+     *     connections} concurrent connections to the snapshot host.
+     * @param connections the number of segments downloaded in parallel.
+     * @param segmentSize the size in bytes of a segment.
+     */
+    public SnapshotDownloader(CloseableHttpClient client, int connections, long segmentSize) {
+        this.client = client;
+        this.connections = connections;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Downloads {@code uri} to {@code target}, resuming a previous partial download of the same
+     * remote file if there is one.
+     *
+     * @param uri the URI of the snapshot.
+     * @param remote the description of the remote file, see {@link #probe(HttpResponse)}.
+     * @param target the destination of the download.
+     * @throws IOException if a segment cannot be downloaded, or if the downloaded file does not match
+     *     the expected size or digest. The progress made so far is kept, except on a digest mismatch.
+     */
+    public void download(URI uri, RemoteFile remote, Path target) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        Path progressFile = target.resolveSibling(target.getFileName() + PROGRESS_SUFFIX);
+        int segments = (int) ((remote.size() + this.segmentSize - 1) / this.segmentSize);
+
+        Progress progress = Progress.load(progressFile, remote, this.segmentSize, segments);
+        if (progress == null || !Files.exists(part) || Files.size(part) != remote.size()) {
+            progress = new Progress(progressFile, remote, this.segmentSize, segments);
+            try (FileChannel channel =
+                    FileChannel.open(
+                            part,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                // Preallocate, so that every segment can be written at its final position.
+                channel.write(ByteBuffer.allocate(1), remote.size() - 1);
+            }
+            progress.save();
+        } else {
+            log.info(
+                    "Resuming snapshot download of [{}]: {} of {} segments already downloaded",
+                    target.getFileName(),
+                    progress.completed(),
+                    segments);
+        }
+
+        ExecutorService executor =
+                Executors.newFixedThreadPool(this.connections, r -> new Thread(r, DOWNLOAD_THREAD_NAME));
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < segments; i++) {
+                if (progress.isDone(i)) {
+                    continue;
+                }
+                final int segment = i;
+                final Progress segmentProgress = progress;
+                pending.add(
+                        executor.submit(
+                                () -> {
+                                    this.downloadSegment(uri, remote, channel, segment);
+                                    segmentProgress.markDone(segment);
+                                    return null;
+                                }));
+            }
+
+            // Wait for every segment, so the progress of the successful ones is recorded even when
+            // another one failed.
+            IOException failure = null;
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure =
+                                e.getCause() instanceof IOException io
+                                        ? io
+                                        : new IOException("Snapshot segment download failed", e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            channel.force(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading snapshot segments", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            SnapshotDownloader.verify(part, remote);
+        } catch (IOException e) {
+            // The content is wrong as a whole: nothing worth resuming.
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(progressFile);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(progressFile);
+    }
+
+    /**
+     * Downloads a single segment, resuming from the last byte written when the connection drops.
+     *
+     * @param uri the URI of the snapshot.
+     * @param remote the description of the remote file.
+     * @param channel the channel to the partial download.
+     * @param segment the index of the segment.
+     * @throws IOException if the segment could not be downloaded within {@link #MAX_SEGMENT_ATTEMPTS}
+     *     attempts, or if the server does not answer with the requested range.
+     * @throws InterruptedException if interrupted while waiting to retry.
+     */
+    private void downloadSegment(URI uri, RemoteFile remote, FileChannel channel, int segment)
+            throws IOException, InterruptedException {
+        long start = segment * this.segmentSize;
+        long end = Math.min(start + this.segmentSize, remote.size()) - 1;
+        long written = 0;
+        IOException lastFailure = null;
+
+        for (int attempt = 1; attempt <= MAX_SEGMENT_ATTEMPTS; attempt++) {
+            if (attempt > 1) {
+                Thread.sleep(RETRY_DELAY_MS * (attempt - 1));
+            }
+            HttpGet request = new HttpGet(uri);
+            request.setHeader(HttpHeaders.RANGE, "bytes=" + (start + written) + "-" + end);
+            if (remote.etag() != null) {
+                request.setHeader(HttpHeaders.IF_RANGE, remote.etag());
+            }
+            try (CloseableHttpResponse response = this.client.execute(request)) {
+                if (response.getCode() >= HttpStatus.SC_SERVER_ERROR) {
+                    throw new IOException("Snapshot server answered HTTP " + response.getCode());
+                }
+                if (response.getCode() != HttpStatus.SC_PARTIAL_CONTENT || response.getEntity() == null) {
+                    // The server ignored the range, or the file changed since the download started.
+                    throw new RangeRejectedException(
+                            "Snapshot server answered HTTP " + response.getCode() + " to a range request");
+                }
+                try (InputStream input = response.getEntity().getContent()) {
+                    written += SnapshotDownloader.copy(input, channel, start + written, end + 1);
+                }
+            } catch (RangeRejectedException e) {
+                throw e;
+            } catch (IOException e) {
+                lastFailure = e;
+            }
+            if (start + written > end) {
+                return;
+            }
+            log.debug(
+                    "Snapshot segment {} interrupted after {} bytes (attempt {}/{})",
+                    segment,
+                    written,
+                    attempt,
+                    MAX_SEGMENT_ATTEMPTS);
+        }
+        throw new IOException(
+                "Failed to download snapshot segment " + segment + " after retries", lastFailure);
+    }
+
+    /**
+     * Writes a response body into the channel, starting at {@code position}.
+     *
+     * @return the number of bytes written, even when the body ends early.
+     * @throws IOException if the body goes past {@code limit}. Bytes read before a failure are
+     *     written, and accounted for by the caller through the channel position it resumes from.
+     */
+    private static long copy(InputStream input, FileChannel channel, long position, long limit)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read;
+        try {
+            while ((read = input.read(buffer)) != -1) {
+                if (position + written + read > limit) {
+                    throw new RangeRejectedException("Snapshot server sent more bytes than requested");
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk, position + written + chunk.position());
+                }
+                written += read;
+            }
+        } catch (RangeRejectedException e) {
+            throw e;
+        } catch (IOException e) {
+            // A dropped connection: keep what was written, the caller resumes from there.
+            log.debug("Snapshot segment stream failed: {}", e.getMessage());
+        }
+        return written;
+    }
+
+    /**
+     * Describes the remote file from the response to a {@code Range: bytes=0-0} probe request.
+     *
+     * @param response the response to the probe request.
+     * @return the remote file, or null if the server does not support range requests on it.
+     */
+    public static RemoteFile probe(HttpResponse response) {
+        Header contentRange = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+        if (response.getCode() != HttpStatus.SC_PARTIAL_CONTENT || contentRange == null) {
+            return null;
+        }
+        // Content-Range: bytes 0-0/<size>
+        String value = contentRange.getValue();
+        int slash = value.lastIndexOf('/');
+        if (slash < 0) {
+            return null;
+        }
+        long size;
+        try {
+            size = Long.parseLong(value.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            // "*" when the size is unknown
+            return null;
+        }
+        if (size <= 0) {
+            return null;
+        }
+        return new RemoteFile(size, SnapshotDownloader.etag(response), Digest.of(response, false));
+    }
+
+    /**
+     * Describes the remote file from a complete (non-ranged) response.
+     *
+     * @param response the response carrying the whole file.
+     * @return the remote file. Its size is -1 when the response has no {@code Content-Length}.
+     */
+    public static RemoteFile describe(HttpResponse response) {
+        Header contentLength = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+        long size = -1;
+        if (contentLength != null) {
+            try {
+                size = Long.parseLong(contentLength.getValue().trim());
+            } catch (NumberFormatException e) {
+                size = -1;
+            }
+        }
+        return new RemoteFile(size, SnapshotDownloader.etag(response), Digest.of(response, true));
+    }
+
+    /**
+     * Verifies a downloaded file against the expected size and, when known, digest.
+     *
+     * @param file the downloaded file.
+     * @param remote the description of the remote file.
+     * @throws IOException if the file does not match.
+     */
+    public static void verify(Path file, RemoteFile remote) throws IOException {
+        long size = Files.size(file);
+        if (remote.size() >= 0 && size != remote.size()) {
+            throw new IOException("Downloaded snapshot has " + size + " bytes, expected " + remote.size());
+        }
+        Digest expected = remote.digest();
+        if (expected == null) {
+            return;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(expected.algorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unsupported snapshot digest algorithm " + expected.algorithm(), e);
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        if (!MessageDigest.isEqual(digest.digest(), expected.value())) {
+            throw new IOException("Downloaded snapshot does not match its " + expected.algorithm());
+        }
+    }
+
+    /** Returns the strong entity tag of the response, or null. Weak tags cannot be used in If-Range. */
+    private static String etag(HttpResponse response) {
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        if (etag == null || etag.getValue().startsWith("W/")) {
+            return null;
+        }
+        return etag.getValue();
+    }
+
+    /**
+     * The remote snapshot file.
+     *
+     * @param size the size in bytes, or -1 if unknown.
+     * @param etag the strong entity tag, or null.
+     * @param digest the digest advertised by the server, or null.
+     */
+    public record RemoteFile(long size, String etag, Digest digest) {}
+
+    /**
+     * A digest advertised by the server.
+     *
+     * @param algorithm the {@link MessageDigest} algorithm name.
+     * @param value the expected digest.
+     */
+    public record Digest(String algorithm, byte[] value) {
+
+        /**
+         * Reads the digest of the full file from the response headers: {@code Repr-Digest} (RFC
+         * 9530), {@code Digest} (RFC 3230) and, for complete responses only, {@code Content-MD5}.
+         *
+         * @param response the response.
+         * @param complete whether the response carries the whole file.
+         * @return the strongest supported digest, or null if none is advertised.
+         */
+        static Digest of(HttpResponse response, boolean complete) {
+            Header repr = response.getFirstHeader("Repr-Digest");
+            if (repr != null) {
+                Digest digest = Digest.parse(repr.getValue(), true);
+                if (digest != null) {
+                    return digest;
+                }
+            }
+            Header legacy = response.getFirstHeader("Digest");
+            if (legacy != null) {
+                Digest digest = Digest.parse(legacy.getValue(), false);
+                if (digest != null) {
+                    return digest;
+                }
+            }
+            Header md5 = response.getFirstHeader("Content-MD5");
+            if (complete && md5 != null) {
+                try {
+                    return new Digest("MD5", Base64.getDecoder().decode(md5.getValue().trim()));
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Parses a list of {@code algorithm=value} digests, keeping SHA-256 over MD5.
+         *
+         * @param header the header value.
+         * @param structured whether values are RFC 8941 byte sequences ({@code :base64:}).
+         */
+        private static Digest parse(String header, boolean structured) {
+            Digest best = null;
+            for (String item : header.split(",")) {
+                int eq = item.indexOf('=');
+                if (eq < 0) {
+                    continue;
+                }
+                String name = item.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                String value = item.substring(eq + 1).trim();
+                if (structured && value.length() >= 2 && value.startsWith(":") && value.endsWith(":")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                String algorithm =
+                        switch (name) {
+                            case "sha-256" -> "SHA-256";
+                            case "md5" -> "MD5";
+                            default -> null;
+                        };
+                if (algorithm == null || (best != null && "SHA-256".equals(best.algorithm()))) {
+                    continue;
+                }
+                try {
+                    best = new Digest(algorithm, Base64.getDecoder().decode(value));
+                } catch (IllegalArgumentException e) {
+                    // Malformed value, ignored.
+                }
+            }
+            return best;
+        }
+    }
+
+    /** The server answered a range request with something other than the requested range. */
+    private static final class RangeRejectedException extends IOException {
+        RangeRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Completed segments of a partial download, persisted in the {@code .progress} file along with
+     * the identity of the remote file they belong to.
+     */
+    private static final class Progress {
+        private final Path file;
+        private final RemoteFile remote;
+        private final long segmentSize;
+        private final BitSet done;
+        private final int segments;
+
+        Progress(Path file, RemoteFile remote, long segmentSize, int segments) {
+            this(file, remote, segmentSize, segments, new BitSet(segments));
+        }
+
+        private Progress(Path file, RemoteFile remote, long segmentSize, int segments, BitSet done) {
+            this.file = file;
+            this.remote = remote;
+            this.segmentSize = segmentSize;
+            this.segments = segments;
+            this.done = done;
+        }
+
+        /**
+         * Loads the progress of a previous download of the same remote file.
+         *
+         * @return the progress, or null if there is none or it belongs to another file.
+         */
+        static Progress load(Path file, RemoteFile remote, long segmentSize, int segments) {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                if (Long.parseLong(properties.getProperty("size", "-1")) != remote.size()
+                        || Long.parseLong(properties.getProperty("segment_size", "-1")) != segmentSize
+                        || !Objects.equals(properties.getProperty("etag"), remote.etag())) {
+                    return null;
+                }
+                BitSet done = new BitSet(segments);
+                String completed = properties.getProperty("done", "");
+                for (String index : completed.split(",")) {
+                    if (!index.isBlank()) {
+                        done.set(Integer.parseInt(index.trim()));
+                    }
+                }
+                return new Progress(file, remote, segmentSize, segments, done);
+            } catch (IOException | NumberFormatException e) {
+                log.debug(
+                        "Ignoring unreadable snapshot download progress [{}]: {}", file, e.getMessage());
+                return null;
+            }
+        }
+
+        synchronized boolean isDone(int segment) {
+            return this.done.get(segment);
+        }
+
+        synchronized int completed() {
+            return this.done.cardinality();
+        }
+
+        /** Records a completed segment. */
+        synchronized void markDone(int segment) throws IOException {
+            this.done.set(segment);
+            this.save();
+        }
+
+        /** Persists the progress, replacing the previous file atomically. */
+        synchronized void save() throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("size", Long.toString(this.remote.size()));
+            properties.setProperty("segment_size", Long.toString(this.segmentSize));
+            if (this.remote.etag() != null) {
+                properties.setProperty("etag", this.remote.etag());
+            }
+            StringBuilder completed = new StringBuilder();
+            int i = this.done.nextSetBit(0);
+            while (i >= 0 && i < this.segments) {
+                if (completed.length() > 0) {
+                    completed.append(',');
+                }
+                completed.append(i);
+                i = this.done.nextSetBit(i + 1);
+            }
+            properties.setProperty("done", completed.toString());
+
+            Path tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(
+                    tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
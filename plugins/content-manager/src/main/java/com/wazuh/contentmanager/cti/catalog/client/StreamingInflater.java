@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses a {@code gzip} or {@code deflate} encoded HTTP body chunk by chunk, as it is
+ * received, so that it can be parsed without buffering the whole body. Both zlib-wrapped and raw
+ * {@code deflate} streams are accepted, as servers use either.
+ */
+class StreamingInflater {
+
+    /** Receives the decompressed bytes. */
+    interface Sink {
+        /**
+         * Consumes decompressed bytes. The array is reused once this method returns.
+         *
+         * @param bytes The buffer holding the bytes.
+         * @param offset The offset of the first byte.
+         * @param length The number of bytes.
+         * @throws IOException If the bytes cannot be consumed.
+         */
+        void accept(byte[] bytes, int offset, int length) throws IOException;
+    }
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int GZIP_TRAILER = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final boolean gzip;
+    private final byte[] buffer = new byte[8192];
+    private final CRC32 crc = new CRC32();
+    private Inflater inflater;
+    private long inflated;
+
+    /** Input not consumed yet: an incomplete header, or the gzip trailer. */
+    private byte[] pending = new byte[0];
+
+    private StreamingInflater(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Creates an inflater for the given content encoding.
+     *
+     * @param encoding The value of the {@code Content-Encoding} header, or null.
+     * @return The inflater, or null if the content is not encoded.
+     * @throws IOException If the encoding is not supported.
+     */
+    static StreamingInflater forEncoding(String encoding) throws IOException {
+        if (encoding == null) {
+            return null;
+        }
+        return switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "", "identity" -> null;
+            case "gzip", "x-gzip" -> new StreamingInflater(true);
+            case "deflate" -> new StreamingInflater(false);
+            default -> throw new IOException("Unsupported content encoding [" + encoding + "]");
+        };
+    }
+
+    /**
+     * Decompresses the next chunk of the body.
+     *
+     * @param input The buffer holding the chunk.
+     * @param offset The offset of the chunk.
+     * @param length The length of the chunk.
+     * @param sink The consumer of the decompressed bytes.
+     * @throws IOException If the body is not validly encoded, or the sink fails.
+     */
+    void inflate(byte[] input, int offset, int length, Sink sink) throws IOException {
+        byte[] data = input;
+        int start = offset;
+        int end = offset + length;
+        if (this.pending.length > 0) {
+            data = Arrays.copyOf(this.pending, this.pending.length + length);
+            System.arraycopy(input, offset, data, this.pending.length, length);
+            start = 0;
+            end = data.length;
+            this.pending = new byte[0];
+        }
+
+        if (this.inflater == null) {
+            int header =
+                    this.gzip ? gzipHeaderLength(data, start, end) : deflateHeaderLength(data, start, end);
+            if (header < 0) {
+                this.pending = Arrays.copyOfRange(data, start, end);
+                return;
+            }
+            // Deflate streams without a zlib header are raw, as the body of gzip members
+            this.inflater = new Inflater(this.gzip || !isZlibHeader(data, start));
+            start += header;
+        }
+
+        if (!this.inflater.finished()) {
+            this.inflater.setInput(data, start, end - start);
+            try {
+                while (!this.inflater.finished()) {
+                    int n = this.inflater.inflate(this.buffer);
+                    if (n > 0) {
+                        this.crc.update(this.buffer, 0, n);
+                        this.inflated += n;
+                        sink.accept(this.buffer, 0, n);
+                    } else if (this.inflater.needsDictionary()) {
+                        throw new IOException("Unsupported deflate stream with preset dictionary");
+                    } else if (this.inflater.needsInput()) {
+                        return;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Invalid compressed content", e);
+            }
+            start = end - this.inflater.getRemaining();
+        }
+        if (this.gzip && start < end) {
+            this.pending = Arrays.copyOfRange(data, start, end);
+        }
+    }
+
+    /**
+     * Checks that the whole body was received and, for gzip, that it matches its trailer.
+     *
+     * @throws IOException If the body is truncated or corrupted.
+     */
+    void finish() throws IOException {
+        if (this.inflater == null || !this.inflater.finished()) {
+            throw new IOException("Truncated compressed content");
+        }
+        if (this.gzip) {
+            if (this.pending.length != GZIP_TRAILER) {
+                throw new IOException("Invalid gzip trailer");
+            }
+            if (readInt(this.pending, 0) != this.crc.getValue()
+                    || readInt(this.pending, 4) != (this.inflated & 0xffffffffL)) {
+                throw new IOException("Corrupted gzip content");
+            }
+        }
+    }
+
+    /** Releases the native resources of the inflater. */
+    void close() {
+        if (this.inflater != null) {
+            this.inflater.end();
+        }
+    }
+
+    /**
+     * Returns the length of the gzip member header at the given position.
+     *
+     * @return The header length, or -1 if the header is incomplete.
+     * @throws IOException If the data is not gzip.
+     */
+    private static int gzipHeaderLength(byte[] data, int start, int end) throws IOException {
+        int available = end - start;
+        if (available < 10) {
+            return -1;
+        }
+        if (((data[start] & 0xff) | (data[start + 1] & 0xff) << 8) != GZIP_MAGIC
+                || data[start + 2] != DEFLATE_METHOD) {
+            throw new IOException("Invalid gzip header");
+        }
+        int flags = data[start + 3] & 0xff;
+        int position = start + 10;
+        if ((flags & FEXTRA) != 0) {
+            if (end - position < 2) {
+                return -1;
+            }
+            position += 2 + ((data[position] & 0xff) | (data[position + 1] & 0xff) << 8);
+        }
+        for (int flag : new int[] {FNAME, FCOMMENT}) {
+            if ((flags & flag) != 0) {
+                while (position < end && data[position] != 0) {
+                    position++;
+                }
+                if (position >= end) {
+                    return -1;
+                }
+                position++;
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        return position <= end ? position - start : -1;
+    }
+
+    /**
+     * Returns the number of bytes needed to tell zlib-wrapped from raw deflate streams apart, which
+     * are left to the inflater.
+     *
+     * @return 0 once the stream can be told apart, or -1 if more data is needed.
+     */
+    private static int deflateHeaderLength(byte[] data, int start, int end) {
+        return end - start < 2 ? -1 : 0;
+    }
+
+    /** Whether the stream starts with a zlib header (RFC 1950). */
+    private static boolean isZlibHeader(byte[] data, int start) {
+        int cmf = data[start] & 0xff;
+        int flg = data[start + 1] & 0xff;
+        return (cmf & 0x0f) == DEFLATE_METHOD && (cmf << 8 | flg) % 31 == 0;
+    }
+
+    /** Reads an unsigned little-endian 32-bit integer. */
+    private static long readInt(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+                | (data[offset + 1] & 0xffL) << 8
+                | (data[offset + 2] & 0xffL) << 16
+                | (data[offset + 3] & 0xffL) << 24;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.function.IntSupplier;
+
+import com.wazuh.contentmanager.utils.Constants;
+
+/**
+ * Tunes the number of bulk requests in flight and the size of the bulk requests of an index from
+ * the outcome of the requests sent, with an additive-increase, multiplicative-decrease loop:
+ *
+ * <ul>
+ *   <li>Requests rejected by a saturated cluster ({@code 429 TOO_MANY_REQUESTS}), or completed
+ *       while the JVM heap is still under pressure after the last garbage collection, halve both
+ *       the concurrency and the batch size.
+ *   <li>Requests whose latency per document grows well above the best latency observed at the
+ *       current batch size halve the concurrency only. The latency is observed again from the
+ *       requests sent after the batch size changes, as smaller batches have a higher latency per
+ *       document.
+ *   <li>Once as many healthy requests as the current concurrency have completed, the concurrency
+ *       grows by one request and the batch size by a tenth of its ceiling.
+ * </ul>
+ *
+ * <p>The configured values are the ceilings, and the initial values, so a healthy cluster is
+ * loaded as before. A single decrease is applied for the requests sent before it, as requests in
+ * flight report the same congestion.
+ *
+ * <p>This class is thread-safe.
+ */
+class BulkController {
+    private static final Logger log = LogManager.getLogger(BulkController.class);
+
+    /** Minimum number of documents per bulk request, the floor of the corresponding setting. */
+    static final int MIN_ITEMS = 10;
+
+    /** Minimum estimated size of a bulk request, the floor of the corresponding setting. */
+    static final long MIN_BYTES = 1024L * 1024;
+
+    /** Percentage of the heap in use after garbage collection above which the load is decreased. */
+    static final int HEAP_PRESSURE_PERCENT = 90;
+
+    /** How many times the best latency per document the latency may grow to before decreasing. */
+    static final double LATENCY_TOLERANCE = 2;
+
+    /** Weight of the last request in the latency. */
+    private static final double SMOOTHING = 0.3;
+
+    /** Weight of the latency in the baseline, when above it, so the baseline follows a slower index. */
+    private static final double BASELINE_DRIFT = 0.05;
+
+    /** Fraction of the ceilings of the batch size added on increase. */
+    private static final int INCREASE_STEPS = 10;
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int maxItems;
+    private final long maxBytes;
+    private final IntSupplier heapUsedPercent;
+
+    private int concurrency;
+    private int items;
+    private long bytes;
+    private int healthy;
+    private long decreasedAt;
+    private long resizedAt;
+    private double latency = Double.NaN;
+    private double baseline = Double.NaN;
+
+    /**
+     * Creates a controller reading the heap usage of this JVM after garbage collection.
+     *
+     * @param name The name of the index, for logging.
+     * @param maxConcurrency The maximum number of bulk requests in flight.
+     * @param maxItems The maximum number of documents per bulk request.
+     * @param maxBytes The maximum estimated size of a bulk request, in bytes.
+     */
+    BulkController(String name, int maxConcurrency, int maxItems, long maxBytes) {
+        this(name, maxConcurrency, maxItems, maxBytes, BulkController::heapUsedPercent);
+    }
+
+    /**
+     * Creates a controller.
+     *
+     * @param name The name of the index, for logging.
+     * @param maxConcurrency The maximum number of bulk requests in flight.
+     * @param maxItems The maximum number of documents per bulk request.
+     * @param maxBytes The maximum estimated size of a bulk request, in bytes.
+     * @param heapUsedPercent Supplies the percentage of the heap in use after garbage collection.
+     */
+    BulkController(
+            String name, int maxConcurrency, int maxItems, long maxBytes, IntSupplier heapUsedPercent) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.maxItems = maxItems;
+        this.maxBytes = maxBytes;
+        this.heapUsedPercent = heapUsedPercent;
+        this.concurrency = maxConcurrency;
+        this.items = maxItems;
+        this.bytes = maxBytes;
+        this.decreasedAt = System.nanoTime();
+        this.resizedAt = this.decreasedAt;
+    }
+
+    /**
+     * Records a request completed without rejections.
+     *
+     * @param sentAt When the request was sent, from {@link System#nanoTime()}.
+     * @param actions The number of documents of the request.
+     * @param nanos The duration of the request.
+     */
+    synchronized void onCompleted(long sentAt, int actions, long nanos) {
+        // Requests sent before the batch size changed are not compared to the new batches
+        if (actions > 0 && sentAt - this.resizedAt >= 0) {
+            double observed = (double) nanos / actions;
+            this.latency =
+                    Double.isNaN(this.latency)
+                            ? observed
+                            : this.latency + SMOOTHING * (observed - this.latency);
+            this.baseline =
+                    Double.isNaN(this.baseline)
+                            ? this.latency
+                            : Math.min(
+                                    this.latency, this.baseline + BASELINE_DRIFT * (this.latency - this.baseline));
+        }
+        if (this.heapUsedPercent.getAsInt() >= HEAP_PRESSURE_PERCENT) {
+            this.decrease(sentAt, true, "heap pressure");
+        } else if (this.latency > LATENCY_TOLERANCE * this.baseline) {
+            this.decrease(sentAt, false, "latency");
+        } else if (++this.healthy >= this.concurrency) {
+            this.increase();
+        }
+    }
+
+    /**
+     * Records a request with documents, or as a whole, rejected by a saturated cluster.
+     *
+     * @param sentAt When the request was sent, from {@link System#nanoTime()}.
+     */
+    synchronized void onRejected(long sentAt) {
+        this.decrease(sentAt, true, "rejections");
+    }
+
+    /**
+     * Returns the number of bulk requests allowed in flight.
+     *
+     * @return The current concurrency.
+     */
+    synchronized int getConcurrency() {
+        return this.concurrency;
+    }
+
+    /**
+     * Returns the number of documents a bulk request is flushed at.
+     *
+     * @return The current batch size, in documents.
+     */
+    synchronized int getMaxItems() {
+        return this.items;
+    }
+
+    /**
+     * Returns the estimated size a bulk request is flushed at.
+     *
+     * @return The current batch size, in bytes.
+     */
+    synchronized long getMaxBytes() {
+        return this.bytes;
+    }
+
+    /** Logs the current values at info level. */
+    synchronized void logState() {
+        log.info(
+                Constants.I_LOG_BULK_CONTROL_STATE,
+                this.name,
+                this.concurrency,
+                this.maxConcurrency,
+                this.items,
+                this.bytes);
+    }
+
+    /**
+     * Halves the concurrency and, if requested, the batch size, unless the request was sent before
+     * the last decrease.
+     */
+    private void decrease(long sentAt, boolean batch, String reason) {
+        this.healthy = 0;
+        if (sentAt - this.decreasedAt < 0) {
+            return;
+        }
+        this.decreasedAt = System.nanoTime();
+        this.concurrency = Math.max(1, this.concurrency / 2);
+        if (batch) {
+            this.items = Math.max(Math.min(MIN_ITEMS, this.maxItems), this.items / 2);
+            this.bytes = Math.max(Math.min(MIN_BYTES, this.maxBytes), this.bytes / 2);
+            this.resized();
+        }
+        log.debug(
+                Constants.D_LOG_BULK_CONTROL_DECREASED,
+                this.name,
+                reason,
+                this.concurrency,
+                this.items,
+                this.bytes);
+    }
+
+    /** Grows the concurrency by one request and the batch size by a step, up to their ceilings. */
+    private void increase() {
+        this.healthy = 0;
+        if (this.concurrency == this.maxConcurrency
+                && this.items == this.maxItems
+                && this.bytes == this.maxBytes) {
+            return;
+        }
+        int previousItems = this.items;
+        long previousBytes = this.bytes;
+        this.concurrency = Math.min(this.maxConcurrency, this.concurrency + 1);
+        this.items = Math.min(this.maxItems, this.items + Math.max(1, this.maxItems / INCREASE_STEPS));
+        this.bytes = Math.min(this.maxBytes, this.bytes + Math.max(1, this.maxBytes / INCREASE_STEPS));
+        if (this.items != previousItems || this.bytes != previousBytes) {
+            this.resized();
+        }
+        log.debug(
+                Constants.D_LOG_BULK_CONTROL_INCREASED,
+                this.name,
+                this.concurrency,
+                this.items,
+                this.bytes);
+    }
+
+    /**
+     * Discards the latency observed, as the latency per document depends on the batch size. The
+     * baseline is observed again from the requests sent from now on.
+     */
+    private void resized() {
+        this.resizedAt = System.nanoTime();
+        this.latency = Double.NaN;
+        this.baseline = Double.NaN;
+    }
+
+    /**
+     * Returns the percentage of the heap of this JVM in use after the last garbage collection, that
+     * of its fullest heap pool. The heap in use at any other time includes the garbage not collected
+     * yet, which grows close to the maximum on a healthy node.
+     *
+     * @return The heap usage, or 0 if no heap pool reports its usage after garbage collection.
+     */
+    private static int heapUsedPercent() {
+        int percent = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null && usage.getMax() > 0) {
+                percent = Math.max(percent, (int) (usage.getUsed() * 100 / usage.getMax()));
+            }
+        }
+        return percent;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BackoffPolicy;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.common.action.ActionFuture;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.client.Client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.wazuh.contentmanager.utils.Constants;
+
+/**
+ * Sends bulk requests asynchronously while bounding the number of requests in flight, and retries
+ * the items rejected by a saturated cluster ({@code 429 TOO_MANY_REQUESTS}) with exponential
+ * backoff. Only the rejected items are re-sent. Items failing for any other reason, or still
+ * rejected once the retries are exhausted, are counted as permanently failed.
+ *
+ * <p>A concurrency permit is held until a request and all its retries have completed, so {@link
+ * #awaitPending()} returns only once every submitted document has a final outcome. Outcomes are
+ * accumulated per target index until {@link #resetStats()} is called, except for the requests sent
+ * with {@link #execute(BulkRequest)}, whose outcome is returned to the caller.
+ *
+ * <p>The number of requests in flight and the size the callers batch their requests at are tuned
+ * from the outcome of every attempt, see {@link BulkController}.
+ */
+public class BulkIngestor {
+    private static final Logger log = LogManager.getLogger(BulkIngestor.class);
+
+    /** Delay before the first retry of rejected items. Doubles on every further attempt. */
+    private static final TimeValue INITIAL_BACKOFF = TimeValue.timeValueMillis(100);
+
+    /** Maximum number of times a rejected item is retried. */
+    private static final int MAX_RETRIES = 6;
+
+    private final Client client;
+    private final BulkController controller;
+    private final BackoffPolicy backoffPolicy;
+    private final Map<String, IndexStats> stats = new ConcurrentHashMap<>();
+
+    /** Number of requests in flight, including their retries. Guarded by this instance. */
+    private int inFlight;
+
+    /**
+     * Constructs a new BulkIngestor with the default exponential backoff policy.
+     *
+     * @param client The OpenSearch client used to send the bulk requests.
+     * @param name The name of the index written to, for logging.
+     * @param maxConcurrentBulks The maximum number of bulk requests in flight.
+     * @param maxItems The maximum number of documents per bulk request.
+     * @param maxBytes The maximum estimated size of a bulk request, in bytes.
+     */
+    public BulkIngestor(
+            Client client, String name, int maxConcurrentBulks, int maxItems, long maxBytes) {
+        this(
+                client,
+                new BulkController(name, maxConcurrentBulks, maxItems, maxBytes),
+                BackoffPolicy.exponentialBackoff(INITIAL_BACKOFF, MAX_RETRIES));
+    }
+
+    /**
+     * Constructs a new BulkIngestor with a custom controller and backoff policy.
+     *
+     * @param client The OpenSearch client used to send the bulk requests.
+     * @param controller Tunes the concurrency and the batch size.
+     * @param backoffPolicy The delays applied between retries of rejected items.
+     */
+    BulkIngestor(Client client, BulkController controller, BackoffPolicy backoffPolicy) {
+        this.client = client;
+        this.controller = controller;
+        this.backoffPolicy = backoffPolicy;
+    }
+
+    /**
+     * Sends a bulk request asynchronously. Blocks while the allowed number of requests is already in
+     * flight. The outcome of its documents is accumulated in the per-index stats.
+     *
+     * @param bulkRequest The BulkRequest containing multiple index/delete operations.
+     */
+    public void submit(BulkRequest bulkRequest) {
+        if (this.acquire(bulkRequest)) {
+            this.send(bulkRequest, new Submission(this.backoffPolicy.iterator(), null));
+        } else {
+            this.countFailed(bulkRequest);
+        }
+    }
+
+    /**
+     * Sends a bulk request asynchronously, like {@link #submit(BulkRequest)}, but reports the final
+     * outcome of its documents to the caller instead of the per-index stats. Blocks while the allowed
+     * number of requests is already in flight.
+     *
+     * @param bulkRequest The BulkRequest containing multiple index/delete operations.
+     * @return A future completed with the final response of every document once the request and its
+     *     retries have completed, in no particular order, or failed if the request failed as a whole.
+     */
+    public ActionFuture<List<BulkItemResponse>> execute(BulkRequest bulkRequest) {
+        PlainActionFuture<List<BulkItemResponse>> future = PlainActionFuture.newFuture();
+        if (this.acquire(bulkRequest)) {
+            this.send(bulkRequest, new Submission(this.backoffPolicy.iterator(), future));
+        } else {
+            future.onFailure(new InterruptedException("Interrupted before sending the bulk request"));
+        }
+        return future;
+    }
+
+    /**
+     * Waits until all submitted bulk requests, including their retries, have completed.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized void awaitPending() throws InterruptedException {
+        while (this.inFlight > 0) {
+            this.wait();
+        }
+    }
+
+    /**
+     * Returns the number of bulk requests currently allowed in flight, at most the configured
+     * maximum.
+     *
+     * @return the current concurrency.
+     */
+    public int getConcurrency() {
+        return this.controller.getConcurrency();
+    }
+
+    /**
+     * Returns the number of documents bulk requests should currently be flushed at, at most the
+     * configured maximum.
+     *
+     * @return the current batch size, in documents.
+     */
+    public int getMaxItems() {
+        return this.controller.getMaxItems();
+    }
+
+    /**
+     * Returns the estimated size bulk requests should currently be flushed at, at most the
+     * configured maximum.
+     *
+     * @return the current batch size, in bytes.
+     */
+    public long getMaxBytes() {
+        return this.controller.getMaxBytes();
+    }
+
+    /**
+     * Returns the number of documents permanently failed since the last {@link #resetStats()}.
+     *
+     * @return the number of documents that could not be indexed.
+     */
+    public long getFailedCount() {
+        return this.stats.values().stream().mapToLong(IndexStats::getFailed).sum();
+    }
+
+    /**
+     * Returns the outcomes accumulated since the last {@link #resetStats()}, keyed by the index name
+     * the documents were sent to, which may be an alias of the index that stored them.
+     *
+     * @return an unmodifiable, sorted view of the per-index outcomes.
+     */
+    public Map<String, IndexStats> getStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.stats));
+    }
+
+    /**
+     * Logs the outcomes accumulated since the last {@link #resetStats()}, one line per index, and the
+     * current concurrency and batch size.
+     */
+    public void logStats() {
+        this.controller.logState();
+        this.getStats()
+                .forEach(
+                        (index, indexStats) -> {
+                            if (indexStats.getFailed() > 0) {
+                                log.warn(
+                                        Constants.W_LOG_BULK_INGEST_SUMMARY,
+                                        index,
+                                        indexStats.getSucceeded(),
+                                        indexStats.getFailed());
+                            } else {
+                                log.info(
+                                        Constants.I_LOG_BULK_INGEST_SUMMARY, index, indexStats.getSucceeded());
+                            }
+                        });
+    }
+
+    /** Clears the accumulated outcomes. */
+    public void resetStats() {
+        this.stats.clear();
+    }
+
+    /**
+     * Waits for a concurrency permit.
+     *
+     * @param bulkRequest The request about to be sent, for logging.
+     * @return false if the thread was interrupted while waiting.
+     */
+    private boolean acquire(BulkRequest bulkRequest) {
+        try {
+            synchronized (this) {
+                while (this.inFlight >= this.controller.getConcurrency()) {
+                    this.wait();
+                }
+                this.inFlight++;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            log.error(Constants.E_LOG_SEMAPHORE_INTERRUPTED, e.getMessage());
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sends a bulk request, handling both item-level and request-level rejections.
+     *
+     * @param request The request to send.
+     * @param submission The submitted request this attempt belongs to.
+     */
+    private void send(BulkRequest request, Submission submission) {
+        long sentAt = System.nanoTime();
+        try {
+            this.client.bulk(
+                    request,
+                    new ActionListener<>() {
+                        @Override
+                        public void onResponse(BulkResponse bulkResponse) {
+                            BulkIngestor.this.onResponse(request, bulkResponse, submission, sentAt);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            BulkIngestor.this.onFailure(request, e, submission, sentAt);
+                        }
+                    });
+        } catch (Exception e) {
+            this.onFailure(request, e, submission, sentAt);
+        }
+    }
+
+    /**
+     * Accounts the successful items, collects the rejected ones into a new request to be retried
+     * and counts every other failure as permanent. The outcome is reported to the controller.
+     */
+    private void onResponse(
+            BulkRequest request, BulkResponse response, Submission submission, long sentAt) {
+        long nanos = System.nanoTime() - sentAt;
+        BulkRequest retry = new BulkRequest();
+        retry.setRefreshPolicy(request.getRefreshPolicy());
+        retry.timeout(request.timeout());
+        boolean canRetry = submission.backoff.hasNext();
+        boolean rejected = false;
+
+        for (BulkItemResponse item : response.getItems()) {
+            // Outcomes are keyed by the index of the request, as countFailed does
+            DocWriteRequest<?> sent = request.requests().get(item.getItemId());
+            if (!item.isFailed()) {
+                submission.succeeded(sent.index(), item);
+            } else if (item.status() == RestStatus.TOO_MANY_REQUESTS && canRetry) {
+                rejected = true;
+                retry.add(sent);
+            } else {
+                rejected |= item.status() == RestStatus.TOO_MANY_REQUESTS;
+                log.debug(
+                        Constants.D_LOG_BULK_ITEM_FAILED, item.getId(), sent.index(), item.getFailureMessage());
+                submission.failed(sent.index(), item);
+            }
+        }
+
+        if (rejected) {
+            this.controller.onRejected(sentAt);
+        } else {
+            this.controller.onCompleted(sentAt, request.numberOfActions(), nanos);
+        }
+
+        if (retry.numberOfActions() > 0) {
+            this.scheduleRetry(retry, submission);
+        } else {
+            this.complete(submission, null);
+        }
+    }
+
+    /**
+     * Retries the whole request if it was rejected as a whole, otherwise counts all its items as
+     * permanently failed.
+     */
+    private void onFailure(BulkRequest request, Exception e, Submission submission, long sentAt) {
+        if (ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS) {
+            this.controller.onRejected(sentAt);
+            if (submission.backoff.hasNext()) {
+                this.scheduleRetry(request, submission);
+                return;
+            }
+        }
+        log.error(Constants.E_LOG_BULK_INDEX_OPERATION_FAILED, e.getMessage());
+        this.fail(request, submission, e);
+    }
+
+    /** Re-sends a request after the next backoff delay, on the generic thread pool. */
+    private void scheduleRetry(BulkRequest request, Submission submission) {
+        TimeValue delay = submission.backoff.next();
+        log.warn(Constants.W_LOG_BULK_ITEMS_RETRY, request.numberOfActions(), delay);
+        try {
+            this.client
+                    .threadPool()
+                    .schedule(() -> this.send(request, submission), delay, ThreadPool.Names.GENERIC);
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_BULK_INDEX_OPERATION_FAILED, e.getMessage());
+            this.fail(request, submission, e);
+        }
+    }
+
+    /** Counts every item of a request failed as a whole as permanently failed. */
+    private void fail(BulkRequest request, Submission submission, Exception e) {
+        if (submission.listener == null) {
+            this.countFailed(request);
+        }
+        this.complete(submission, e);
+    }
+
+    /**
+     * Releases the permit of a request once it and its retries have completed, and notifies the
+     * caller of its outcome, if any.
+     */
+    private void complete(Submission submission, Exception failure) {
+        this.release();
+        if (submission.listener == null) {
+            return;
+        }
+        if (failure != null) {
+            submission.listener.onFailure(failure);
+        } else {
+            submission.listener.onResponse(submission.items);
+        }
+    }
+
+    /** Releases the permit of a request once it and its retries have completed. */
+    private synchronized void release() {
+        this.inFlight--;
+        this.notifyAll();
+    }
+
+    /** Counts every item of a request as permanently failed. */
+    private void countFailed(BulkRequest request) {
+        request.requests().forEach(item -> this.statsFor(item.index()).failed.incrementAndGet());
+    }
+
+    private IndexStats statsFor(String index) {
+        return this.stats.computeIfAbsent(index, k -> new IndexStats());
+    }
+
+    /**
+     * A submitted request across its retries. Its attempts are sequential, so its state is only
+     * accessed by one thread at a time.
+     */
+    private final class Submission {
+        private final Iterator<TimeValue> backoff;
+
+        /** Receives the final items instead of the per-index stats, or null. */
+        private final ActionListener<List<BulkItemResponse>> listener;
+
+        private final List<BulkItemResponse> items = new ArrayList<>();
+
+        private Submission(
+                Iterator<TimeValue> backoff, ActionListener<List<BulkItemResponse>> listener) {
+            this.backoff = backoff;
+            this.listener = listener;
+        }
+
+        private void succeeded(String index, BulkItemResponse item) {
+            if (this.listener == null) {
+                BulkIngestor.this.statsFor(index).succeeded.incrementAndGet();
+            } else {
+                this.items.add(item);
+            }
+        }
+
+        private void failed(String index, BulkItemResponse item) {
+            if (this.listener == null) {
+                BulkIngestor.this.statsFor(index).failed.incrementAndGet();
+            } else {
+                this.items.add(item);
+            }
+        }
+    }
+
+    /** Number of documents indexed and permanently failed for a single index. */
+    public static final class IndexStats {
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        /**
+         * Returns the number of documents successfully written.
+         *
+         * @return the number of successful documents.
+         */
+        public long getSucceeded() {
+            return this.succeeded.get();
+        }
+
+        /**
+         * Returns the number of documents that could not be written.
+         *
+         * @return the number of permanently failed documents.
+         */
+        public long getFailed() {
+            return this.failed.get();
+        }
+    }
+}
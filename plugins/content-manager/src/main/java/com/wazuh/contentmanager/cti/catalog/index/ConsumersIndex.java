@@ -16,17 +16,19 @@
  */
 package com.wazuh.contentmanager.cti.catalog.index;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.ExceptionsHelper;
 import org.opensearch.ResourceAlreadyExistsException;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
+import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
-import org.opensearch.action.support.WriteRequest;
 import org.opensearch.common.action.ActionFuture;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.transport.client.Client;
@@ -39,6 +41,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import com.wazuh.contentmanager.cti.catalog.model.LocalConsumer;
+import com.wazuh.contentmanager.cti.catalog.model.SnapshotCheckpoint;
 import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.utils.ClusterInfo;
 import com.wazuh.contentmanager.utils.Constants;
@@ -50,9 +53,14 @@ public class ConsumersIndex {
     /** The name of the Contexts index */
     public static final String INDEX_NAME = ".wazuh-cti-consumers";
 
+    /** Suffix appended to the consumer type to build the id of its snapshot checkpoint document. */
+    public static final String CHECKPOINT_ID_SUFFIX = ":snapshot-checkpoint";
+
     /** Path of the index mapping file */
     private static final String MAPPING_PATH = "/mappings/consumers-mapping.json";
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final Client client;
     private final PluginSettings pluginSettings;
 
@@ -91,7 +99,7 @@ public class ConsumersIndex {
                         .index(INDEX_NAME)
                         .id(id)
                         .source(consumer.toXContent())
-                        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                        .setRefreshPolicy(RefreshCoordinator.policy(INDEX_NAME));
 
         return this.client.index(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
     }
@@ -121,6 +129,67 @@ public class ConsumersIndex {
         return future.get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
     }
 
+    /**
+     * Persists the snapshot checkpoint of a consumer, replacing any previous one. The document is
+     * stored next to the consumer document, with id {@code type + CHECKPOINT_ID_SUFFIX}.
+     *
+     * @param checkpoint The {@link SnapshotCheckpoint} to persist.
+     * @return The {@link IndexResponse} indicating the result of the operation.
+     * @throws ExecutionException If the client failed to execute the request.
+     * @throws InterruptedException If the current thread was interrupted while waiting for the
+     *     response.
+     * @throws TimeoutException If the operation exceeded the configured client timeout.
+     * @throws IOException If there is an error serializing the checkpoint to XContent.
+     */
+    public IndexResponse setCheckpoint(SnapshotCheckpoint checkpoint)
+            throws ExecutionException, InterruptedException, TimeoutException, IOException {
+        IndexRequest request =
+                new IndexRequest()
+                        .index(INDEX_NAME)
+                        .id(checkpoint.getType() + CHECKPOINT_ID_SUFFIX)
+                        .source(checkpoint.toXContent());
+
+        return this.client.index(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Retrieves the snapshot checkpoint of a consumer.
+     *
+     * @param type The consumer type identifier.
+     * @return The {@link SnapshotCheckpoint}, or null if the consumer has none.
+     * @throws ExecutionException If the client failed to execute the request.
+     * @throws InterruptedException If the current thread was interrupted while waiting for the
+     *     response.
+     * @throws TimeoutException If the operation exceeded the configured client timeout.
+     * @throws IOException If the stored checkpoint cannot be parsed.
+     */
+    public SnapshotCheckpoint getCheckpoint(String type)
+            throws ExecutionException, InterruptedException, TimeoutException, IOException {
+        GetRequest request =
+                new GetRequest().index(INDEX_NAME).id(type + CHECKPOINT_ID_SUFFIX).preference("_local");
+        GetResponse response =
+                this.client.get(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+        if (response == null || !response.isExists()) {
+            return null;
+        }
+        return MAPPER.readValue(response.getSourceAsString(), SnapshotCheckpoint.class);
+    }
+
+    /**
+     * Deletes the snapshot checkpoint of a consumer, if any.
+     *
+     * @param type The consumer type identifier.
+     * @throws ExecutionException If the client failed to execute the request.
+     * @throws InterruptedException If the current thread was interrupted while waiting for the
+     *     response.
+     * @throws TimeoutException If the operation exceeded the configured client timeout.
+     */
+    public void deleteCheckpoint(String type)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        DeleteRequest request = new DeleteRequest(INDEX_NAME, type + CHECKPOINT_ID_SUFFIX);
+        this.client.delete(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+    }
+
     /**
      * Checks whether the {@link ConsumersIndex#INDEX_NAME} index exists.
      *
@@ -16,6 +16,7 @@
  */
 package com.wazuh.contentmanager.cti.catalog.index;
 
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,34 +25,67 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.opensearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
+import org.opensearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.opensearch.action.admin.indices.mapping.get.GetMappingsRequest;
+import org.opensearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.opensearch.action.admin.indices.mapping.put.PutMappingRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.opensearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
 import org.opensearch.action.bulk.BulkRequest;
-import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.delete.DeleteResponse;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.CreatePitAction;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.CreatePitResponse;
+import org.opensearch.action.search.DeletePitAction;
+import org.opensearch.action.search.DeletePitRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.WriteRequest;
+import org.opensearch.cluster.metadata.MappingMetadata;
+import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+import org.opensearch.search.sort.SortBuilders;
 import org.opensearch.transport.client.Client;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -59,7 +93,6 @@ import com.wazuh.contentmanager.cti.catalog.model.*;
 import com.wazuh.contentmanager.cti.catalog.utils.JsonPatch;
 import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.utils.Constants;
-import com.wazuh.contentmanager.utils.YamlUtils;
 
 /**
  * Manages the index for CTI content, providing methods for index creation, document indexing,
@@ -74,9 +107,21 @@ public class ContentIndex {
     /** The second physical suffix, used as the shadow slot during blue/green swaps. */
     public static final String SUFFIX_B = "-b";
 
+    /** Source used when a payload cannot be processed, matching {@link #processPayload(JsonNode)}. */
+    private static final byte[] EMPTY_OBJECT_BYTES = "{}".getBytes(StandardCharsets.UTF_8);
+
+    /** Number of documents fetched per page when listing the fingerprints of the index. */
+    private static final int FINGERPRINT_PAGE_SIZE = 10_000;
+
+    /**
+     * Settings kept by {@link #enterBulkLoadMode()} to be restored by {@link #exitBulkLoadMode()}, or
+     * null when the index is not in bulk-load mode.
+     */
+    private volatile Settings bulkLoadRestore;
+
     private final Client client;
     private final PluginSettings pluginSettings;
-    private final Semaphore semaphore;
+    private final BulkIngestor bulkIngestor;
 
     /**
      * The public alias name (e.g., {@code "wazuh-threatintel-rules"}). All read operations use this
@@ -140,13 +185,23 @@ public class ContentIndex {
     private ContentIndex(
             Client client, String indexName, String physicalName, String mappingsPath, boolean isShadow) {
         this.pluginSettings = PluginSettings.getInstance();
-        this.semaphore = new Semaphore(this.pluginSettings.getMaximumConcurrentBulks());
+        this.bulkIngestor =
+                new BulkIngestor(
+                        client,
+                        indexName,
+                        this.pluginSettings.getMaximumConcurrentBulks(),
+                        this.pluginSettings.getMaxItemsPerBulk(),
+                        this.pluginSettings.getMaxBulkBytes());
         this.client = client;
         this.indexName = indexName;
         this.physicalName = physicalName;
         this.mappingsPath = mappingsPath;
         this.isShadow = isShadow;
-        this.mapper = new ObjectMapper();
+        this.mapper =
+                new ObjectMapper(
+                        new JsonFactoryBuilder()
+                                .addDecorator((factory, generator) -> new DecimalScaleGenerator(generator))
+                                .build());
         this.mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     }
 
@@ -328,6 +383,22 @@ public class ContentIndex {
         return this.client.prepareGet(this.indexName, id).setFetchSource(false).get().isExists();
     }
 
+    /**
+     * Asynchronously checks if a document with the specified ID exists in the index. The listener
+     * is notified within the refresh scope of the calling thread, see {@link
+     * RefreshCoordinator#preserve(ActionListener)}.
+     *
+     * @param id The ID of the document to check.
+     * @param listener Notified whether the document exists, or of the failure of the request.
+     */
+    public void exists(String id, ActionListener<Boolean> listener) {
+        GetRequest request =
+                new GetRequest(this.indexName, id)
+                        .fetchSourceContext(FetchSourceContext.DO_NOT_FETCH_SOURCE);
+        this.client.get(
+                request, ActionListener.map(RefreshCoordinator.preserve(listener), GetResponse::isExists));
+    }
+
     /**
      * Retrieves a document by ID and returns it as a Jackson JsonNode.
      *
@@ -346,6 +417,46 @@ public class ContentIndex {
         return null;
     }
 
+    /**
+     * Asynchronously retrieves a document by ID as a Jackson JsonNode. The listener is notified
+     * within the refresh scope of the calling thread, see {@link
+     * RefreshCoordinator#preserve(ActionListener)}.
+     *
+     * @param id The document ID.
+     * @param listener Notified with the document source, or null if not found. Failures to fetch or
+     *     parse the document are notified as such.
+     */
+    public void getDocument(String id, ActionListener<JsonNode> listener) {
+        ActionListener<JsonNode> preserved = RefreshCoordinator.preserve(listener);
+        this.client.get(
+                new GetRequest(this.indexName, id),
+                new ActionListener<>() {
+                    @Override
+                    public void onResponse(GetResponse response) {
+                        JsonNode document = null;
+                        try {
+                            if (response.isExists() && response.getSourceAsString() != null) {
+                                document = ContentIndex.this.mapper.readTree(response.getSourceAsString());
+                            }
+                        } catch (IOException e) {
+                            this.onFailure(e);
+                            return;
+                        }
+                        preserved.onResponse(document);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        log.error(
+                                Constants.E_LOG_GET_DOCUMENT_FAILED,
+                                id,
+                                ContentIndex.this.indexName,
+                                e.getMessage());
+                        preserved.onFailure(e);
+                    }
+                });
+    }
+
     /**
      * Indexes a new document or overwrites an existing one.
      *
@@ -355,26 +466,7 @@ public class ContentIndex {
      * @throws IOException If the indexing operation fails.
      */
     public IndexResponse create(String id, JsonNode payload) throws IOException {
-        ObjectNode processedPayload;
-        if (payload.isObject()
-                && payload.has("document")
-                && payload.has("space")
-                && payload.has("hash")) {
-            processedPayload = payload.deepCopy();
-        } else {
-            processedPayload = this.processPayload(payload);
-        }
-
-        // Ensure floating-point values keep their decimal scale
-        if (processedPayload.has("document")) {
-            YamlUtils.fixDecimalScale(processedPayload.get("document"));
-        }
-
-        IndexRequest request =
-                new IndexRequest(this.getWriteIndex())
-                        .id(id)
-                        .source(processedPayload.toString(), XContentType.JSON)
-                        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        IndexRequest request = this.createRequest(id, payload);
         try {
             return this.client
                     .index(request)
@@ -385,6 +477,51 @@ public class ContentIndex {
         }
     }
 
+    /**
+     * Asynchronously indexes a new document or overwrites an existing one, as is done by {@link
+     * #create(String, JsonNode)}. The listener is notified within the refresh scope of the calling
+     * thread, see {@link RefreshCoordinator#preserve(ActionListener)}.
+     *
+     * @param id The unique identifier for the document.
+     * @param payload The JSON object representing the document content.
+     * @param listener Notified with the result of the indexing operation, or of its failure.
+     */
+    public void create(String id, JsonNode payload, ActionListener<IndexResponse> listener) {
+        ActionListener<IndexResponse> tracked =
+                RefreshCoordinator.track(this.getWriteIndex(), RefreshCoordinator.preserve(listener));
+        IndexRequest request;
+        try {
+            request = this.createRequest(id, payload);
+        } catch (IOException e) {
+            tracked.onFailure(e);
+            return;
+        }
+        this.client.index(
+                request,
+                ActionListener.wrap(
+                        tracked::onResponse,
+                        e -> {
+                            log.error(Constants.E_LOG_INDEX_DOCUMENT_FAILED, id, e.getMessage());
+                            tracked.onFailure(e);
+                        }));
+    }
+
+    /**
+     * Builds the request indexing a document, refreshed immediately unless within a {@link
+     * RefreshCoordinator} scope.
+     *
+     * @param id The unique identifier for the document.
+     * @param payload The JSON object representing the document content.
+     * @return The index request.
+     * @throws IOException If the document cannot be serialized.
+     */
+    private IndexRequest createRequest(String id, JsonNode payload) throws IOException {
+        return new IndexRequest(this.getWriteIndex())
+                .id(id)
+                .source(this.prepareSource(payload), XContentType.JSON)
+                .setRefreshPolicy(RefreshCoordinator.policy(this.getWriteIndex()));
+    }
+
     /**
      * Updates an existing document by applying a list of patch operations.
      *
@@ -398,7 +535,8 @@ public class ContentIndex {
 
     /**
      * Updates an existing document by applying a list of patch operations and optionally setting the
-     * CTI offset.
+     * CTI offset. The document is written conditionally on the fetched version, so a concurrent edit
+     * made in between fails the update instead of being overwritten.
      *
      * @param id The ID of the document to update.
      * @param operations The list of operations to apply to the document.
@@ -409,40 +547,71 @@ public class ContentIndex {
         // 1. Fetch
         GetResponse response =
                 this.client
-                        .get(new GetRequest(this.indexName, id))
+                        .get(new GetRequest(this.getWriteIndex(), id))
                         .get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
-        if (!response.isExists()) {
-            throw new IOException("Document [" + id + "] not found for update.");
-        }
 
-        // 2. Patch
-        ObjectNode currentDoc = (ObjectNode) this.mapper.readTree(response.getSourceAsString());
-
-        // Resources from the VD feed do not contain a "document" object, so we need to patch the root
-        // document instead of the "document" node.
-        if (this.indexName.equals(Constants.INDEX_CVES)) {
-            currentDoc = (ObjectNode) currentDoc.get(Constants.KEY_DOCUMENT);
-        }
+        // 2. Patch, process and index, unless the document was modified since it was fetched
+        IndexRequest request =
+                this.updateRequest(id, response, operations, offset)
+                        .setRefreshPolicy(
+                                RefreshCoordinator.policy(WriteRequest.RefreshPolicy.NONE, this.getWriteIndex()));
+        this.client.index(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+    }
 
-        for (Operation op : operations) {
-            JsonNode opJson = this.mapper.valueToTree(op);
-            JsonPatch.applyOperation(currentDoc, opJson);
-        }
+    /**
+     * Asynchronously updates an existing document, as is done by {@link #update(String, List,
+     * Long)}. The document is patched on the thread its fetch completes on, and the listener is
+     * notified within the refresh scope of the calling thread, see {@link
+     * RefreshCoordinator#preserve(ActionListener)}.
+     *
+     * @param id The ID of the document to update.
+     * @param operations The list of operations to apply to the document.
+     * @param offset The CTI offset value to store on the document, or null to leave unchanged.
+     * @param listener Notified with the result of the indexing operation, or with the failure to
+     *     fetch, patch or index the document.
+     */
+    public void update(
+            String id, List<Operation> operations, Long offset, ActionListener<IndexResponse> listener) {
+        WriteRequest.RefreshPolicy refreshPolicy =
+                RefreshCoordinator.policy(WriteRequest.RefreshPolicy.NONE, this.getWriteIndex());
+        ActionListener<IndexResponse> tracked =
+                RefreshCoordinator.track(this.getWriteIndex(), RefreshCoordinator.preserve(listener));
+        this.client.get(
+                new GetRequest(this.getWriteIndex(), id),
+                ActionListener.wrap(
+                        response ->
+                                this.client.index(
+                                        this.updateRequest(id, response, operations, offset)
+                                                .setRefreshPolicy(refreshPolicy),
+                                        tracked),
+                        tracked::onFailure));
+    }
 
-        // 2.5. Inject offset if provided
-        if (offset != null) {
-            currentDoc.put(Constants.KEY_OFFSET, offset);
+    /**
+     * Builds the request writing a fetched document patched with the given operations, conditionally
+     * on the fetched version.
+     *
+     * @param id The ID of the document to update.
+     * @param response The fetched document.
+     * @param operations The list of operations to apply to the document.
+     * @param offset The CTI offset value to store on the document, or null to leave unchanged.
+     * @return The index request.
+     * @throws IOException If the document does not exist, or cannot be parsed or serialized.
+     */
+    private IndexRequest updateRequest(
+            String id, GetResponse response, List<Operation> operations, Long offset)
+            throws IOException {
+        if (!response.isExists()) {
+            throw new IOException("Document [" + id + "] not found for update.");
         }
-
-        // 3. Process
-        ObjectNode processedDoc = this.processPayload(currentDoc);
-
-        // 4. Index
-        IndexRequest request =
-                new IndexRequest(this.getWriteIndex())
-                        .id(id)
-                        .source(processedDoc.toString(), XContentType.JSON);
-        this.client.index(request).get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+        ObjectNode processedDoc =
+                this.patchDocument(
+                        (ObjectNode) this.mapper.readTree(response.getSourceAsString()), operations, offset);
+        return new IndexRequest(this.getWriteIndex())
+                .id(id)
+                .source(this.toSource(processedDoc), XContentType.JSON)
+                .setIfSeqNo(response.getSeqNo())
+                .setIfPrimaryTerm(response.getPrimaryTerm());
     }
 
     /**
@@ -453,18 +622,20 @@ public class ContentIndex {
     public void delete(String id) {
         this.client.delete(
                 new DeleteRequest(this.getWriteIndex(), id)
-                        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE),
-                new ActionListener<>() {
-                    @Override
-                    public void onResponse(DeleteResponse response) {
-                        log.debug(Constants.D_LOG_DELETED_FROM_INDEX, id, ContentIndex.this.indexName);
-                    }
+                        .setRefreshPolicy(RefreshCoordinator.policy(this.getWriteIndex())),
+                RefreshCoordinator.track(
+                        this.getWriteIndex(),
+                        new ActionListener<>() {
+                            @Override
+                            public void onResponse(DeleteResponse response) {
+                                log.debug(Constants.D_LOG_DELETED_FROM_INDEX, id, ContentIndex.this.indexName);
+                            }
 
-                    @Override
-                    public void onFailure(Exception e) {
-                        log.error(Constants.E_LOG_DELETE_DOCUMENT_FAILED, id, e.getMessage());
-                    }
-                });
+                            @Override
+                            public void onFailure(Exception e) {
+                                log.error(Constants.E_LOG_DELETE_DOCUMENT_FAILED, id, e.getMessage());
+                            }
+                        }));
     }
 
     /**
@@ -500,7 +671,8 @@ public class ContentIndex {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder);
             SearchRequest searchRequest = new SearchRequest(this.indexName).source(searchSourceBuilder);
 
-            // Execute search synchronously
+            // Execute search synchronously, once the writes of the operation are visible
+            RefreshCoordinator.beforeSearch();
             SearchResponse searchResponse =
                     this.client
                             .search(searchRequest)
@@ -531,47 +703,545 @@ public class ContentIndex {
     }
 
     /**
-     * Executes a bulk request asynchronously.
+     * Executes a bulk request asynchronously. Items rejected by a saturated cluster are retried with
+     * exponential backoff; see {@link BulkIngestor}.
      *
      * @param bulkRequest The BulkRequest containing multiple index/delete operations.
      */
     public void executeBulk(BulkRequest bulkRequest) {
+        this.bulkIngestor.submit(bulkRequest);
+    }
+
+    /**
+     * Waits until all pending bulk requests, including their retries, have completed. Use this to
+     * ensure all async indexing operations are finished.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void waitForPendingUpdates() throws InterruptedException {
+        this.bulkIngestor.awaitPending();
+    }
+
+    /**
+     * Returns the ingestor executing the bulk requests of this index, which keeps per-index counts of
+     * the documents written and permanently failed.
+     *
+     * @return The {@link BulkIngestor} of this index.
+     */
+    public BulkIngestor getBulkIngestor() {
+        return this.bulkIngestor;
+    }
+
+    /**
+     * Prepares a payload to be indexed as is done by {@link #create(String, JsonNode)}, as a tree
+     * that further changes can be applied to: payloads already wrapped (holding {@code document},
+     * {@code space} and {@code hash}) are copied as they are, any other payload is processed through
+     * its Domain Model. The decimal scale of the document is fixed once it is serialized.
+     *
+     * @param payload The JSON payload to prepare.
+     * @return The document to index.
+     */
+    public ObjectNode prepareDocument(JsonNode payload) {
+        if (ContentIndex.isWrapped(payload)) {
+            return payload.deepCopy();
+        }
+        return this.processPayload(payload);
+    }
+
+    /**
+     * Serializes a payload into the source indexed by {@link #create(String, JsonNode)}. Wrapped
+     * payloads are written as they are, without being copied, and any other payload is written
+     * straight from its Domain Model, without an intermediate tree.
+     *
+     * @param payload The JSON payload to index.
+     * @return The UTF-8 encoded JSON of the document, or an empty object if the payload cannot be
+     *     processed.
+     * @throws IOException If the document cannot be serialized.
+     */
+    private BytesReference prepareSource(JsonNode payload) throws IOException {
+        if (ContentIndex.isWrapped(payload)) {
+            return this.toSource(payload);
+        }
+        Object model;
         try {
-            this.semaphore.acquire();
-            this.client.bulk(
-                    bulkRequest,
-                    new ActionListener<>() {
-                        @Override
-                        public void onResponse(BulkResponse bulkResponse) {
-                            ContentIndex.this.semaphore.release();
-                            if (bulkResponse.hasFailures()) {
-                                log.warn(
-                                        Constants.W_LOG_BULK_INDEXING_FAILURES, bulkResponse.buildFailureMessage());
-                            }
-                        }
+            model = this.toModel(payload);
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_PROCESS_PAYLOAD_FAILED, e.getMessage(), e);
+            return new BytesArray(EMPTY_OBJECT_BYTES);
+        }
+        return this.toSource(model);
+    }
 
-                        @Override
-                        public void onFailure(Exception e) {
-                            ContentIndex.this.semaphore.release();
-                            log.error(Constants.E_LOG_BULK_INDEX_OPERATION_FAILED, e.getMessage());
+    /**
+     * Serializes a document into the source of an index request. The document is written through
+     * the pooled buffers of the generator into paged bytes, which the request takes as they are,
+     * with no intermediate string nor final copy.
+     *
+     * @param document The document, either a tree or a Domain Model.
+     * @return The UTF-8 encoded JSON of the document.
+     * @throws IOException If the document cannot be serialized.
+     */
+    private BytesReference toSource(Object document) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        this.mapper.writeValue(out, document);
+        return out.bytes();
+    }
+
+    /**
+     * Whether a payload is already wrapped as an indexed document, holding {@code document}, {@code
+     * space} and {@code hash}.
+     *
+     * @param payload The JSON payload.
+     * @return true if the payload is indexed as it is.
+     */
+    private static boolean isWrapped(JsonNode payload) {
+        return payload.isObject()
+                && payload.has(Constants.KEY_DOCUMENT)
+                && payload.has(Constants.KEY_SPACE)
+                && payload.has(Constants.KEY_HASH);
+    }
+
+    /**
+     * Applies JSON Patch operations to a document of this index, as is done by {@link
+     * #update(String, List, Long)}. The given document is modified in place.
+     *
+     * @param currentDoc The source of the document, as stored in the index.
+     * @param operations The JSON Patch operations to apply.
+     * @param offset The CTI offset of the change, injected into the document if not null.
+     * @return The processed document to index.
+     */
+    public ObjectNode patchDocument(ObjectNode currentDoc, List<Operation> operations, Long offset) {
+        // Resources from the VD feed do not contain a "document" object, so we need to patch the root
+        // document instead of the "document" node.
+        if (this.indexName.equals(Constants.INDEX_CVES)) {
+            currentDoc = (ObjectNode) currentDoc.get(Constants.KEY_DOCUMENT);
+        }
+
+        for (Operation op : operations) {
+            JsonNode opJson = this.mapper.valueToTree(op);
+            JsonPatch.applyOperation(currentDoc, opJson);
+        }
+
+        // Inject offset if provided
+        if (offset != null) {
+            currentDoc.put(Constants.KEY_OFFSET, offset);
+        }
+
+        return this.processPayload(currentDoc);
+    }
+
+    /**
+     * Returns which of the given documents exist in the index, using a single multi-get request.
+     *
+     * @param ids The IDs of the documents to check.
+     * @return The IDs of the documents that exist.
+     * @throws IOException If the request or any of its items fails.
+     */
+    public Set<String> existing(Collection<String> ids) throws IOException {
+        Set<String> existing = new HashSet<>();
+        for (MultiGetItemResponse item : this.multiGet(ids, false)) {
+            if (item.getResponse().isExists()) {
+                existing.add(item.getId());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Applies a batch of CTI changes to the index, in offset order, with a single bulk request
+     * refreshed once. This is equivalent to calling {@link #create(String, JsonNode)}, {@link
+     * #update(String, List, Long)} and {@link #delete(String)} for every change, one after the
+     * other:
+     *
+     * <ul>
+     *   <li>The documents updated by the batch are fetched upfront with a single multi-get request,
+     *       unless the batch creates them first.
+     *   <li>Changes are applied in memory, each on top of the result of the previous changes of the
+     *       same document, and only the final state of every document is written.
+     *   <li>Documents written on top of a fetched version are written conditionally on that version
+     *       ({@code if_seq_no} and {@code if_primary_term}), so a concurrent edit made after the
+     *       fetch fails the batch instead of being overwritten.
+     *   <li>Updates already applied to the fetched document, as told by its stored offset, are
+     *       skipped, so that a batch can be replayed after a partial failure.
+     *   <li>The bulk request is sent through the {@link BulkIngestor} of the index, which retries the
+     *       documents rejected by a saturated cluster and adapts to its load.
+     * </ul>
+     *
+     * <p>The failing change is logged with its offset, whether it fails to apply or to be written.
+     * Changes are written in a single request, but not atomically: on failure, the documents of the
+     * batch may be partially written.
+     *
+     * @param changes The changes of documents of this index, in offset order.
+     * @throws InconsistentContentException If a change cannot be applied to the indexed content.
+     * @throws IOException If the bulk request or any of its items fails.
+     */
+    public void applyChanges(List<Change> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        // 1. Fetch the documents updated before being created by this batch
+        Set<String> seen = new HashSet<>();
+        Set<String> toFetch = new HashSet<>();
+        for (Change change : changes) {
+            if (change.type() == Offset.Type.UPDATE && !seen.contains(change.id())) {
+                toFetch.add(change.id());
+            }
+            seen.add(change.id());
+        }
+        Map<String, ObjectNode> stored = new HashMap<>();
+        Map<String, GetResponse> versions = new HashMap<>();
+        for (MultiGetItemResponse item : this.multiGet(toFetch, true)) {
+            GetResponse response = item.getResponse();
+            if (response.isExists()) {
+                stored.put(item.getId(), (ObjectNode) this.mapper.readTree(response.getSourceAsString()));
+                versions.put(item.getId(), response);
+            }
+        }
+
+        // 2. Apply every change on top of the previous ones. A null document stands for a deletion.
+        Map<String, ObjectNode> documents = new LinkedHashMap<>();
+        Map<String, Change> lastChanges = new HashMap<>();
+        for (Change change : changes) {
+            String id = change.id();
+            try {
+                switch (change.type()) {
+                    case CREATE -> {
+                        // Created documents replace whatever is stored, regardless of its version
+                        documents.put(id, this.prepareDocument(change.payload()));
+                        versions.remove(id);
+                    }
+                    case UPDATE -> {
+                        ObjectNode current = documents.containsKey(id) ? documents.get(id) : stored.get(id);
+                        if (current == null) {
+                            throw new InconsistentContentException(
+                                    "Document [" + id + "] not found for update.");
+                        }
+                        if (!documents.containsKey(id)
+                                && current.path(Constants.KEY_OFFSET).asLong(-1) >= change.offset()) {
+                            // Already applied by a previous attempt of this batch
+                            log.debug(Constants.D_LOG_CHANGE_ALREADY_APPLIED, change.offset(), id);
+                            continue;
                         }
-                    });
-        } catch (InterruptedException e) {
-            log.error(Constants.E_LOG_SEMAPHORE_INTERRUPTED, e.getMessage());
-            Thread.currentThread().interrupt();
+                        documents.put(id, this.patchDocument(current, change.operations(), change.offset()));
+                    }
+                    case DELETE -> documents.put(id, null);
+                }
+            } catch (Exception e) {
+                log.error(
+                        Constants.E_LOG_UPDATE_APPLY_OFFSET_FAILED,
+                        change.offset(),
+                        change.type(),
+                        id,
+                        e.getMessage());
+                throw e instanceof InconsistentContentException ice
+                        ? ice
+                        : new InconsistentContentException(e.getMessage(), e);
+            }
+            lastChanges.put(id, change);
         }
+
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        // 3. Write the final state of every document
+        BulkRequest bulkRequest =
+                new BulkRequest().setRefreshPolicy(RefreshCoordinator.policy(this.getWriteIndex()));
+        for (Map.Entry<String, ObjectNode> document : documents.entrySet()) {
+            GetResponse version = versions.get(document.getKey());
+            if (document.getValue() == null) {
+                DeleteRequest request = new DeleteRequest(this.getWriteIndex(), document.getKey());
+                if (version != null) {
+                    request.setIfSeqNo(version.getSeqNo()).setIfPrimaryTerm(version.getPrimaryTerm());
+                }
+                bulkRequest.add(request);
+            } else {
+                IndexRequest request =
+                        new IndexRequest(this.getWriteIndex())
+                                .id(document.getKey())
+                                .source(this.toSource(document.getValue()), XContentType.JSON);
+                if (version != null) {
+                    request.setIfSeqNo(version.getSeqNo()).setIfPrimaryTerm(version.getPrimaryTerm());
+                }
+                bulkRequest.add(request);
+            }
+        }
+        // Documents rejected by a saturated cluster are retried by the ingestor
+        List<BulkItemResponse> items;
+        try {
+            items =
+                    this.bulkIngestor
+                            .execute(bulkRequest)
+                            .get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new IOException("Failed to write changes to [" + this.indexName + "]", e);
+        }
+        int failed = 0;
+        for (BulkItemResponse item : items) {
+            if (item.isFailed()) {
+                Change change = lastChanges.get(item.getId());
+                log.error(
+                        Constants.E_LOG_UPDATE_APPLY_OFFSET_FAILED,
+                        change.offset(),
+                        change.type(),
+                        item.getId(),
+                        item.getFailureMessage());
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new IOException(
+                    "Failed to write [" + failed + "] changed documents to [" + this.indexName + "]");
+        }
+        log.debug(Constants.D_LOG_CHANGES_APPLIED, changes.size(), documents.size(), this.indexName);
     }
 
     /**
-     * Waits until all pending bulk requests have completed. Use this to ensure all async indexing
-     * operations are finished.
+     * Fetches documents of the index by ID with a single multi-get request, through the write index
+     * (see {@link #getWriteIndex()}), so that their versions match the documents being written.
+     *
+     * @param ids The IDs of the documents to fetch.
+     * @param fetchSource Whether to fetch the source of the documents.
+     * @return The responses of the found and missing documents.
+     * @throws IOException If the request or any of its items fails.
+     */
+    private MultiGetItemResponse[] multiGet(Collection<String> ids, boolean fetchSource)
+            throws IOException {
+        if (ids.isEmpty()) {
+            return new MultiGetItemResponse[0];
+        }
+        MultiGetRequest request = new MultiGetRequest();
+        for (String id : ids) {
+            MultiGetRequest.Item item = new MultiGetRequest.Item(this.getWriteIndex(), id);
+            if (!fetchSource) {
+                item.fetchSourceContext(FetchSourceContext.DO_NOT_FETCH_SOURCE);
+            }
+            request.add(item);
+        }
+        MultiGetResponse response;
+        try {
+            response =
+                    this.client
+                            .multiGet(request)
+                            .get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new IOException("Failed to fetch documents from [" + this.indexName + "]", e);
+        }
+        for (MultiGetItemResponse item : response.getResponses()) {
+            if (item.isFailed()) {
+                throw new IOException(
+                        "Failed to fetch document ["
+                                + item.getId()
+                                + "] from ["
+                                + this.indexName
+                                + "]: "
+                                + item.getFailure().getMessage());
+            }
+        }
+        return response.getResponses();
+    }
+
+    /**
+     * A CTI change of a document of this index, as applied by {@link #applyChanges(List)}.
+     *
+     * @param offset The CTI offset of the change.
+     * @param type The type of the change.
+     * @param id The ID of the document.
+     * @param payload The document to index, for {@link Offset.Type#CREATE} changes.
+     * @param operations The JSON Patch operations, for {@link Offset.Type#UPDATE} changes.
+     */
+    public record Change(
+            long offset, Offset.Type type, String id, JsonNode payload, List<Operation> operations) {}
+
+    /**
+     * Switches the index to bulk-load mode before a snapshot is loaded into it: refreshes are
+     * disabled and replicas are dropped, so documents are neither made searchable nor replicated
+     * while loading. When {@link PluginSettings#isSnapshotBulkLoadAsyncTranslog()} is set, the
+     * translog is also fsynced asynchronously. The settings in place are kept to be restored by
+     * {@link #exitBulkLoadMode()}.
      *
+     * <p>The kept settings are also stored in the {@code _meta} of the index mapping until they are
+     * restored, so that a load interrupted before restoring them, e.g. by a node restart, does not
+     * take its bulk-load settings for the original ones: the next load restores the stored ones
+     * instead. A refresh interval still disabled by a load older than this marker is not kept either:
+     * the default refresh interval is restored instead.
+     *
+     * @throws ExecutionException If the client execution fails.
      * @throws InterruptedException If the thread is interrupted while waiting.
+     * @throws TimeoutException If the operation exceeds the client timeout setting.
      */
-    public void waitForPendingUpdates() throws InterruptedException {
-        int permits = this.pluginSettings.getMaximumConcurrentBulks();
-        this.semaphore.acquire(permits);
-        this.semaphore.release(permits);
+    public void enterBulkLoadMode()
+            throws ExecutionException, InterruptedException, TimeoutException {
+        String target = this.getWriteIndex();
+        long timeout = this.pluginSettings.getClientTimeout();
+
+        Settings.Builder bulkLoad =
+                Settings.builder()
+                        .put(Constants.KEY_INDEX_REFRESH_INTERVAL, Constants.REFRESH_INTERVAL_DISABLED)
+                        .put(Constants.KEY_INDEX_NUMBER_OF_REPLICAS, 0)
+                        .put(Constants.KEY_INDEX_AUTO_EXPAND_REPLICAS, false);
+        if (this.pluginSettings.isSnapshotBulkLoadAsyncTranslog()) {
+            bulkLoad.put(Constants.KEY_INDEX_TRANSLOG_DURABILITY, Constants.TRANSLOG_DURABILITY_ASYNC);
+        }
+        Settings bulkLoadSettings = bulkLoad.build();
+
+        Settings restore = this.getBulkLoadMarker(target, timeout);
+        if (restore == null) {
+            GetSettingsResponse current =
+                    this.client
+                            .admin()
+                            .indices()
+                            .getSettings(
+                                    new GetSettingsRequest()
+                                            .indices(target)
+                                            .names(bulkLoadSettings.keySet().toArray(String[]::new)))
+                            .get(timeout, TimeUnit.SECONDS);
+            Settings.Builder kept = Settings.builder();
+            for (String key : bulkLoadSettings.keySet()) {
+                String value = null;
+                for (Settings indexSettings : current.getIndexToSettings().values()) {
+                    value = indexSettings.get(key, value);
+                }
+                boolean leftover =
+                        Constants.KEY_INDEX_REFRESH_INTERVAL.equals(key)
+                                && Constants.REFRESH_INTERVAL_DISABLED.equals(value);
+                if (value == null || leftover) {
+                    kept.putNull(key);
+                } else {
+                    kept.put(key, value);
+                }
+            }
+            restore = kept.build();
+            this.setBulkLoadMarker(target, restore, timeout);
+        } else {
+            log.warn(Constants.W_LOG_BULK_LOAD_LEFTOVER, this.indexName, restore);
+        }
+
+        this.client
+                .admin()
+                .indices()
+                .updateSettings(new UpdateSettingsRequest().indices(target).settings(bulkLoadSettings))
+                .get(timeout, TimeUnit.SECONDS);
+        this.bulkLoadRestore = restore;
+        log.debug(Constants.D_LOG_BULK_LOAD_ENTERED, this.indexName, this.bulkLoadRestore);
+    }
+
+    /**
+     * Leaves bulk-load mode: restores the settings kept by {@link #enterBulkLoadMode()}, refreshes
+     * the index, force-merges it to a single segment when {@link
+     * PluginSettings#isSnapshotBulkLoadForceMerge()} is set, and waits for its replicas to be
+     * allocated. Does nothing if the index is not in bulk-load mode.
+     *
+     * <p>A force merge or a replica allocation still running after the client timeout is logged and
+     * left to complete in the background.
+     *
+     * @throws ExecutionException If the client execution fails.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     * @throws TimeoutException If restoring the settings or refreshing exceeds the client timeout
+     *     setting. The index is left in bulk-load mode if its settings were not restored, so the call
+     *     can be retried.
+     */
+    public void exitBulkLoadMode()
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Settings restore = this.bulkLoadRestore;
+        if (restore == null) {
+            return;
+        }
+        String target = this.getWriteIndex();
+        long timeout = this.pluginSettings.getClientTimeout();
+
+        this.client
+                .admin()
+                .indices()
+                .updateSettings(new UpdateSettingsRequest().indices(target).settings(restore))
+                .get(timeout, TimeUnit.SECONDS);
+        this.bulkLoadRestore = null;
+        this.setBulkLoadMarker(target, null, timeout);
+
+        this.client.admin().indices().refresh(new RefreshRequest(target)).get(timeout, TimeUnit.SECONDS);
+
+        if (this.pluginSettings.isSnapshotBulkLoadForceMerge()) {
+            try {
+                this.client
+                        .admin()
+                        .indices()
+                        .forceMerge(new ForceMergeRequest(target).maxNumSegments(1))
+                        .get(timeout, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                log.warn(Constants.W_LOG_BULK_LOAD_FORCE_MERGE_PENDING, this.indexName);
+            }
+        }
+
+        ClusterHealthResponse health =
+                this.client
+                        .admin()
+                        .cluster()
+                        .health(
+                                new ClusterHealthRequest(target)
+                                        .waitForGreenStatus()
+                                        .timeout(TimeValue.timeValueSeconds(timeout)))
+                        .get();
+        if (health.isTimedOut()) {
+            log.warn(Constants.W_LOG_BULK_LOAD_REPLICAS_PENDING, this.indexName, health.getStatus());
+        }
+        log.debug(Constants.D_LOG_BULK_LOAD_EXITED, this.indexName);
+    }
+
+    /**
+     * Reads the settings stored in the {@code _meta} of the index mapping by {@link
+     * #enterBulkLoadMode()}, left there by a load that did not restore them.
+     *
+     * @param target The physical index.
+     * @param timeout The client timeout, in seconds.
+     * @return The settings to restore, or null if the index is not marked.
+     */
+    private Settings getBulkLoadMarker(String target, long timeout)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        GetMappingsResponse response =
+                this.client
+                        .admin()
+                        .indices()
+                        .getMappings(new GetMappingsRequest().indices(target))
+                        .get(timeout, TimeUnit.SECONDS);
+        for (MappingMetadata mapping : response.mappings().values()) {
+            if (mapping.getSourceAsMap().get(Constants.KEY_MAPPING_META) instanceof Map<?, ?> meta
+                    && meta.get(Constants.KEY_BULK_LOAD_RESTORE) instanceof Map<?, ?> kept) {
+                Settings.Builder restore = Settings.builder();
+                kept.forEach(
+                        (key, value) -> {
+                            if (value == null) {
+                                restore.putNull(key.toString());
+                            } else {
+                                restore.put(key.toString(), value.toString());
+                            }
+                        });
+                return restore.build();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the settings to restore in the {@code _meta} of the index mapping, or clears them.
+     *
+     * @param target The physical index.
+     * @param restore The settings to restore, or null to clear them.
+     * @param timeout The client timeout, in seconds.
+     */
+    private void setBulkLoadMarker(String target, Settings restore, long timeout)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Map<String, Object> meta = new HashMap<>();
+        if (restore != null) {
+            Map<String, Object> kept = new HashMap<>();
+            for (String key : restore.keySet()) {
+                kept.put(key, restore.get(key));
+            }
+            meta.put(Constants.KEY_BULK_LOAD_RESTORE, kept);
+        }
+        PutMappingRequest request =
+                new PutMappingRequest(target).source(Map.of(Constants.KEY_MAPPING_META, meta));
+        this.client.admin().indices().putMapping(request).get(timeout, TimeUnit.SECONDS);
     }
 
     /**
@@ -604,49 +1274,206 @@ public class ContentIndex {
      */
     public ObjectNode processPayload(JsonNode payload) {
         try {
-            // Delegate parsing logic to the appropriate Model
-            Resource resource;
-            switch (this.indexName) {
-                case Constants.INDEX_IOCS:
-                    Ioc ioc = Ioc.fromPayload(payload);
-                    return this.mapper.valueToTree(ioc);
-                case Constants.INDEX_DECODERS:
-                    resource = Decoder.fromPayload(payload);
-                    break;
-                case Constants.INDEX_KVDBS:
-                    resource = Kvdb.fromPayload(payload);
-                    break;
-                case Constants.INDEX_FILTERS:
-                    resource = Filter.fromPayload(payload);
+            return this.mapper.valueToTree(this.toModel(payload));
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_PROCESS_PAYLOAD_FAILED, e.getMessage(), e);
+            return this.mapper.createObjectNode();
+        }
+    }
+
+    /**
+     * Same as {@link #processPayload(JsonNode)}, but serializes the Domain Model straight into the
+     * JSON bytes used as an index request source, skipping the intermediate tree and string
+     * representations. Intended for bulk ingestion, where large documents (e.g. CVEs) would
+     * otherwise be materialized several times.
+     *
+     * @param payload The JSON payload to process.
+     * @return The UTF-8 encoded JSON of the processed payload, or an empty object on failure.
+     */
+    public byte[] serializePayload(JsonNode payload) {
+        try {
+            return this.mapper.writeValueAsBytes(this.toModel(payload));
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_PROCESS_PAYLOAD_FAILED, e.getMessage(), e);
+            return EMPTY_OBJECT_BYTES;
+        }
+    }
+
+    /**
+     * Same as {@link #serializePayload(JsonNode)}, also returning the fingerprint of the document, so
+     * it can be compared with the one of the document currently indexed (see {@link
+     * #fingerprints(int)}).
+     *
+     * @param payload The JSON payload to process.
+     * @return The serialized document and its fingerprint. On failure, an empty object without
+     *     fingerprint.
+     */
+    public SerializedDocument serializeDocument(JsonNode payload) {
+        try {
+            Object model = this.toModel(payload);
+            return new SerializedDocument(
+                    this.mapper.writeValueAsBytes(model), ContentIndex.fingerprint(model));
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_PROCESS_PAYLOAD_FAILED, e.getMessage(), e);
+            return new SerializedDocument(EMPTY_OBJECT_BYTES, null);
+        }
+    }
+
+    /**
+     * Lists the fingerprint of every CTI document of the index, keyed by document id, using a point
+     * in time and {@code search_after} pagination in index order ({@code _shard_doc}), which needs no
+     * field data. Only the {@code hash.sha256} and {@code offset} fields are fetched. Documents
+     * carrying neither are not CTI content and are left out.
+     *
+     * <p>The listing stops as soon as it exceeds {@code maxDocuments}, so that the fingerprints of a
+     * large index are never all held in memory.
+     *
+     * @param maxDocuments The maximum number of fingerprints to list.
+     * @return A mutable, thread-safe map of document ids to fingerprints, or null if the index holds
+     *     more than {@code maxDocuments} CTI documents.
+     * @throws ExecutionException If the client execution fails.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     * @throws TimeoutException If the operation exceeds the client timeout setting.
+     */
+    public Map<String, String> fingerprints(int maxDocuments)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Map<String, String> fingerprints = new ConcurrentHashMap<>();
+        TimeValue keepalive = TimeValue.timeValueSeconds(this.pluginSettings.getPitKeepalive());
+        CreatePitResponse pit =
+                this.client
+                        .execute(CreatePitAction.INSTANCE, new CreatePitRequest(keepalive, false, this.indexName))
+                        .get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+        try {
+            Object[] searchAfter = null;
+            while (true) {
+                SearchSourceBuilder source =
+                        new SearchSourceBuilder()
+                                .query(QueryBuilders.matchAllQuery())
+                                .sort(SortBuilders.pitTiebreaker())
+                                .size(FINGERPRINT_PAGE_SIZE)
+                                .fetchSource(new String[] {Constants.Q_HASH, Constants.KEY_OFFSET}, null)
+                                .pointInTimeBuilder(new PointInTimeBuilder(pit.getId()).setKeepAlive(keepalive));
+                if (searchAfter != null) {
+                    source.searchAfter(searchAfter);
+                }
+                SearchResponse response =
+                        this.client
+                                .search(new SearchRequest().source(source))
+                                .get(this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+                SearchHit[] hits = response.getHits().getHits();
+                if (hits.length == 0) {
                     break;
-                case Constants.INDEX_POLICIES:
-                    resource = Resource.fromPayload(payload);
-                    if (payload.has(Constants.KEY_DOCUMENT)) {
-                        // Re-parse the document through the Policy model so optional fields
-                        // (enabled, index_unclassified_events, index_discarded_events) are
-                        // always present in the indexed document, and recompute the document
-                        // hash to match the normalized payload.
-                        Policy policy = Policy.fromPayload(payload.get(Constants.KEY_DOCUMENT));
-                        ObjectNode policyNode = this.mapper.valueToTree(policy);
-                        Resource.nestMetadataFields(policyNode);
-                        resource.setDocument(policyNode);
-                        java.util.Map<String, String> hashMap = new java.util.HashMap<>();
-                        hashMap.put(Constants.KEY_SHA256, Resource.computeSha256(policyNode.toString()));
-                        resource.setHash(hashMap);
+                }
+                for (SearchHit hit : hits) {
+                    Map<String, Object> sourceMap = hit.getSourceAsMap();
+                    Object offset = sourceMap.get(Constants.KEY_OFFSET);
+                    String fingerprint =
+                            ContentIndex.fingerprint(
+                                    Resource.extractHash(sourceMap),
+                                    offset instanceof Number number ? number.longValue() : null);
+                    if (fingerprint != null) {
+                        fingerprints.put(hit.getId(), fingerprint);
                     }
-                    break;
-                case Constants.INDEX_CVES:
-                    Cve cve = Cve.fromPayload(payload);
-                    return this.mapper.valueToTree(cve);
-                default:
-                    resource = Resource.fromPayload(payload);
-                    break;
+                }
+                if (fingerprints.size() > maxDocuments) {
+                    return null;
+                }
+                searchAfter = hits[hits.length - 1].getSortValues();
             }
+        } finally {
+            this.client.execute(DeletePitAction.INSTANCE, new DeletePitRequest(pit.getId()));
+        }
+        return fingerprints;
+    }
 
-            return this.mapper.valueToTree(resource);
-        } catch (Exception e) {
-            log.error(Constants.E_LOG_PROCESS_PAYLOAD_FAILED, e.getMessage(), e);
-            return this.mapper.createObjectNode();
+    /**
+     * Returns the fingerprint of a Domain Model, as computed by {@link #fingerprint(String, Long)}.
+     *
+     * @param model The Domain Model, as returned by {@link #toModel(JsonNode)}.
+     * @return The fingerprint, or null if the model has none.
+     */
+    private static String fingerprint(Object model) {
+        if (model instanceof Resource resource) {
+            Map<String, String> hash = resource.getHash();
+            return ContentIndex.fingerprint(
+                    hash != null ? hash.get(Constants.KEY_SHA256) : null, resource.getOffset());
+        }
+        if (model instanceof Ioc ioc) {
+            return ContentIndex.fingerprint(
+                    ioc.getHash() != null ? ioc.getHash().getSha256() : null, ioc.getOffset());
+        }
+        if (model instanceof Cve cve) {
+            return ContentIndex.fingerprint(null, cve.getOffset());
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the version of a CTI document: the {@code hash.sha256} of its content when it has
+     * one, otherwise its CTI offset (CVE documents carry no hash), which only changes along with the
+     * document.
+     *
+     * @param sha256 The SHA-256 hash of the document, or null.
+     * @param offset The CTI offset of the document, or null.
+     * @return The fingerprint, or null if the document has neither.
+     */
+    private static String fingerprint(String sha256, Long offset) {
+        if (sha256 != null && !sha256.isEmpty()) {
+            return sha256;
+        }
+        return offset != null ? Constants.KEY_OFFSET + ":" + offset : null;
+    }
+
+    /**
+     * A document serialized for indexing, along with its fingerprint.
+     *
+     * @param source The UTF-8 encoded JSON of the document.
+     * @param fingerprint The fingerprint of the document, or null if it has none.
+     */
+    public record SerializedDocument(byte[] source, String fingerprint) {}
+
+    /**
+     * Parses a payload into the Domain Model matching this index.
+     *
+     * @param payload The JSON payload to parse.
+     * @return the Domain Model instance to be serialized as the indexed document.
+     */
+    private Object toModel(JsonNode payload) {
+        Resource resource;
+        switch (this.indexName) {
+            case Constants.INDEX_IOCS:
+                return Ioc.fromPayload(payload);
+            case Constants.INDEX_DECODERS:
+                resource = Decoder.fromPayload(payload);
+                break;
+            case Constants.INDEX_KVDBS:
+                resource = Kvdb.fromPayload(payload);
+                break;
+            case Constants.INDEX_FILTERS:
+                resource = Filter.fromPayload(payload);
+                break;
+            case Constants.INDEX_POLICIES:
+                resource = Resource.fromPayload(payload);
+                if (payload.has(Constants.KEY_DOCUMENT)) {
+                    // Re-parse the document through the Policy model so optional fields
+                    // (enabled, index_unclassified_events, index_discarded_events) are
+                    // always present in the indexed document, and recompute the document
+                    // hash to match the normalized payload.
+                    Policy policy = Policy.fromPayload(payload.get(Constants.KEY_DOCUMENT));
+                    ObjectNode policyNode = this.mapper.valueToTree(policy);
+                    Resource.nestMetadataFields(policyNode);
+                    resource.setDocument(policyNode);
+                    java.util.Map<String, String> hashMap = new java.util.HashMap<>();
+                    hashMap.put(Constants.KEY_SHA256, Resource.computeSha256(policyNode.toString()));
+                    resource.setHash(hashMap);
+                }
+                break;
+            case Constants.INDEX_CVES:
+                return Cve.fromPayload(payload);
+            default:
+                resource = Resource.fromPayload(payload);
+                break;
         }
+        return resource;
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.wazuh.contentmanager.utils.Constants;
+
+/**
+ * Generator writing the decimal numbers of the {@code document} of a content document with at least
+ * one decimal digit, as {@link com.wazuh.contentmanager.utils.YamlUtils#fixDecimalScale} does on
+ * trees. This lets documents be serialized straight to bytes while keeping {@code 5.0} from being
+ * indexed as {@code 5}.
+ */
+class DecimalScaleGenerator extends JsonGeneratorDelegate {
+
+    /**
+     * Wraps a generator.
+     *
+     * @param delegate The generator writing the output.
+     */
+    DecimalScaleGenerator(JsonGenerator delegate) {
+        // Copy methods are not delegated, so that every number goes through this generator
+        super(delegate, false);
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws IOException {
+        if (v != null && v.scale() <= 0 && this.inDocument()) {
+            v = v.setScale(1);
+        }
+        super.writeNumber(v);
+    }
+
+    /**
+     * Whether the value being written is within the top-level {@code document} field.
+     *
+     * @return true if the value belongs to the document.
+     */
+    private boolean inDocument() {
+        JsonStreamContext context = this.getOutputContext();
+        while (context.getParent() != null && !context.getParent().inRoot()) {
+            context = context.getParent();
+        }
+        return context.inObject() && Constants.KEY_DOCUMENT.equals(context.getCurrentName());
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a CTI change cannot be applied to the indexed content, such as an update of
+ * a missing document or a patch that does not fit the document. Replaying the change cannot recover
+ * from it.
+ */
+public class InconsistentContentException extends IOException {
+
+    public InconsistentContentException(String message) {
+        super(message);
+    }
+
+    public InconsistentContentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
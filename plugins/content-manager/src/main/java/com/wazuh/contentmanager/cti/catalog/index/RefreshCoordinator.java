@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.transport.client.Client;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.Constants;
+
+/**
+ * Coalesces the refreshes of the writes of a logical operation, such as a content CRUD request, a
+ * promotion or a synchronization, into one refresh per index written.
+ *
+ * <p>Within a {@link Scope} opened on the current thread, writes are sent without refresh (see
+ * {@link #policy(String...)}) and the indices they target are recorded. The recorded indices are
+ * refreshed together right before the operation searches (see {@link #beforeSearch()}), so that
+ * it reads its own writes, and when the scope is closed, so that they are visible once the
+ * operation responds. Outside a scope, writes are refreshed immediately, as before. Gets are
+ * real-time and do not need a refresh.
+ *
+ * <p>These refreshes block the calling thread. Searches offloaded from a transport thread take the
+ * refresh to run it with the search (see {@link #takeRefresh()}), and operations responding on a
+ * transport thread close their scope without blocking (see {@link Scope#closeAsync(Runnable)}).
+ *
+ * <p>Scopes are confined to the thread that opens them: writes must be issued, and their refresh
+ * policy obtained, on that thread. Writes completing asynchronously are tracked (see {@link
+ * #track(String, ActionListener)}) so that they are awaited before the refresh.
+ *
+ * <p>Operations chaining asynchronous stages open their scope with {@link #openAsync(Client)}. The
+ * scope is attached to the thread running each stage, one stage at a time (see {@link
+ * #preserve(ActionListener)}), refreshes before searches without blocking (see {@link
+ * #beforeSearch(Runnable)}) and is closed with {@link Scope#closeAsync(Runnable)}.
+ */
+public final class RefreshCoordinator {
+    private static final Logger log = LogManager.getLogger(RefreshCoordinator.class);
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private RefreshCoordinator() {}
+
+    /**
+     * Opens a scope on the current thread. A scope opened within another one joins it, and the
+     * indices written are refreshed when the outermost scope is closed.
+     *
+     * @param client The client used to refresh the indices written.
+     * @return The scope, to be closed once the operation completes.
+     */
+    public static Scope open(Client client) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.depth++;
+            return scope;
+        }
+        scope = new Scope(client);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Opens a scope for an operation running across threads, such as a chain of asynchronous stages.
+     * The scope is not attached to the current thread: each stage runs with the scope attached (see
+     * {@link Scope#run(Runnable)} and {@link #preserve(ActionListener)}), and the scope is closed
+     * with {@link Scope#closeAsync(Runnable)} once the operation completes.
+     *
+     * @param client The client used to refresh the indices written.
+     * @return The scope, not attached to any thread.
+     */
+    public static Scope openAsync(Client client) {
+        return new Scope(client);
+    }
+
+    /**
+     * Returns the refresh policy of a write to the given indices: none within a scope, where the
+     * indices are recorded to be refreshed later, or immediate otherwise.
+     *
+     * @param indices The indices written to.
+     * @return The refresh policy to set on the write request.
+     */
+    public static WriteRequest.RefreshPolicy policy(String... indices) {
+        return policy(WriteRequest.RefreshPolicy.IMMEDIATE, indices);
+    }
+
+    /**
+     * Returns the refresh policy of a write to the given indices: none within a scope, where the
+     * indices are recorded to be refreshed later, or the given one otherwise.
+     *
+     * @param unscoped The refresh policy of the write outside a scope.
+     * @param indices The indices written to.
+     * @return The refresh policy to set on the write request.
+     */
+    public static WriteRequest.RefreshPolicy policy(
+            WriteRequest.RefreshPolicy unscoped, String... indices) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return unscoped;
+        }
+        Collections.addAll(scope.dirty, indices);
+        return WriteRequest.RefreshPolicy.NONE;
+    }
+
+    /**
+     * Returns the refresh policy of a bulk request, see {@link #policy(String...)}.
+     *
+     * @param request The bulk request, with all its items added.
+     * @return The refresh policy to set on the bulk request.
+     */
+    public static WriteRequest.RefreshPolicy policy(BulkRequest request) {
+        return policy(request.requests().stream().map(DocWriteRequest::index).toArray(String[]::new));
+    }
+
+    /**
+     * Tracks a write completing asynchronously, so that the scope awaits it before refreshing the
+     * index it targets. Outside a scope, the listener is returned as is.
+     *
+     * @param index The index written to.
+     * @param listener The listener of the write.
+     * @param <T> The response type of the write.
+     * @return The listener to pass to the write.
+     */
+    public static <T> ActionListener<T> track(String index, ActionListener<T> listener) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return listener;
+        }
+        scope.dirty.add(index);
+        scope.started();
+        return ActionListener.runAfter(listener, scope::completed);
+    }
+
+    /**
+     * Refreshes the indices written within the scope of the current thread since their last
+     * refresh, so that a search that follows sees the writes. Does nothing outside a scope.
+     */
+    public static void beforeSearch() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.refresh();
+        }
+    }
+
+    /**
+     * Refreshes the indices written within the scope of the current thread since their last
+     * refresh without blocking, once the asynchronous writes in flight complete, so that a search
+     * started by the given stage sees the writes. Outside a scope, the stage runs right away.
+     *
+     * @param next The stage to run once the indices are refreshed, or failed to, with the scope of
+     *     the current thread attached.
+     */
+    public static void beforeSearch(Runnable next) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            next.run();
+            return;
+        }
+        scope.refreshAsync(preserve(next));
+    }
+
+    /**
+     * Takes the refresh of the indices written within the scope of the current thread since their
+     * last refresh, so that it runs on the thread of a search that follows, such as a search
+     * offloaded from a transport thread. Outside a scope, the refresh does nothing.
+     *
+     * @return The refresh, blocking the thread that runs it until it completes.
+     */
+    public static Runnable takeRefresh() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.take() : () -> {};
+    }
+
+    /**
+     * Wraps the listener of an asynchronous stage so that it is notified with the scope of the
+     * current thread attached, on whichever thread the stage completes. Outside a scope, the listener
+     * is returned as is.
+     *
+     * @param listener The listener continuing the operation.
+     * @param <T> The response type of the stage.
+     * @return The listener to pass to the stage.
+     */
+    public static <T> ActionListener<T> preserve(ActionListener<T> listener) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return listener;
+        }
+        return new ActionListener<>() {
+            @Override
+            public void onResponse(T response) {
+                scope.run(() -> listener.onResponse(response));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                scope.run(() -> listener.onFailure(e));
+            }
+        };
+    }
+
+    /**
+     * Wraps a task forked to another thread so that it runs with the scope of the current thread
+     * attached, see {@link #preserve(ActionListener)}.
+     *
+     * @param task The task continuing the operation.
+     * @return The task to fork.
+     */
+    public static Runnable preserve(Runnable task) {
+        Scope scope = CURRENT.get();
+        return scope == null ? task : () -> scope.run(task);
+    }
+
+    /** The writes of a logical operation, whose refresh is deferred. */
+    public static final class Scope implements AutoCloseable {
+        private final Client client;
+
+        /**
+         * Indices written since their last refresh. Only accessed by the thread the scope is
+         * attached to.
+         */
+        private final Set<String> dirty = new LinkedHashSet<>();
+
+        /** Number of nested scopes. Only accessed by the thread the scope is attached to. */
+        private int depth = 1;
+
+        /** Number of asynchronous writes in flight. Guarded by this instance. */
+        private int pending;
+
+        /** Refresh waiting for the asynchronous writes in flight. Guarded by this instance. */
+        private Runnable onIdle;
+
+        private Scope(Client client) {
+            this.client = client;
+        }
+
+        /** Refreshes the indices written, once the outermost scope is closed. */
+        @Override
+        public void close() {
+            if (--this.depth > 0) {
+                return;
+            }
+            this.detach();
+            this.refresh();
+        }
+
+        /**
+         * Runs a stage of the operation with the scope attached to the current thread. The scope
+         * previously attached to the thread, if any, is restored once the stage returns.
+         *
+         * @param stage The stage to run.
+         */
+        public void run(Runnable stage) {
+            Scope previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                stage.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+
+        /** Detaches the scope from the current thread, unless another scope is attached to it. */
+        private void detach() {
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+
+        /**
+         * Closes the scope without blocking. Once the outermost scope is closed, the indices
+         * written are refreshed asynchronously, after the asynchronous writes in flight complete.
+         *
+         * @param onClosed Run once the indices written are refreshed, or failed to, or right away
+         *     if the scope is nested or nothing was written.
+         */
+        public void closeAsync(Runnable onClosed) {
+            if (--this.depth > 0) {
+                onClosed.run();
+                return;
+            }
+            this.detach();
+            this.refreshAsync(onClosed);
+        }
+
+        /** Records the start of an asynchronous write. */
+        private synchronized void started() {
+            this.pending++;
+        }
+
+        /** Records the completion of an asynchronous write, running the refresh waiting for it. */
+        private void completed() {
+            Runnable idle = null;
+            synchronized (this) {
+                this.pending--;
+                this.notifyAll();
+                if (this.pending == 0) {
+                    idle = this.onIdle;
+                    this.onIdle = null;
+                }
+            }
+            if (idle != null) {
+                idle.run();
+            }
+        }
+
+        /** Refreshes the indices written since their last refresh. */
+        private void refresh() {
+            String[] indices = this.takeDirty();
+            if (indices.length > 0) {
+                this.refresh(indices);
+            }
+        }
+
+        /**
+         * Refreshes the indices written since their last refresh without blocking, once the
+         * asynchronous writes in flight complete.
+         */
+        private void refreshAsync(Runnable onRefreshed) {
+            String[] indices = this.takeDirty();
+            if (indices.length == 0) {
+                onRefreshed.run();
+                return;
+            }
+            Runnable refresh = () -> this.refreshAsync(indices, onRefreshed);
+            synchronized (this) {
+                if (this.pending > 0) {
+                    this.onIdle = refresh;
+                    return;
+                }
+            }
+            refresh.run();
+        }
+
+        /** Takes the refresh of the indices written since their last refresh, to run it later. */
+        private Runnable take() {
+            String[] indices = this.takeDirty();
+            return indices.length == 0 ? () -> {} : () -> this.refresh(indices);
+        }
+
+        /** Returns the indices written since their last refresh, which are no longer recorded. */
+        private String[] takeDirty() {
+            String[] indices = this.dirty.toArray(new String[0]);
+            this.dirty.clear();
+            return indices;
+        }
+
+        /**
+         * Refreshes the given indices asynchronously, in a single request. A failed refresh is
+         * logged, see {@link #refresh(String[])}.
+         */
+        private void refreshAsync(String[] indices, Runnable onRefreshed) {
+            ActionListener<RefreshResponse> listener =
+                    ActionListener.runAfter(
+                            ActionListener.wrap(response -> refreshed(indices), e -> refreshFailed(indices, e)),
+                            onRefreshed);
+            try {
+                this.client.admin().indices().refresh(refreshRequest(indices), listener);
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        }
+
+        /**
+         * Waits for the asynchronous writes in flight, up to the client timeout, and refreshes the
+         * given indices in a single request. A failed refresh is logged, as the writes themselves
+         * succeeded and become visible on the next periodic refresh.
+         */
+        private void refresh(String[] indices) {
+            try {
+                long timeout = PluginSettings.getInstance().getClientTimeout();
+                this.awaitPending(indices, timeout);
+                this.client
+                        .admin()
+                        .indices()
+                        .refresh(refreshRequest(indices))
+                        .actionGet(timeout, TimeUnit.SECONDS);
+                refreshed(indices);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                refreshFailed(indices, e);
+            } catch (Exception e) {
+                refreshFailed(indices, e);
+            }
+        }
+
+        /** Logs the refresh of the given indices. */
+        private static void refreshed(String[] indices) {
+            log.debug(Constants.D_LOG_REFRESH_COALESCED, (Object) indices);
+        }
+
+        /** Logs the failed refresh of the given indices. */
+        private static void refreshFailed(String[] indices, Exception e) {
+            log.warn(Constants.W_LOG_REFRESH_COALESCED_FAILED, indices, e.getMessage());
+        }
+
+        /** Builds the refresh of the given indices, ignoring those deleted since written. */
+        private static RefreshRequest refreshRequest(String[] indices) {
+            return new RefreshRequest(indices).indicesOptions(IndicesOptions.lenientExpandOpen());
+        }
+
+        /** Waits for the asynchronous writes in flight, up to the given timeout in seconds. */
+        private synchronized void awaitPending(String[] indices, long timeout)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+            while (this.pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn(Constants.W_LOG_REFRESH_PENDING_WRITES, indices, this.pending);
+                    return;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+    }
+}
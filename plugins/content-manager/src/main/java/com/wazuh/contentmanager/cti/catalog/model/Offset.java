@@ -18,6 +18,9 @@ package com.wazuh.contentmanager.cti.catalog.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.opensearch.core.xcontent.ToXContentObject;
 import org.opensearch.core.xcontent.XContentBuilder;
@@ -42,6 +45,7 @@ public class Offset implements ToXContentObject {
     private static final String VERSION = "version";
     private static final String OPERATIONS = "operations";
     private static final String PAYLOAD = "payload";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final String context;
     private final long offset;
@@ -49,7 +53,7 @@ public class Offset implements ToXContentObject {
     private final Offset.Type type;
     private final long version;
     private final List<Operation> operations;
-    private final Map<String, Object> payload;
+    private final JsonNode payload;
 
     /**
      * Defines the type of modification operation performed on a resource in the CTI catalog. This
@@ -99,7 +103,7 @@ public class Offset implements ToXContentObject {
             @JsonProperty(TYPE) Type type,
             @JsonProperty(VERSION) long version,
             @JsonProperty(OPERATIONS) List<Operation> operations,
-            @JsonProperty(PAYLOAD) Map<String, Object> payload) {
+            @JsonProperty(PAYLOAD) JsonNode payload) {
         this.context = context;
         this.offset = offset;
         this.resource = resource;
@@ -123,7 +127,7 @@ public class Offset implements ToXContentObject {
         Type type = null;
         Long version = null;
         List<Operation> operations = new ArrayList<>();
-        Map<String, Object> payload = null;
+        JsonNode payload = null;
 
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
             if (parser.currentToken() == XContentParser.Token.FIELD_NAME) {
@@ -144,7 +148,7 @@ public class Offset implements ToXContentObject {
                     }
                     case PAYLOAD -> {
                         if (parser.currentToken() == XContentParser.Token.START_OBJECT) {
-                            payload = parser.map();
+                            payload = MAPPER.valueToTree(parser.map());
                         }
                     }
                     default -> parser.skipChildren();
@@ -198,11 +202,12 @@ public class Offset implements ToXContentObject {
     }
 
     /**
-     * Gets the full content payload of the resource.
+     * Gets the full content payload of the resource. The payload is kept as a JSON tree, so that it
+     * is not converted again before being indexed.
      *
-     * @return A Map representing the resource JSON, or null if not present.
+     * @return The resource JSON, or null if not present.
      */
-    public Map<String, Object> getPayload() {
+    public JsonNode getPayload() {
         return this.payload;
     }
 
@@ -236,7 +241,8 @@ public class Offset implements ToXContentObject {
             builder.endArray();
         }
         if (this.payload != null) {
-            builder.field(PAYLOAD, this.payload);
+            builder.field(
+                    PAYLOAD, MAPPER.convertValue(this.payload, new TypeReference<Map<String, Object>>() {}));
         }
         return builder.endObject();
     }
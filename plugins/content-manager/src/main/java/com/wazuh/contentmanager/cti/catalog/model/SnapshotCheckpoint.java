@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * Durable progress marker of a snapshot load, persisted in `.wazuh-cti-consumers` next to the
+ * consumer document.
+ *
+ * <p>Every ZIP entry sorting before {@link #getEntry()} has been fully indexed, as well as the first
+ * {@link #getLine()} lines of that entry. A later load of the same snapshot (same link and size) may
+ * resume from this point instead of starting over.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SnapshotCheckpoint implements ToXContent {
+
+    private final String type;
+    private final String snapshotLink;
+    private final long snapshotSize;
+    private final String entry;
+    private final long line;
+    private final long maxOffset;
+
+    /**
+     * Constructs a new SnapshotCheckpoint.
+     *
+     * @param type The consumer type the snapshot belongs to.
+     * @param snapshotLink The link the snapshot was downloaded from.
+     * @param snapshotSize The size in bytes of the downloaded snapshot.
+     * @param entry The name of the ZIP entry being processed.
+     * @param line The number of lines of {@code entry} already indexed.
+     * @param maxOffset The highest offset indexed so far.
+     */
+    @JsonCreator
+    public SnapshotCheckpoint(
+            @JsonProperty("type") String type,
+            @JsonProperty("snapshot_link") String snapshotLink,
+            @JsonProperty("snapshot_size") long snapshotSize,
+            @JsonProperty("checkpoint_entry") String entry,
+            @JsonProperty("checkpoint_line") long line,
+            @JsonProperty("max_offset") long maxOffset) {
+        this.type = type;
+        this.snapshotLink = snapshotLink;
+        this.snapshotSize = snapshotSize;
+        this.entry = entry;
+        this.line = line;
+        this.maxOffset = maxOffset;
+    }
+
+    /** Gets the consumer type. */
+    public String getType() {
+        return this.type;
+    }
+
+    /** Gets the link the snapshot was downloaded from. */
+    public String getSnapshotLink() {
+        return this.snapshotLink;
+    }
+
+    /** Gets the size in bytes of the downloaded snapshot. */
+    public long getSnapshotSize() {
+        return this.snapshotSize;
+    }
+
+    /** Gets the name of the ZIP entry being processed. */
+    public String getEntry() {
+        return this.entry;
+    }
+
+    /** Gets the number of lines of the current entry already indexed. */
+    public long getLine() {
+        return this.line;
+    }
+
+    /** Gets the highest offset indexed so far. */
+    public long getMaxOffset() {
+        return this.maxOffset;
+    }
+
+    /**
+     * Returns whether this checkpoint was taken while loading the given snapshot.
+     *
+     * @param link The link of the snapshot being loaded.
+     * @param size The size in bytes of the snapshot being loaded.
+     * @return true if both the link and size match.
+     */
+    public boolean matches(String link, long size) {
+        return this.snapshotLink != null && this.snapshotLink.equals(link) && this.snapshotSize == size;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotCheckpoint{"
+                + "type='"
+                + this.type
+                + '\''
+                + ", snapshotLink='"
+                + this.snapshotLink
+                + '\''
+                + ", snapshotSize="
+                + this.snapshotSize
+                + ", entry='"
+                + this.entry
+                + '\''
+                + ", line="
+                + this.line
+                + ", maxOffset="
+                + this.maxOffset
+                + '}';
+    }
+
+    /**
+     * Serializes the checkpoint to a new XContentBuilder (JSON).
+     *
+     * @return The XContentBuilder containing the JSON representation.
+     * @throws IOException If an I/O error occurs during building.
+     */
+    public XContentBuilder toXContent() throws IOException {
+        return this.toXContent(XContentFactory.jsonBuilder(), null);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder
+                .startObject()
+                .field("type", this.type)
+                .field("snapshot_link", this.snapshotLink)
+                .field("snapshot_size", this.snapshotSize)
+                .field("checkpoint_entry", this.entry)
+                .field("checkpoint_line", this.line)
+                .field("max_offset", this.maxOffset)
+                .endObject();
+        return builder;
+    }
+}
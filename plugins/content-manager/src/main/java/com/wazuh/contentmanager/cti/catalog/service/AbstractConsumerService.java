@@ -30,6 +30,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import com.wazuh.contentmanager.ContentManagerPlugin;
@@ -68,6 +69,9 @@ import com.wazuh.contentmanager.utils.UrlUtils;
 public abstract class AbstractConsumerService {
     private static final Logger log = LogManager.getLogger(AbstractConsumerService.class);
 
+    /** How long the state of an up-to-date consumer is trusted before a full synchronization. */
+    private static final long SYNC_STATE_TTL = TimeUnit.HOURS.toNanos(1);
+
     /** The OpenSearch client used for index operations. */
     protected final Client client;
 
@@ -83,6 +87,28 @@ public abstract class AbstractConsumerService {
     /** Optional override for the snapshot service, used by tests to inject mocks. */
     private SnapshotServiceImpl snapshotServiceOverride;
 
+    /** The content index of known documents, used to route incremental updates. */
+    private ContentRoutes routes;
+
+    /** Chooses how to catch up with the remote, from the update and load rates observed. */
+    private CatchUpPlanner planner;
+
+    /** The state of the consumer after its last synchronization, if it left it up to date. */
+    private volatile SyncState syncState;
+
+    /**
+     * The state of an up-to-date consumer, used to skip synchronizations while the remote consumer
+     * does not change.
+     *
+     * @param resource The catalog URL of the consumer.
+     * @param registered Whether the environment was registered.
+     * @param offset The offset of the indexed content, equal to the remote offset.
+     * @param etag The entity tag of the remote consumer, or null.
+     * @param verifiedAt The {@link System#nanoTime()} of the last full synchronization.
+     */
+    private record SyncState(
+            String resource, boolean registered, long offset, String etag, long verifiedAt) {}
+
     /**
      * Set to {@code true} after a successful shadow swap so subclasses can clean up stale resources.
      */
@@ -177,15 +203,27 @@ public abstract class AbstractConsumerService {
      * LocalConsumer.Status#FAILED} if an unexpected exception interrupts the sync; the exception is
      * then rethrown so the caller ({@code CatalogSyncJob}) can log it and continue with the remaining
      * synchronizers.
+     *
+     * <p>While the remote consumer does not change after a synchronization that left the consumer up
+     * to date, the synchronization is skipped, see {@link #isUnchanged()}, and so is the status
+     * update.
      */
     public void synchronize() {
-        this.setConsumerStatus(LocalConsumer.Status.RUNNING);
+        boolean unchanged = this.isUnchanged();
+        if (unchanged) {
+            log.debug(Constants.D_LOG_SYNC_UNCHANGED, this.getConsumerType());
+        } else {
+            this.setConsumerStatus(LocalConsumer.Status.RUNNING);
+        }
         try {
-            boolean isUpdated = this.syncConsumerServices();
+            boolean isUpdated = !unchanged && this.syncConsumerServices();
             log.debug(Constants.D_LOG_SYNC_COMPLETED, this.getConsumerType(), isUpdated);
             this.onSyncComplete(isUpdated);
-            this.setConsumerStatus(LocalConsumer.Status.READY);
+            if (!unchanged) {
+                this.setConsumerStatus(LocalConsumer.Status.READY);
+            }
         } catch (Exception e) {
+            this.syncState = null;
             this.setConsumerStatus(LocalConsumer.Status.FAILED);
             throw new RuntimeException(
                     "Synchronization failed for consumer [" + this.getConsumerType() + "]", e);
@@ -369,13 +407,16 @@ public abstract class AbstractConsumerService {
      * Performs the core synchronization logic for consumer services. Retrieves local and remote
      * consumer state, creates any missing indices with their mappings and aliases, initializes from
      * snapshot if this is a first-time sync (offset = 0), and applies incremental updates if the
-     * remote offset is ahead.
+     * remote offset is ahead. A consumer far behind may reload the latest snapshot first, when
+     * {@link CatchUpPlanner} estimates it to be faster than replaying every change.
      *
      * @return True if any updates were applied (snapshot or incremental), false if already up to
      *     date.
      */
     private boolean syncConsumerServices() {
         String consumerType = this.getConsumerType();
+        this.syncState = null;
+        boolean registered = PluginSettings.getInstance().isRegistered();
 
         // Resolve the snapshots directory and load the external manifest entry once up front. The
         // manifest doubles as a source of identity and as a fallback catalog URL when no setting /
@@ -475,28 +516,8 @@ public abstract class AbstractConsumerService {
         String context = PluginSettings.getContextFromCatalogUri(catalogUri);
         String consumer = PluginSettings.getConsumerFromCatalogUri(catalogUri);
 
-        // Build URL resolver based on registration status
-        ResourceUrlResolver urlResolver;
-        if (PluginSettings.getInstance().isRegistered()) {
-            log.debug(Constants.D_LOG_SIGNED_URL_RESOLVER, consumerType);
-            urlResolver =
-                    new SignedUrlResolver(
-                            new TokenExchangeServiceImpl(), PluginSettings.getInstance().getAccessToken());
-        } else {
-            log.debug(Constants.D_LOG_REGULAR_URL_RESOLVER, consumerType);
-            urlResolver = new RegularUrlResolver();
-        }
-
-        ConsumerService consumerService =
-                this.consumerServiceOverride != null
-                        ? this.consumerServiceOverride
-                        : new ConsumerServiceImpl(
-                                context,
-                                consumer,
-                                consumerType,
-                                catalogUri,
-                                this.consumersIndex,
-                                new ApiClient(urlResolver));
+        ResourceUrlResolver urlResolver = this.getUrlResolver(consumerType);
+        ConsumerService consumerService = this.getConsumerService(catalogUri, urlResolver);
         LocalConsumer localConsumer = consumerService.getLocalConsumer();
         RemoteConsumer remoteConsumer =
                 (catalogUri != null && !catalogUri.isBlank()) ? consumerService.getRemoteConsumer() : null;
@@ -543,7 +564,32 @@ public abstract class AbstractConsumerService {
             }
         }
 
+        // A consumer far behind may be faster to rebuild from the latest snapshot, in staging
+        // indices, than to replay every change. The changes published after the snapshot are
+        // replayed below. On failure, the live content is kept and replayed instead.
+        if (currentOffset > 0
+                && remoteConsumer != null
+                && catalogUri != null
+                && !catalogUri.isBlank()
+                && PluginSettings.getInstance().isCatalogSnapshotReloadEnabled()
+                && this.getPlanner().plan(currentOffset, remoteConsumer)
+                        == CatchUpPlanner.Strategy.RELOAD) {
+            log.info(
+                    Constants.I_LOG_CATCH_UP_SNAPSHOT_RELOAD,
+                    consumerType,
+                    currentOffset,
+                    remoteConsumer.getOffset(),
+                    remoteConsumer.getSnapshotOffset());
+            if (this.performShadowSwap(
+                    consumerType, catalogUri, catalogUri, indicesMap, remoteConsumer, urlResolver)) {
+                currentOffset = remoteConsumer.getSnapshotOffset();
+                updated = true;
+            }
+        }
+
         if (currentOffset == 0) {
+            // The snapshot replaces the indexed content, so known routes may no longer hold
+            this.getRoutes().clear();
             final Path localSnapshotPath = localSnapshot;
             boolean snapshotExists;
             if (localSnapshotPath == null) {
@@ -579,9 +625,14 @@ public abstract class AbstractConsumerService {
             if (hasEffectiveCatalog
                     && remoteConsumer != null
                     && remoteConsumer.getSnapshotLink() != null) {
-                // Ruleset snapshots also affect Security Analytics/Space resources; other catalogs only
-                // clear indices.
-                if (this.isRulesetConsumer()) {
+                // A load interrupted mid-way resumes from its last checkpoint, keeping the content it
+                // already indexed. Otherwise, ruleset snapshots also affect Security Analytics/Space
+                // resources; other catalogs clear their indices, unless the snapshot is applied
+                // differentially on top of the indexed content.
+                boolean resuming = snapshotService.enableCheckpoints(remoteConsumer);
+                if (resuming) {
+                    log.debug(Constants.D_LOG_SNAPSHOT_RESUME_KEEP_CONTENT, consumerType);
+                } else if (this.isRulesetConsumer()) {
                     try {
                         SecurityAnalyticsService securityAnalyticsService =
                                 new SecurityAnalyticsServiceImpl(this.client);
@@ -591,18 +642,29 @@ public abstract class AbstractConsumerService {
                     } catch (Exception e) {
                         log.error(Constants.E_LOG_CLEAR_RESOURCES_FAILED, consumerType, e.getMessage());
                     }
-                } else {
+                } else if (!snapshotService.enableDifferentialApply()) {
                     indicesMap.values().forEach(ContentIndex::clear);
                 }
 
                 log.debug(Constants.D_LOG_SNAPSHOT_INIT_CUSTOM_URL, catalogUri);
+                long start = System.nanoTime();
                 boolean remoteSuccess = snapshotService.initialize(remoteConsumer);
                 if (remoteSuccess) {
+                    if (!resuming) {
+                        this.getPlanner()
+                                .recordLoad(remoteConsumer.getSnapshotOffset(), System.nanoTime() - start);
+                    }
                     currentOffset = remoteConsumer.getSnapshotOffset();
                     updated = true;
                     if (snapshotExists) {
                         SnapshotServiceImpl.deleteSnapshot(localSnapshot);
                     }
+                } else if (snapshotService.getDroppedDocuments() > 0) {
+                    // The snapshot was loaded but for some documents, loading another one is no better
+                    log.warn(
+                            Constants.W_LOG_REMOTE_SNAPSHOT_INCOMPLETE,
+                            consumerType,
+                            snapshotService.getDroppedDocuments());
                 } else if (snapshotExists) {
                     log.warn(Constants.W_LOG_REMOTE_SNAPSHOT_FAILED_FALLBACK, consumerType, localSnapshot);
                     boolean localSuccess = snapshotService.initialize(localSnapshot, manifestEntry);
@@ -660,17 +722,139 @@ public abstract class AbstractConsumerService {
                             consumerType,
                             catalogUri,
                             new ApiClient(urlResolver),
+                            this.client,
                             this.consumersIndex,
-                            indicesMap);
+                            indicesMap,
+                            this.getRoutes());
             try {
+                long start = System.nanoTime();
                 updated = updateService.update(currentOffset, remoteConsumer.getOffset());
+                if (updated) {
+                    this.getPlanner()
+                            .recordReplay(remoteConsumer.getOffset() - currentOffset, System.nanoTime() - start);
+                }
             } finally {
                 updateService.close();
             }
+            // The update throws unless it reached the remote offset
+            currentOffset = remoteConsumer.getOffset();
+        }
+
+        if (remoteConsumer != null && currentOffset == remoteConsumer.getOffset()) {
+            this.syncState =
+                    new SyncState(catalogUri, registered, currentOffset, null, System.nanoTime());
         }
         return updated;
     }
 
+    /**
+     * Checks whether the consumer is still up to date since its last synchronization, so that the
+     * next one can be skipped. Only the remote consumer is requested, conditionally on its entity tag
+     * when the CTI API sent one, or compared by offset otherwise. The indices and the local consumer
+     * are not checked again until {@link #SYNC_STATE_TTL} elapses. A change of registration, catalog
+     * URL or plan resource always requires a full synchronization.
+     *
+     * @return {@code true} if the remote consumer did not change, {@code false} if a full
+     *     synchronization is required.
+     */
+    private boolean isUnchanged() {
+        SyncState state = this.syncState;
+        if (state == null || System.nanoTime() - state.verifiedAt() > SYNC_STATE_TTL) {
+            return false;
+        }
+        String consumerType = this.getConsumerType();
+        try {
+            boolean registered = PluginSettings.getInstance().isRegistered();
+            if (registered != state.registered()) {
+                return false;
+            }
+            String resource = this.getCustomCatalogUri();
+            if ((resource == null || resource.isBlank()) && registered) {
+                resource = this.resolvePlanResource(consumerType);
+            }
+            if (resource != null
+                    && !resource.isBlank()
+                    && !UrlUtils.isSameResource(resource, state.resource())) {
+                return false;
+            }
+
+            ConsumerService consumerService =
+                    this.getConsumerService(state.resource(), this.getUrlResolver(consumerType));
+            ConsumerService.RemoteProbe probe = consumerService.probeRemoteConsumer(state.etag());
+            if (probe == null || (probe.modified() && probe.offset() != state.offset())) {
+                return false;
+            }
+            this.syncState =
+                    new SyncState(
+                            state.resource(), registered, state.offset(), probe.etag(), state.verifiedAt());
+            return true;
+        } catch (Exception e) {
+            log.debug(Constants.D_LOG_SYNC_PROBE_FAILED, consumerType, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Builds the URL resolver of the CTI requests, based on the registration status.
+     *
+     * @param consumerType The consumer type identifier.
+     * @return A resolver signing the URLs for registered environments, or leaving them as they are.
+     */
+    private ResourceUrlResolver getUrlResolver(String consumerType) {
+        if (PluginSettings.getInstance().isRegistered()) {
+            log.debug(Constants.D_LOG_SIGNED_URL_RESOLVER, consumerType);
+            return new SignedUrlResolver(
+                    new TokenExchangeServiceImpl(), PluginSettings.getInstance().getAccessToken());
+        }
+        log.debug(Constants.D_LOG_REGULAR_URL_RESOLVER, consumerType);
+        return new RegularUrlResolver();
+    }
+
+    /**
+     * Returns the consumer service of the given catalog URL, or the one injected by tests.
+     *
+     * @param catalogUri The effective catalog URL.
+     * @param urlResolver The URL resolver of the CTI requests.
+     * @return The consumer service.
+     */
+    private ConsumerService getConsumerService(String catalogUri, ResourceUrlResolver urlResolver) {
+        if (this.consumerServiceOverride != null) {
+            return this.consumerServiceOverride;
+        }
+        return new ConsumerServiceImpl(
+                PluginSettings.getContextFromCatalogUri(catalogUri),
+                PluginSettings.getConsumerFromCatalogUri(catalogUri),
+                this.getConsumerType(),
+                catalogUri,
+                this.consumersIndex,
+                new ApiClient(urlResolver));
+    }
+
+    /**
+     * Returns the content index of the documents known to this consumer, created on first use with
+     * the configured capacity.
+     *
+     * @return The routes of this consumer's documents.
+     */
+    private synchronized ContentRoutes getRoutes() {
+        if (this.routes == null) {
+            this.routes = new ContentRoutes(PluginSettings.getInstance().getCatalogRoutingCacheSize());
+        }
+        return this.routes;
+    }
+
+    /**
+     * Returns the catch-up planner of this consumer, created on first use.
+     *
+     * @return The catch-up planner.
+     */
+    private synchronized CatchUpPlanner getPlanner() {
+        if (this.planner == null) {
+            this.planner = new CatchUpPlanner();
+        }
+        return this.planner;
+    }
+
     /**
      * Loads the external {@code manifest.json} from the snapshots directory and returns the metadata
      * entry for this consumer's snapshot file. The manifest is a JSON object keyed by snapshot
@@ -751,9 +935,10 @@ public abstract class AbstractConsumerService {
     }
 
     /**
-     * Performs the blue/green shadow swap for a plan change. Downloads new content into hidden shadow
-     * indices, reindexes user content (draft/test/custom) from the live indices, atomically swaps all
-     * aliases, rewrites the consumer document, and deletes the old physical indices.
+     * Performs the blue/green shadow swap for a plan change, or to catch up from the latest snapshot.
+     * Downloads new content into hidden shadow indices, reindexes user content (draft/test/custom)
+     * from the live indices, atomically swaps all aliases, rewrites the consumer document, and
+     * deletes the old physical indices.
      *
      * <p>On any failure before the alias swap, shadow indices are cleaned up and the system remains
      * on the old content. The next scheduled sync will re-detect the plan change and retry.
@@ -781,6 +966,7 @@ public abstract class AbstractConsumerService {
 
         long timeoutSeconds = PluginSettings.getInstance().getClientTimeout();
         Map<String, ContentIndex> shadowIndicesMap = null;
+        this.getRoutes().clear();
         List<String> shadowPhysicalNames = new ArrayList<>();
 
         // Track alias → old physical and alias → new physical for the atomic swap.
@@ -816,12 +1002,15 @@ public abstract class AbstractConsumerService {
                                     this.consumersIndex,
                                     this.environment,
                                     urlResolver);
+            long start = System.nanoTime();
             boolean snapshotSuccess = snapshotService.initialize(remoteConsumer);
             if (!snapshotSuccess) {
                 log.error(Constants.E_LOG_SHADOW_SNAPSHOT_FAILED, consumerType);
                 IndexSwapHelper.deleteIndices(this.client, shadowPhysicalNames);
                 return false;
             }
+            this.getPlanner()
+                    .recordLoad(remoteConsumer.getSnapshotOffset(), System.nanoTime() - start);
 
             // Step 5: Reindex user content (draft/test/custom) from live → shadow for ruleset
             // indices.
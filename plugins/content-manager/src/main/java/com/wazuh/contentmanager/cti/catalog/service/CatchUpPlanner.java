@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.wazuh.contentmanager.cti.catalog.model.RemoteConsumer;
+import com.wazuh.contentmanager.utils.Constants;
+
+/**
+ * Chooses how a consumer behind its remote catches up: replaying every change from its local offset,
+ * or reloading the latest snapshot and replaying only the changes published after it.
+ *
+ * <p>Both strategies are estimated in seconds from the rates observed on this node: the changes
+ * applied per second by incremental updates, and the snapshot offsets loaded per second by snapshot
+ * loads. A snapshot folds the history up to its offset into the current documents, so loading it
+ * is usually much faster than replaying that history. Until a rate is observed, a conservative
+ * default is used. The reload is only chosen when it is estimated to be several times cheaper, as
+ * it also rebuilds the content indices.
+ *
+ * <p>This class is thread-safe.
+ */
+public class CatchUpPlanner {
+    private static final Logger log = LogManager.getLogger(CatchUpPlanner.class);
+
+    /** Changes applied per second by incremental updates, until observed. */
+    static final double DEFAULT_REPLAY_RATE = 500;
+
+    /** Snapshot offsets loaded per second by snapshot loads, until observed. */
+    static final double DEFAULT_LOAD_RATE = 5_000;
+
+    /** Fixed cost of a reload, in seconds: staging indices, alias swap and cleanup. */
+    static final double RELOAD_OVERHEAD = 30;
+
+    /** How many times cheaper than the replay a reload must be estimated to be chosen. */
+    static final double RELOAD_MARGIN = 2;
+
+    /** Weight of the last observation in the rates. */
+    private static final double SMOOTHING = 0.3;
+
+    private double replayRate = DEFAULT_REPLAY_RATE;
+    private double loadRate = DEFAULT_LOAD_RATE;
+
+    /** How a consumer catches up with its remote. */
+    public enum Strategy {
+        /** Replay the changes from the local offset. */
+        REPLAY,
+
+        /** Reload the latest snapshot, then replay the changes from its offset. */
+        RELOAD
+    }
+
+    /**
+     * Chooses how a consumer catches up with its remote.
+     *
+     * @param localOffset The offset of the indexed content.
+     * @param remote The remote consumer.
+     * @return {@link Strategy#RELOAD} if the latest snapshot is ahead of the local offset and
+     *     reloading it is estimated to be cheaper than replaying the changes.
+     */
+    public synchronized Strategy plan(long localOffset, RemoteConsumer remote) {
+        long snapshotOffset = remote.getSnapshotOffset();
+        if (remote.getSnapshotLink() == null
+                || remote.getSnapshotLink().isBlank()
+                || snapshotOffset <= localOffset
+                || remote.getOffset() < snapshotOffset) {
+            return Strategy.REPLAY;
+        }
+        double replay = (remote.getOffset() - localOffset) / this.replayRate;
+        double reload =
+                RELOAD_OVERHEAD
+                        + snapshotOffset / this.loadRate
+                        + (remote.getOffset() - snapshotOffset) / this.replayRate;
+        Strategy strategy = reload * RELOAD_MARGIN < replay ? Strategy.RELOAD : Strategy.REPLAY;
+        log.debug(
+                Constants.D_LOG_CATCH_UP_PLAN,
+                remote.getType(),
+                String.format(Locale.ROOT, "%.0f", replay),
+                String.format(Locale.ROOT, "%.0f", reload),
+                strategy);
+        return strategy;
+    }
+
+    /**
+     * Records an incremental update.
+     *
+     * @param changes The number of offsets applied.
+     * @param nanos The duration of the update.
+     */
+    public synchronized void recordReplay(long changes, long nanos) {
+        this.replayRate = CatchUpPlanner.observe(this.replayRate, changes, nanos);
+    }
+
+    /**
+     * Records a full snapshot load.
+     *
+     * @param snapshotOffset The offset of the snapshot loaded.
+     * @param nanos The duration of the load.
+     */
+    public synchronized void recordLoad(long snapshotOffset, long nanos) {
+        this.loadRate = CatchUpPlanner.observe(this.loadRate, snapshotOffset, nanos);
+    }
+
+    /**
+     * Returns the changes applied per second by incremental updates.
+     *
+     * @return The observed or default rate.
+     */
+    public synchronized double getReplayRate() {
+        return this.replayRate;
+    }
+
+    /**
+     * Returns the snapshot offsets loaded per second by snapshot loads.
+     *
+     * @return The observed or default rate.
+     */
+    public synchronized double getLoadRate() {
+        return this.loadRate;
+    }
+
+    /**
+     * Folds an observation into a rate. Observations too short to be meaningful are ignored.
+     *
+     * @param rate The current rate.
+     * @param amount The amount of work observed.
+     * @param nanos The duration of the work.
+     * @return The updated rate.
+     */
+    private static double observe(double rate, long amount, long nanos) {
+        if (amount <= 0 || nanos < TimeUnit.MILLISECONDS.toNanos(100)) {
+            return rate;
+        }
+        double observed = amount / (nanos / 1e9);
+        return rate + SMOOTHING * (observed - rate);
+    }
+}
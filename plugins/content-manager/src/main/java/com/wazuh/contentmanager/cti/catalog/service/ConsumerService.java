@@ -35,4 +35,22 @@ public interface ConsumerService {
      * @return The {@link RemoteConsumer} object representing the remote state.
      */
     RemoteConsumer getRemoteConsumer();
+
+    /**
+     * Checks whether the remote consumer changed since a previous check, with a conditional request
+     * that transfers no body when it did not.
+     *
+     * @param etag The entity tag returned by the previous check, or null.
+     * @return The result of the check, or null if the remote consumer could not be reached.
+     */
+    RemoteProbe probeRemoteConsumer(String etag);
+
+    /**
+     * The result of a check of the remote consumer.
+     *
+     * @param modified Whether the remote consumer changed, or could not be checked conditionally.
+     * @param offset The remote offset, or -1 if not modified or unknown.
+     * @param etag The entity tag to send on the next check, or null if the server sent none.
+     */
+    record RemoteProbe(boolean modified, long offset, String etag) {}
 }
@@ -19,6 +19,9 @@ package com.wazuh.contentmanager.cti.catalog.service;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.get.GetResponse;
@@ -127,6 +130,40 @@ public class ConsumerServiceImpl extends AbstractService implements ConsumerServ
         return null;
     }
 
+    /**
+     * Checks whether the remote consumer changed since a previous check. When the entity tag of the
+     * previous check is given, it is sent in {@code If-None-Match}, so that an unchanged consumer is
+     * answered with an empty {@code 304 Not Modified}.
+     *
+     * @param etag The entity tag returned by the previous check, or null.
+     * @return The result of the check, or null if the API call fails.
+     */
+    @Override
+    public RemoteProbe probeRemoteConsumer(String etag) {
+        try {
+            SimpleHttpResponse response = this.client.getConsumer(this.resource, etag);
+
+            if (response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+                return new RemoteProbe(false, -1, etag);
+            }
+            if (response.getCode() == HttpStatus.SC_OK) {
+                Header header = response.getFirstHeader(HttpHeaders.ETAG);
+                JsonNode root = this.mapper.readTree(response.getBodyText());
+                return new RemoteProbe(
+                        true,
+                        root.path("data").path("last_offset").asLong(-1),
+                        header != null ? header.getValue() : null);
+            }
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            log.error("Couldn't obtain consumer from CTI: {}", e.getMessage());
+        } catch (IOException e) {
+            log.error("Failed to parse remote consumer: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid CTI consumer URI [{}]: {}", this.resource, e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Creates or updates the default local consumer state in the internal index. The placeholder is
      * persisted as {@link LocalConsumer.Status#RUNNING}: it is created on the path that immediately
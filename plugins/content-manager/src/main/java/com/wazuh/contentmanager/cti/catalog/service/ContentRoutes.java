@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the content index holding each CTI document, so that catalog updates route changes
+ * without looking the documents up in every index. Documents are mapped to the key of their index
+ * in the consumer's indices map (e.g. {@code "rule"}), which keeps entries small.
+ *
+ * <p>Routes are learned from the documents created by catalog updates and from the documents
+ * located by looking them up, and are forgotten when the documents are deleted. Only the most
+ * recently used routes are kept, up to the given capacity. Routes are hints: a document missing
+ * from the cache is still looked up.
+ *
+ * <p>This class is thread-safe.
+ */
+public class ContentRoutes {
+    private final int capacity;
+    private final Map<String, String> routes;
+
+    /**
+     * Constructs a new ContentRoutes.
+     *
+     * @param capacity The maximum number of routes kept. Zero disables the cache.
+     */
+    public ContentRoutes(int capacity) {
+        this.capacity = capacity;
+        this.routes =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                        return this.size() > ContentRoutes.this.capacity;
+                    }
+                };
+    }
+
+    /**
+     * Returns the key of the index holding the given document.
+     *
+     * @param id The document ID.
+     * @return The index key, or null if the document is not cached.
+     */
+    public synchronized String get(String id) {
+        return this.routes.get(id);
+    }
+
+    /**
+     * Records the index holding the given document.
+     *
+     * @param id The document ID.
+     * @param key The key of the index holding the document.
+     */
+    public synchronized void put(String id, String key) {
+        if (this.capacity > 0) {
+            this.routes.put(id, key);
+        }
+    }
+
+    /**
+     * Forgets the index of the given document.
+     *
+     * @param id The document ID.
+     */
+    public synchronized void remove(String id) {
+        this.routes.remove(id);
+    }
+
+    /** Forgets every route, e.g. after the content of the indices is replaced. */
+    public synchronized void clear() {
+        this.routes.clear();
+    }
+
+    /**
+     * Returns the number of routes kept.
+     *
+     * @return The number of cached documents.
+     */
+    public synchronized int size() {
+        return this.routes.size();
+    }
+}
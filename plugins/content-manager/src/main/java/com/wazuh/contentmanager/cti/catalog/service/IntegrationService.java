@@ -39,6 +39,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Resource;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.utils.Constants;
@@ -116,6 +117,7 @@ public class IntegrationService {
         searchRequest.source().query(query);
 
         try {
+            RefreshCoordinator.beforeSearch();
             SearchResponse searchResponse = this.client.search(searchRequest).actionGet();
             for (SearchHit hit : searchResponse.getHits().getHits()) {
                 String integrationId = hit.getId();
@@ -165,13 +167,15 @@ public class IntegrationService {
                         source.put(Constants.KEY_HASH, hashMap);
                         source.put(Constants.KEY_DOCUMENT, document);
 
+                        WriteRequest.RefreshPolicy refreshPolicy =
+                                RefreshCoordinator.policy(Constants.INDEX_INTEGRATIONS);
                         IndexRequest indexRequest =
                                 new IndexRequest(Constants.INDEX_INTEGRATIONS)
                                         .id(integrationId)
                                         .source(source)
                                         .setIfSeqNo(seqNo)
                                         .setIfPrimaryTerm(primaryTerm)
-                                        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                                        .setRefreshPolicy(refreshPolicy);
 
                         this.client.index(indexRequest).actionGet();
                         success = true;
@@ -225,12 +229,14 @@ public class IntegrationService {
         source.put(Constants.KEY_HASH, hashMap);
         source.put(Constants.KEY_DOCUMENT, document);
 
+        WriteRequest.RefreshPolicy refreshPolicy =
+                RefreshCoordinator.policy(Constants.INDEX_INTEGRATIONS);
         this.client
                 .index(
                         new IndexRequest(Constants.INDEX_INTEGRATIONS)
                                 .id(id)
                                 .source(source)
-                                .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE))
+                                .setRefreshPolicy(refreshPolicy))
                 .actionGet();
     }
 }
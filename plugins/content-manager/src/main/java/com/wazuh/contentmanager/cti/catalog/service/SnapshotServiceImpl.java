@@ -16,36 +16,57 @@
  */
 package com.wazuh.contentmanager.cti.catalog.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.env.Environment;
 import org.opensearch.secure_sm.AccessController;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
 
 import com.wazuh.contentmanager.cti.catalog.client.RegularUrlResolver;
 import com.wazuh.contentmanager.cti.catalog.client.ResourceUrlResolver;
 import com.wazuh.contentmanager.cti.catalog.client.SnapshotClient;
+import com.wazuh.contentmanager.cti.catalog.index.BulkIngestor;
 import com.wazuh.contentmanager.cti.catalog.index.ConsumersIndex;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
 import com.wazuh.contentmanager.cti.catalog.model.Cve;
 import com.wazuh.contentmanager.cti.catalog.model.LocalConsumer;
 import com.wazuh.contentmanager.cti.catalog.model.RemoteConsumer;
+import com.wazuh.contentmanager.cti.catalog.model.SnapshotCheckpoint;
 import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.utils.Constants;
 
@@ -64,8 +85,29 @@ public class SnapshotServiceImpl implements SnapshotService {
     private final PluginSettings pluginSettings;
     private final ObjectMapper mapper;
 
-    /** The maximum offset encountered while processing snapshot files. */
-    private long maxOffsetSeen;
+    /** Name of the snapshot parser pool, prefixed to the names of its worker threads. */
+    private static final String PARSER_THREAD_NAME = "wazuh-content-manager-snapshot-parser";
+
+    /** Number of NDJSON lines handed to a parser worker as a single unit of work. */
+    private static final int LINES_PER_CHUNK = 256;
+
+    /** Size of the read buffer over a snapshot streamed from the network. */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum offset encountered while processing snapshot files. Updated concurrently by the
+     * parser workers.
+     */
+    private final AtomicLong maxOffsetSeen = new AtomicLong();
+
+    /** The number of documents the last load could not index. */
+    private long droppedDocuments;
+
+    /** Checkpoint state armed for the next {@link #initialize(RemoteConsumer)} call, if any. */
+    private Checkpoints checkpoints;
+
+    /** Differential apply armed for the next {@link #initialize(RemoteConsumer)} call, if any. */
+    private Differential differential;
 
     /**
      * Constructs a new SnapshotServiceImpl.
@@ -117,10 +159,114 @@ public class SnapshotServiceImpl implements SnapshotService {
         this.snapshotClient = client;
     }
 
+    /**
+     * Arms durable checkpoints for the next {@link #initialize(RemoteConsumer)} call. While loading,
+     * the progress is persisted to {@link ConsumersIndex} every {@link
+     * PluginSettings#getSnapshotCheckpointInterval()} bulk flushes, so an interrupted load can resume
+     * from the last checkpoint instead of starting over.
+     *
+     * <p>A checkpoint left by a previous load of the same snapshot link is kept and the load resumes
+     * from it; a checkpoint of any other snapshot is discarded. Checkpoints are not available in
+     * streaming mode (see {@link PluginSettings#isSnapshotStreaming()}), where neither the entry
+     * order nor the archive size are known before loading, nor in differential mode (see {@link
+     * PluginSettings#isSnapshotDifferential()}), where the documents missing from the snapshot are
+     * only known once every entry was read.
+     *
+     * @param consumer information from the remote consumer, holding the snapshot link to be loaded.
+     * @return true if the next load resumes from a previous checkpoint, in which case the content
+     *     already indexed must not be cleared; false if the load starts from scratch.
+     */
+    public boolean enableCheckpoints(RemoteConsumer consumer) {
+        this.checkpoints = null;
+        int interval = this.pluginSettings.getSnapshotCheckpointInterval();
+        String snapshotUrl = consumer.getSnapshotLink();
+        if (interval == 0
+                || this.pluginSettings.isSnapshotStreaming()
+                || this.pluginSettings.isSnapshotDifferential()
+                || snapshotUrl == null
+                || snapshotUrl.isEmpty()) {
+            return false;
+        }
+
+        SnapshotCheckpoint checkpoint;
+        try {
+            checkpoint = this.consumersIndex.getCheckpoint(this.consumerType);
+            if (checkpoint != null && !snapshotUrl.equals(checkpoint.getSnapshotLink())) {
+                log.warn(Constants.W_LOG_SNAPSHOT_CHECKPOINT_STALE, this.consumerType);
+                this.consumersIndex.deleteCheckpoint(this.consumerType);
+                checkpoint = null;
+            }
+        } catch (IOException | InterruptedException | ExecutionException | TimeoutException e) {
+            log.warn(Constants.W_LOG_SNAPSHOT_CHECKPOINT_FAILED, this.consumerType, e.getMessage());
+            checkpoint = null;
+        }
+
+        this.checkpoints = new Checkpoints(snapshotUrl, interval, checkpoint);
+        return checkpoint != null;
+    }
+
+    /**
+     * Arms a differential apply for the next {@link #initialize(RemoteConsumer)} call (see {@link
+     * PluginSettings#isSnapshotDifferential()}). The fingerprint of every document currently indexed
+     * is listed upfront. While loading, the snapshot documents whose fingerprint did not change are
+     * not written, and once the snapshot is fully loaded, the indexed documents it no longer contains
+     * are deleted.
+     *
+     * @return true if the differential apply is armed, in which case the content indices must not be
+     *     cleared; false if the setting is disabled or the indexed content cannot be listed.
+     */
+    public boolean enableDifferentialApply() {
+        this.differential =
+                this.pluginSettings.isSnapshotDifferential() ? this.listIndexedContent() : null;
+        return this.differential != null;
+    }
+
+    /**
+     * Lists the fingerprints of the documents currently indexed, as the starting point of a
+     * differential apply. At most {@link PluginSettings#getSnapshotDifferentialMaxDocuments()}
+     * fingerprints are listed across all indices, as they are held in memory for the whole load.
+     *
+     * @return the differential apply state, or null if any index cannot be listed or the indexed
+     *     content is too large.
+     */
+    private Differential listIndexedContent() {
+        Map<ContentIndex, Map<String, String>> fingerprints = new IdentityHashMap<>();
+        int budget = this.pluginSettings.getSnapshotDifferentialMaxDocuments();
+        try {
+            for (ContentIndex index : this.distinctIndices()) {
+                Map<String, String> indexed = index.fingerprints(budget);
+                if (indexed == null) {
+                    log.warn(
+                            Constants.W_LOG_SNAPSHOT_DIFFERENTIAL_TOO_LARGE,
+                            this.consumerType,
+                            this.pluginSettings.getSnapshotDifferentialMaxDocuments());
+                    return null;
+                }
+                fingerprints.put(index, indexed);
+                budget -= indexed.size();
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            log.warn(Constants.W_LOG_SNAPSHOT_DIFFERENTIAL_FAILED, this.consumerType, e.getMessage());
+            return null;
+        }
+        return new Differential(fingerprints);
+    }
+
     /**
      * Initializes the content by downloading the snapshot from the given link and streaming its JSON
      * entries directly from the ZIP file without extracting to disk.
      *
+     * <p>In streaming mode (see {@link PluginSettings#isSnapshotStreaming()}), the entries are indexed
+     * while the snapshot is being received, without writing it to disk. Archives that cannot be read
+     * sequentially are then downloaded and processed as usual.
+     *
+     * <p>The content indices are kept in bulk-load mode while loading (see {@link
+     * #enterBulkLoadMode()}), and their regular settings are restored before the consumer state is
+     * updated.
+     *
+     * <p>Documents that cannot be indexed do not abort the load: the rest of the snapshot is kept
+     * indexed, but the consumer state is not updated (see {@link #getDroppedDocuments()}).
+     *
      * @param consumer information from the remote consumer. Contains the snapshot link from which the
      *     initialization takes place.
      * @return true if initialization was fully successful, false on failures.
@@ -128,6 +274,10 @@ public class SnapshotServiceImpl implements SnapshotService {
     @Override
     public boolean initialize(RemoteConsumer consumer) {
         String snapshotUrl = consumer.getSnapshotLink();
+        Checkpoints loadCheckpoints = this.checkpoints;
+        Differential loadDifferential = this.differential;
+        this.checkpoints = null;
+        this.differential = null;
 
         if (snapshotUrl == null || snapshotUrl.isEmpty()) {
             log.warn(Constants.W_LOG_SNAPSHOT_URL_EMPTY);
@@ -135,31 +285,76 @@ public class SnapshotServiceImpl implements SnapshotService {
         }
 
         log.debug(Constants.D_LOG_SNAPSHOT_INIT_START, this.consumerType);
+        this.droppedDocuments = 0;
         Path snapshotZip = null;
         long startMs = 0;
+        Set<ContentIndex> bulkLoaded = Collections.emptySet();
+        boolean restored = true;
 
         try {
-            // 1. Download Snapshot
-            snapshotZip = this.snapshotClient.downloadFile(snapshotUrl);
-            if (snapshotZip == null) {
-                log.error(Constants.E_LOG_SNAPSHOT_DOWNLOAD_FAILED, snapshotUrl);
-                return false;
+            bulkLoaded = this.enterBulkLoadMode();
+
+            // 1. In streaming mode, index the entries while the snapshot is being downloaded
+            boolean streamed = false;
+            if (this.pluginSettings.isSnapshotStreaming()) {
+                startMs = System.currentTimeMillis();
+                try {
+                    Differential streamDifferential = loadDifferential;
+                    if (!this.snapshotClient.streamFile(
+                            snapshotUrl, input -> this.processZipStream(input, streamDifferential))) {
+                        log.error(Constants.E_LOG_SNAPSHOT_DOWNLOAD_FAILED, snapshotUrl);
+                        return false;
+                    }
+                    streamed = true;
+                } catch (ZipException e) {
+                    // The archive needs its central directory: download it and load it from disk.
+                    // Documents already indexed by the streaming pass are overwritten by id.
+                    log.warn(Constants.W_LOG_SNAPSHOT_STREAM_FALLBACK, this.consumerType, e.getMessage());
+                    for (ContentIndex index : this.distinctIndices()) {
+                        index.waitForPendingUpdates();
+                    }
+                }
             }
 
-            // 2. Stream and index JSON entries directly from the ZIP
-            startMs = System.currentTimeMillis();
-            this.processZip(snapshotZip);
+            if (!streamed) {
+                // 2. Download Snapshot
+                snapshotZip = this.snapshotClient.downloadFile(snapshotUrl);
+                if (snapshotZip == null) {
+                    log.error(Constants.E_LOG_SNAPSHOT_DOWNLOAD_FAILED, snapshotUrl);
+                    return false;
+                }
 
-            // Ensure all bulk requests are finished
-            if (!this.indicesMap.isEmpty()) {
-                log.debug(Constants.D_LOG_SNAPSHOT_WAIT_PENDING_BULK);
-                this.indicesMap.values().iterator().next().waitForPendingUpdates();
+                // A checkpoint only applies to the exact archive it was taken on. Otherwise, the
+                // archive already downloaded is loaded from scratch.
+                if (loadCheckpoints != null && !loadCheckpoints.bind(Files.size(snapshotZip))) {
+                    log.warn(Constants.W_LOG_SNAPSHOT_CHECKPOINT_STALE, this.consumerType);
+                    this.deleteCheckpoint();
+                    loadCheckpoints = null;
+                    loadDifferential = this.restartLoad();
+                    if (loadDifferential == null) {
+                        // The cleared indices are created anew, with their regular settings
+                        bulkLoaded = this.enterBulkLoadMode();
+                    }
+                }
+
+                // 3. Stream and index JSON entries directly from the ZIP
+                startMs = System.currentTimeMillis();
+                this.processZip(snapshotZip, loadCheckpoints, loadDifferential);
+            }
+
+            // Remove the content the snapshot no longer holds
+            if (loadDifferential != null) {
+                this.deleteMissing(loadDifferential);
             }
 
+            // Ensure all bulk requests are finished, and count the dropped documents
+            this.awaitBulkCompletion();
+
         } catch (Exception e) {
             log.error(Constants.E_LOG_SNAPSHOT_PROCESS_FAILED, e.getMessage());
             return false;
         } finally {
+            restored = this.exitBulkLoadMode(bulkLoaded);
             // Cleanup downloaded ZIP
             this.cleanup(snapshotZip);
             if (startMs != 0) {
@@ -169,8 +364,17 @@ public class SnapshotServiceImpl implements SnapshotService {
                         System.currentTimeMillis() - startMs);
             }
         }
+        if (!restored) {
+            return false;
+        }
+
+        // The snapshot is indexed, nothing to resume from anymore
+        this.deleteCheckpoint();
+        if (this.droppedDocuments > 0) {
+            return false;
+        }
 
-        // 3. Partial update of consumer state: bump local_offset to the snapshot offset and keep
+        // 4. Partial update of consumer state: bump local_offset to the snapshot offset and keep
         // the remote_offset (set at t0 from RemoteConsumer.last_offset) so the incremental update
         // path can close the gap. Identity fields and status are preserved from the t0 write.
         return this.updateLocalOffset(consumer.getSnapshotOffset());
@@ -181,164 +385,320 @@ public class SnapshotServiceImpl implements SnapshotService {
      * (which reads the central directory and correctly handles ZIP64 archives), then processes every
      * {@code *.json} entry by reading it as NDJSON and bulk-indexing the documents.
      *
+     * <p>The calling thread only reads lines and groups them into chunks of {@link #LINES_PER_CHUNK}.
+     * Parsing, payload processing and bulk batching run on a bounded pool of parser workers (see
+     * {@link PluginSettings#getSnapshotParserWorkers()}). The number of chunks read ahead of the
+     * workers is capped, so heap usage stays proportional to the pool size regardless of the snapshot
+     * size.
+     *
+     * <p>Documents are batched per target index (see {@link BulkBuffers}), and each batch is sent
+     * through the {@link ContentIndex} it is written to, so every index applies its own flush
+     * thresholds and in-flight window.
+     *
+     * <p>Entries are processed in name order. When checkpoints are armed, the progress is persisted
+     * periodically, and the entries and lines covered by the checkpoint being resumed are skipped.
+     *
      * @param zipPath path to the ZIP file to process.
-     * @throws IOException if the ZIP file cannot be opened or read.
+     * @param checkpoints the checkpoint state of this load, or null to load without checkpoints.
+     * @param differential the differential apply state of this load, or null to write every document.
+     * @throws IOException if the ZIP file cannot be opened or read, or if a parser worker fails.
      */
-    private void processZip(Path zipPath) throws IOException {
+    private void processZip(Path zipPath, Checkpoints checkpoints, Differential differential)
+            throws IOException {
+        if (this.indicesMap.isEmpty()) {
+            return;
+        }
+        SnapshotCheckpoint resumeFrom = checkpoints != null ? checkpoints.resumeFrom : null;
+        if (resumeFrom != null) {
+            log.info(
+                    Constants.I_LOG_SNAPSHOT_RESUMING,
+                    this.consumerType,
+                    resumeFrom.getEntry(),
+                    resumeFrom.getLine());
+            this.maxOffsetSeen.accumulateAndGet(resumeFrom.getMaxOffset(), Math::max);
+        }
+
         URI uri = URI.create("jar:" + zipPath.toUri());
         try (FileSystem zipFs = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
-            for (Path root : zipFs.getRootDirectories()) {
-                try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, "*.json")) {
-                    for (Path entry : entries) {
-                        this.processZipEntry(entry);
-                    }
-                }
-            }
+            List<Path> entries = SnapshotServiceImpl.listEntries(zipFs);
+            this.load(
+                    checkpoints,
+                    differential,
+                    loader -> {
+                        for (Path entry : entries) {
+                            String entryName = entry.getFileName().toString();
+                            long skipLines = 0;
+                            if (resumeFrom != null) {
+                                int order = entryName.compareTo(resumeFrom.getEntry());
+                                if (order < 0) {
+                                    continue;
+                                }
+                                if (order == 0) {
+                                    skipLines = resumeFrom.getLine();
+                                }
+                            }
+                            try (BufferedReader reader =
+                                    Files.newBufferedReader(entry, StandardCharsets.UTF_8)) {
+                                loader.dispatchEntry(reader, entryName, skipLines);
+                            }
+                        }
+                    });
         }
     }
 
     /**
-     * Reads a single ZIP entry path as NDJSON, extracts the payload from each line, and bulk-indexes
-     * the documents into the appropriate content index.
+     * Processes a snapshot ZIP while it is being received, reading its entries sequentially from
+     * their local headers instead of the central directory. Entries are processed in archive order,
+     * without checkpoints.
+     *
+     * <p>Only the {@code *.json} entries at the root of the archive are processed, as in {@link
+     * #processZip(Path, Checkpoints, Differential)}.
      *
-     * @param entryPath the {@link Path} to the entry inside the ZIP {@link FileSystem}.
-     * @throws IOException if the entry stream cannot be opened.
+     * @param input the raw ZIP stream.
+     * @param differential the differential apply state of this load, or null to write every document.
+     * @throws ZipException if the archive cannot be read sequentially, or holds no JSON entry. The
+     *     snapshot must then be downloaded and processed with {@link #processZip(Path, Checkpoints,
+     *     Differential)}.
+     * @throws IOException if the stream cannot be read, or if a parser worker fails.
      */
-    private void processZipEntry(Path entryPath) throws IOException {
-        String line;
-        int docCount = 0;
-        int missingPayload = 0;
-        int unknownType = 0;
-        int unmappedType = 0;
-        int parseErrors = 0;
-        BulkRequest bulkRequest = new BulkRequest();
-
-        // Use any available index to execute the bulk request
-        ContentIndex executorIndex =
-                this.indicesMap.isEmpty() ? null : this.indicesMap.values().iterator().next();
-        if (executorIndex == null) {
+    private void processZipStream(InputStream input, Differential differential) throws IOException {
+        if (this.indicesMap.isEmpty()) {
             return;
         }
-
-        try (BufferedReader reader = Files.newBufferedReader(entryPath, StandardCharsets.UTF_8)) {
-            while ((line = reader.readLine()) != null) {
-                try {
-                    JsonNode rootJson = this.mapper.readTree(line);
-
-                    // 1. Validate and Extract Payload
-                    if (!rootJson.has(Constants.KEY_PAYLOAD)) {
-                        missingPayload++;
-                        continue;
-                    }
-                    JsonNode payload = rootJson.get(Constants.KEY_PAYLOAD);
-
-                    // 2. Determine Index.
-                    String resourceName =
-                            rootJson.has(Constants.KEY_RESOURCE)
-                                    ? rootJson.get(Constants.KEY_RESOURCE).asText()
-                                    : (rootJson.has(Constants.KEY_NAME)
-                                            ? rootJson.get(Constants.KEY_NAME).asText()
-                                            : null);
-                    String cveType = Cve.deriveType(resourceName);
-
-                    String type = null;
-                    if (cveType != null) {
-                        // CVE feed entities are identified by the resource name pattern.
-                        type = Constants.KEY_CVES;
-                    } else if (payload.has(Constants.KEY_TYPE)) {
-                        type = payload.get(Constants.KEY_TYPE).asText();
-                        if (Constants.TYPE_IOC.equalsIgnoreCase(type)) {
-                            type = Constants.KEY_IOCS;
+        ZipInputStream zip = new ZipInputStream(new BufferedInputStream(input, STREAM_BUFFER_SIZE));
+        AtomicInteger entries = new AtomicInteger();
+        this.load(
+                null,
+                differential,
+                loader -> {
+                    ZipEntry entry;
+                    while ((entry = zip.getNextEntry()) != null) {
+                        String entryName = entry.getName();
+                        if (entry.isDirectory()
+                                || entryName.indexOf('/') >= 0
+                                || !entryName.endsWith(".json")) {
+                            continue;
                         }
+                        entries.incrementAndGet();
+                        // Not closed: closing the reader would close the whole archive stream.
+                        BufferedReader reader =
+                                new BufferedReader(new InputStreamReader(zip, StandardCharsets.UTF_8));
+                        loader.dispatchEntry(reader, entryName, 0);
                     }
+                });
+        if (entries.get() == 0) {
+            throw new ZipException("No JSON entry found reading the snapshot sequentially");
+        }
+    }
 
-                    if (type == null) {
-                        unknownType++;
-                        continue;
-                    }
+    /**
+     * Runs a single load: hands the entries of {@code source} to a fresh {@link ZipLoader}, waits for
+     * its parser workers and flushes the remaining documents.
+     *
+     * @param checkpoints the checkpoint state of this load, or null to load without checkpoints.
+     * @param differential the differential apply state of this load, or null to write every document.
+     * @param source the snapshot entries to load.
+     * @throws IOException if an entry cannot be read, or if a parser worker fails.
+     */
+    private void load(Checkpoints checkpoints, Differential differential, EntrySource source)
+            throws IOException {
+        ZipLoader loader =
+                new ZipLoader(this.pluginSettings.getSnapshotParserWorkers(), checkpoints, differential);
+        try {
+            source.dispatchTo(loader);
+            loader.awaitWorkers();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for snapshot parser workers", e);
+        } finally {
+            loader.shutdown();
+        }
 
-                    // 3. Select correct index based on type
-                    ContentIndex indexHandler = this.indicesMap.get(type);
-                    if (indexHandler == null) {
-                        log.debug(Constants.D_LOG_SNAPSHOT_NO_INDEX_FOR_TYPE, type);
-                        unmappedType++;
-                        continue;
-                    }
+        if (loader.failure.get() != null) {
+            throw new IOException("Snapshot parser worker failed", loader.failure.get());
+        }
 
-                    // Inject the CTI offset value into the payload so it is persisted
-                    if (rootJson.has(Constants.KEY_OFFSET) && payload.isObject()) {
-                        long offset = rootJson.get(Constants.KEY_OFFSET).asLong();
-                        ((ObjectNode) payload).put(Constants.KEY_OFFSET, offset);
-                        this.maxOffsetSeen = Math.max(this.maxOffsetSeen, offset);
-                    }
+        for (IngestStats stats : loader.entryStats) {
+            stats.logSkipped();
+        }
 
-                    if (Constants.KEY_CVES.equals(type) && payload.isObject() && cveType != null) {
-                        ((ObjectNode) payload).put(Constants.KEY_TYPE, cveType);
-                    }
+        // Index remaining documents
+        loader.bulkBuffers.flush();
+    }
 
-                    ObjectNode processedPayload = indexHandler.processPayload(payload);
-                    String writeIndex = indexHandler.getWriteIndex();
+    /**
+     * Lists the {@code *.json} entries of a mounted snapshot, sorted by name so that a checkpoint
+     * designates the same position on every load of the same archive.
+     *
+     * @param zipFs the mounted snapshot.
+     * @return the entries, in name order.
+     * @throws IOException if the archive cannot be listed.
+     */
+    private static List<Path> listEntries(FileSystem zipFs) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        for (Path root : zipFs.getRootDirectories()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "*.json")) {
+                stream.forEach(entries::add);
+            }
+        }
+        entries.sort(Comparator.comparing(entry -> entry.getFileName().toString()));
+        return entries;
+    }
 
-                    // Create Index Request
-                    IndexRequest indexRequest =
-                            new IndexRequest(writeIndex).source(processedPayload.toString(), XContentType.JSON);
+    /**
+     * Parses a single NDJSON line, extracts its payload and adds the resulting index request to the
+     * bulk buffer. Lines that cannot be indexed are accounted for in the entry's {@link IngestStats}.
+     * In a differential apply, documents already indexed with the same fingerprint are not written.
+     *
+     * @param line the raw NDJSON line.
+     * @param stats the skipped/parse-error counters of the entry the line belongs to.
+     * @param bulkBuffers the per-index buffers the parsed document is added to.
+     * @param differential the differential apply state of the load, or null to write every document.
+     */
+    private void processLine(
+            String line, IngestStats stats, BulkBuffers bulkBuffers, Differential differential) {
+        try {
+            SnapshotLine entry = this.readLine(line);
 
-                    // Determine ID from resource/name key.
-                    if (resourceName != null) {
-                        indexRequest.id(resourceName);
-                    } else {
-                        throw new IOException(
-                                "Missing 'resource'/'name' key in CTI resource. {offset}:"
-                                        + rootJson.get("offset").asInt());
-                    }
+            // 1. Validate and Extract Payload
+            if (entry.payload() == null) {
+                stats.missingPayload.incrementAndGet();
+                return;
+            }
+            JsonNode payload = entry.payload();
 
-                    bulkRequest.add(indexRequest);
-                    docCount++;
-
-                    // Flush when EITHER the document count OR the estimated byte size cap is reached.
-                    // estimatedSizeInBytes() is maintained incrementally by BulkRequest.add(...), so
-                    // this adds no per-doc work. The byte trigger bounds per-request heap regardless
-                    // of individual document size (e.g. large CVE documents); the count trigger still
-                    // governs small docs. Worst-case in-flight heap = MAX_CONCURRENT_BULKS *
-                    // MAX_BULK_BYTES.
-                    if (docCount >= this.pluginSettings.getMaxItemsPerBulk()
-                            || bulkRequest.estimatedSizeInBytes() >= this.pluginSettings.getMaxBulkBytes()) {
-                        executorIndex.executeBulk(bulkRequest);
-                        bulkRequest = new BulkRequest();
-                        docCount = 0;
-                    }
+            // 2. Determine Index.
+            String resourceName = entry.resourceName();
+            String cveType = Cve.deriveType(resourceName);
 
-                } catch (IOException e) {
-                    log.debug(Constants.D_LOG_SNAPSHOT_PARSE_LINE_FAILED, e.getMessage());
-                    parseErrors++;
+            String type = null;
+            if (cveType != null) {
+                // CVE feed entities are identified by the resource name pattern.
+                type = Constants.KEY_CVES;
+            } else if (payload.has(Constants.KEY_TYPE)) {
+                type = payload.get(Constants.KEY_TYPE).asText();
+                if (Constants.TYPE_IOC.equalsIgnoreCase(type)) {
+                    type = Constants.KEY_IOCS;
                 }
             }
 
-            int skipped = missingPayload + unknownType + unmappedType + parseErrors;
-            if (skipped > 0) {
-                log.warn(
-                        Constants.W_LOG_SNAPSHOT_ENTRIES_SKIPPED,
-                        skipped,
-                        missingPayload,
-                        unknownType,
-                        unmappedType,
-                        parseErrors);
+            if (type == null) {
+                stats.unknownType.incrementAndGet();
+                return;
             }
 
-            // Index remaining documents
-            if (bulkRequest.numberOfActions() > 0) {
-                executorIndex.executeBulk(bulkRequest);
+            // 3. Select correct index based on type
+            ContentIndex indexHandler = this.indicesMap.get(type);
+            if (indexHandler == null) {
+                log.debug(Constants.D_LOG_SNAPSHOT_NO_INDEX_FOR_TYPE, type);
+                stats.unmappedType.incrementAndGet();
+                return;
+            }
+
+            // Inject the CTI offset value into the payload so it is persisted
+            if (entry.offset() != null && payload.isObject()) {
+                ((ObjectNode) payload).put(Constants.KEY_OFFSET, entry.offset());
+                this.maxOffsetSeen.accumulateAndGet(entry.offset(), Math::max);
+            }
+
+            if (Constants.KEY_CVES.equals(type) && payload.isObject() && cveType != null) {
+                ((ObjectNode) payload).put(Constants.KEY_TYPE, cveType);
+            }
+
+            // Determine ID from resource/name key.
+            if (resourceName == null) {
+                throw new IOException(
+                        "Missing 'resource'/'name' key in CTI resource. {offset}:" + entry.offset());
+            }
+
+            // The processed payload is serialized straight into the request source bytes, without an
+            // intermediate tree or string copy.
+            byte[] source;
+            if (differential != null) {
+                ContentIndex.SerializedDocument document = indexHandler.serializeDocument(payload);
+                if (differential.unchanged(indexHandler, resourceName, document.fingerprint())) {
+                    return;
+                }
+                source = document.source();
+            } else {
+                source = indexHandler.serializePayload(payload);
             }
+
+            // Create Index Request.
+            IndexRequest indexRequest =
+                    new IndexRequest(indexHandler.getWriteIndex())
+                            .id(resourceName)
+                            .source(source, XContentType.JSON);
+
+            bulkBuffers.add(indexHandler, indexRequest);
+        } catch (IOException e) {
+            log.debug(Constants.D_LOG_SNAPSHOT_PARSE_LINE_FAILED, e.getMessage());
+            stats.parseErrors.incrementAndGet();
         }
     }
 
+    /**
+     * Streams through a snapshot NDJSON line, keeping only the fields needed to route the document
+     * ({@code resource}/{@code name} and {@code offset}) and materializing the {@code payload}
+     * subtree. Any other top-level field is skipped without being built into a tree.
+     *
+     * @param line the raw NDJSON line.
+     * @return the extracted fields. The payload is null when the line has no payload key.
+     * @throws IOException if the line is not a valid JSON object.
+     */
+    private SnapshotLine readLine(String line) throws IOException {
+        String resource = null;
+        String name = null;
+        Long offset = null;
+        JsonNode payload = null;
+
+        try (JsonParser parser = this.mapper.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Snapshot line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case Constants.KEY_RESOURCE ->
+                            resource = token.isScalarValue() ? parser.getText() : null;
+                    case Constants.KEY_NAME -> name = token.isScalarValue() ? parser.getText() : null;
+                    case Constants.KEY_OFFSET ->
+                            offset = token.isScalarValue() ? parser.getValueAsLong() : 0L;
+                    case Constants.KEY_PAYLOAD -> {
+                        payload = this.mapper.readTree(parser);
+                        if (payload == null) {
+                            payload = NullNode.getInstance();
+                        }
+                        continue;
+                    }
+                    default -> {
+                        // Not needed for routing, skipped below.
+                    }
+                }
+                parser.skipChildren();
+            }
+        }
+        return new SnapshotLine(resource != null ? resource : name, offset, payload);
+    }
+
     /**
      * Returns the maximum offset encountered during the last snapshot file processing.
      *
      * @return the maximum offset value seen across all processed snapshot entries.
      */
     public long getMaxOffsetSeen() {
-        return this.maxOffsetSeen;
+        return this.maxOffsetSeen.get();
+    }
+
+    /**
+     * Returns the number of documents the last snapshot load could not index. The rest of the
+     * snapshot is kept indexed, but the local offset is left unchanged.
+     *
+     * @return the number of permanently dropped documents.
+     */
+    public long getDroppedDocuments() {
+        return this.droppedDocuments;
     }
 
     /**
@@ -360,29 +720,45 @@ public class SnapshotServiceImpl implements SnapshotService {
     public boolean initialize(Path localZip, JsonNode manifestEntry) {
         log.debug(Constants.D_LOG_SNAPSHOT_LOCAL_INIT_START, this.consumerType, localZip.getFileName());
 
-        this.maxOffsetSeen = 0;
+        this.droppedDocuments = 0;
         long startMs = System.currentTimeMillis();
+        Set<ContentIndex> bulkLoaded = Collections.emptySet();
+        boolean restored;
 
         try {
-            // 1. Clear indices
-            this.indicesMap.values().forEach(ContentIndex::clear);
+            // 1. Clear indices, unless the snapshot is applied differentially
+            Differential loadDifferential = this.restartLoad();
+            bulkLoaded = this.enterBulkLoadMode();
 
             // 2. Stream and index JSON entries directly from the ZIP
             AccessController.doPrivilegedChecked(
                     () -> {
-                        this.processZip(localZip);
+                        this.processZip(localZip, null, loadDifferential);
                         return null;
                     });
 
-            // Ensure all bulk requests are finished
-            if (!this.indicesMap.isEmpty()) {
-                log.debug(Constants.D_LOG_SNAPSHOT_WAIT_PENDING_BULK);
-                this.indicesMap.values().iterator().next().waitForPendingUpdates();
+            // Remove the content the snapshot no longer holds
+            if (loadDifferential != null) {
+                this.deleteMissing(loadDifferential);
             }
 
+            // Ensure all bulk requests are finished, and count the dropped documents
+            this.awaitBulkCompletion();
+
         } catch (Exception e) {
             log.error(Constants.E_LOG_SNAPSHOT_LOCAL_PROCESS_FAILED, e.getMessage());
             return false;
+        } finally {
+            restored = this.exitBulkLoadMode(bulkLoaded);
+        }
+        if (!restored) {
+            return false;
+        }
+
+        // A checkpoint left by an interrupted remote load no longer describes the indexed content
+        this.deleteCheckpoint();
+        if (this.droppedDocuments > 0) {
+            return false;
         }
 
         // 3. Delete source zip file
@@ -395,7 +771,127 @@ public class SnapshotServiceImpl implements SnapshotService {
         // 4. Partial update of consumer state: bump local_offset to the highest offset observed
         // while indexing. Identity fields, is_public, status and remote_offset are owned by the
         // t0 write performed by AbstractConsumerService.writeInitialConsumer.
-        return this.updateLocalOffset(this.maxOffsetSeen);
+        return this.updateLocalOffset(this.maxOffsetSeen.get());
+    }
+
+    /**
+     * Switches the content indices to bulk-load mode for the duration of a snapshot load, when
+     * enabled (see {@link PluginSettings#isSnapshotBulkLoad()}). An index that cannot be switched is
+     * loaded with its regular settings.
+     *
+     * @return the indices switched to bulk-load mode.
+     */
+    private Set<ContentIndex> enterBulkLoadMode() {
+        Set<ContentIndex> switched = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!this.pluginSettings.isSnapshotBulkLoad()) {
+            return switched;
+        }
+        for (ContentIndex index : this.distinctIndices()) {
+            try {
+                index.enterBulkLoadMode();
+                switched.add(index);
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                log.warn(Constants.W_LOG_BULK_LOAD_ENTER_FAILED, index.getIndexName(), e.getMessage());
+            }
+        }
+        return switched;
+    }
+
+    /**
+     * Restores the regular settings of the indices switched to bulk-load mode, refreshes them and
+     * waits for their replicas.
+     *
+     * @param indices the indices returned by {@link #enterBulkLoadMode()}.
+     * @return false if the settings of any index could not be restored. The snapshot must then not
+     *     be reported as loaded, so that the next synchronization tries again.
+     */
+    private boolean exitBulkLoadMode(Set<ContentIndex> indices) {
+        boolean restored = true;
+        for (ContentIndex index : indices) {
+            try {
+                index.exitBulkLoadMode();
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                log.error(Constants.E_LOG_BULK_LOAD_EXIT_FAILED, index.getIndexName(), e.getMessage());
+                restored = false;
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Waits for every pending bulk request, including retries of rejected documents, and logs the
+     * per-index outcome. The documents permanently dropped are counted in {@link #droppedDocuments},
+     * so that the caller does not advance {@code local_offset} past content that is missing from the
+     * indices. The rest of the load is kept.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void awaitBulkCompletion() throws InterruptedException {
+        if (this.indicesMap.isEmpty()) {
+            return;
+        }
+        log.debug(Constants.D_LOG_SNAPSHOT_WAIT_PENDING_BULK);
+        Set<ContentIndex> indices = this.distinctIndices();
+        // Completion barrier: every index drains its own in-flight window.
+        for (ContentIndex index : indices) {
+            index.waitForPendingUpdates();
+        }
+
+        long dropped = 0;
+        for (ContentIndex index : indices) {
+            BulkIngestor ingestor = index.getBulkIngestor();
+            ingestor.logStats();
+            dropped += ingestor.getFailedCount();
+        }
+        if (dropped > 0) {
+            log.error(Constants.E_LOG_SNAPSHOT_DOCUMENTS_DROPPED, dropped, this.consumerType);
+        }
+        this.droppedDocuments = dropped;
+    }
+
+    /**
+     * Deletes the indexed documents a differential apply did not find in the snapshot, in bulk
+     * requests of at most {@link BulkIngestor#getMaxItems()} documents sent through the index they
+     * belong to, and logs the outcome of the apply. The deletions are awaited along with
+     * the snapshot documents by {@link #awaitBulkCompletion()}.
+     *
+     * @param differential the differential apply state of the completed load.
+     */
+    private void deleteMissing(Differential differential) {
+        long deleted = 0;
+        for (Map.Entry<ContentIndex, Map<String, String>> entry :
+                differential.fingerprints.entrySet()) {
+            ContentIndex index = entry.getKey();
+            BulkRequest bulkRequest = new BulkRequest();
+            for (String id : entry.getValue().keySet()) {
+                bulkRequest.add(new DeleteRequest(index.getWriteIndex(), id));
+                if (bulkRequest.numberOfActions() >= index.getBulkIngestor().getMaxItems()) {
+                    index.executeBulk(bulkRequest);
+                    bulkRequest = new BulkRequest();
+                }
+            }
+            if (bulkRequest.numberOfActions() > 0) {
+                index.executeBulk(bulkRequest);
+            }
+            deleted += entry.getValue().size();
+        }
+        log.info(
+                Constants.I_LOG_SNAPSHOT_DIFFERENTIAL_APPLIED,
+                this.consumerType,
+                differential.unchanged.get(),
+                deleted);
+    }
+
+    /**
+     * Returns the content indices this service writes to. Several types may map to the same {@link
+     * ContentIndex} instance, which is then returned once.
+     *
+     * @return the distinct indices of {@link #indicesMap}.
+     */
+    private Set<ContentIndex> distinctIndices() {
+        Set<ContentIndex> indices = Collections.newSetFromMap(new IdentityHashMap<>());
+        indices.addAll(this.indicesMap.values());
+        return indices;
     }
 
     /**
@@ -489,4 +985,384 @@ public class SnapshotServiceImpl implements SnapshotService {
             log.warn(Constants.W_LOG_SNAPSHOT_CLEANUP_FAILED, e.getMessage());
         }
     }
+
+    /**
+     * Deletes the snapshot checkpoint of this consumer, if any. Failures are logged: a leftover
+     * checkpoint is discarded by the next load of a different snapshot.
+     */
+    private void deleteCheckpoint() {
+        try {
+            this.consumersIndex.deleteCheckpoint(this.consumerType);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            log.warn(Constants.W_LOG_SNAPSHOT_CHECKPOINT_FAILED, this.consumerType, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a snapshot load from scratch: the highest offset observed is reset, and the content
+     * indices are cleared, unless the snapshot is applied differentially (see {@link
+     * PluginSettings#isSnapshotDifferential()}).
+     *
+     * @return the differential apply state of the load, or null if the indices were cleared.
+     */
+    private Differential restartLoad() {
+        this.maxOffsetSeen.set(0);
+        Differential differential =
+                this.pluginSettings.isSnapshotDifferential() ? this.listIndexedContent() : null;
+        if (differential == null) {
+            this.indicesMap.values().forEach(ContentIndex::clear);
+        }
+        return differential;
+    }
+
+    /**
+     * Checkpoint state of a single snapshot load: the archive the checkpoints are bound to, how often
+     * they are written and the checkpoint the load resumes from, if any.
+     */
+    private static final class Checkpoints {
+        private final String link;
+        private final int interval;
+        private final SnapshotCheckpoint resumeFrom;
+        private long size;
+
+        Checkpoints(String link, int interval, SnapshotCheckpoint resumeFrom) {
+            this.link = link;
+            this.interval = interval;
+            this.resumeFrom = resumeFrom;
+        }
+
+        /**
+         * Binds the checkpoints to the downloaded archive.
+         *
+         * @param size the size in bytes of the downloaded archive.
+         * @return false if the checkpoint being resumed was taken on a different archive.
+         */
+        boolean bind(long size) {
+            this.size = size;
+            return this.resumeFrom == null || this.resumeFrom.matches(this.link, size);
+        }
+    }
+
+    /**
+     * Differential apply state of a single snapshot load: the fingerprints of the documents indexed
+     * before the load, per index. Every snapshot document is removed from them as it is read, so
+     * once the load completes they only hold the documents missing from the snapshot.
+     */
+    private static final class Differential {
+        private final Map<ContentIndex, Map<String, String>> fingerprints;
+        private final AtomicLong unchanged = new AtomicLong();
+
+        Differential(Map<ContentIndex, Map<String, String>> fingerprints) {
+            this.fingerprints = fingerprints;
+        }
+
+        /**
+         * Marks a snapshot document as present, and tells whether it is indexed already.
+         *
+         * @param index the index the document is written to.
+         * @param id the id of the document.
+         * @param fingerprint the fingerprint of the snapshot document, or null if it has none.
+         * @return true if the indexed document has the same fingerprint, so it does not need to be
+         *     written again.
+         */
+        boolean unchanged(ContentIndex index, String id, String fingerprint) {
+            Map<String, String> indexed = this.fingerprints.get(index);
+            String current = indexed != null ? indexed.remove(id) : null;
+            if (fingerprint != null && fingerprint.equals(current)) {
+                this.unchanged.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * State of a single ZIP load: the parser workers, the bound on chunks waiting to be parsed, the
+     * per-index bulk buffers and the checkpoint barrier.
+     */
+    private final class ZipLoader {
+        private final int maxPendingChunks;
+        private final ExecutorService executor;
+        private final Semaphore pendingChunks;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final List<IngestStats> entryStats = new ArrayList<>();
+        private final BulkBuffers bulkBuffers;
+        private final Checkpoints checkpoints;
+        private final Differential differential;
+
+        ZipLoader(int workers, Checkpoints checkpoints, Differential differential) {
+            this.maxPendingChunks = workers * 2;
+            // Daemon workers named after the pool, as the node's own executors. The queue never
+            // exceeds the pending chunks, which are bounded by the semaphore.
+            this.executor =
+                    OpenSearchExecutors.newFixed(
+                            PARSER_THREAD_NAME,
+                            workers,
+                            this.maxPendingChunks,
+                            OpenSearchExecutors.daemonThreadFactory(PARSER_THREAD_NAME),
+                            new ThreadContext(Settings.EMPTY));
+            this.pendingChunks = new Semaphore(this.maxPendingChunks);
+            this.bulkBuffers = new BulkBuffers(SnapshotServiceImpl.this.distinctIndices());
+            this.checkpoints = checkpoints;
+            this.differential = differential;
+        }
+
+        /**
+         * Reads a single ZIP entry as NDJSON and hands its lines, in chunks, to the parser workers.
+         * Blocks when too many chunks are already waiting to be parsed. The reader is not closed.
+         *
+         * @param reader the content of the entry.
+         * @param entryName the name of the entry, as recorded in checkpoints.
+         * @param skipLines the number of leading lines already indexed by a previous load.
+         * @throws IOException if the entry cannot be read.
+         * @throws InterruptedException if interrupted while waiting for a free chunk permit.
+         */
+        void dispatchEntry(BufferedReader reader, String entryName, long skipLines)
+                throws IOException, InterruptedException {
+            IngestStats stats = new IngestStats();
+            this.entryStats.add(stats);
+            String line;
+            long lineNumber = 0;
+            List<String> chunk = new ArrayList<>(LINES_PER_CHUNK);
+            while ((line = reader.readLine()) != null && this.failure.get() == null) {
+                if (++lineNumber <= skipLines) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() >= LINES_PER_CHUNK) {
+                    this.submitChunk(chunk, stats);
+                    chunk = new ArrayList<>(LINES_PER_CHUNK);
+                    this.checkpoint(entryName, lineNumber);
+                }
+            }
+            if (!chunk.isEmpty() && this.failure.get() == null) {
+                this.submitChunk(chunk, stats);
+            }
+        }
+
+        /** Submits a chunk of lines to the parser workers, waiting for a free chunk permit first. */
+        private void submitChunk(List<String> lines, IngestStats stats) throws InterruptedException {
+            this.pendingChunks.acquire();
+            this.executor.execute(
+                    () -> {
+                        try {
+                            for (String line : lines) {
+                                SnapshotServiceImpl.this.processLine(
+                                        line, stats, this.bulkBuffers, this.differential);
+                            }
+                        } catch (Exception e) {
+                            this.failure.compareAndSet(null, e);
+                        } finally {
+                            this.pendingChunks.release();
+                        }
+                    });
+        }
+
+        /**
+         * Persists a checkpoint once enough bulk requests were flushed since the previous one.
+         *
+         * <p>Acts as a barrier: waits until every chunk read so far is parsed, flushes the buffers and
+         * waits until every bulk request has a final outcome, so that all the lines before {@code
+         * line} are durably indexed when the checkpoint is written. No checkpoint is written once a
+         * document was dropped or a worker failed, as that load does not advance the offset anyway.
+         *
+         * @param entryName the entry being read.
+         * @param line the number of lines of the entry dispatched so far.
+         * @throws InterruptedException if interrupted while waiting for the barrier.
+         */
+        private void checkpoint(String entryName, long line) throws InterruptedException {
+            if (this.checkpoints == null || this.bulkBuffers.flushes() < this.checkpoints.interval) {
+                return;
+            }
+            this.pendingChunks.acquire(this.maxPendingChunks);
+            this.pendingChunks.release(this.maxPendingChunks);
+            this.bulkBuffers.flush();
+            long dropped = 0;
+            for (ContentIndex index : this.bulkBuffers.indices()) {
+                index.waitForPendingUpdates();
+                dropped += index.getBulkIngestor().getFailedCount();
+            }
+            this.bulkBuffers.resetFlushes();
+            if (dropped > 0 || this.failure.get() != null) {
+                return;
+            }
+
+            String consumerType = SnapshotServiceImpl.this.consumerType;
+            SnapshotCheckpoint checkpoint =
+                    new SnapshotCheckpoint(
+                            consumerType,
+                            this.checkpoints.link,
+                            this.checkpoints.size,
+                            entryName,
+                            line,
+                            SnapshotServiceImpl.this.maxOffsetSeen.get());
+            try {
+                SnapshotServiceImpl.this.consumersIndex.setCheckpoint(checkpoint);
+                log.debug(Constants.D_LOG_SNAPSHOT_CHECKPOINT_WRITTEN, consumerType, entryName, line);
+            } catch (IOException | ExecutionException | TimeoutException e) {
+                log.warn(Constants.W_LOG_SNAPSHOT_CHECKPOINT_FAILED, consumerType, e.getMessage());
+            }
+        }
+
+        /**
+         * Waits for the parser workers to process every submitted chunk.
+         *
+         * @throws InterruptedException if interrupted while waiting.
+         * @throws IOException if the workers do not terminate.
+         */
+        void awaitWorkers() throws InterruptedException, IOException {
+            this.executor.shutdown();
+            if (!this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for snapshot parser workers");
+            }
+        }
+
+        /**
+         * Stops the parser workers, giving the ones still running a bounded time to finish their
+         * chunk, so that no worker adds documents after the load is over.
+         */
+        void shutdown() {
+            this.executor.shutdownNow();
+            try {
+                this.executor.awaitTermination(
+                        SnapshotServiceImpl.this.pluginSettings.getClientTimeout(), TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Source of the entries of a snapshot load. */
+    @FunctionalInterface
+    private interface EntrySource {
+        /**
+         * Hands every entry to be loaded to {@code loader}.
+         *
+         * @param loader the loader of the current load.
+         * @throws IOException if an entry cannot be read.
+         * @throws InterruptedException if interrupted while waiting for the parser workers.
+         */
+        void dispatchTo(ZipLoader loader) throws IOException, InterruptedException;
+    }
+
+    /**
+     * One {@link BulkBuffer} per target index. Documents are only ever batched with documents of the
+     * same index, so a flush never mixes indices and the concurrency limits of each {@link
+     * ContentIndex} apply to its own writes.
+     */
+    private final class BulkBuffers {
+        private final Map<ContentIndex, BulkBuffer> buffers = new IdentityHashMap<>();
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        BulkBuffers(Set<ContentIndex> indices) {
+            for (ContentIndex index : indices) {
+                index.getBulkIngestor().resetStats();
+                this.buffers.put(index, new BulkBuffer(index, this.flushes));
+            }
+        }
+
+        /** Returns the indices the buffers are flushed to. */
+        Set<ContentIndex> indices() {
+            return this.buffers.keySet();
+        }
+
+        /** Returns the number of bulk requests sent since the last {@link #resetFlushes()}. */
+        int flushes() {
+            return this.flushes.get();
+        }
+
+        /** Resets the number of bulk requests sent. */
+        void resetFlushes() {
+            this.flushes.set(0);
+        }
+
+        /** Adds a request to the buffer of the index it is written to. */
+        void add(ContentIndex index, IndexRequest request) {
+            this.buffers.get(index).add(request);
+        }
+
+        /** Sends the documents remaining in every buffer. */
+        void flush() {
+            this.buffers.values().forEach(BulkBuffer::flush);
+        }
+    }
+
+    /**
+     * Accumulates the parsed documents of a single index into a {@link BulkRequest} shared by all
+     * parser workers, and flushes it through that index when either the document count or the
+     * estimated byte size cap is reached.
+     */
+    private final class BulkBuffer {
+        private final ContentIndex index;
+        private final AtomicInteger flushes;
+        private BulkRequest bulkRequest = new BulkRequest();
+
+        BulkBuffer(ContentIndex index, AtomicInteger flushes) {
+            this.index = index;
+            this.flushes = flushes;
+        }
+
+        /**
+         * Adds a request to the buffer, flushing it if a threshold is reached.
+         *
+         * <p>Flush when EITHER the document count OR the estimated byte size cap is reached.
+         * estimatedSizeInBytes() is maintained incrementally by BulkRequest.add(...), so this adds no
+         * per-doc work. The byte trigger bounds per-request heap regardless of individual document size
+         * (e.g. large CVE documents); the count trigger still governs small docs. Both caps are the
+         * current ones of the index's {@link BulkIngestor}, which shrinks them under cluster pressure.
+         * Worst-case in-flight heap = target indices * MAX_CONCURRENT_BULKS * MAX_BULK_BYTES.
+         */
+        synchronized void add(IndexRequest request) {
+            this.bulkRequest.add(request);
+            BulkIngestor ingestor = this.index.getBulkIngestor();
+            if (this.bulkRequest.numberOfActions() >= ingestor.getMaxItems()
+                    || this.bulkRequest.estimatedSizeInBytes() >= ingestor.getMaxBytes()) {
+                this.flush();
+            }
+        }
+
+        /** Sends the buffered documents, if any. */
+        synchronized void flush() {
+            if (this.bulkRequest.numberOfActions() > 0) {
+                this.index.executeBulk(this.bulkRequest);
+                this.bulkRequest = new BulkRequest();
+                this.flushes.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Routing fields of a snapshot NDJSON line.
+     *
+     * @param resourceName the {@code resource} value, or the {@code name} value when absent.
+     * @param offset the CTI offset of the line, or null when absent.
+     * @param payload the payload subtree, or null when absent.
+     */
+    private record SnapshotLine(String resourceName, Long offset, JsonNode payload) {}
+
+    /** Skipped-line and parse-error counters of a single snapshot entry. */
+    private static final class IngestStats {
+        private final AtomicInteger missingPayload = new AtomicInteger();
+        private final AtomicInteger unknownType = new AtomicInteger();
+        private final AtomicInteger unmappedType = new AtomicInteger();
+        private final AtomicInteger parseErrors = new AtomicInteger();
+
+        /** Logs a warning summarizing the skipped lines, if any. */
+        void logSkipped() {
+            int skipped =
+                    this.missingPayload.get()
+                            + this.unknownType.get()
+                            + this.unmappedType.get()
+                            + this.parseErrors.get();
+            if (skipped > 0) {
+                log.warn(
+                        Constants.W_LOG_SNAPSHOT_ENTRIES_SKIPPED,
+                        skipped,
+                        this.missingPayload.get(),
+                        this.unknownType.get(),
+                        this.unmappedType.get(),
+                        this.parseErrors.get());
+            }
+        }
+    }
 }
@@ -24,17 +24,20 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsRequest;
 import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
-import org.opensearch.action.support.WriteRequest;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.engine.VersionConflictEngineException;
 import org.opensearch.index.query.QueryBuilders;
@@ -50,8 +53,10 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Policy;
 import com.wazuh.contentmanager.cti.catalog.model.Resource;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
@@ -72,6 +77,16 @@ public class SpaceService {
         this.pluginSettings = PluginSettings.getInstance();
     }
 
+    /**
+     * Opens a scope on the current thread coalescing the refreshes of the writes of an operation,
+     * see {@link RefreshCoordinator}.
+     *
+     * @return the scope, to be closed once the operation completes.
+     */
+    public RefreshCoordinator.Scope openRefreshScope() {
+        return RefreshCoordinator.open(this.client);
+    }
+
     /**
      * Executes a blocking task on the generic thread pool so that it does not block a transport
      * thread. This avoids {@code AssertionError: Expected current thread to not be a transport
@@ -97,6 +112,24 @@ public class SpaceService {
         }
     }
 
+    /**
+     * Runs a search on the generic thread pool, see {@link #offloadBlocking(Callable)}. The indices
+     * written within the refresh scope of the calling thread are refreshed first, on the same pool
+     * thread, so that the search sees the writes (see {@link RefreshCoordinator#takeRefresh()}).
+     *
+     * @param searchRequest the search to run
+     * @return the search response
+     * @throws IOException if the search fails
+     */
+    private SearchResponse offloadSearch(SearchRequest searchRequest) throws IOException {
+        Runnable refresh = RefreshCoordinator.takeRefresh();
+        return this.offloadBlocking(
+                () -> {
+                    refresh.run();
+                    return this.client.search(searchRequest).actionGet();
+                });
+    }
+
     /**
      * Deletes all documents related to a specific space across all resource indices.
      *
@@ -120,8 +153,7 @@ public class SpaceService {
                     sourceBuilder.fetchSource(false); // We only need the _id
                     searchRequest.source(sourceBuilder);
 
-                    SearchResponse response =
-                            this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+                    SearchResponse response = this.offloadSearch(searchRequest);
 
                     for (SearchHit hit : response.getHits().getHits()) {
                         bulkRequest.add(new DeleteRequest(indexName, hit.getId()));
@@ -130,7 +162,7 @@ public class SpaceService {
             }
 
             if (bulkRequest.numberOfActions() > 0) {
-                bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                bulkRequest.setRefreshPolicy(RefreshCoordinator.policy(bulkRequest));
                 BulkResponse response =
                         this.offloadBlocking(() -> this.client.bulk(bulkRequest).actionGet());
                 if (response.hasFailures()) {
@@ -204,7 +236,7 @@ public class SpaceService {
                             .id(spaceDocId)
                             .source(this.objectMapper.writeValueAsString(source), XContentType.JSON)
                             .opType(DocWriteRequest.OpType.CREATE)
-                            .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                            .setRefreshPolicy(RefreshCoordinator.policy(Constants.INDEX_POLICIES));
 
             this.client.index(request).actionGet();
             log.info(Constants.I_LOG_SPACE_INITIALIZED, spaceName);
@@ -243,8 +275,7 @@ public class SpaceService {
                     sourceBuilder.size(10000);
 
                     searchRequest.source(sourceBuilder);
-                    SearchResponse response =
-                            this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+                    SearchResponse response = this.offloadSearch(searchRequest);
 
                     for (SearchHit hit : response.getHits().getHits()) {
                         String hash = Resource.extractHash(hit.getSourceAsMap());
@@ -311,7 +342,7 @@ public class SpaceService {
             }
 
             if (bulkRequest.numberOfActions() > 0) {
-                bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                bulkRequest.setRefreshPolicy(RefreshCoordinator.policy(bulkRequest));
                 BulkResponse response =
                         this.client
                                 .bulk(bulkRequest)
@@ -346,8 +377,7 @@ public class SpaceService {
                 sourceBuilder.size(10000);
                 searchRequest.source(sourceBuilder);
 
-                SearchResponse response =
-                        this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+                SearchResponse response = this.offloadSearch(searchRequest);
 
                 for (SearchHit hit : response.getHits().getHits()) {
                     String docId = this.getDocumentId(hit.getSourceAsMap());
@@ -387,8 +417,7 @@ public class SpaceService {
                 sourceBuilder.fetchSource(new String[] {Constants.Q_DOCUMENT_ID}, null);
                 searchRequest.source(sourceBuilder);
 
-                SearchResponse response =
-                        this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+                SearchResponse response = this.offloadSearch(searchRequest);
 
                 for (SearchHit hit : response.getHits().getHits()) {
                     String docId = this.getDocumentId(hit.getSourceAsMap());
@@ -622,8 +651,7 @@ public class SpaceService {
             sourceBuilder.size(1);
             searchRequest.source(sourceBuilder);
 
-            SearchResponse response =
-                    this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+            SearchResponse response = this.offloadSearch(searchRequest);
 
             if (response.getHits().getTotalHits().value() > 0) {
                 SearchHit hit = response.getHits().getAt(0);
@@ -662,7 +690,7 @@ public class SpaceService {
             }
 
             if (bulkRequest.numberOfActions() > 0) {
-                bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                bulkRequest.setRefreshPolicy(RefreshCoordinator.policy(bulkRequest));
                 BulkResponse response =
                         this.client
                                 .bulk(bulkRequest)
@@ -712,8 +740,7 @@ public class SpaceService {
             sourceBuilder.fetchSource(false); // We only need the _id
             searchRequest.source(sourceBuilder);
 
-            SearchResponse response =
-                    this.offloadBlocking(() -> this.client.search(searchRequest).actionGet());
+            SearchResponse response = this.offloadSearch(searchRequest);
             if (response.getHits().getTotalHits().value() > 0) {
                 return response.getHits().getAt(0).getId();
             }
@@ -757,110 +784,359 @@ public class SpaceService {
 
             SearchRequest searchRequest = new SearchRequest(Constants.INDEX_POLICIES);
             searchRequest.source().query(QueryBuilders.matchAllQuery()).size(10000);
+            RefreshCoordinator.beforeSearch();
             SearchResponse response = this.client.search(searchRequest).actionGet();
 
             BulkRequest bulkUpdateRequest = new BulkRequest();
-
             for (SearchHit hit : response.getHits().getHits()) {
-                Map<String, Object> source = hit.getSourceAsMap();
-
-                @SuppressWarnings("unchecked")
-                Map<String, Object> space = (Map<String, Object>) source.get(Constants.KEY_SPACE);
-                String spaceName = null;
-                if (space != null) {
-                    spaceName = (String) space.get(Constants.KEY_NAME);
-                    // Check if the policy is in one of the target spaces
-                    if (!targetSpaces.contains(spaceName)) {
-                        continue;
-                    }
-                    log.debug(Constants.D_LOG_RECALCULATING_HASH, hit.getId(), spaceName);
+                UpdateRequest update =
+                        this.hashUpdate(hit, targetSpaces, this::getDocumentSource, changedSpaces);
+                if (update != null) {
+                    bulkUpdateRequest.add(update);
                 }
+            }
 
-                List<String> spaceHashes = new ArrayList<>();
-                spaceHashes.add(Resource.extractHash(source));
+            if (bulkUpdateRequest.numberOfActions() > 0) {
+                bulkUpdateRequest.setRefreshPolicy(RefreshCoordinator.policy(bulkUpdateRequest));
+                BulkResponse bulkResponse = this.client.bulk(bulkUpdateRequest).actionGet();
+                if (bulkResponse.hasFailures()) {
+                    log.error(Constants.E_LOG_BULK_UPDATE_HASHES_FAILED, bulkResponse.buildFailureMessage());
+                }
+            }
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> document = (Map<String, Object>) source.get(Constants.KEY_DOCUMENT);
-                if (document != null && document.containsKey(Constants.KEY_INTEGRATIONS)) {
-                    @SuppressWarnings("unchecked")
-                    List<String> integrationIds = (List<String>) document.get(Constants.KEY_INTEGRATIONS);
-
-                    for (String integrationId : integrationIds) {
-                        Map<String, Object> integrationSource =
-                                this.getDocumentSource(Constants.INDEX_INTEGRATIONS, integrationId);
-                        if (integrationSource == null) {
-                            continue;
-                        }
+            if (!changedSpaces.isEmpty()) {
+                log.info(Constants.I_LOG_CONTENT_HASH_CHANGED, changedSpaces);
+            }
 
-                        spaceHashes.add(Resource.extractHash(integrationSource));
+        } catch (Exception e) {
+            log.error(Constants.E_LOG_CALCULATE_HASHES_FAILED, e.getMessage(), e);
+        }
+        return changedSpaces;
+    }
 
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> integration =
-                                (Map<String, Object>) integrationSource.get(Constants.KEY_DOCUMENT);
-                        if (integration != null) {
-                            this.addHashes(
-                                    integration, Constants.KEY_DECODERS, Constants.INDEX_DECODERS, spaceHashes);
-                            this.addHashes(integration, Constants.KEY_KVDBS, Constants.INDEX_KVDBS, spaceHashes);
-                            this.addHashes(integration, Constants.KEY_RULES, Constants.INDEX_RULES, spaceHashes);
+    /**
+     * Asynchronously calculates and updates the aggregate hash of the policies in the given spaces,
+     * as is done by {@link #calculateAndUpdate(List)}. Instead of one get per referenced resource,
+     * the integrations and filters referenced by the policies, and then the resources referenced by
+     * those integrations, are fetched with one multi-get each. The listener is notified within the
+     * refresh scope of the calling thread, see {@link RefreshCoordinator#preserve(ActionListener)}.
+     *
+     * @param targetSpaces The list of target spaces to process.
+     * @param listener Notified with the set of space names whose aggregate hashes changed. Never
+     *     failed: a failure is logged, and notified as no space changed.
+     */
+    public void calculateAndUpdate(List<String> targetSpaces, ActionListener<Set<String>> listener) {
+        ActionListener<Set<String>> preserved = RefreshCoordinator.preserve(listener);
+        ActionListener<Set<String>> done =
+                new ActionListener<>() {
+                    @Override
+                    public void onResponse(Set<String> changedSpaces) {
+                        if (!changedSpaces.isEmpty()) {
+                            log.info(Constants.I_LOG_CONTENT_HASH_CHANGED, changedSpaces);
                         }
+                        preserved.onResponse(changedSpaces);
                     }
-                }
 
-                // Adding filter hashes that are referenced in the policy
-                if (document != null && document.containsKey(Constants.KEY_FILTERS)) {
-                    @SuppressWarnings("unchecked")
-                    List<String> filterIds = (List<String>) document.get(Constants.KEY_FILTERS);
+                    @Override
+                    public void onFailure(Exception e) {
+                        log.error(Constants.E_LOG_CALCULATE_HASHES_FAILED, e.getMessage(), e);
+                        preserved.onResponse(new HashSet<>());
+                    }
+                };
+        try {
+            this.client
+                    .admin()
+                    .indices()
+                    .exists(
+                            new IndicesExistsRequest(Constants.INDEX_POLICIES),
+                            RefreshCoordinator.preserve(
+                                    ActionListener.wrap(
+                                            response -> {
+                                                if (!response.isExists()) {
+                                                    log.warn(
+                                                            Constants.W_LOG_POLICY_INDEX_MISSING,
+                                                            Constants.INDEX_POLICIES);
+                                                    done.onResponse(new HashSet<>());
+                                                    return;
+                                                }
+                                                this.searchPolicies(targetSpaces, done);
+                                            },
+                                            done::onFailure)));
+        } catch (Exception e) {
+            done.onFailure(e);
+        }
+    }
 
-                    for (String filterId : filterIds) {
-                        Map<String, Object> filterSource =
-                                this.getDocumentSource(Constants.INDEX_FILTERS, filterId);
-                        if (filterSource != null) {
-                            spaceHashes.add(Resource.extractHash(filterSource));
-                        }
+    /**
+     * Searches the policies once the indices written within the refresh scope are refreshed, and
+     * updates the aggregate hash of those in the given spaces.
+     */
+    private void searchPolicies(List<String> targetSpaces, ActionListener<Set<String>> listener) {
+        SearchRequest searchRequest = new SearchRequest(Constants.INDEX_POLICIES);
+        searchRequest.source().query(QueryBuilders.matchAllQuery()).size(10000);
+        RefreshCoordinator.beforeSearch(
+                () -> {
+                    try {
+                        this.client.search(
+                                searchRequest,
+                                RefreshCoordinator.preserve(
+                                        ActionListener.wrap(
+                                                response ->
+                                                        this.fetchPolicySources(
+                                                                targetSpaces, response.getHits().getHits(), listener),
+                                                listener::onFailure)));
+                    } catch (Exception e) {
+                        listener.onFailure(e);
                     }
-                }
+                });
+    }
 
-                String spaceHash = Resource.computeSha256(String.join("", spaceHashes));
+    /**
+     * Fetches the integrations and filters referenced by the policies in the given spaces, then the
+     * resources referenced by those integrations, and updates the aggregate hash of the policies.
+     */
+    private void fetchPolicySources(
+            List<String> targetSpaces, SearchHit[] hits, ActionListener<Set<String>> listener) {
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        for (SearchHit hit : hits) {
+            Map<String, Object> source = hit.getSourceAsMap();
+            if (!SpaceService.inTargetSpaces(source, targetSpaces)) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> document = (Map<String, Object>) source.get(Constants.KEY_DOCUMENT);
+            SpaceService.addReferences(
+                    document, Constants.KEY_INTEGRATIONS, Constants.INDEX_INTEGRATIONS, references);
+            SpaceService.addReferences(
+                    document, Constants.KEY_FILTERS, Constants.INDEX_FILTERS, references);
+        }
+        this.multiGetSources(
+                references,
+                ActionListener.wrap(
+                        sources -> {
+                            Map<String, Set<String>> resources = new LinkedHashMap<>();
+                            for (Map<String, Object> integrationSource :
+                                    sources.getOrDefault(Constants.INDEX_INTEGRATIONS, Map.of()).values()) {
+                                @SuppressWarnings("unchecked")
+                                Map<String, Object> integration =
+                                        (Map<String, Object>) integrationSource.get(Constants.KEY_DOCUMENT);
+                                SpaceService.addReferences(
+                                        integration, Constants.KEY_DECODERS, Constants.INDEX_DECODERS, resources);
+                                SpaceService.addReferences(
+                                        integration, Constants.KEY_KVDBS, Constants.INDEX_KVDBS, resources);
+                                SpaceService.addReferences(
+                                        integration, Constants.KEY_RULES, Constants.INDEX_RULES, resources);
+                            }
+                            this.multiGetSources(
+                                    resources,
+                                    ActionListener.wrap(
+                                            resourceSources -> {
+                                                sources.putAll(resourceSources);
+                                                this.updateHashes(targetSpaces, hits, sources, listener);
+                                            },
+                                            listener::onFailure));
+                        },
+                        listener::onFailure));
+    }
 
-                Map<String, Object> updateMap = new HashMap<>();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> spaceMap =
-                        (Map<String, Object>) source.getOrDefault(Constants.KEY_SPACE, new HashMap<>());
-                @SuppressWarnings("unchecked")
-                Map<String, Object> hashMap =
-                        (Map<String, Object>) spaceMap.getOrDefault(Constants.KEY_HASH, new HashMap<>());
+    /** Writes the aggregate hash of the policies in the given spaces, from the fetched sources. */
+    private void updateHashes(
+            List<String> targetSpaces,
+            SearchHit[] hits,
+            Map<String, Map<String, Map<String, Object>>> sources,
+            ActionListener<Set<String>> listener) {
+        Set<String> changedSpaces = new HashSet<>();
+        BulkRequest bulkUpdateRequest = new BulkRequest();
+        for (SearchHit hit : hits) {
+            UpdateRequest update =
+                    this.hashUpdate(
+                            hit,
+                            targetSpaces,
+                            (index, id) -> sources.getOrDefault(index, Map.of()).get(id),
+                            changedSpaces);
+            if (update != null) {
+                bulkUpdateRequest.add(update);
+            }
+        }
+        if (bulkUpdateRequest.numberOfActions() == 0) {
+            listener.onResponse(changedSpaces);
+            return;
+        }
+        bulkUpdateRequest.setRefreshPolicy(RefreshCoordinator.policy(bulkUpdateRequest));
+        this.client.bulk(
+                bulkUpdateRequest,
+                RefreshCoordinator.preserve(
+                        ActionListener.wrap(
+                                bulkResponse -> {
+                                    if (bulkResponse.hasFailures()) {
+                                        log.error(
+                                                Constants.E_LOG_BULK_UPDATE_HASHES_FAILED,
+                                                bulkResponse.buildFailureMessage());
+                                    }
+                                    listener.onResponse(changedSpaces);
+                                },
+                                listener::onFailure)));
+    }
 
-                // Track spaces whose aggregate hash changed
-                String oldHash = (String) hashMap.getOrDefault(Constants.KEY_SHA256, "");
-                if (spaceName != null && !spaceHash.equals(oldHash)) {
-                    changedSpaces.add(spaceName);
-                }
+    /**
+     * Fetches the sources of the given documents with a single multi-get. Documents that are missing
+     * or fail to be fetched are left out, as is done by {@link #getDocumentSource(String, String)}.
+     *
+     * @param ids The IDs of the documents to fetch, per index.
+     * @param listener Notified with the fetched sources, per index and ID.
+     */
+    private void multiGetSources(
+            Map<String, Set<String>> ids,
+            ActionListener<Map<String, Map<String, Map<String, Object>>>> listener) {
+        MultiGetRequest request = new MultiGetRequest();
+        ids.forEach((index, documentIds) -> documentIds.forEach(id -> request.add(index, id)));
+        if (request.getItems().isEmpty()) {
+            listener.onResponse(new HashMap<>());
+            return;
+        }
+        this.client.multiGet(
+                request,
+                RefreshCoordinator.preserve(
+                        ActionListener.wrap(
+                                response -> {
+                                    Map<String, Map<String, Map<String, Object>>> sources = new HashMap<>();
+                                    MultiGetItemResponse[] items = response.getResponses();
+                                    for (int i = 0; i < items.length; i++) {
+                                        MultiGetRequest.Item item = request.getItems().get(i);
+                                        if (items[i].isFailed()) {
+                                            log.warn(
+                                                    Constants.W_LOG_RETRIEVE_DOCUMENT_FAILED,
+                                                    item.id(),
+                                                    item.index(),
+                                                    items[i].getFailure().getMessage());
+                                        } else if (items[i].getResponse().isExists()) {
+                                            sources
+                                                    .computeIfAbsent(item.index(), index -> new HashMap<>())
+                                                    .put(item.id(), items[i].getResponse().getSourceAsMap());
+                                        }
+                                    }
+                                    listener.onResponse(sources);
+                                },
+                                listener::onFailure)));
+    }
+
+    /** Adds the IDs listed under the given key of a document to the references to fetch. */
+    private static void addReferences(
+            Map<String, Object> document,
+            String key,
+            String index,
+            Map<String, Set<String>> references) {
+        if (document != null && document.containsKey(key)) {
+            @SuppressWarnings("unchecked")
+            List<String> ids = (List<String>) document.get(key);
+            references.computeIfAbsent(index, i -> new LinkedHashSet<>()).addAll(ids);
+        }
+    }
 
-                hashMap.put(Constants.KEY_SHA256, spaceHash);
-                spaceMap.put(Constants.KEY_HASH, hashMap);
-                updateMap.put(Constants.KEY_SPACE, spaceMap);
+    /** Returns whether a policy belongs to one of the target spaces, or to no space at all. */
+    private static boolean inTargetSpaces(Map<String, Object> source, List<String> targetSpaces) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> space = (Map<String, Object>) source.get(Constants.KEY_SPACE);
+        return space == null || targetSpaces.contains((String) space.get(Constants.KEY_NAME));
+    }
 
-                bulkUpdateRequest.add(
-                        new UpdateRequest(Constants.INDEX_POLICIES, hit.getId())
-                                .doc(updateMap, XContentType.JSON));
+    /**
+     * Builds the update of the aggregate hash of a policy, computed from the hashes of the policy and
+     * of the resources it references.
+     *
+     * @param hit The policy.
+     * @param targetSpaces The list of target spaces to process.
+     * @param sources Returns the source of a referenced resource from its index and ID, or null if
+     *     not found.
+     * @param changedSpaces The set the space of the policy is added to if its aggregate hash changed.
+     * @return The update of the policy, or null if it is not in one of the target spaces.
+     */
+    private UpdateRequest hashUpdate(
+            SearchHit hit,
+            List<String> targetSpaces,
+            BiFunction<String, String, Map<String, Object>> sources,
+            Set<String> changedSpaces) {
+        Map<String, Object> source = hit.getSourceAsMap();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> space = (Map<String, Object>) source.get(Constants.KEY_SPACE);
+        String spaceName = null;
+        if (space != null) {
+            spaceName = (String) space.get(Constants.KEY_NAME);
+            // Check if the policy is in one of the target spaces
+            if (!targetSpaces.contains(spaceName)) {
+                return null;
             }
+            log.debug(Constants.D_LOG_RECALCULATING_HASH, hit.getId(), spaceName);
+        }
 
-            if (bulkUpdateRequest.numberOfActions() > 0) {
-                bulkUpdateRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
-                BulkResponse bulkResponse = this.client.bulk(bulkUpdateRequest).actionGet();
-                if (bulkResponse.hasFailures()) {
-                    log.error(Constants.E_LOG_BULK_UPDATE_HASHES_FAILED, bulkResponse.buildFailureMessage());
+        List<String> spaceHashes = new ArrayList<>();
+        spaceHashes.add(Resource.extractHash(source));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> document = (Map<String, Object>) source.get(Constants.KEY_DOCUMENT);
+        if (document != null && document.containsKey(Constants.KEY_INTEGRATIONS)) {
+            @SuppressWarnings("unchecked")
+            List<String> integrationIds = (List<String>) document.get(Constants.KEY_INTEGRATIONS);
+
+            for (String integrationId : integrationIds) {
+                Map<String, Object> integrationSource =
+                        sources.apply(Constants.INDEX_INTEGRATIONS, integrationId);
+                if (integrationSource == null) {
+                    continue;
+                }
+
+                spaceHashes.add(Resource.extractHash(integrationSource));
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> integration =
+                        (Map<String, Object>) integrationSource.get(Constants.KEY_DOCUMENT);
+                if (integration != null) {
+                    this.addHashes(
+                            integration, Constants.KEY_DECODERS, Constants.INDEX_DECODERS, sources, spaceHashes);
+                    this.addHashes(
+                            integration, Constants.KEY_KVDBS, Constants.INDEX_KVDBS, sources, spaceHashes);
+                    this.addHashes(
+                            integration, Constants.KEY_RULES, Constants.INDEX_RULES, sources, spaceHashes);
                 }
             }
+        }
 
-            if (!changedSpaces.isEmpty()) {
-                log.info(Constants.I_LOG_CONTENT_HASH_CHANGED, changedSpaces);
+        // Adding filter hashes that are referenced in the policy
+        if (document != null && document.containsKey(Constants.KEY_FILTERS)) {
+            @SuppressWarnings("unchecked")
+            List<String> filterIds = (List<String>) document.get(Constants.KEY_FILTERS);
+
+            for (String filterId : filterIds) {
+                Map<String, Object> filterSource = sources.apply(Constants.INDEX_FILTERS, filterId);
+                if (filterSource != null) {
+                    spaceHashes.add(Resource.extractHash(filterSource));
+                }
             }
+        }
 
-        } catch (Exception e) {
-            log.error(Constants.E_LOG_CALCULATE_HASHES_FAILED, e.getMessage(), e);
+        String spaceHash = Resource.computeSha256(String.join("", spaceHashes));
+
+        Map<String, Object> updateMap = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> spaceMap =
+                (Map<String, Object>) source.getOrDefault(Constants.KEY_SPACE, new HashMap<>());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> hashMap =
+                (Map<String, Object>) spaceMap.getOrDefault(Constants.KEY_HASH, new HashMap<>());
+
+        // Track spaces whose aggregate hash changed
+        String oldHash = (String) hashMap.getOrDefault(Constants.KEY_SHA256, "");
+        if (spaceName != null && !spaceHash.equals(oldHash)) {
+            changedSpaces.add(spaceName);
         }
-        return changedSpaces;
+
+        hashMap.put(Constants.KEY_SHA256, spaceHash);
+        spaceMap.put(Constants.KEY_HASH, hashMap);
+        updateMap.put(Constants.KEY_SPACE, spaceMap);
+
+        return new UpdateRequest(Constants.INDEX_POLICIES, hit.getId())
+                .doc(updateMap, XContentType.JSON);
     }
 
     /**
@@ -870,18 +1146,20 @@ public class SpaceService {
      * @param integration The integration document.
      * @param resource The resource type (decoders, kvdbs, rules).
      * @param resourceIndex The index containing the resources.
+     * @param sources Returns the source of a resource from its index and ID, or null if not found.
      * @param spaceHashes The list to add hashes to.
      */
     private void addHashes(
             Map<String, Object> integration,
             String resource,
             String resourceIndex,
+            BiFunction<String, String, Map<String, Object>> sources,
             List<String> spaceHashes) {
         if (integration.containsKey(resource)) {
             @SuppressWarnings("unchecked")
             List<String> resourceIds = (List<String>) integration.get(resource);
             for (String id : resourceIds) {
-                Map<String, Object> resourceSource = this.getDocumentSource(resourceIndex, id);
+                Map<String, Object> resourceSource = sources.apply(resourceIndex, id);
                 if (resourceSource != null) {
                     spaceHashes.add(Resource.extractHash(resourceSource));
                 }
@@ -976,6 +1254,7 @@ public class SpaceService {
                         .source()
                         .query(QueryBuilders.termQuery(Constants.Q_SPACE_NAME, space.toString()))
                         .size(1);
+                RefreshCoordinator.beforeSearch();
                 SearchResponse response = this.client.search(searchRequest).actionGet();
                 if (response.getHits().getTotalHits().value() > 0) {
                     return true;
@@ -19,18 +19,31 @@ package com.wazuh.contentmanager.cti.catalog.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.ResourceNotFoundException;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.transport.client.Client;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import com.wazuh.contentmanager.cti.catalog.client.ApiClient;
+import com.wazuh.contentmanager.cti.catalog.client.ChangesResponseConsumer;
 import com.wazuh.contentmanager.cti.catalog.index.ConsumersIndex;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
-import com.wazuh.contentmanager.cti.catalog.model.Changes;
+import com.wazuh.contentmanager.cti.catalog.index.InconsistentContentException;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Cve;
 import com.wazuh.contentmanager.cti.catalog.model.LocalConsumer;
 import com.wazuh.contentmanager.cti.catalog.model.Offset;
@@ -41,8 +54,11 @@ import com.wazuh.contentmanager.utils.Constants;
 public class UpdateServiceImpl extends AbstractService implements UpdateService {
     private static final Logger log = LogManager.getLogger(UpdateServiceImpl.class);
 
+    private final Client indexClient;
     private final ConsumersIndex consumersIndex;
     private final Map<String, ContentIndex> indices;
+    private final Map<ContentIndex, String> keys;
+    private final ContentRoutes routes;
     private final String context;
     private final String consumer;
     private final String consumerType;
@@ -57,6 +73,7 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
      * @param consumerType The consumer type identifier used as local document id.
      * @param consumerUri The full CTI consumer URL used to fetch remote changes.
      * @param client The API client used to fetch changes.
+     * @param indexClient The client used to refresh the indices written by every page of changes.
      * @param consumersIndex The index responsible for storing consumer state (offsets).
      * @param indices A map of content type to {@link ContentIndex} managers.
      */
@@ -66,15 +83,56 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
             String consumerType,
             String consumerUri,
             ApiClient client,
+            Client indexClient,
             ConsumersIndex consumersIndex,
             Map<String, ContentIndex> indices) {
+        this(
+                context,
+                consumer,
+                consumerType,
+                consumerUri,
+                client,
+                indexClient,
+                consumersIndex,
+                indices,
+                new ContentRoutes(0));
+    }
+
+    /**
+     * Constructs a new UpdateServiceImpl that routes changes using the given routes, and keeps them
+     * up to date with the changes applied.
+     *
+     * @param context The context string (e.g., catalog ID) for the consumer.
+     * @param consumer The name of the consumer entity.
+     * @param consumerType The consumer type identifier used as local document id.
+     * @param consumerUri The full CTI consumer URL used to fetch remote changes.
+     * @param client The API client used to fetch changes.
+     * @param indexClient The client used to refresh the indices written by every page of changes.
+     * @param consumersIndex The index responsible for storing consumer state (offsets).
+     * @param indices A map of content type to {@link ContentIndex} managers.
+     * @param routes The content index of known documents, keyed as {@code indices}.
+     */
+    public UpdateServiceImpl(
+            String context,
+            String consumer,
+            String consumerType,
+            String consumerUri,
+            ApiClient client,
+            Client indexClient,
+            ConsumersIndex consumersIndex,
+            Map<String, ContentIndex> indices,
+            ContentRoutes routes) {
         if (this.client != null) {
             this.client.close();
         }
 
         this.client = client;
+        this.indexClient = indexClient;
         this.consumersIndex = consumersIndex;
         this.indices = indices;
+        this.keys = new HashMap<>();
+        indices.forEach(this.keys::putIfAbsent);
+        this.routes = routes;
         this.context = context;
         this.consumer = consumer;
         this.consumerType = consumerType;
@@ -86,34 +144,53 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
     /**
      * Performs a content update within the specified offset range.
      *
-     * <p>Implementation details: 1. Fetches the changes JSON from the API for the given range. 2.
-     * Parses the response into {@link Changes} and {@link Offset} objects. 3. Iterates through
-     * offsets. 4. Delegates specific operations to {@link #applyOffset(Offset)}. 5. Updates the
-     * {@link LocalConsumer} record in the index with the last successfully applied offset.
+     * <p>Implementation details:
+     *
+     * <ol>
+     *   <li>Fetches the changes JSON from the API for the given range, one page at a time. While a
+     *       page is applied, the next pages are requested ahead, within the configured number of
+     *       pages and memory budget.
+     *   <li>Parses the {@link Offset} objects of every page as its response is received (see {@link
+     *       ChangesResponseConsumer}).
+     *   <li>Applies every page of changes as a batch (see {@link #applyChanges(List)}).
+     *   <li>Commits the offset of every applied page to the {@link LocalConsumer} record in the
+     *       index, and refreshes the indices written by the page at once (see {@link
+     *       RefreshCoordinator}).
+     * </ol>
      *
-     * <p>If an exception occurs, the consumer state is reset to prevent data corruption or stuck
-     * states.
+     * <p>If an exception occurs, the consumer is marked {@link LocalConsumer.Status#FAILED} and the
+     * next update resumes from the last committed page, whose changes are replayed idempotently. Only
+     * when the indexed content is found inconsistent with the changes (see {@link
+     * #isContentInconsistent(Exception)}) is the consumer reset to offset 0, so that it is
+     * initialized again from a snapshot.
      */
     @Override
     public boolean update(long fromOffset, long toOffset) {
         log.debug(Constants.D_LOG_UPDATE_START, this.consumer, fromOffset, toOffset);
+        int readAhead = PluginSettings.getInstance().getCatalogReadAheadPages();
+        long budget = PluginSettings.getInstance().getCatalogReadAheadBytes();
+        Deque<Window> windows = new ArrayDeque<>();
+        long lastAppliedOffset = fromOffset;
         try {
-            long currentFromOffset = fromOffset;
-            long lastAppliedOffset = fromOffset;
-
-            while (currentFromOffset < toOffset) {
-                long currentToOffset =
-                        Math.min(
-                                currentFromOffset + PluginSettings.getInstance().getMaxItemsPerBulk(), toOffset);
+            LocalConsumer current = this.getLocalConsumer();
+            long nextFromOffset = fromOffset;
+            long largestPage = 0;
 
-                SimpleHttpResponse response =
-                        this.client.getChanges(this.consumerUri, currentFromOffset, currentToOffset);
-                if (response.getCode() != 200) {
+            while (lastAppliedOffset < toOffset) {
+                if (windows.isEmpty()) {
+                    nextFromOffset = this.requestWindow(windows, nextFromOffset, toOffset);
+                }
+                Window window = windows.poll();
+                ChangesResponseConsumer.Result response =
+                        window
+                                .response()
+                                .get(PluginSettings.getInstance().getClientTimeout(), TimeUnit.SECONDS);
+                if (response.code() != 200) {
                     log.error(
                             "Failed to fetch changes from offset [{}] to [{}] with error code [{}]",
-                            currentFromOffset,
-                            currentToOffset,
-                            response.getCode());
+                            window.from(),
+                            window.to(),
+                            response.code());
                     // Whether this is the first batch (no progress at all) or a later one (partial
                     // progress already applied), a non-200 response means the consumer did not reach
                     // toOffset. Treating partial progress as success would silently report a consumer
@@ -122,80 +199,242 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
                             "Failed to fetch changes for consumer ["
                                     + this.consumerType
                                     + "] (HTTP "
-                                    + response.getCode()
+                                    + response.code()
                                     + ")");
                 }
 
-                Changes changes = this.mapper.readValue(response.getBodyBytes(), Changes.class);
-
-                for (Offset offset : changes.get()) {
-                    try {
-                        this.applyOffset(offset);
-                    } catch (Exception e) {
-                        log.error(
-                                Constants.E_LOG_UPDATE_APPLY_OFFSET_FAILED,
-                                offset.getOffset(),
-                                offset.getType(),
-                                offset.getResource(),
-                                e.getMessage());
-                        throw e;
-                    }
+                // Request the next pages while this one is applied. Pages not received yet are
+                // estimated as large as the largest one so far.
+                largestPage = Math.max(largestPage, response.size());
+                while (nextFromOffset < toOffset
+                        && windows.size() < readAhead
+                        && (windows.size() + 2) * largestPage <= budget) {
+                    nextFromOffset = this.requestWindow(windows, nextFromOffset, toOffset);
                 }
 
-                lastAppliedOffset = currentToOffset;
-                currentFromOffset = currentToOffset;
-            }
-            // Update consumer state
-            LocalConsumer consumer =
-                    new LocalConsumer(this.context, this.consumer, this.consumerType, this.consumerUri, true);
+                // The writes of a page are refreshed together once it is committed, so that its
+                // changes are searchable while the next pages are applied
+                try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.indexClient)) {
+                    this.applyChanges(response.changes());
 
-            // Properly handle the GetResponse to check if the document exists before parsing
-            GetResponse getResponse = this.consumersIndex.getConsumer(this.consumerType);
-            LocalConsumer current =
-                    (getResponse != null && getResponse.isExists())
-                            ? this.mapper.readValue(getResponse.getSourceAsString(), LocalConsumer.class)
-                            : consumer;
+                    // Commit the page, so that a failure resumes after it
+                    LocalConsumer committed =
+                            new LocalConsumer(
+                                    this.firstNonBlank(current.getContext(), this.context),
+                                    this.firstNonBlank(current.getName(), this.consumer),
+                                    this.firstNonBlank(current.getType(), this.consumerType),
+                                    this.firstNonBlank(current.getResource(), this.consumerUri),
+                                    current.isPublic(),
+                                    current.getStatus() != null
+                                            ? current.getStatus()
+                                            : LocalConsumer.Status.RUNNING,
+                                    window.to(),
+                                    toOffset);
+                    this.consumersIndex.setConsumer(committed);
+                }
+                lastAppliedOffset = window.to();
+            }
 
-            LocalConsumer updated =
-                    new LocalConsumer(
-                            this.firstNonBlank(current.getContext(), this.context),
-                            this.firstNonBlank(current.getName(), this.consumer),
-                            this.firstNonBlank(current.getType(), this.consumerType),
-                            this.firstNonBlank(current.getResource(), this.consumerUri),
-                            current.isPublic(),
-                            current.getStatus() != null ? current.getStatus() : LocalConsumer.Status.RUNNING,
-                            lastAppliedOffset,
-                            toOffset);
-            this.consumersIndex.setConsumer(updated);
-
-            log.info(Constants.I_LOG_UPDATE_CONSUMER_SUCCESS, consumer.getType(), lastAppliedOffset);
+            log.info(Constants.I_LOG_UPDATE_CONSUMER_SUCCESS, this.consumerType, lastAppliedOffset);
             return true;
         } catch (Exception e) {
             log.error(Constants.E_LOG_UPDATE_FAILED, e.getMessage());
-            this.resetConsumer();
+            if (UpdateServiceImpl.isContentInconsistent(e)) {
+                log.warn(Constants.W_LOG_UPDATE_RESET_CONSUMER, this.consumer);
+                this.failConsumer(0, 0);
+            } else {
+                log.warn(Constants.W_LOG_UPDATE_RESUME_CONSUMER, this.consumer, lastAppliedOffset);
+                this.failConsumer(lastAppliedOffset, toOffset);
+            }
             throw new RuntimeException("Update failed for consumer [" + this.consumerType + "]", e);
+        } finally {
+            // Pages requested ahead are not needed anymore if the update failed
+            windows.forEach(window -> window.response().cancel(true));
+        }
+    }
+
+    /**
+     * Requests the next page of changes, see {@link ApiClient#requestChanges(String, long, long)}.
+     *
+     * @param windows The pages requested so far, to add the page to.
+     * @param fromOffset The starting offset (exclusive) of the page.
+     * @param toOffset The ending offset (inclusive) of the update.
+     * @return The ending offset (inclusive) of the page.
+     */
+    private long requestWindow(Deque<Window> windows, long fromOffset, long toOffset) {
+        long windowToOffset =
+                Math.min(fromOffset + PluginSettings.getInstance().getMaxItemsPerBulk(), toOffset);
+        windows.add(
+                new Window(
+                        fromOffset,
+                        windowToOffset,
+                        this.client.requestChanges(this.consumerUri, fromOffset, windowToOffset)));
+        return windowToOffset;
+    }
+
+    /**
+     * A page of changes requested from the CTI API.
+     *
+     * @param from The starting offset (exclusive).
+     * @param to The ending offset (inclusive).
+     * @param response The pending response.
+     */
+    private record Window(
+            long from, long to, Future<ChangesResponseConsumer.Result> response) {}
+
+    /**
+     * Applies a page of changes. The changes are first compacted per document (see {@link
+     * #compact(List)}), then routed to the content index each document belongs to, and each index
+     * applies its changes with a single refreshed bulk request (see {@link
+     * ContentIndex#applyChanges(List)}). The documents updated or deleted by the page, and not created
+     * by it, are located upfront, see {@link #locate(Set)}. Deletions of documents that no longer
+     * exist are skipped, so that a page can be replayed after a partial failure.
+     *
+     * @param offsets The changes of the page, in offset order.
+     * @throws Exception If a change cannot be routed or applied.
+     */
+    private void applyChanges(List<Offset> offsets) throws Exception {
+        // 1. Convert and compact the changes of the page
+        Map<String, ContentIndex> created = new HashMap<>();
+        List<ContentIndex.Change> changes = new ArrayList<>();
+        for (Offset offset : offsets) {
+            try {
+                ContentIndex.Change change = this.toChange(offset, created);
+                if (change != null) {
+                    changes.add(change);
+                }
+            } catch (Exception e) {
+                this.logFailedChange(offset.getOffset(), offset.getType(), offset.getResource(), e);
+                throw e;
+            }
+        }
+        Map<String, List<ContentIndex.Change>> compacted = UpdateServiceImpl.compact(changes);
+
+        // 2. Locate the documents changed, but not created, by this page
+        Set<String> ids = new LinkedHashSet<>();
+        for (Map.Entry<String, List<ContentIndex.Change>> entry : compacted.entrySet()) {
+            if (entry.getValue().get(0).type() != Offset.Type.CREATE) {
+                ids.add(entry.getKey());
+            }
+        }
+        Map<String, ContentIndex> located = this.locate(ids);
+
+        // 3. Route the changes of every document to its index
+        Map<ContentIndex, List<ContentIndex.Change>> routed = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ContentIndex.Change>> entry : compacted.entrySet()) {
+            List<ContentIndex.Change> list = entry.getValue();
+            ContentIndex.Change first = list.get(0);
+            if (list.size() == 1
+                    && first.type() == Offset.Type.DELETE
+                    && !located.containsKey(first.id())
+                    && !Constants.KEY_POLICY.equals(first.id())) {
+                // Already deleted, e.g. by a previous attempt of this page
+                log.debug(Constants.D_LOG_CHANGE_ALREADY_APPLIED, first.offset(), first.id());
+                this.routes.remove(first.id());
+                continue;
+            }
+            try {
+                ContentIndex index =
+                        first.type() == Offset.Type.CREATE
+                                ? created.get(first.id())
+                                : this.findIndexForId(first.id(), located);
+                routed.computeIfAbsent(index, k -> new ArrayList<>()).addAll(list);
+            } catch (Exception e) {
+                this.logFailedChange(first.offset(), first.type(), first.id(), e);
+                throw e;
+            }
+        }
+        log.debug(
+                Constants.D_LOG_UPDATE_COMPACTED,
+                offsets.size(),
+                routed.values().stream().mapToInt(List::size).sum(),
+                compacted.size());
+
+        // 4. Apply the changes of every index
+        for (Map.Entry<ContentIndex, List<ContentIndex.Change>> entry : routed.entrySet()) {
+            entry.getKey().applyChanges(entry.getValue());
+            String key = this.keys.get(entry.getKey());
+            for (ContentIndex.Change change : entry.getValue()) {
+                if (change.type() == Offset.Type.DELETE) {
+                    this.routes.remove(change.id());
+                } else {
+                    this.routes.put(change.id(), key);
+                }
+            }
         }
     }
 
     /**
-     * Applies a specific change offset to the appropriate content index.
+     * Folds the changes of a page into the shortest sequence of changes per document that leads to
+     * the same final state:
+     *
+     * <ul>
+     *   <li>A creation discards the previous changes of the document, which it overwrites.
+     *   <li>Updates are kept one by one, each with its own offset, so that those already applied to
+     *       the stored document are skipped when a page is replayed (see {@link
+     *       ContentIndex#applyChanges(List)}). JSON Patch operations such as {@code add} to an array
+     *       are not idempotent, and must not be applied twice.
+     *   <li>A deletion discards the previous changes of the document. It is kept even if the page
+     *       created the document, which may have existed before the page, and is skipped when
+     *       applied if the document does not exist.
+     * </ul>
+     *
+     * <p>An update following a deletion is kept as is, so that it still fails as it would have when
+     * replayed.
+     *
+     * @param changes The changes of the page, in offset order.
+     * @return The compacted changes of every document, in order of first appearance.
+     */
+    static Map<String, List<ContentIndex.Change>> compact(List<ContentIndex.Change> changes) {
+        Map<String, List<ContentIndex.Change>> compacted = new LinkedHashMap<>();
+        for (ContentIndex.Change change : changes) {
+            List<ContentIndex.Change> list =
+                    compacted.computeIfAbsent(change.id(), k -> new ArrayList<>());
+            switch (change.type()) {
+                case CREATE -> {
+                    list.clear();
+                    list.add(change);
+                }
+                case UPDATE -> list.add(change);
+                case DELETE -> {
+                    list.clear();
+                    list.add(change);
+                }
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Logs a change that failed to be routed or applied.
+     *
+     * @param offset The offset of the change.
+     * @param type The type of the change.
+     * @param id The ID of the changed document.
+     * @param e The failure.
+     */
+    private void logFailedChange(long offset, Offset.Type type, String id, Exception e) {
+        log.error(Constants.E_LOG_UPDATE_APPLY_OFFSET_FAILED, offset, type, id, e.getMessage());
+    }
+
+    /**
+     * Turns a change offset into a {@link ContentIndex.Change}. The index of created documents is
+     * recorded in {@code created}, so that later changes of the same page are routed to it.
      *
      * @param offset The {@link Offset} containing the type of change and data.
-     * @throws Exception If the indexing operation fails.
+     * @param created The index of every document created by the page.
+     * @return The change, or null if the offset is skipped.
      */
-    private void applyOffset(Offset offset) throws Exception {
+    private ContentIndex.Change toChange(Offset offset, Map<String, ContentIndex> created) {
         String id = offset.getResource();
-        ContentIndex index;
 
         switch (offset.getType()) {
             case CREATE:
-                if (offset.getPayload() != null) {
-                    JsonNode payload = this.mapper.valueToTree(offset.getPayload());
+                if (offset.getPayload() != null && offset.getPayload().isObject()) {
+                    ObjectNode payload = (ObjectNode) offset.getPayload();
                     String cveType = Cve.deriveType(id);
                     // Inject the CTI offset value into the payload, so it is persisted
-                    if (payload.isObject()) {
-                        ((ObjectNode) payload).put(Constants.KEY_OFFSET, offset.getOffset());
-                    }
+                    payload.put(Constants.KEY_OFFSET, offset.getOffset());
                     String type = null;
 
                     if (cveType != null) {
@@ -207,36 +446,88 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
                         }
                     }
 
-                    if (Constants.KEY_CVES.equals(type) && payload.isObject() && cveType != null) {
-                        ((ObjectNode) payload).put(Constants.KEY_TYPE, cveType);
+                    if (Constants.KEY_CVES.equals(type) && cveType != null) {
+                        payload.put(Constants.KEY_TYPE, cveType);
                     }
 
                     if (type != null) {
-                        index = this.indices.get(type);
+                        ContentIndex index = this.indices.get(type);
                         if (index != null) {
-                            index.create(id, payload);
-                        } else {
-                            log.warn(Constants.W_LOG_UPDATE_NO_INDEX_FOR_TYPE, type);
+                            created.put(id, index);
+                            return new ContentIndex.Change(
+                                    offset.getOffset(), Offset.Type.CREATE, id, payload, null);
                         }
+                        log.warn(Constants.W_LOG_UPDATE_NO_INDEX_FOR_TYPE, type);
                     }
                 }
-                break;
+                return null;
             case UPDATE:
-                index = this.findIndexForId(id);
-                index.update(id, offset.getOperations(), offset.getOffset());
-                break;
+                return new ContentIndex.Change(
+                        offset.getOffset(), Offset.Type.UPDATE, id, null, offset.getOperations());
             case DELETE:
                 if (this.shouldSkipDelete(id)) {
                     log.debug(Constants.D_LOG_UPDATE_SKIP_CVE_DELETE, id);
-                    break;
+                    return null;
                 }
-                index = this.findIndexForId(id);
-                index.delete(id);
-                break;
+                return new ContentIndex.Change(offset.getOffset(), Offset.Type.DELETE, id, null, null);
             default:
                 log.warn(Constants.W_LOG_UPDATE_UNSUPPORTED_OPERATION, offset.getType());
+                return null;
+        }
+    }
+
+    /**
+     * Locates the content index holding each of the given documents. Documents with a known route
+     * (see {@link ContentRoutes}) are checked in their routed index only, with a single request per
+     * index. The rest, and those missing from their routed index, are looked up in every index with a
+     * single request per index, and their routes are recorded. A stale route is dropped, so that a
+     * document moved or removed behind the cache is not taken for an inconsistency of the content. A
+     * document found in several indices is located in the first one, in {@link #indices} order.
+     *
+     * @param ids The IDs of the documents to locate.
+     * @return The index of every document found.
+     * @throws IOException If an index cannot be queried.
+     */
+    private Map<String, ContentIndex> locate(Set<String> ids) throws IOException {
+        Map<String, ContentIndex> located = new LinkedHashMap<>();
+        Map<ContentIndex, Set<String>> routed = new LinkedHashMap<>();
+        Set<String> remaining = new LinkedHashSet<>();
+        for (String id : ids) {
+            String key = this.routes.get(id);
+            ContentIndex index = key != null ? this.indices.get(key) : null;
+            if (index != null) {
+                routed.computeIfAbsent(index, k -> new LinkedHashSet<>()).add(id);
+            } else {
+                remaining.add(id);
+            }
+        }
+        for (Map.Entry<ContentIndex, Set<String>> entry : routed.entrySet()) {
+            Set<String> existing = entry.getKey().existing(entry.getValue());
+            for (String id : entry.getValue()) {
+                if (existing.contains(id)) {
+                    located.put(id, entry.getKey());
+                } else {
+                    log.debug(Constants.D_LOG_UPDATE_ROUTE_STALE, id, this.keys.get(entry.getKey()));
+                    this.routes.remove(id);
+                    remaining.add(id);
+                }
+            }
+        }
+        remaining.remove(Constants.KEY_POLICY);
+        if (!remaining.isEmpty()) {
+            log.debug(Constants.D_LOG_UPDATE_ROUTES_MISSED, located.size(), remaining.size());
+        }
+        for (ContentIndex index : new LinkedHashSet<>(this.indices.values())) {
+            if (remaining.isEmpty()) {
                 break;
+            }
+            for (String id : index.existing(remaining)) {
+                located.put(id, index);
+                remaining.remove(id);
+                this.routes.put(id, this.keys.get(index));
+            }
         }
+        return located;
     }
 
     /**
@@ -253,14 +544,16 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
     }
 
     /**
-     * Locates the {@link ContentIndex} that contains the document with the specified ID.
+     * Returns the {@link ContentIndex} that contains the document with the specified ID.
      *
      * @param id The document ID to search for.
+     * @param located The index of every document changed by the page, see {@link #locate(Set)}.
      * @return The matching {@link ContentIndex}.
      * @throws ResourceNotFoundException If no {@link ContentIndex} contains the document with the
      *     specified ID.
      */
-    private ContentIndex findIndexForId(String id) throws ResourceNotFoundException {
+    private ContentIndex findIndexForId(String id, Map<String, ContentIndex> located)
+            throws ResourceNotFoundException {
         // When it is a policy document, it must be treated special, since the id policy doesn't exist
         if (Constants.KEY_POLICY.equals(id)) {
             ContentIndex policyIndex = this.indices.get(Constants.KEY_POLICY);
@@ -270,23 +563,53 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
             throw new ResourceNotFoundException("Policy index not found.");
         }
 
-        for (ContentIndex index : this.indices.values()) {
-            if (index.exists(id)) {
-                return index;
-            }
+        ContentIndex index = located.get(id);
+        if (index != null) {
+            return index;
         }
         throw new ResourceNotFoundException(
                 "Document with ID '" + id + "' could not be found in any ContentIndex.");
     }
 
     /**
-     * Resets the local consumer offset to 0 and marks it {@link LocalConsumer.Status#FAILED}. Called
-     * only from the failure path of {@link #update(long, long)}, right before that method rethrows —
-     * the explicit {@code FAILED} status must not be left to the constructor's default, which reports
-     * a successfully synced consumer.
+     * Returns the local consumer record, or a new one with this service's identity if it does not
+     * exist yet.
+     *
+     * @return The local consumer.
+     * @throws Exception If the record cannot be read.
+     */
+    private LocalConsumer getLocalConsumer() throws Exception {
+        // Properly handle the GetResponse to check if the document exists before parsing
+        GetResponse getResponse = this.consumersIndex.getConsumer(this.consumerType);
+        return (getResponse != null && getResponse.isExists())
+                ? this.mapper.readValue(getResponse.getSourceAsString(), LocalConsumer.class)
+                : new LocalConsumer(
+                        this.context, this.consumer, this.consumerType, this.consumerUri, true);
+    }
+
+    /**
+     * Whether an update failure reveals that the indexed content is inconsistent with the changes of
+     * the consumer, so that replaying the changes cannot recover from it: a changed document is
+     * missing, or its changes cannot be applied to it. Other failures, such as unavailable CTI API or
+     * cluster, are considered transient.
+     *
+     * @param e The update failure.
+     * @return Whether the consumer must be initialized again from a snapshot.
+     */
+    static boolean isContentInconsistent(Exception e) {
+        return e instanceof InconsistentContentException || e instanceof ResourceNotFoundException;
+    }
+
+    /**
+     * Marks the local consumer {@link LocalConsumer.Status#FAILED} at the given offsets. Called only
+     * from the failure path of {@link #update(long, long)}, right before that method rethrows — the
+     * explicit {@code FAILED} status must not be left to the constructor's default, which reports a
+     * successfully synced consumer.
+     *
+     * @param localOffset The offset to resume from, 0 to initialize the consumer again.
+     * @param remoteOffset The remote offset to record.
      */
-    private void resetConsumer() {
-        log.warn(Constants.W_LOG_UPDATE_RESET_CONSUMER, this.consumer);
+    private void failConsumer(long localOffset, long remoteOffset) {
         try {
             GetResponse getResponse = this.consumersIndex.getConsumer(this.consumerType);
             LocalConsumer current =
@@ -294,7 +617,7 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
                             ? this.mapper.readValue(getResponse.getSourceAsString(), LocalConsumer.class)
                             : null;
             boolean effectiveIsPublic = current == null || current.isPublic();
-            LocalConsumer reset =
+            LocalConsumer failed =
                     new LocalConsumer(
                             this.firstNonBlank(current != null ? current.getContext() : null, this.context),
                             this.firstNonBlank(current != null ? current.getName() : null, this.consumer),
@@ -302,9 +625,9 @@ public class UpdateServiceImpl extends AbstractService implements UpdateService
                             this.firstNonBlank(current != null ? current.getResource() : null, this.consumerUri),
                             effectiveIsPublic,
                             LocalConsumer.Status.FAILED,
-                            0,
-                            0);
-            this.consumersIndex.setConsumer(reset);
+                            localOffset,
+                            remoteOffset);
+            this.consumersIndex.setConsumer(failed);
         } catch (Exception e) {
             log.error(Constants.E_LOG_UPDATE_RESET_CONSUMER_FAILED, e.getMessage());
         }
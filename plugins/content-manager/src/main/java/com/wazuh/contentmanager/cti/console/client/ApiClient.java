@@ -18,25 +18,11 @@ package com.wazuh.contentmanager.cti.console.client;
 
 import org.apache.hc.client5.http.async.methods.*;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
-import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
-import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpHeaders;
-import org.apache.hc.core5.http.message.BasicHeader;
-import org.apache.hc.core5.io.CloseMode;
-import org.apache.hc.core5.reactor.IOReactorConfig;
-import org.apache.hc.core5.ssl.SSLContextBuilder;
-import org.apache.hc.core5.util.Timeout;
-
-import javax.net.ssl.SSLContext;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
@@ -47,11 +33,13 @@ import java.util.concurrent.TimeoutException;
 import com.wazuh.contentmanager.cti.catalog.utils.HttpResponseCallback;
 import com.wazuh.contentmanager.cti.console.model.Token;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 
 /** CTI Console API client. */
 public class ApiClient {
 
-    private static final String BASE_URI = "https://api.pre.cloud.wazuh.com";
+    /** The base URL of the CTI Console API. */
+    public static final String BASE_URI = "https://api.pre.cloud.wazuh.com";
     private static final String API_PREFIX = "/api/v1";
     private static final String TOKEN_URI = BASE_URI + API_PREFIX + "/instances/token";
     private static final String PRODUCTS_URI = BASE_URI + API_PREFIX + "/instances/me";
@@ -63,48 +51,19 @@ public class ApiClient {
 
     protected CloseableHttpAsyncClient client;
 
-    private final int TIMEOUT = 5;
+    /** Socket timeout and response deadline of the Console requests, in seconds. */
+    public static final int TIMEOUT = 5;
 
-    /** Constructs an CtiApiClient instance. */
+    /** Constructs an CtiApiClient instance, using the shared HTTP client of the Console host. */
     public ApiClient() {
-        this.buildClient();
+        this.client = HttpClientPool.get(BASE_URI, TIMEOUT);
     }
 
-    /** Builds and starts the Http client. */
-    private void buildClient() {
-        IOReactorConfig ioReactorConfig =
-                IOReactorConfig.custom().setSoTimeout(Timeout.ofSeconds(this.TIMEOUT)).build();
-
-        SSLContext sslContext;
-        try {
-            sslContext =
-                    SSLContextBuilder.create().loadTrustMaterial(null, (chains, authType) -> true).build();
-        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-            throw new RuntimeException("Failed to initialize HttpClient", e);
-        }
-
-        List<Header> defaultHeaders =
-                List.of(
-                        new BasicHeader(HttpHeaders.USER_AGENT, PluginSettings.getInstance().getUserAgent()));
-
-        this.client =
-                HttpAsyncClients.custom()
-                        .setIOReactorConfig(ioReactorConfig)
-                        .setDefaultHeaders(defaultHeaders)
-                        .setConnectionManager(
-                                PoolingAsyncClientConnectionManagerBuilder.create()
-                                        .setTlsStrategy(
-                                                ClientTlsStrategyBuilder.create().setSslContext(sslContext).build())
-                                        .build())
-                        .build();
-
-        this.client.start();
-    }
-
-    /** Closes the underlying HTTP asynchronous client. Used in tests */
-    public void close() {
-        this.client.close(CloseMode.GRACEFUL);
-    }
+    /**
+     * Releases this instance. The shared HTTP client is kept open, so that its connections are
+     * reused by the next instances, see {@link HttpClientPool#close()}.
+     */
+    public void close() {}
 
     /**
      * Perform an HTTP POST request to the CTI Console to obtain a permanent token for this XDR/SIEM
@@ -136,7 +95,7 @@ public class ApiClient {
                         SimpleRequestProducer.create(request),
                         SimpleResponseConsumer.create(),
                         new HttpResponseCallback(request, "Outgoing request failed"));
-        return future.get(this.TIMEOUT, TimeUnit.SECONDS);
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
     }
 
     /***
@@ -177,7 +136,7 @@ public class ApiClient {
                         SimpleRequestProducer.create(request),
                         SimpleResponseConsumer.create(),
                         new HttpResponseCallback(request, "Outgoing request failed"));
-        return future.get(this.TIMEOUT, TimeUnit.SECONDS);
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
     }
 
     /** URL-encodes a value for inclusion in an {@code application/x-www-form-urlencoded} body. */
@@ -213,7 +172,7 @@ public class ApiClient {
                         SimpleRequestProducer.create(request),
                         SimpleResponseConsumer.create(),
                         new HttpResponseCallback(request, "Outgoing request failed"));
-        return future.get(this.TIMEOUT, TimeUnit.SECONDS);
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
     }
 
     /**
@@ -244,7 +203,7 @@ public class ApiClient {
                         SimpleRequestProducer.create(request),
                         SimpleResponseConsumer.create(),
                         new HttpResponseCallback(request, "Outgoing request failed"));
-        return future.get(this.TIMEOUT, TimeUnit.SECONDS);
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
     }
 
     /**
@@ -271,6 +230,6 @@ public class ApiClient {
                         SimpleRequestProducer.create(request),
                         SimpleResponseConsumer.create(),
                         new HttpResponseCallback(request, "Outgoing request failed"));
-        return future.get(this.TIMEOUT, TimeUnit.SECONDS);
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
     }
 }
@@ -24,6 +24,8 @@ import org.opensearch.jobscheduler.spi.JobExecutionContext;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.client.Client;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
@@ -36,11 +38,17 @@ import com.wazuh.contentmanager.cti.catalog.service.ConsumerIocService;
 import com.wazuh.contentmanager.cti.catalog.service.ConsumerRulesetService;
 import com.wazuh.contentmanager.engine.service.EngineService;
 import com.wazuh.contentmanager.jobscheduler.JobExecutor;
+import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.utils.Constants;
 
 /**
  * Job responsible for executing the synchronization logic for Rules and Decoders consumers. This
  * class handles only scheduling concerns and delegates synchronization to specialized classes.
+ *
+ * <p>Every consumer is synchronized independently, in its own task, so that a long synchronization
+ * of one consumer does not delay the others. A consumer is synchronized once at a time: a pass
+ * skips the consumers still being synchronized by a previous one. The number of consumers
+ * synchronized at the same time is capped by {@link PluginSettings#CATALOG_MAX_CONCURRENT_SYNCS}.
  */
 public class CatalogSyncJob implements JobExecutor {
 
@@ -49,13 +57,16 @@ public class CatalogSyncJob implements JobExecutor {
     /** Identifier used to route this specific job type. */
     public static final String JOB_TYPE = "consumer-sync-task";
 
-    /** Semaphore to control concurrency - only one job can run at a time. */
-    private final Semaphore semaphore = new Semaphore(1);
-
     private final Client client;
     private final ThreadPool threadPool;
     private final List<AbstractConsumerService> synchronizers;
 
+    /** Lock of every synchronizer, so that each consumer is synchronized once at a time. */
+    private final Map<AbstractConsumerService, Semaphore> locks = new HashMap<>();
+
+    /** Caps the number of consumers synchronized at the same time. */
+    private final Semaphore slots;
+
     /**
      * Constructs a new CatalogSyncJob.
      *
@@ -79,6 +90,8 @@ public class CatalogSyncJob implements JobExecutor {
                         new ConsumerRulesetService(client, consumersIndex, environment, engineService),
                         new ConsumerIocService(client, consumersIndex, environment, engineService),
                         new ConsumerCveService(client, consumersIndex, environment));
+        this.synchronizers.forEach(synchronizer -> this.locks.put(synchronizer, new Semaphore(1)));
+        this.slots = new Semaphore(PluginSettings.getInstance().getCatalogMaxConcurrentSyncs());
     }
 
     /**
@@ -89,89 +102,135 @@ public class CatalogSyncJob implements JobExecutor {
      */
     @Override
     public void execute(JobExecutionContext context) {
-        if (!this.semaphore.tryAcquire()) {
+        List<AbstractConsumerService> idle = this.acquireIdle();
+        if (idle.isEmpty()) {
             log.warn(
                     "CatalogSyncJob (ID: {}) skipped because synchronization is already running.",
                     context.getJobId());
             return;
         }
-
-        this.threadPool
-                .generic()
-                .execute(
-                        () -> {
-                            try {
-                                log.debug("Executing Consumer Sync Job (ID: {})", context.getJobId());
-                                this.performSynchronization();
-                            } catch (Exception e) {
-                                log.error(
-                                        "Error executing Consumer Sync Job (ID: {}): {}",
-                                        context.getJobId(),
-                                        e.getMessage(),
-                                        e);
-                            } finally {
-                                this.semaphore.release();
-                            }
-                        });
+        log.debug("Executing Consumer Sync Job (ID: {})", context.getJobId());
+        this.submit(idle);
     }
 
     /**
-     * Checks if the synchronization job is currently running.
+     * Checks if every consumer is currently being synchronized, in which case a new pass has nothing
+     * to synchronize.
      *
-     * @return true if running, false otherwise.
+     * @return true if running, false if any consumer is idle.
      */
     public boolean isRunning() {
-        return this.semaphore.availablePermits() == 0;
+        return this.locks.values().stream().allMatch(lock -> lock.availablePermits() == 0);
     }
 
-    /** Attempts to trigger the synchronization process manually. */
+    /** Attempts to trigger the synchronization of the idle consumers manually. */
     public void trigger() {
-        if (!this.semaphore.tryAcquire()) {
+        List<AbstractConsumerService> idle = this.acquireIdle();
+        if (idle.isEmpty()) {
             log.warn("Attempted to trigger CatalogSyncJob manually while it is already running.");
             return;
         }
+        this.submit(idle);
+    }
+
+    /**
+     * Acquires the lock of every consumer not being synchronized.
+     *
+     * @return The synchronizers of the idle consumers, whose locks are now held.
+     */
+    private List<AbstractConsumerService> acquireIdle() {
+        List<AbstractConsumerService> idle = new ArrayList<>();
+        for (AbstractConsumerService synchronizer : this.synchronizers) {
+            if (this.locks.get(synchronizer).tryAcquire()) {
+                idle.add(synchronizer);
+            } else {
+                log.debug(
+                        "{} skipped because it is already being synchronized.",
+                        synchronizer.getClass().getSimpleName());
+            }
+        }
+        return idle;
+    }
 
-        this.threadPool
-                .generic()
-                .execute(
-                        () -> {
-                            try {
-                                this.performSynchronization();
-                            } catch (Exception e) {
-                                log.error("Error running CatalogSyncJob: {}", e.getMessage(), e);
-                            } finally {
-                                this.semaphore.release();
-                            }
-                        });
+    /**
+     * Runs {@link #performSynchronization(List)} in a generic-pool thread.
+     *
+     * @param synchronizers The synchronizers to run, whose locks are held.
+     */
+    private void submit(List<AbstractConsumerService> synchronizers) {
+        try {
+            this.threadPool.generic().execute(() -> this.performSynchronization(synchronizers));
+        } catch (Exception e) {
+            log.error("Error running CatalogSyncJob: {}", e.getMessage(), e);
+            this.release(synchronizers);
+        }
     }
 
     /**
      * Centralized synchronization logic used by both execute() and trigger(). Waits for the Setup
-     * plugin to finish creating its indices before iterating through all registered synchronizers and
-     * executing them. If the Setup plugin does not complete in time, the pass is skipped; the
-     * periodic job will retry on its next scheduled run.
+     * plugin to finish creating its indices before synchronizing every given consumer in its own
+     * task. If the Setup plugin does not complete in time, the pass is skipped; the periodic job will
+     * retry on its next scheduled run.
+     *
+     * @param synchronizers The synchronizers to run, whose locks are held. They are released once
+     *     each synchronization completes, or when the pass is skipped.
      */
-    private void performSynchronization() {
+    private void performSynchronization(List<AbstractConsumerService> synchronizers) {
         if (!this.waitForSetup()) {
             log.error(
                     "Setup plugin initialization did not complete in time. Skipping catalog"
                             + " synchronization; it will be retried on the next scheduled run.");
+            this.release(synchronizers);
             return;
         }
-        for (AbstractConsumerService synchronizer : this.synchronizers) {
+        for (AbstractConsumerService synchronizer : synchronizers) {
             try {
-                synchronizer.synchronize();
-                log.debug("{} synchronized.", synchronizer.getClass().getSimpleName());
+                this.threadPool.generic().execute(() -> this.synchronize(synchronizer));
             } catch (Exception e) {
                 log.error(
                         "Error during synchronization of {}: {}",
                         synchronizer.getClass().getSimpleName(),
                         e.getMessage(),
                         e);
+                this.release(List.of(synchronizer));
             }
         }
     }
 
+    /**
+     * Releases the locks of the given synchronizers.
+     *
+     * @param synchronizers The synchronizers whose locks are held.
+     */
+    private void release(List<AbstractConsumerService> synchronizers) {
+        synchronizers.forEach(synchronizer -> this.locks.get(synchronizer).release());
+    }
+
+    /**
+     * Synchronizes a consumer once a synchronization slot is available, and releases its lock.
+     *
+     * @param synchronizer The synchronizer of the consumer, whose lock is held.
+     */
+    private void synchronize(AbstractConsumerService synchronizer) {
+        String name = synchronizer.getClass().getSimpleName();
+        try {
+            this.slots.acquire();
+            try {
+                synchronizer.synchronize();
+                log.debug("{} synchronized.", name);
+            } finally {
+                this.slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Synchronization of {} interrupted.", name);
+        } catch (Exception e) {
+            log.error("Error during synchronization of {}: {}", name, e.getMessage(), e);
+        } finally {
+            this.release(List.of(synchronizer));
+        }
+    }
+
     /**
      * Blocks until the Setup plugin reports its initialization as {@value
      * Constants#SETUP_STATUS_READY} via the {@value Constants#SETUP_STATUS_DOC_ID} marker document in
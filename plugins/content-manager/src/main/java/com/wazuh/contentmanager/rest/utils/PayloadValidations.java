@@ -61,13 +61,21 @@ public class PayloadValidations {
      */
     public String validateDocumentInSpace(Client client, String index, String docId, String docType) {
         GetResponse response = client.prepareGet(index, docId).get();
-        docType = Strings.capitalize(docType);
+        return this.validateDocumentInSpace(
+                response.isExists() ? response.getSourceAsMap() : null, docId, docType);
+    }
 
-        if (!response.isExists()) {
-            return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
-        }
+    /**
+     * Validates that an already fetched document exists and is in the draft space.
+     *
+     * @param source the source of the document, or null if it does not exist
+     * @param docId document ID to validate
+     * @param docType the document type name for error messages (e.g., "Decoder", "Integration")
+     * @return an error message if validation fails, null otherwise
+     */
+    public String validateDocumentInSpace(Map<String, Object> source, String docId, String docType) {
+        docType = Strings.capitalize(docType);
 
-        Map<String, Object> source = response.getSourceAsMap();
         if (source == null || !source.containsKey(Constants.KEY_SPACE)) {
             return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
         }
@@ -53,11 +53,27 @@ public class PluginSettings {
 
     private static final long DEFAULT_MAX_BULK_BYTES = 5L * 1024 * 1024;
     private static final int DEFAULT_MAX_CONCURRENT_BULKS = 5;
+    private static final int DEFAULT_SNAPSHOT_PARSER_WORKERS = 4;
+    private static final int DEFAULT_SNAPSHOT_CHECKPOINT_INTERVAL = 50;
+    private static final boolean DEFAULT_SNAPSHOT_STREAMING = false;
+    private static final boolean DEFAULT_SNAPSHOT_DIFFERENTIAL = false;
+    private static final int DEFAULT_SNAPSHOT_DIFFERENTIAL_MAX_DOCUMENTS = 250_000;
+    private static final boolean DEFAULT_SNAPSHOT_BULK_LOAD_ENABLED = true;
+    private static final boolean DEFAULT_SNAPSHOT_BULK_LOAD_ASYNC_TRANSLOG = false;
+    private static final boolean DEFAULT_SNAPSHOT_BULK_LOAD_FORCE_MERGE = false;
+    private static final int DEFAULT_SNAPSHOT_DOWNLOAD_CONNECTIONS = 4;
     private static final int DEFAULT_CLIENT_TIMEOUT = 10;
+    private static final int DEFAULT_HTTP_MAX_CONNECTIONS_PER_HOST = 8;
+    private static final long DEFAULT_HTTP_KEEP_ALIVE = 60;
     private static final int DEFAULT_CATALOG_SYNC_INTERVAL = 60;
     private static final boolean DEFAULT_UPDATE_ON_START = true;
     private static final boolean DEFAULT_UPDATE_ON_SCHEDULE = true;
     private static final boolean DEFAULT_CREATE_DETECTORS = true;
+    private static final int DEFAULT_CATALOG_ROUTING_CACHE_SIZE = 100_000;
+    private static final int DEFAULT_CATALOG_READ_AHEAD_PAGES = 2;
+    private static final long DEFAULT_CATALOG_READ_AHEAD_BYTES = 32L * 1024 * 1024;
+    private static final boolean DEFAULT_CATALOG_SNAPSHOT_RELOAD = true;
+    private static final int DEFAULT_CATALOG_MAX_CONCURRENT_SYNCS = 3;
 
     // Default values for catalog consumer URLs
     private static final String DEFAULT_CATALOG_RULESET = "";
@@ -125,6 +141,114 @@ public class PluginSettings {
                     Setting.Property.NodeScope,
                     Setting.Property.Filtered);
 
+    /**
+     * The number of worker threads parsing snapshot entries in parallel during the initialization
+     * from a snapshot. The effective value is capped by the number of available processors.
+     */
+    public static final Setting<Integer> SNAPSHOT_PARSER_WORKERS =
+            Setting.intSetting(
+                    "plugins.content_manager.snapshot.parser_workers",
+                    DEFAULT_SNAPSHOT_PARSER_WORKERS,
+                    1,
+                    16,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * The number of bulk requests sent between two durable checkpoints of a snapshot load. A load
+     * interrupted by a restart or failure resumes from its last checkpoint when the same snapshot is
+     * downloaded again. 0 disables checkpoints.
+     */
+    public static final Setting<Integer> SNAPSHOT_CHECKPOINT_INTERVAL =
+            Setting.intSetting(
+                    "plugins.content_manager.snapshot.checkpoint_interval",
+                    DEFAULT_SNAPSHOT_CHECKPOINT_INTERVAL,
+                    0,
+                    10000,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * Setting to index snapshot entries while the archive is still being downloaded, instead of
+     * downloading the whole archive to disk first. Archives that cannot be read sequentially fall back
+     * to the regular download.
+     */
+    public static final Setting<Boolean> SNAPSHOT_STREAMING =
+            Setting.boolSetting(
+                    "plugins.content_manager.snapshot.streaming",
+                    DEFAULT_SNAPSHOT_STREAMING,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * Setting to apply snapshots differentially: only new or changed documents are written and only
+     * the documents missing from the snapshot are deleted, instead of clearing and reloading the
+     * content indices.
+     */
+    public static final Setting<Boolean> SNAPSHOT_DIFFERENTIAL =
+            Setting.boolSetting(
+                    "plugins.content_manager.snapshot.differential",
+                    DEFAULT_SNAPSHOT_DIFFERENTIAL,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * The maximum number of indexed documents a differential apply lists the fingerprints of. Their
+     * fingerprints are held in memory for the whole load, so larger content is cleared and reloaded
+     * instead.
+     */
+    public static final Setting<Integer> SNAPSHOT_DIFFERENTIAL_MAX_DOCUMENTS =
+            Setting.intSetting(
+                    "plugins.content_manager.snapshot.differential_max_documents",
+                    DEFAULT_SNAPSHOT_DIFFERENTIAL_MAX_DOCUMENTS,
+                    0,
+                    5_000_000,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * Setting to switch the content indices to bulk-load mode while a snapshot is loaded: refreshes
+     * are disabled and replicas dropped until the load completes.
+     */
+    public static final Setting<Boolean> SNAPSHOT_BULK_LOAD_ENABLED =
+            Setting.boolSetting(
+                    "plugins.content_manager.snapshot.bulk_load.enabled",
+                    DEFAULT_SNAPSHOT_BULK_LOAD_ENABLED,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * Setting to also fsync the translog asynchronously in bulk-load mode. Documents acknowledged
+     * shortly before a node crash may be lost, and are then reloaded with the next snapshot.
+     */
+    public static final Setting<Boolean> SNAPSHOT_BULK_LOAD_ASYNC_TRANSLOG =
+            Setting.boolSetting(
+                    "plugins.content_manager.snapshot.bulk_load.async_translog",
+                    DEFAULT_SNAPSHOT_BULK_LOAD_ASYNC_TRANSLOG,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /** Setting to force-merge the content indices to a single segment after a bulk load. */
+    public static final Setting<Boolean> SNAPSHOT_BULK_LOAD_FORCE_MERGE =
+            Setting.boolSetting(
+                    "plugins.content_manager.snapshot.bulk_load.force_merge",
+                    DEFAULT_SNAPSHOT_BULK_LOAD_FORCE_MERGE,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * The number of parallel range requests a snapshot is downloaded with, when the server supports
+     * them.
+     */
+    public static final Setting<Integer> SNAPSHOT_DOWNLOAD_CONNECTIONS =
+            Setting.intSetting(
+                    "plugins.content_manager.snapshot.download_connections",
+                    DEFAULT_SNAPSHOT_DOWNLOAD_CONNECTIONS,
+                    1,
+                    16,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
     /** Timeout of indexing operations */
     public static final Setting<Long> CLIENT_TIMEOUT =
             Setting.longSetting(
@@ -135,6 +259,26 @@ public class PluginSettings {
                     Setting.Property.NodeScope,
                     Setting.Property.Filtered);
 
+    /** The maximum number of connections of the HTTP client shared by the requests to a host. */
+    public static final Setting<Integer> HTTP_MAX_CONNECTIONS_PER_HOST =
+            Setting.intSetting(
+                    "plugins.content_manager.http.max_connections_per_host",
+                    DEFAULT_HTTP_MAX_CONNECTIONS_PER_HOST,
+                    1,
+                    64,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /** The time in seconds idle HTTP connections are kept alive for reuse. */
+    public static final Setting<Long> HTTP_KEEP_ALIVE =
+            Setting.longSetting(
+                    "plugins.content_manager.http.keep_alive",
+                    DEFAULT_HTTP_KEEP_ALIVE,
+                    1,
+                    600,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
     /** The interval in minutes for the catalog synchronization job. */
     public static final Setting<Integer> CATALOG_SYNC_INTERVAL =
             Setting.intSetting(
@@ -169,6 +313,67 @@ public class PluginSettings {
                     Setting.Property.NodeScope,
                     Setting.Property.Filtered);
 
+    /**
+     * The maximum number of document IDs whose content index is remembered by catalog updates, to
+     * route changes without looking the documents up. Zero disables the cache.
+     */
+    public static final Setting<Integer> CATALOG_ROUTING_CACHE_SIZE =
+            Setting.intSetting(
+                    "plugins.content_manager.catalog.routing_cache_size",
+                    DEFAULT_CATALOG_ROUTING_CACHE_SIZE,
+                    0,
+                    5_000_000,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * The number of pages of changes requested from the CTI API ahead of the page being applied
+     * during catalog updates. Zero disables the read-ahead.
+     */
+    public static final Setting<Integer> CATALOG_READ_AHEAD_PAGES =
+            Setting.intSetting(
+                    "plugins.content_manager.catalog.read_ahead.pages",
+                    DEFAULT_CATALOG_READ_AHEAD_PAGES,
+                    0,
+                    16,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * The maximum estimated size, in bytes, of the pages of changes held in memory at once during
+     * catalog updates, including the page being applied. Pages are estimated from the largest page
+     * received so far.
+     */
+    public static final Setting<Long> CATALOG_READ_AHEAD_BYTES =
+            Setting.longSetting(
+                    "plugins.content_manager.catalog.read_ahead.max_bytes",
+                    DEFAULT_CATALOG_READ_AHEAD_BYTES,
+                    1L * 1024 * 1024,
+                    512L * 1024 * 1024,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /**
+     * Whether consumers far behind their remote may reload the latest snapshot, instead of replaying
+     * every change, when it is estimated to be faster.
+     */
+    public static final Setting<Boolean> CATALOG_SNAPSHOT_RELOAD =
+            Setting.boolSetting(
+                    "plugins.content_manager.catalog.catch_up.snapshot_reload",
+                    DEFAULT_CATALOG_SNAPSHOT_RELOAD,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
+    /** The maximum number of catalog consumers synchronized at the same time. */
+    public static final Setting<Integer> CATALOG_MAX_CONCURRENT_SYNCS =
+            Setting.intSetting(
+                    "plugins.content_manager.catalog.max_concurrent_syncs",
+                    DEFAULT_CATALOG_MAX_CONCURRENT_SYNCS,
+                    1,
+                    3,
+                    Setting.Property.NodeScope,
+                    Setting.Property.Filtered);
+
     /** Full ruleset catalog consumer URL. */
     public static final Setting<String> CATALOG_RULESET =
             Setting.simpleString(
@@ -249,7 +454,18 @@ public class PluginSettings {
     private final int maximumItemsPerBulk;
     private final long maximumBulkBytes;
     private final int maximumConcurrentBulks;
+    private final int snapshotParserWorkers;
+    private final int snapshotCheckpointInterval;
+    private final boolean snapshotStreaming;
+    private final boolean snapshotDifferential;
+    private final int snapshotDifferentialMaxDocuments;
+    private final boolean snapshotBulkLoad;
+    private final boolean snapshotBulkLoadAsyncTranslog;
+    private final boolean snapshotBulkLoadForceMerge;
+    private final int snapshotDownloadConnections;
     private final long clientTimeout;
+    private final int httpMaxConnectionsPerHost;
+    private final long httpKeepAlive;
     private final int catalogSyncInterval;
     private final boolean updateOnStart;
     private final boolean updateOnSchedule;
@@ -259,6 +475,11 @@ public class PluginSettings {
     private final long pitKeepalive;
     private final boolean engineMockEnabled;
     private final boolean createDetectors;
+    private final int catalogRoutingCacheSize;
+    private final int catalogReadAheadPages;
+    private final long catalogReadAheadBytes;
+    private final boolean catalogSnapshotReload;
+    private final int catalogMaxConcurrentSyncs;
     private final boolean updateOnDemand;
     private final boolean policyUpdateEnabled;
     private volatile boolean isTelemetryEnabled;
@@ -275,7 +496,19 @@ public class PluginSettings {
         this.maximumItemsPerBulk = MAX_ITEMS_PER_BULK.get(settings);
         this.maximumBulkBytes = MAX_BULK_BYTES.get(settings);
         this.maximumConcurrentBulks = MAX_CONCURRENT_BULKS.get(settings);
+        this.snapshotParserWorkers =
+                Math.min(SNAPSHOT_PARSER_WORKERS.get(settings), Runtime.getRuntime().availableProcessors());
+        this.snapshotCheckpointInterval = SNAPSHOT_CHECKPOINT_INTERVAL.get(settings);
+        this.snapshotStreaming = SNAPSHOT_STREAMING.get(settings);
+        this.snapshotDifferential = SNAPSHOT_DIFFERENTIAL.get(settings);
+        this.snapshotDifferentialMaxDocuments = SNAPSHOT_DIFFERENTIAL_MAX_DOCUMENTS.get(settings);
+        this.snapshotBulkLoad = SNAPSHOT_BULK_LOAD_ENABLED.get(settings);
+        this.snapshotBulkLoadAsyncTranslog = SNAPSHOT_BULK_LOAD_ASYNC_TRANSLOG.get(settings);
+        this.snapshotBulkLoadForceMerge = SNAPSHOT_BULK_LOAD_FORCE_MERGE.get(settings);
+        this.snapshotDownloadConnections = SNAPSHOT_DOWNLOAD_CONNECTIONS.get(settings);
         this.clientTimeout = CLIENT_TIMEOUT.get(settings);
+        this.httpMaxConnectionsPerHost = HTTP_MAX_CONNECTIONS_PER_HOST.get(settings);
+        this.httpKeepAlive = HTTP_KEEP_ALIVE.get(settings);
         this.catalogSyncInterval = CATALOG_SYNC_INTERVAL.get(settings);
         this.updateOnStart = UPDATE_ON_START.get(settings);
         this.updateOnSchedule = UPDATE_ON_SCHEDULE.get(settings);
@@ -285,6 +518,11 @@ public class PluginSettings {
         this.pitKeepalive = PIT_KEEPALIVE.get(settings);
         this.engineMockEnabled = ENGINE_MOCK_ENABLED.get(settings);
         this.createDetectors = CREATE_DETECTORS.get(settings);
+        this.catalogRoutingCacheSize = CATALOG_ROUTING_CACHE_SIZE.get(settings);
+        this.catalogReadAheadPages = CATALOG_READ_AHEAD_PAGES.get(settings);
+        this.catalogReadAheadBytes = CATALOG_READ_AHEAD_BYTES.get(settings);
+        this.catalogSnapshotReload = CATALOG_SNAPSHOT_RELOAD.get(settings);
+        this.catalogMaxConcurrentSyncs = CATALOG_MAX_CONCURRENT_SYNCS.get(settings);
         this.updateOnDemand = UPDATE_ON_DEMAND.get(settings);
         this.policyUpdateEnabled = POLICY_UPDATE_ENABLED.get(settings);
         this.isTelemetryEnabled = TELEMETRY_ENABLED.get(settings);
@@ -424,6 +662,89 @@ public class PluginSettings {
         return this.maximumConcurrentBulks;
     }
 
+    /**
+     * Retrieves the number of worker threads used to parse snapshot entries in parallel.
+     *
+     * @return an int representing the number of parser workers, never above the available
+     *     processors.
+     */
+    public int getSnapshotParserWorkers() {
+        return this.snapshotParserWorkers;
+    }
+
+    /**
+     * Retrieves the number of bulk requests sent between two checkpoints of a snapshot load.
+     *
+     * @return an int representing the checkpoint interval in bulk requests, 0 if disabled.
+     */
+    public int getSnapshotCheckpointInterval() {
+        return this.snapshotCheckpointInterval;
+    }
+
+    /**
+     * Retrieves whether snapshots are indexed while being downloaded.
+     *
+     * @return true if the streaming snapshot mode is enabled, false otherwise.
+     */
+    public boolean isSnapshotStreaming() {
+        return this.snapshotStreaming;
+    }
+
+    /**
+     * Retrieves whether snapshots are applied differentially to the content indices.
+     *
+     * @return true if the differential snapshot mode is enabled, false otherwise.
+     */
+    public boolean isSnapshotDifferential() {
+        return this.snapshotDifferential;
+    }
+
+    /**
+     * Retrieves the maximum number of indexed documents a differential apply lists the fingerprints
+     * of.
+     *
+     * @return an int representing the maximum number of documents.
+     */
+    public int getSnapshotDifferentialMaxDocuments() {
+        return this.snapshotDifferentialMaxDocuments;
+    }
+
+    /**
+     * Retrieves whether the content indices are switched to bulk-load mode while loading snapshots.
+     *
+     * @return true if the bulk-load mode is enabled, false otherwise.
+     */
+    public boolean isSnapshotBulkLoad() {
+        return this.snapshotBulkLoad;
+    }
+
+    /**
+     * Retrieves whether the translog is fsynced asynchronously in bulk-load mode.
+     *
+     * @return true if the translog durability is relaxed while loading, false otherwise.
+     */
+    public boolean isSnapshotBulkLoadAsyncTranslog() {
+        return this.snapshotBulkLoadAsyncTranslog;
+    }
+
+    /**
+     * Retrieves whether the content indices are force-merged when leaving bulk-load mode.
+     *
+     * @return true if the indices are force-merged after a bulk load, false otherwise.
+     */
+    public boolean isSnapshotBulkLoadForceMerge() {
+        return this.snapshotBulkLoadForceMerge;
+    }
+
+    /**
+     * Retrieves the number of parallel range requests a snapshot is downloaded with.
+     *
+     * @return an int representing the number of download connections.
+     */
+    public int getSnapshotDownloadConnections() {
+        return this.snapshotDownloadConnections;
+    }
+
     /**
      * Retrieves the timeout value for content and context indexing operations.
      *
@@ -433,6 +754,25 @@ public class PluginSettings {
         return this.clientTimeout;
     }
 
+    /**
+     * Retrieves the maximum number of connections of the HTTP client shared by the requests to a
+     * host.
+     *
+     * @return an int representing the connection pool size of each host.
+     */
+    public int getHttpMaxConnectionsPerHost() {
+        return this.httpMaxConnectionsPerHost;
+    }
+
+    /**
+     * Retrieves the time idle HTTP connections are kept alive for reuse.
+     *
+     * @return a long representing the keep-alive duration in seconds.
+     */
+    public long getHttpKeepAlive() {
+        return this.httpKeepAlive;
+    }
+
     /**
      * Retrieves the interval in minutes for the catalog synchronization job.
      *
@@ -501,6 +841,51 @@ public class PluginSettings {
         return this.createDetectors;
     }
 
+    /**
+     * Retrieves the maximum number of document IDs remembered to route catalog changes.
+     *
+     * @return an int representing the routing cache size, zero when disabled.
+     */
+    public int getCatalogRoutingCacheSize() {
+        return this.catalogRoutingCacheSize;
+    }
+
+    /**
+     * Retrieves the number of pages of changes requested ahead during catalog updates.
+     *
+     * @return an int representing the read-ahead pages, zero when disabled.
+     */
+    public int getCatalogReadAheadPages() {
+        return this.catalogReadAheadPages;
+    }
+
+    /**
+     * Retrieves the memory budget of the pages of changes held during catalog updates.
+     *
+     * @return a long representing the budget in bytes.
+     */
+    public long getCatalogReadAheadBytes() {
+        return this.catalogReadAheadBytes;
+    }
+
+    /**
+     * Retrieves whether consumers may catch up by reloading the latest snapshot.
+     *
+     * @return a boolean indicating whether snapshot reloads are enabled.
+     */
+    public boolean isCatalogSnapshotReloadEnabled() {
+        return this.catalogSnapshotReload;
+    }
+
+    /**
+     * Retrieves the maximum number of catalog consumers synchronized at the same time.
+     *
+     * @return an int representing the maximum concurrent synchronizations.
+     */
+    public int getCatalogMaxConcurrentSyncs() {
+        return this.catalogMaxConcurrentSyncs;
+    }
+
     /** Retrieves the full IoCs catalog consumer URL. */
     public String getCatalogIocs() {
         return this.catalogIocs;
@@ -577,9 +962,42 @@ public class PluginSettings {
                 + "maximumConcurrentBulks="
                 + this.maximumConcurrentBulks
                 + ", "
+                + "snapshotParserWorkers="
+                + this.snapshotParserWorkers
+                + ", "
+                + "snapshotCheckpointInterval="
+                + this.snapshotCheckpointInterval
+                + ", "
+                + "snapshotStreaming="
+                + this.snapshotStreaming
+                + ", "
+                + "snapshotDifferential="
+                + this.snapshotDifferential
+                + ", "
+                + "snapshotDifferentialMaxDocuments="
+                + this.snapshotDifferentialMaxDocuments
+                + ", "
+                + "snapshotBulkLoad="
+                + this.snapshotBulkLoad
+                + ", "
+                + "snapshotBulkLoadAsyncTranslog="
+                + this.snapshotBulkLoadAsyncTranslog
+                + ", "
+                + "snapshotBulkLoadForceMerge="
+                + this.snapshotBulkLoadForceMerge
+                + ", "
+                + "snapshotDownloadConnections="
+                + this.snapshotDownloadConnections
+                + ", "
                 + "clientTimeout="
                 + this.clientTimeout
                 + ", "
+                + "httpMaxConnectionsPerHost="
+                + this.httpMaxConnectionsPerHost
+                + ", "
+                + "httpKeepAlive="
+                + this.httpKeepAlive
+                + ", "
                 + "catalogSyncInterval="
                 + this.catalogSyncInterval
                 + ", "
@@ -589,6 +1007,21 @@ public class PluginSettings {
                 + "updateOnSchedule="
                 + this.updateOnSchedule
                 + ", "
+                + "catalogRoutingCacheSize="
+                + this.catalogRoutingCacheSize
+                + ", "
+                + "catalogReadAheadPages="
+                + this.catalogReadAheadPages
+                + ", "
+                + "catalogReadAheadBytes="
+                + this.catalogReadAheadBytes
+                + ", "
+                + "catalogSnapshotReload="
+                + this.catalogSnapshotReload
+                + ", "
+                + "catalogMaxConcurrentSyncs="
+                + this.catalogMaxConcurrentSyncs
+                + ", "
                 + "catalogRuleset='"
                 + this.catalogRuleset
                 + "', "
@@ -23,6 +23,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.core.action.ActionListener;
@@ -36,6 +38,7 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import com.wazuh.contentmanager.action.ContentCreateRequest;
@@ -90,32 +93,47 @@ public abstract class AbstractTransportCreateActionSpaces
         }
         SpaceService spaceService = new SpaceService(client);
 
-        try {
-            RestResponse policyError = TransportActionHelper.validateDraftPolicyExists(client);
-            if (policyError != null) {
-                listener.onResponse(
-                        new ContentResponse(
-                                policyError.getMessage(), RestStatus.fromCode(policyError.getStatus())));
-                return;
-            }
-
-            RestResponse result =
-                    executeCreateWorkflow(request, client, spaceService, securityAnalyticsService);
-            listener.onResponse(
-                    new ContentResponse(result.getMessage(), RestStatus.fromCode(result.getStatus())));
-        } catch (Exception e) {
-            listener.onResponse(
-                    new ContentResponse(
-                            e.getMessage() != null ? e.getMessage() : "Unexpected error",
-                            RestStatus.INTERNAL_SERVER_ERROR));
-        }
+        TransportActionHelper.executeWorkflow(
+                client,
+                workflowListener ->
+                        executeCreateWorkflow(
+                                request, client, spaceService, securityAnalyticsService, workflowListener),
+                listener);
     }
 
-    private RestResponse executeCreateWorkflow(
+    /**
+     * Creates the resource. The payload is validated and synchronized with the external services on
+     * the generic thread pool, then the resource is indexed, linked to its parent and the hash of its
+     * space is updated.
+     */
+    private void executeCreateWorkflow(
             ContentCreateRequest request,
             Client client,
             SpaceService spaceService,
-            SecurityAnalyticsService securityAnalyticsService) {
+            SecurityAnalyticsService securityAnalyticsService,
+            ActionListener<RestResponse> listener) {
+        ActionListener<RestResponse> responder =
+                ActionListener.wrap(listener::onResponse, e -> listener.onResponse(this.failed(e)));
+        TransportActionHelper.fork(
+                client,
+                () -> this.prepareResource(request, client),
+                ActionListener.wrap(
+                        prepared -> {
+                            if (prepared.error() != null) {
+                                responder.onResponse(prepared.error());
+                                return;
+                            }
+                            this.indexResource(prepared, client, spaceService, responder);
+                        },
+                        responder::onFailure));
+    }
+
+    /**
+     * Parses and validates the payload, and synchronizes the resource with the external services.
+     * Blocks on the external services.
+     */
+    private PreparedResource prepareResource(ContentCreateRequest request, Client client)
+            throws Exception {
         byte[] body = request.getBodyContent();
         if (body == null || body.length == 0) {
             log.warn(
@@ -123,157 +141,191 @@ public abstract class AbstractTransportCreateActionSpaces
                     "Creation",
                     this.getResourceType(),
                     "Request body is missing");
-            return new RestResponse(
-                    Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
+            return PreparedResource.rejected(
+                    new RestResponse(
+                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
         }
 
-        try {
-            String rawYaml = null;
-            JsonNode rootNode;
-            ObjectNode resourceNode;
-            boolean isYaml = "yaml".equals(request.getContentType());
-
-            if (isYaml && this.supportsYamlField()) {
-                try {
-                    String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
-                    rootNode = YamlUtils.fromYaml(yamlBody);
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED,
-                            "Creation",
-                            this.getResourceType(),
-                            "Invalid YAML format. Reason: " + e.getMessage());
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY + e.getMessage(),
-                            RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                RestResponse validationError =
-                        this.documentValidations.validateResourcePayload(
-                                rootNode, this.requiresIntegrationId());
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED,
-                            "Payload structure validation",
-                            this.getResourceType(),
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
-                rawYaml = YamlUtils.toYaml(resourceNode);
-            } else {
-                try {
-                    rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED,
-                            "Creation",
-                            this.getResourceType(),
-                            "Invalid JSON format. Reason: " + e.getMessage());
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY + e.getMessage(),
-                            RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                RestResponse validationError =
-                        this.documentValidations.validateResourcePayload(
-                                rootNode, this.requiresIntegrationId());
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED,
-                            "Payload structure validation",
-                            this.getResourceType(),
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+        String rawYaml = null;
+        JsonNode rootNode;
+        ObjectNode resourceNode;
+        boolean isYaml = "yaml".equals(request.getContentType());
+
+        if (isYaml && this.supportsYamlField()) {
+            try {
+                String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
+                rootNode = YamlUtils.fromYaml(yamlBody);
+            } catch (IOException e) {
+                log.warn(
+                        Constants.W_LOG_OPERATION_FAILED,
+                        "Creation",
+                        this.getResourceType(),
+                        "Invalid YAML format. Reason: " + e.getMessage());
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY + e.getMessage(),
+                                RestStatus.BAD_REQUEST.getStatus()));
             }
 
-            // Resource-specific validation (includes space validation)
-            RestResponse validationError = this.validatePayload(client, rootNode, resourceNode);
+            RestResponse validationError =
+                    this.documentValidations.validateResourcePayload(
+                            rootNode, this.requiresIntegrationId());
             if (validationError != null) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED,
-                        "Validation",
+                        "Payload structure validation",
                         this.getResourceType(),
                         validationError.getMessage());
-                return validationError;
+                return PreparedResource.rejected(validationError);
             }
-
-            String spaceName = this.getSpaceName();
-
-            // Generate ID and metadata
-            String id = UUID.randomUUID().toString();
-            resourceNode.put(Constants.KEY_ID, id);
-
-            String currentTimestamp = getCurrentDate();
-            Resource.setCreationTime(resourceNode, currentTimestamp);
-            Resource.setLastModificationTime(resourceNode, currentTimestamp);
-            Resource.nestMetadataFields(resourceNode);
-
-            if (!resourceNode.has(Constants.KEY_ENABLED)) {
-                resourceNode.put(Constants.KEY_ENABLED, true);
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+            rawYaml = YamlUtils.toYaml(resourceNode);
+        } else {
+            try {
+                rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
+            } catch (IOException e) {
+                log.warn(
+                        Constants.W_LOG_OPERATION_FAILED,
+                        "Creation",
+                        this.getResourceType(),
+                        "Invalid JSON format. Reason: " + e.getMessage());
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY + e.getMessage(),
+                                RestStatus.BAD_REQUEST.getStatus()));
             }
 
-            // External Sync
-            validationError = this.syncExternalServices(id, resourceNode);
+            RestResponse validationError =
+                    this.documentValidations.validateResourcePayload(
+                            rootNode, this.requiresIntegrationId());
             if (validationError != null) {
-                log.error(
-                        Constants.E_LOG_FAILED_TO,
-                        "sync",
+                log.warn(
+                        Constants.W_LOG_OPERATION_FAILED,
+                        "Payload structure validation",
                         this.getResourceType(),
-                        id,
-                        "with external services. Reason: " + validationError.getMessage());
-                return validationError;
+                        validationError.getMessage());
+                return PreparedResource.rejected(validationError);
             }
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+        }
 
-            // Indexing
-            ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
-            ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, spaceName);
+        // Resource-specific validation (includes space validation)
+        RestResponse validationError = this.validatePayload(client, rootNode, resourceNode);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED,
+                    "Validation",
+                    this.getResourceType(),
+                    validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            if (this.supportsYamlField()) {
-                if (rawYaml != null) {
-                    ctiWrapper.put(Constants.KEY_YAML, rawYaml);
-                } else {
-                    ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
-                }
-            }
+        String spaceName = this.getSpaceName();
 
-            index.create(id, ctiWrapper);
+        // Generate ID and metadata
+        String id = UUID.randomUUID().toString();
+        resourceNode.put(Constants.KEY_ID, id);
 
-            // Link to Parent
-            try {
-                this.linkToParent(client, id, rootNode);
-            } catch (Exception e) {
-                log.error(
-                        Constants.E_LOG_FAILED_TO,
-                        "link",
-                        this.getResourceType(),
-                        id,
-                        "to parent resource. Rolling back. Reason: " + e.getMessage());
-                index.delete(id);
-                throw e;
-            }
+        String currentTimestamp = getCurrentDate();
+        Resource.setCreationTime(resourceNode, currentTimestamp);
+        Resource.setLastModificationTime(resourceNode, currentTimestamp);
+        Resource.nestMetadataFields(resourceNode);
 
-            // Update Hash
-            spaceService.calculateAndUpdate(List.of(spaceName));
+        if (!resourceNode.has(Constants.KEY_ENABLED)) {
+            resourceNode.put(Constants.KEY_ENABLED, true);
+        }
 
-            log.info(Constants.I_LOG_SUCCESS, "Created", this.getResourceType(), id);
-            return new RestResponse(id, RestStatus.CREATED.getStatus());
+        // External Sync
+        validationError = this.syncExternalServices(id, resourceNode);
+        if (validationError != null) {
+            log.error(
+                    Constants.E_LOG_FAILED_TO,
+                    "sync",
+                    this.getResourceType(),
+                    id,
+                    "with external services. Reason: " + validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-        } catch (Exception e) {
-            OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        // Build the document to index
+        ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, spaceName);
+
+        if (this.supportsYamlField()) {
+            if (rawYaml != null) {
+                ctiWrapper.put(Constants.KEY_YAML, rawYaml);
+            } else {
+                ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
             }
+        }
+        return new PreparedResource(id, rootNode, ctiWrapper, null);
+    }
+
+    /** Indexes the resource, links it to its parent and updates the hash of its space. */
+    private void indexResource(
+            PreparedResource prepared,
+            Client client,
+            SpaceService spaceService,
+            ActionListener<RestResponse> listener) {
+        String id = prepared.id();
+        ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
+
+        // Indexing
+        StepListener<IndexResponse> indexed = new StepListener<>();
+        index.create(id, prepared.document(), indexed);
+
+        // Link to Parent
+        StepListener<Void> linked = new StepListener<>();
+        indexed.whenComplete(
+                response ->
+                        TransportActionHelper.fork(
+                                client, () -> this.linkResource(index, id, prepared.root(), client), linked),
+                listener::onFailure);
+
+        // Update Hash
+        StepListener<Set<String>> hashed = new StepListener<>();
+        linked.whenComplete(
+                response -> spaceService.calculateAndUpdate(List.of(this.getSpaceName()), hashed),
+                listener::onFailure);
+
+        hashed.whenComplete(
+                changedSpaces -> {
+                    log.info(Constants.I_LOG_SUCCESS, "Created", this.getResourceType(), id);
+                    listener.onResponse(new RestResponse(id, RestStatus.CREATED.getStatus()));
+                },
+                listener::onFailure);
+    }
+
+    /** Links the resource to its parent. A resource that cannot be linked is removed. */
+    private Void linkResource(ContentIndex index, String id, JsonNode rootNode, Client client)
+            throws Exception {
+        try {
+            this.linkToParent(client, id, rootNode);
+        } catch (Exception e) {
             log.error(
-                    Constants.E_LOG_OPERATION_FAILED,
-                    "creating",
+                    Constants.E_LOG_FAILED_TO,
+                    "link",
                     this.getResourceType(),
-                    "Reason: " + e.getMessage());
-            return new RestResponse(
-                    "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+                    id,
+                    "to parent resource. Rolling back. Reason: " + e.getMessage());
+            index.delete(id);
+            throw e;
+        }
+        return null;
+    }
+
+    /** Builds the response of a workflow failing unexpectedly. */
+    private RestResponse failed(Exception e) {
+        OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
         }
+        log.error(
+                Constants.E_LOG_OPERATION_FAILED,
+                "creating",
+                this.getResourceType(),
+                "Reason: " + e.getMessage());
+        return new RestResponse(
+                "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
     }
 
     protected String getCurrentDate() {
@@ -16,10 +16,16 @@
  */
 package com.wazuh.contentmanager.transport;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
 import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsRequest;
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.core.action.ActionListener;
@@ -30,10 +36,13 @@ import org.opensearch.transport.client.Client;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.wazuh.contentmanager.action.ContentDeleteRequest;
 import com.wazuh.contentmanager.action.ContentResponse;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.cti.catalog.service.IntegrationService;
 import com.wazuh.contentmanager.cti.catalog.service.SecurityAnalyticsService;
@@ -56,6 +65,7 @@ public abstract class AbstractTransportDeleteAction
         extends HandledTransportAction<ContentDeleteRequest, ContentResponse> {
 
     private static final Logger log = LogManager.getLogger(AbstractTransportDeleteAction.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
     protected final PayloadValidations documentValidations = new PayloadValidations();
     protected final Client client;
     protected final EngineService engine;
@@ -83,144 +93,208 @@ public abstract class AbstractTransportDeleteAction
         SpaceService spaceService = new SpaceService(client);
         IntegrationService integrationService = new IntegrationService(client);
 
-        try {
-            RestResponse policyError = TransportActionHelper.validateDraftPolicyExists(client);
-            if (policyError != null) {
-                listener.onResponse(
-                        new ContentResponse(
-                                policyError.getMessage(), RestStatus.fromCode(policyError.getStatus())));
-                return;
-            }
-
-            RestResponse result =
-                    executeDeleteWorkflow(
-                            request, client, spaceService, securityAnalyticsService, integrationService);
-            listener.onResponse(
-                    new ContentResponse(result.getMessage(), RestStatus.fromCode(result.getStatus())));
-        } catch (Exception e) {
-            listener.onResponse(
-                    new ContentResponse(
-                            e.getMessage() != null ? e.getMessage() : "Unexpected error",
-                            RestStatus.INTERNAL_SERVER_ERROR));
-        }
+        TransportActionHelper.executeWorkflow(
+                client,
+                workflowListener ->
+                        executeDeleteWorkflow(
+                                request,
+                                client,
+                                spaceService,
+                                securityAnalyticsService,
+                                integrationService,
+                                workflowListener),
+                listener);
     }
 
-    private RestResponse executeDeleteWorkflow(
+    /**
+     * Deletes the resource. The index and the document are checked, then the resource is removed
+     * from the external services and unlinked from its parent on the generic thread pool, and the
+     * document is deleted and the hash of the draft space updated.
+     */
+    private void executeDeleteWorkflow(
             ContentDeleteRequest request,
             Client client,
             SpaceService spaceService,
             SecurityAnalyticsService securityAnalyticsService,
-            IntegrationService integrationService) {
+            IntegrationService integrationService,
+            ActionListener<RestResponse> listener) {
         String id = request.getId();
+        ActionListener<RestResponse> responder =
+                ActionListener.wrap(listener::onResponse, e -> listener.onResponse(this.failed(id, e)));
 
-        try {
-            // 1. Validation
-            RestResponse validationError =
-                    this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
-            if (validationError != null) return validationError;
-
-            validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
-            if (validationError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete",
-                        this.getResourceType(),
-                        id,
-                        "Invalid ID format");
-                return validationError;
-            }
+        // 1. Validation
+        RestResponse validationError =
+                this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
+        if (validationError != null) {
+            responder.onResponse(validationError);
+            return;
+        }
 
-            if (!client.admin().indices().prepareExists(this.getIndexName()).get().isExists()) {
-                log.error(Constants.E_LOG_INDEX_NOT_FOUND, this.getIndexName());
-                return new RestResponse(
-                        "Index not found: " + this.getIndexName(),
-                        RestStatus.INTERNAL_SERVER_ERROR.getStatus());
-            }
+        validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Delete",
+                    this.getResourceType(),
+                    id,
+                    "Invalid ID format");
+            responder.onResponse(validationError);
+            return;
+        }
 
-            ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
-            if (!index.exists(id)) {
-                log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
-                return new RestResponse(
-                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus());
-            }
+        StepListener<IndicesExistsResponse> indexChecked = new StepListener<>();
+        client
+                .admin()
+                .indices()
+                .exists(
+                        new IndicesExistsRequest(this.getIndexName()),
+                        RefreshCoordinator.preserve(indexChecked));
 
-            String spaceError =
-                    this.documentValidations.validateDocumentInSpace(
-                            client, this.getIndexName(), id, this.getResourceType());
-            if (spaceError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete",
-                        this.getResourceType(),
-                        id,
-                        "Resource is not in draft space");
-                return new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus());
-            }
+        ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
+        StepListener<JsonNode> fetched = new StepListener<>();
+        indexChecked.whenComplete(
+                response -> {
+                    if (!response.isExists()) {
+                        log.error(Constants.E_LOG_INDEX_NOT_FOUND, this.getIndexName());
+                        responder.onResponse(
+                                new RestResponse(
+                                        "Index not found: " + this.getIndexName(),
+                                        RestStatus.INTERNAL_SERVER_ERROR.getStatus()));
+                        return;
+                    }
+                    index.getDocument(id, fetched);
+                },
+                responder::onFailure);
 
-            // 2. Pre-delete validation
-            validationError = this.validateDelete(client, id, spaceService);
-            if (validationError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete validation",
-                        this.getResourceType(),
-                        id,
-                        validationError.getMessage());
-                return validationError;
-            }
+        StepListener<RestResponse> detached = new StepListener<>();
+        fetched.whenComplete(
+                existingDoc -> {
+                    if (existingDoc == null) {
+                        log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
+                        responder.onResponse(
+                                new RestResponse(
+                                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus()));
+                        return;
+                    }
 
-            // 3. External Sync
-            try {
-                this.deleteExternalServices(id, securityAnalyticsService);
-            } catch (Exception e) {
-                if (this.isNotFoundException(e)) {
-                    log.warn(Constants.W_LOG_EXTERNAL_NOT_FOUND, this.getResourceType(), id);
-                } else {
-                    log.error(
-                            Constants.E_LOG_FAILED_TO,
-                            "delete",
-                            this.getResourceType(),
-                            id,
-                            "from external service: " + e.getMessage());
-                    return new RestResponse(
-                            "Failed to delete from external service: " + e.getMessage(),
-                            RestStatus.INTERNAL_SERVER_ERROR.getStatus());
-                }
-            }
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> source = MAPPER.convertValue(existingDoc, Map.class);
+                    String spaceError =
+                            this.documentValidations.validateDocumentInSpace(
+                                    source, id, this.getResourceType());
+                    if (spaceError != null) {
+                        log.warn(
+                                Constants.W_LOG_OPERATION_FAILED_ID,
+                                "Delete",
+                                this.getResourceType(),
+                                id,
+                                "Resource is not in draft space");
+                        responder.onResponse(
+                                new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus()));
+                        return;
+                    }
+
+                    TransportActionHelper.fork(
+                            client,
+                            () ->
+                                    this.detachResource(
+                                            id, client, spaceService, securityAnalyticsService, integrationService),
+                            detached);
+                },
+                responder::onFailure);
+
+        StepListener<Set<String>> hashed = new StepListener<>();
+        detached.whenComplete(
+                error -> {
+                    if (error != null) {
+                        responder.onResponse(error);
+                        return;
+                    }
+                    // 5. Delete from Index
+                    index.delete(id);
+
+                    // 6. Hash Update
+                    spaceService.calculateAndUpdate(List.of(Space.DRAFT.toString()), hashed);
+                },
+                responder::onFailure);
+
+        hashed.whenComplete(
+                changedSpaces -> {
+                    log.info(Constants.I_LOG_SUCCESS, "Deleted", this.getResourceType(), id);
+                    responder.onResponse(new RestResponse(id, RestStatus.OK.getStatus()));
+                },
+                responder::onFailure);
+    }
+
+    /**
+     * Validates the deletion, removes the resource from the external services and unlinks it from
+     * its parent. Blocks on the Security Analytics plugin and the parent resource.
+     *
+     * @return An error response if the resource can not be deleted, null otherwise.
+     */
+    private RestResponse detachResource(
+            String id,
+            Client client,
+            SpaceService spaceService,
+            SecurityAnalyticsService securityAnalyticsService,
+            IntegrationService integrationService) {
+        // 2. Pre-delete validation
+        RestResponse validationError = this.validateDelete(client, id, spaceService);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Delete validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return validationError;
+        }
 
-            // 4. Unlink Parent
-            try {
-                this.unlinkFromParent(client, id, integrationService);
-            } catch (Exception e) {
+        // 3. External Sync
+        try {
+            this.deleteExternalServices(id, securityAnalyticsService);
+        } catch (Exception e) {
+            if (this.isNotFoundException(e)) {
+                log.warn(Constants.W_LOG_EXTERNAL_NOT_FOUND, this.getResourceType(), id);
+            } else {
                 log.error(
                         Constants.E_LOG_FAILED_TO,
-                        "unlink",
+                        "delete",
                         this.getResourceType(),
                         id,
-                        "from parent: " + e.getMessage());
+                        "from external service: " + e.getMessage());
                 return new RestResponse(
-                        "Failed to unlink from parent: " + e.getMessage(),
+                        "Failed to delete from external service: " + e.getMessage(),
                         RestStatus.INTERNAL_SERVER_ERROR.getStatus());
             }
+        }
 
-            // 5. Delete from Index
-            index.delete(id);
-
-            // 6. Hash Update
-            spaceService.calculateAndUpdate(List.of(Space.DRAFT.toString()));
-
-            log.info(Constants.I_LOG_SUCCESS, "Deleted", this.getResourceType(), id);
-            return new RestResponse(id, RestStatus.OK.getStatus());
-
+        // 4. Unlink Parent
+        try {
+            this.unlinkFromParent(client, id, integrationService);
         } catch (Exception e) {
-            OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
-            }
-            log.error(Constants.E_LOG_UNEXPECTED, "deleting", this.getResourceType(), id, e.getMessage());
+            log.error(
+                    Constants.E_LOG_FAILED_TO,
+                    "unlink",
+                    this.getResourceType(),
+                    id,
+                    "from parent: " + e.getMessage());
             return new RestResponse(
-                    "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+                    "Failed to unlink from parent: " + e.getMessage(),
+                    RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+        }
+        return null;
+    }
+
+    /** Builds the response of a workflow failing unexpectedly. */
+    private RestResponse failed(String id, Exception e) {
+        OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
         }
+        log.error(Constants.E_LOG_UNEXPECTED, "deleting", this.getResourceType(), id, e.getMessage());
+        return new RestResponse(
+                "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
     }
 
     private boolean isNotFoundException(Exception e) {
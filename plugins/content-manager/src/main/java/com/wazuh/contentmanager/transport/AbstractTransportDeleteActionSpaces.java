@@ -16,11 +16,16 @@
  */
 package com.wazuh.contentmanager.transport;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
 import org.opensearch.OpenSearchStatusException;
-import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsRequest;
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.core.action.ActionListener;
@@ -38,6 +43,7 @@ import java.util.Set;
 import com.wazuh.contentmanager.action.ContentDeleteRequest;
 import com.wazuh.contentmanager.action.ContentResponse;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.cti.catalog.service.SecurityAnalyticsService;
 import com.wazuh.contentmanager.cti.catalog.service.SecurityAnalyticsServiceImpl;
@@ -58,6 +64,7 @@ public abstract class AbstractTransportDeleteActionSpaces
         extends HandledTransportAction<ContentDeleteRequest, ContentResponse> {
 
     private static final Logger log = LogManager.getLogger(AbstractTransportDeleteActionSpaces.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
     protected final PayloadValidations documentValidations = new PayloadValidations();
     protected final Client client;
     protected final EngineService engine;
@@ -84,158 +91,200 @@ public abstract class AbstractTransportDeleteActionSpaces
         }
         SpaceService spaceService = new SpaceService(client);
 
-        try {
-            RestResponse policyError = TransportActionHelper.validateDraftPolicyExists(client);
-            if (policyError != null) {
-                listener.onResponse(
-                        new ContentResponse(
-                                policyError.getMessage(), RestStatus.fromCode(policyError.getStatus())));
-                return;
-            }
-
-            RestResponse result =
-                    executeDeleteWorkflow(request, client, spaceService, securityAnalyticsService);
-            listener.onResponse(
-                    new ContentResponse(result.getMessage(), RestStatus.fromCode(result.getStatus())));
-        } catch (Exception e) {
-            listener.onResponse(
-                    new ContentResponse(
-                            e.getMessage() != null ? e.getMessage() : "Unexpected error",
-                            RestStatus.INTERNAL_SERVER_ERROR));
-        }
+        TransportActionHelper.executeWorkflow(
+                client,
+                workflowListener ->
+                        executeDeleteWorkflow(
+                                request, client, spaceService, securityAnalyticsService, workflowListener),
+                listener);
     }
 
-    private RestResponse executeDeleteWorkflow(
+    /**
+     * Deletes the resource. The index and the document are checked, then the resource is removed
+     * from the external services and unlinked from its parent on the generic thread pool, and the
+     * document is deleted and the hash of its space updated.
+     */
+    private void executeDeleteWorkflow(
             ContentDeleteRequest request,
             Client client,
             SpaceService spaceService,
-            SecurityAnalyticsService securityAnalyticsService) {
+            SecurityAnalyticsService securityAnalyticsService,
+            ActionListener<RestResponse> listener) {
         String id = request.getId();
-        String spaceName = null;
-
-        try {
-            // 1. Validation
-            RestResponse validationError =
-                    this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
-            if (validationError != null) return validationError;
-
-            validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
-            if (validationError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete",
-                        this.getResourceType(),
-                        id,
-                        "Invalid ID format");
-                return validationError;
-            }
-
-            if (!client.admin().indices().prepareExists(this.getIndexName()).get().isExists()) {
-                log.error(Constants.E_LOG_INDEX_NOT_FOUND, this.getIndexName());
-                return new RestResponse(
-                        "Index not found: " + this.getIndexName(),
-                        RestStatus.INTERNAL_SERVER_ERROR.getStatus());
-            }
-
-            ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
-            if (!index.exists(id)) {
-                log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
-                return new RestResponse(
-                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus());
-            }
+        ActionListener<RestResponse> responder =
+                ActionListener.wrap(listener::onResponse, e -> listener.onResponse(this.failed(id, e)));
+
+        // 1. Validation
+        RestResponse validationError =
+                this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
+        if (validationError != null) {
+            responder.onResponse(validationError);
+            return;
+        }
 
-            // Validate document is in valid space
-            String spaceError =
-                    validateDocumentInSpace(client, this.getIndexName(), id, this.getResourceType());
-            if (spaceError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete",
-                        this.getResourceType(),
-                        id,
-                        "Resource is not in a valid space");
-                return new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus());
-            }
-            spaceName = this.resolvedSpaceName;
-
-            // 2. Pre-delete validation
-            validationError = this.validateDelete(client, id);
-            if (validationError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Delete validation",
-                        this.getResourceType(),
-                        id,
-                        validationError.getMessage());
-                return validationError;
-            }
+        validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Delete",
+                    this.getResourceType(),
+                    id,
+                    "Invalid ID format");
+            responder.onResponse(validationError);
+            return;
+        }
 
-            // 3. External Sync
-            try {
-                this.deleteExternalServices(id);
-            } catch (Exception e) {
-                if (this.isNotFoundException(e)) {
-                    log.warn(Constants.W_LOG_EXTERNAL_NOT_FOUND, this.getResourceType(), id);
-                } else {
-                    log.error(
-                            Constants.E_LOG_FAILED_TO,
-                            "delete",
-                            this.getResourceType(),
-                            id,
-                            "from external service: " + e.getMessage());
-                    return new RestResponse(
-                            "Failed to delete from external service: " + e.getMessage(),
-                            RestStatus.INTERNAL_SERVER_ERROR.getStatus());
-                }
-            }
+        StepListener<IndicesExistsResponse> indexChecked = new StepListener<>();
+        client
+                .admin()
+                .indices()
+                .exists(
+                        new IndicesExistsRequest(this.getIndexName()),
+                        RefreshCoordinator.preserve(indexChecked));
+
+        ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
+        StepListener<JsonNode> fetched = new StepListener<>();
+        indexChecked.whenComplete(
+                response -> {
+                    if (!response.isExists()) {
+                        log.error(Constants.E_LOG_INDEX_NOT_FOUND, this.getIndexName());
+                        responder.onResponse(
+                                new RestResponse(
+                                        "Index not found: " + this.getIndexName(),
+                                        RestStatus.INTERNAL_SERVER_ERROR.getStatus()));
+                        return;
+                    }
+                    index.getDocument(id, fetched);
+                },
+                responder::onFailure);
+
+        StepListener<RestResponse> detached = new StepListener<>();
+        fetched.whenComplete(
+                existingDoc -> {
+                    if (existingDoc == null) {
+                        log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
+                        responder.onResponse(
+                                new RestResponse(
+                                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus()));
+                        return;
+                    }
+
+                    // Validate document is in valid space
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> source = MAPPER.convertValue(existingDoc, Map.class);
+                    String spaceError = this.validateDocumentInSpace(source, id, this.getResourceType());
+                    if (spaceError != null) {
+                        log.warn(
+                                Constants.W_LOG_OPERATION_FAILED_ID,
+                                "Delete",
+                                this.getResourceType(),
+                                id,
+                                "Resource is not in a valid space");
+                        responder.onResponse(
+                                new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus()));
+                        return;
+                    }
+
+                    JsonNode space = existingDoc.path(Constants.KEY_SPACE);
+                    String spaceName = space.path(Constants.KEY_NAME).asText();
+                    TransportActionHelper.fork(
+                            client, () -> this.detachResource(id, client, spaceName), detached);
+                },
+                responder::onFailure);
+
+        StepListener<Set<String>> hashed = new StepListener<>();
+        detached.whenComplete(
+                error -> {
+                    if (error != null) {
+                        responder.onResponse(error);
+                        return;
+                    }
+                    // 5. Delete from Index
+                    index.delete(id);
+
+                    // 6. Hash Update
+                    JsonNode space = fetched.result().path(Constants.KEY_SPACE);
+                    String spaceName = space.path(Constants.KEY_NAME).asText();
+                    spaceService.calculateAndUpdate(List.of(spaceName), hashed);
+                },
+                responder::onFailure);
+
+        hashed.whenComplete(
+                changedSpaces -> {
+                    log.info(Constants.I_LOG_SUCCESS, "Deleted", this.getResourceType(), id);
+                    responder.onResponse(new RestResponse(id, RestStatus.OK.getStatus()));
+                },
+                responder::onFailure);
+    }
+    /**
+     * Validates the deletion, removes the resource from the external services and unlinks it from
+     * its parent. Blocks on the Engine and the parent resource.
+     *
+     * @return An error response if the resource can not be deleted, null otherwise.
+     */
+    private RestResponse detachResource(String id, Client client, String spaceName) {
+        // 2. Pre-delete validation
+        RestResponse validationError = this.validateDelete(client, id);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Delete validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return validationError;
+        }
 
-            // 4. Unlink Parent
-            try {
-                this.unlinkFromParent(client, id, spaceName);
-            } catch (Exception e) {
+        // 3. External Sync
+        try {
+            this.deleteExternalServices(id);
+        } catch (Exception e) {
+            if (this.isNotFoundException(e)) {
+                log.warn(Constants.W_LOG_EXTERNAL_NOT_FOUND, this.getResourceType(), id);
+            } else {
                 log.error(
                         Constants.E_LOG_FAILED_TO,
-                        "unlink",
+                        "delete",
                         this.getResourceType(),
                         id,
-                        "from parent: " + e.getMessage());
+                        "from external service: " + e.getMessage());
                 return new RestResponse(
-                        "Failed to unlink from parent: " + e.getMessage(),
+                        "Failed to delete from external service: " + e.getMessage(),
                         RestStatus.INTERNAL_SERVER_ERROR.getStatus());
             }
+        }
 
-            // 5. Delete from Index
-            index.delete(id);
-
-            // 6. Hash Update
-            spaceService.calculateAndUpdate(List.of(spaceName));
-
-            log.info(Constants.I_LOG_SUCCESS, "Deleted", this.getResourceType(), id);
-            return new RestResponse(id, RestStatus.OK.getStatus());
-
+        // 4. Unlink Parent
+        try {
+            this.unlinkFromParent(client, id, spaceName);
         } catch (Exception e) {
-            OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
-            }
-            log.error(Constants.E_LOG_UNEXPECTED, "deleting", this.getResourceType(), id, e.getMessage());
+            log.error(
+                    Constants.E_LOG_FAILED_TO,
+                    "unlink",
+                    this.getResourceType(),
+                    id,
+                    "from parent: " + e.getMessage());
             return new RestResponse(
-                    "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+                    "Failed to unlink from parent: " + e.getMessage(),
+                    RestStatus.INTERNAL_SERVER_ERROR.getStatus());
         }
+        return null;
     }
 
-    private String resolvedSpaceName;
+    /** Builds the response of a workflow failing unexpectedly. */
+    private RestResponse failed(String id, Exception e) {
+        OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        }
+        log.error(Constants.E_LOG_UNEXPECTED, "deleting", this.getResourceType(), id, e.getMessage());
+        return new RestResponse(
+                "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+    }
 
-    private String validateDocumentInSpace(
-            Client client, String index, String docId, String docType) {
-        GetResponse response = client.prepareGet(index, docId).get();
+    private String validateDocumentInSpace(Map<String, Object> source, String docId, String docType) {
         docType = Strings.capitalize(docType);
 
-        if (!response.isExists()) {
-            return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
-        }
-
-        Map<String, Object> source = response.getSourceAsMap();
         if (source == null || !source.containsKey(Constants.KEY_SPACE)) {
             return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
         }
@@ -247,10 +296,9 @@ public abstract class AbstractTransportDeleteActionSpaces
 
         @SuppressWarnings("unchecked")
         Map<String, Object> spaceMap = (Map<String, Object>) spaceObj;
-        Object spaceName = spaceMap.get(Constants.KEY_NAME);
-        this.resolvedSpaceName = String.valueOf(spaceName);
+        String spaceName = String.valueOf(spaceMap.get(Constants.KEY_NAME));
 
-        if (!getAllowedSpaces().contains(Space.fromValue(this.resolvedSpaceName))) {
+        if (!getAllowedSpaces().contains(Space.fromValue(spaceName))) {
             return String.format(
                     Locale.ROOT, Constants.E_400_RESOURCE_SPACE_MISMATCH, this.getAllowedSpaces());
         }
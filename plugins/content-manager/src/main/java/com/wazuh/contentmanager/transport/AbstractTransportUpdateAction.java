@@ -23,6 +23,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.core.action.ActionListener;
@@ -36,6 +38,8 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.wazuh.contentmanager.action.ContentResponse;
 import com.wazuh.contentmanager.action.ContentUpdateRequest;
@@ -90,32 +94,29 @@ public abstract class AbstractTransportUpdateAction
         }
         SpaceService spaceService = new SpaceService(client);
 
-        try {
-            RestResponse policyError = TransportActionHelper.validateDraftPolicyExists(client);
-            if (policyError != null) {
-                listener.onResponse(
-                        new ContentResponse(
-                                policyError.getMessage(), RestStatus.fromCode(policyError.getStatus())));
-                return;
-            }
-
-            RestResponse result =
-                    executeUpdateWorkflow(request, client, spaceService, securityAnalyticsService);
-            listener.onResponse(
-                    new ContentResponse(result.getMessage(), RestStatus.fromCode(result.getStatus())));
-        } catch (Exception e) {
-            listener.onResponse(
-                    new ContentResponse(
-                            e.getMessage() != null ? e.getMessage() : "Unexpected error",
-                            RestStatus.INTERNAL_SERVER_ERROR));
-        }
+        TransportActionHelper.executeWorkflow(
+                client,
+                workflowListener ->
+                        executeUpdateWorkflow(
+                                request, client, spaceService, securityAnalyticsService, workflowListener),
+                listener);
     }
 
-    private RestResponse executeUpdateWorkflow(
+    /**
+     * Updates the resource. The existing document is fetched, then the payload is validated and
+     * synchronized with the external services on the generic thread pool, and the resource is
+     * indexed and the hash of the draft space updated.
+     */
+    private void executeUpdateWorkflow(
             ContentUpdateRequest request,
             Client client,
             SpaceService spaceService,
-            SecurityAnalyticsService securityAnalyticsService) {
+            SecurityAnalyticsService securityAnalyticsService,
+            ActionListener<RestResponse> listener) {
+        String id = request.getId();
+        ActionListener<RestResponse> responder =
+                ActionListener.wrap(listener::onResponse, e -> listener.onResponse(this.failed(id, e)));
+
         // 1. Validate body
         byte[] body = request.getBodyContent();
         if (body == null || body.length == 0) {
@@ -124,184 +125,243 @@ public abstract class AbstractTransportUpdateAction
                     "Update",
                     this.getResourceType(),
                     "Request body is missing");
-            return new RestResponse(
-                    Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
+            responder.onResponse(
+                    new RestResponse(
+                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
+            return;
         }
 
-        String id = request.getId();
-
-        try {
-            // 2. Validate ID
-            RestResponse validationError =
-                    this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
-            if (validationError != null) return validationError;
+        // 2. Validate ID
+        RestResponse validationError =
+                this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
+        if (validationError != null) {
+            responder.onResponse(validationError);
+            return;
+        }
 
-            validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
-            if (validationError != null) {
-                log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Update",
-                        this.getResourceType(),
-                        id,
-                        "Invalid ID format");
-                return validationError;
-            }
+        validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Update",
+                    this.getResourceType(),
+                    id,
+                    "Invalid ID format");
+            responder.onResponse(validationError);
+            return;
+        }
 
-            ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
-            if (!index.exists(id)) {
-                log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
-                return new RestResponse(
-                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus());
-            }
+        ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
+        StepListener<JsonNode> fetched = new StepListener<>();
+        index.getDocument(id, fetched);
+
+        StepListener<PreparedResource> prepared = new StepListener<>();
+        fetched.whenComplete(
+                existingDoc -> {
+                    if (existingDoc == null) {
+                        log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
+                        responder.onResponse(
+                                new RestResponse(
+                                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus()));
+                        return;
+                    }
+
+                    // Validate document is in draft space
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> source = MAPPER.convertValue(existingDoc, Map.class);
+                    String spaceError =
+                            this.documentValidations.validateDocumentInSpace(
+                                    source, id, this.getResourceType());
+                    if (spaceError != null) {
+                        log.warn(
+                                Constants.W_LOG_OPERATION_FAILED_ID,
+                                "Update",
+                                this.getResourceType(),
+                                id,
+                                "Resource not in draft space");
+                        responder.onResponse(
+                                new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus()));
+                        return;
+                    }
+
+                    TransportActionHelper.fork(
+                            client,
+                            () ->
+                                    this.prepareResource(
+                                            request, id, body, client, existingDoc, securityAnalyticsService),
+                            prepared);
+                },
+                responder::onFailure);
+
+        // 8. Indexing
+        StepListener<IndexResponse> indexed = new StepListener<>();
+        prepared.whenComplete(
+                resource -> {
+                    if (resource.error() != null) {
+                        responder.onResponse(resource.error());
+                        return;
+                    }
+                    index.create(id, resource.document(), indexed);
+                },
+                responder::onFailure);
+
+        // 9. Update Hash
+        StepListener<Set<String>> hashed = new StepListener<>();
+        indexed.whenComplete(
+                response -> spaceService.calculateAndUpdate(List.of(Space.DRAFT.toString()), hashed),
+                responder::onFailure);
+
+        hashed.whenComplete(
+                changedSpaces -> {
+                    log.info(Constants.I_LOG_SUCCESS, "Updated", this.getResourceType(), id);
+                    responder.onResponse(new RestResponse(id, RestStatus.OK.getStatus()));
+                },
+                responder::onFailure);
+    }
 
-            // Validate document is in draft space
-            String spaceError =
-                    this.documentValidations.validateDocumentInSpace(
-                            client, this.getIndexName(), id, this.getResourceType());
-            if (spaceError != null) {
+    /**
+     * Parses and validates the payload, preserves the metadata of the existing document and
+     * synchronizes the resource with the external services. Blocks on the Engine and the Security
+     * Analytics plugin.
+     */
+    private PreparedResource prepareResource(
+            ContentUpdateRequest request,
+            String id,
+            byte[] body,
+            Client client,
+            JsonNode existingDoc,
+            SecurityAnalyticsService securityAnalyticsService)
+            throws Exception {
+        // 3. Parse Body
+        RestResponse validationError;
+        String rawYaml = null;
+        JsonNode rootNode;
+        ObjectNode resourceNode;
+        boolean isYaml = "yaml".equals(request.getContentType());
+
+        if (isYaml && this.supportsYamlField()) {
+            try {
+                String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
+                rootNode = YamlUtils.fromYaml(yamlBody);
+            } catch (IOException e) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
                         "Update",
                         this.getResourceType(),
                         id,
-                        "Resource not in draft space");
-                return new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus());
+                        "Invalid YAML format");
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
             }
 
-            // 3. Parse Body
-            String rawYaml = null;
-            JsonNode rootNode;
-            ObjectNode resourceNode;
-            boolean isYaml = "yaml".equals(request.getContentType());
-
-            if (isYaml && this.supportsYamlField()) {
-                try {
-                    String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
-                    rootNode = YamlUtils.fromYaml(yamlBody);
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Update",
-                            this.getResourceType(),
-                            id,
-                            "Invalid YAML format");
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                validationError = this.documentValidations.validateResourcePayload(rootNode, false);
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Payload validation",
-                            this.getResourceType(),
-                            id,
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
-                rawYaml = YamlUtils.toYaml(resourceNode);
-            } else {
-                try {
-                    rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Update",
-                            this.getResourceType(),
-                            id,
-                            "Invalid JSON format");
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                // 4. Validate Payload
-                validationError = this.documentValidations.validateResourcePayload(rootNode, false);
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Payload validation",
-                            this.getResourceType(),
-                            id,
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
-            }
-            resourceNode.put(Constants.KEY_ID, id);
-
-            // 5. Resource Specific Validation
-            validationError = this.validatePayload(client, rootNode, resourceNode);
+            validationError = this.documentValidations.validateResourcePayload(rootNode, false);
             if (validationError != null) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Validation",
+                        "Payload validation",
                         this.getResourceType(),
                         id,
                         validationError.getMessage());
-                return validationError;
+                return PreparedResource.rejected(validationError);
             }
-
-            // 6. Update Timestamps & Preserve Metadata
-            String currentTimestamp = getCurrentDate();
-            Resource.setLastModificationTime(resourceNode, currentTimestamp);
-            Resource.nestMetadataFields(resourceNode);
-            validationError = this.preserveMetadata(index, id, resourceNode);
-            if (validationError != null) {
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+            rawYaml = YamlUtils.toYaml(resourceNode);
+        } else {
+            try {
+                rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
+            } catch (IOException e) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Preserve metadata validation",
+                        "Update",
                         this.getResourceType(),
                         id,
-                        validationError.getMessage());
-                return validationError;
+                        "Invalid JSON format");
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
             }
 
-            // 7. External Sync
-            validationError = this.syncExternalServices(id, resourceNode, securityAnalyticsService);
+            // 4. Validate Payload
+            validationError = this.documentValidations.validateResourcePayload(rootNode, false);
             if (validationError != null) {
-                log.error(
-                        Constants.E_LOG_FAILED_TO,
-                        "sync updated",
+                log.warn(
+                        Constants.W_LOG_OPERATION_FAILED_ID,
+                        "Payload validation",
                         this.getResourceType(),
                         id,
-                        "with external services. Reason: " + validationError.getMessage());
-                return validationError;
+                        validationError.getMessage());
+                return PreparedResource.rejected(validationError);
             }
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+        }
+        resourceNode.put(Constants.KEY_ID, id);
 
-            // 8. Indexing
-            ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, Space.DRAFT.toString());
-
-            if (this.supportsYamlField()) {
-                if (rawYaml != null) {
-                    ctiWrapper.put(Constants.KEY_YAML, rawYaml);
-                } else {
-                    ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
-                }
-            }
+        // 5. Resource Specific Validation
+        validationError = this.validatePayload(client, rootNode, resourceNode);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            index.create(id, ctiWrapper);
+        // 6. Update Timestamps & Preserve Metadata
+        String currentTimestamp = getCurrentDate();
+        Resource.setLastModificationTime(resourceNode, currentTimestamp);
+        Resource.nestMetadataFields(resourceNode);
+        validationError = this.preserveMetadata(existingDoc, resourceNode);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Preserve metadata validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            // 9. Update Hash
-            spaceService.calculateAndUpdate(List.of(Space.DRAFT.toString()));
+        // 7. External Sync
+        validationError = this.syncExternalServices(id, resourceNode, securityAnalyticsService);
+        if (validationError != null) {
+            log.error(
+                    Constants.E_LOG_FAILED_TO,
+                    "sync updated",
+                    this.getResourceType(),
+                    id,
+                    "with external services. Reason: " + validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            log.info(Constants.I_LOG_SUCCESS, "Updated", this.getResourceType(), id);
-            return new RestResponse(id, RestStatus.OK.getStatus());
+        // Build the document to index
+        ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, Space.DRAFT.toString());
 
-        } catch (Exception e) {
-            OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        if (this.supportsYamlField()) {
+            if (rawYaml != null) {
+                ctiWrapper.put(Constants.KEY_YAML, rawYaml);
+            } else {
+                ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
             }
-            log.error(Constants.E_LOG_UNEXPECTED, "updating", this.getResourceType(), id, e.getMessage());
-            return new RestResponse(
-                    "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
         }
+        return new PreparedResource(id, rootNode, ctiWrapper, null);
+    }
+
+    /** Builds the response of a workflow failing unexpectedly. */
+    private RestResponse failed(String id, Exception e) {
+        OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        }
+        log.error(Constants.E_LOG_UNEXPECTED, "updating", this.getResourceType(), id, e.getMessage());
+        return new RestResponse(
+                "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
     }
 
     /** Preserves creation date and other immutable fields from the existing document. */
-    protected RestResponse preserveMetadata(ContentIndex index, String id, ObjectNode resourceNode) {
-        JsonNode existingDoc = index.getDocument(id);
+    protected RestResponse preserveMetadata(JsonNode existingDoc, ObjectNode resourceNode) {
         if (existingDoc == null || !existingDoc.has(Constants.KEY_DOCUMENT)) return null;
 
         JsonNode doc = existingDoc.get(Constants.KEY_DOCUMENT);
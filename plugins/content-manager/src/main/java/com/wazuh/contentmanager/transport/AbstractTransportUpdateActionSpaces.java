@@ -23,7 +23,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
-import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.core.action.ActionListener;
@@ -94,28 +95,26 @@ public abstract class AbstractTransportUpdateActionSpaces
         }
         SpaceService spaceService = new SpaceService(client);
 
-        try {
-            RestResponse policyError = TransportActionHelper.validateDraftPolicyExists(client);
-            if (policyError != null) {
-                listener.onResponse(
-                        new ContentResponse(
-                                policyError.getMessage(), RestStatus.fromCode(policyError.getStatus())));
-                return;
-            }
-
-            RestResponse result = executeUpdateWorkflow(request, client, spaceService);
-            listener.onResponse(
-                    new ContentResponse(result.getMessage(), RestStatus.fromCode(result.getStatus())));
-        } catch (Exception e) {
-            listener.onResponse(
-                    new ContentResponse(
-                            e.getMessage() != null ? e.getMessage() : "Unexpected error",
-                            RestStatus.INTERNAL_SERVER_ERROR));
-        }
+        TransportActionHelper.executeWorkflow(
+                client,
+                workflowListener -> executeUpdateWorkflow(request, client, spaceService, workflowListener),
+                listener);
     }
 
-    private RestResponse executeUpdateWorkflow(
-            ContentUpdateRequest request, Client client, SpaceService spaceService) {
+    /**
+     * Updates the resource. The existing document is fetched, then the payload is validated and
+     * synchronized with the external services on the generic thread pool, and the resource is
+     * indexed and the hash of its space updated.
+     */
+    private void executeUpdateWorkflow(
+            ContentUpdateRequest request,
+            Client client,
+            SpaceService spaceService,
+            ActionListener<RestResponse> listener) {
+        String id = request.getId();
+        ActionListener<RestResponse> responder =
+                ActionListener.wrap(listener::onResponse, e -> listener.onResponse(this.failed(id, e)));
+
         byte[] body = request.getBodyContent();
         if (body == null || body.length == 0) {
             log.warn(
@@ -123,184 +122,231 @@ public abstract class AbstractTransportUpdateActionSpaces
                     "Update",
                     this.getResourceType(),
                     "Request body is missing");
-            return new RestResponse(
-                    Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
+            responder.onResponse(
+                    new RestResponse(
+                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
+            return;
         }
 
-        String id = request.getId();
+        // Validate ID
+        RestResponse validationError =
+                this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
+        if (validationError != null) {
+            responder.onResponse(validationError);
+            return;
+        }
 
-        try {
-            // Validate ID
-            RestResponse validationError =
-                    this.documentValidations.validateRequiredParam(id, Constants.KEY_ID);
-            if (validationError != null) return validationError;
+        validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Update",
+                    this.getResourceType(),
+                    id,
+                    "Invalid ID format");
+            responder.onResponse(validationError);
+            return;
+        }
 
-            validationError = this.documentValidations.validateIdFormat(id, Constants.KEY_ID);
-            if (validationError != null) {
+        ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
+        StepListener<JsonNode> fetched = new StepListener<>();
+        index.getDocument(id, fetched);
+
+        StepListener<PreparedResource> prepared = new StepListener<>();
+        fetched.whenComplete(
+                existingDoc -> {
+                    if (existingDoc == null) {
+                        log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
+                        responder.onResponse(
+                                new RestResponse(
+                                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus()));
+                        return;
+                    }
+                    TransportActionHelper.fork(
+                            client,
+                            () -> this.prepareResource(request, id, body, client, existingDoc),
+                            prepared);
+                },
+                responder::onFailure);
+
+        // Indexing
+        StepListener<IndexResponse> indexed = new StepListener<>();
+        prepared.whenComplete(
+                resource -> {
+                    if (resource.error() != null) {
+                        responder.onResponse(resource.error());
+                        return;
+                    }
+                    index.create(id, resource.document(), indexed);
+                },
+                responder::onFailure);
+
+        // Update Space Hash
+        StepListener<Set<String>> hashed = new StepListener<>();
+        indexed.whenComplete(
+                response -> {
+                    String spaceName = prepared.result().root().path(Constants.KEY_SPACE).asText();
+                    spaceService.calculateAndUpdate(List.of(spaceName), hashed);
+                },
+                responder::onFailure);
+
+        hashed.whenComplete(
+                changedSpaces -> {
+                    log.info(Constants.I_LOG_SUCCESS, "Updated", this.getResourceType(), id);
+                    responder.onResponse(new RestResponse(id, RestStatus.OK.getStatus()));
+                },
+                responder::onFailure);
+    }
+
+    /**
+     * Parses and validates the payload, checks the space of the existing document, preserves its
+     * metadata and synchronizes the resource with the external services. Blocks on the Engine.
+     */
+    private PreparedResource prepareResource(
+            ContentUpdateRequest request, String id, byte[] body, Client client, JsonNode existingDoc)
+            throws Exception {
+        // Parse body
+        RestResponse validationError;
+        String rawYaml = null;
+        JsonNode rootNode;
+        ObjectNode resourceNode;
+        boolean isYaml = "yaml".equals(request.getContentType());
+
+        if (isYaml && this.supportsYamlField()) {
+            try {
+                String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
+                rootNode = YamlUtils.fromYaml(yamlBody);
+            } catch (IOException e) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
                         "Update",
                         this.getResourceType(),
                         id,
-                        "Invalid ID format");
-                return validationError;
-            }
-
-            ContentIndex index = new ContentIndex(client, this.getIndexName(), null);
-            if (!index.exists(id)) {
-                log.warn(Constants.W_LOG_RESOURCE_NOT_FOUND, this.getResourceType(), id);
-                return new RestResponse(
-                        Constants.E_404_RESOURCE_NOT_FOUND, RestStatus.NOT_FOUND.getStatus());
-            }
-
-            // Parse body
-            String rawYaml = null;
-            JsonNode rootNode;
-            ObjectNode resourceNode;
-            boolean isYaml = "yaml".equals(request.getContentType());
-
-            if (isYaml && this.supportsYamlField()) {
-                try {
-                    String yamlBody = new String(body, java.nio.charset.StandardCharsets.UTF_8);
-                    rootNode = YamlUtils.fromYaml(yamlBody);
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Update",
-                            this.getResourceType(),
-                            id,
-                            "Invalid YAML format");
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                validationError = this.documentValidations.validateResourcePayload(rootNode, false);
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Payload validation",
-                            this.getResourceType(),
-                            id,
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
-                rawYaml = YamlUtils.toYaml(resourceNode);
-            } else {
-                try {
-                    rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
-                } catch (IOException e) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Update",
-                            this.getResourceType(),
-                            id,
-                            "Invalid JSON format");
-                    return new RestResponse(
-                            Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus());
-                }
-
-                validationError = this.documentValidations.validateResourcePayload(rootNode, false);
-                if (validationError != null) {
-                    log.warn(
-                            Constants.W_LOG_OPERATION_FAILED_ID,
-                            "Payload validation",
-                            this.getResourceType(),
-                            id,
-                            validationError.getMessage());
-                    return validationError;
-                }
-                resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+                        "Invalid YAML format");
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
             }
-            resourceNode.put(Constants.KEY_ID, id);
 
-            // Resource-specific validation & Space validation
-            validationError = this.validatePayload(client, rootNode, resourceNode);
+            validationError = this.documentValidations.validateResourcePayload(rootNode, false);
             if (validationError != null) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Validation",
+                        "Payload validation",
                         this.getResourceType(),
                         id,
                         validationError.getMessage());
-                return validationError;
+                return PreparedResource.rejected(validationError);
             }
-
-            String spaceName = rootNode.path(Constants.KEY_SPACE).asText();
-
-            String spaceError =
-                    this.validateDocumentInSpace(
-                            client,
-                            this.getIndexName(),
-                            id,
-                            this.getResourceType(),
-                            this.getAllowedSpaces(),
-                            spaceName);
-            if (spaceError != null) {
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+            rawYaml = YamlUtils.toYaml(resourceNode);
+        } else {
+            try {
+                rootNode = MAPPER.readTree(new ByteArrayInputStream(body));
+            } catch (IOException e) {
                 log.warn(
-                        Constants.W_LOG_OPERATION_FAILED_ID, "Update", this.getResourceType(), id, spaceError);
-                return new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus());
+                        Constants.W_LOG_OPERATION_FAILED_ID,
+                        "Update",
+                        this.getResourceType(),
+                        id,
+                        "Invalid JSON format");
+                return PreparedResource.rejected(
+                        new RestResponse(
+                                Constants.E_400_INVALID_REQUEST_BODY, RestStatus.BAD_REQUEST.getStatus()));
             }
 
-            // Update timestamps & preserve metadata
-            String currentTimestamp = getCurrentDate();
-            Resource.setLastModificationTime(resourceNode, currentTimestamp);
-            Resource.nestMetadataFields(resourceNode);
-            validationError = this.preserveMetadata(index, id, resourceNode);
+            validationError = this.documentValidations.validateResourcePayload(rootNode, false);
             if (validationError != null) {
                 log.warn(
                         Constants.W_LOG_OPERATION_FAILED_ID,
-                        "Preserve metadata validation",
+                        "Payload validation",
                         this.getResourceType(),
                         id,
                         validationError.getMessage());
-                return validationError;
+                return PreparedResource.rejected(validationError);
             }
+            resourceNode = (ObjectNode) rootNode.get(Constants.KEY_RESOURCE);
+        }
+        resourceNode.put(Constants.KEY_ID, id);
 
-            // External Sync
-            validationError = this.syncExternalServices(id, resourceNode);
-            if (validationError != null) {
-                log.error(
-                        Constants.E_LOG_FAILED_TO,
-                        "sync updated",
-                        this.getResourceType(),
-                        id,
-                        "with external services. Reason: " + validationError.getMessage());
-                return validationError;
-            }
+        // Resource-specific validation & Space validation
+        validationError = this.validatePayload(client, rootNode, resourceNode);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            // Indexing
-            ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, spaceName);
+        String spaceName = rootNode.path(Constants.KEY_SPACE).asText();
 
-            if (this.supportsYamlField()) {
-                if (rawYaml != null) {
-                    ctiWrapper.put(Constants.KEY_YAML, rawYaml);
-                } else {
-                    ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
-                }
-            }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> source = MAPPER.convertValue(existingDoc, Map.class);
+        String spaceError =
+                this.validateDocumentInSpace(
+                        source, id, this.getResourceType(), this.getAllowedSpaces(), spaceName);
+        if (spaceError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID, "Update", this.getResourceType(), id, spaceError);
+            return PreparedResource.rejected(
+                    new RestResponse(spaceError, RestStatus.BAD_REQUEST.getStatus()));
+        }
 
-            index.create(id, ctiWrapper);
+        // Update timestamps & preserve metadata
+        String currentTimestamp = getCurrentDate();
+        Resource.setLastModificationTime(resourceNode, currentTimestamp);
+        Resource.nestMetadataFields(resourceNode);
+        validationError = this.preserveMetadata(existingDoc, resourceNode);
+        if (validationError != null) {
+            log.warn(
+                    Constants.W_LOG_OPERATION_FAILED_ID,
+                    "Preserve metadata validation",
+                    this.getResourceType(),
+                    id,
+                    validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            // Update Space Hash
-            spaceService.calculateAndUpdate(List.of(spaceName));
+        // External Sync
+        validationError = this.syncExternalServices(id, resourceNode);
+        if (validationError != null) {
+            log.error(
+                    Constants.E_LOG_FAILED_TO,
+                    "sync updated",
+                    this.getResourceType(),
+                    id,
+                    "with external services. Reason: " + validationError.getMessage());
+            return PreparedResource.rejected(validationError);
+        }
 
-            log.info(Constants.I_LOG_SUCCESS, "Updated", this.getResourceType(), id);
-            return new RestResponse(id, RestStatus.OK.getStatus());
+        // Build the document to index
+        ObjectNode ctiWrapper = new Resource().wrapResource(resourceNode, spaceName);
 
-        } catch (Exception e) {
-            OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        if (this.supportsYamlField()) {
+            if (rawYaml != null) {
+                ctiWrapper.put(Constants.KEY_YAML, rawYaml);
+            } else {
+                ctiWrapper.put(Constants.KEY_YAML, YamlUtils.toYaml(resourceNode));
             }
-            log.error(Constants.E_LOG_UNEXPECTED, "updating", this.getResourceType(), id, e.getMessage());
-            return new RestResponse(
-                    "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
         }
+        return new PreparedResource(id, rootNode, ctiWrapper, null);
     }
 
-    protected RestResponse preserveMetadata(ContentIndex index, String id, ObjectNode resourceNode) {
-        JsonNode existingDoc = index.getDocument(id);
+    /** Builds the response of a workflow failing unexpectedly. */
+    private RestResponse failed(String id, Exception e) {
+        OpenSearchSecurityException secEx = TransportActionHelper.extractSecurityException(e);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        }
+        log.error(Constants.E_LOG_UNEXPECTED, "updating", this.getResourceType(), id, e.getMessage());
+        return new RestResponse(
+                "Internal Server Error. " + e.getMessage(), RestStatus.INTERNAL_SERVER_ERROR.getStatus());
+    }
+
+    protected RestResponse preserveMetadata(JsonNode existingDoc, ObjectNode resourceNode) {
         if (existingDoc == null || !existingDoc.has(Constants.KEY_DOCUMENT)) return null;
 
         JsonNode doc = existingDoc.get(Constants.KEY_DOCUMENT);
@@ -327,20 +373,13 @@ public abstract class AbstractTransportUpdateActionSpaces
     }
 
     private String validateDocumentInSpace(
-            Client client,
-            String index,
+            Map<String, Object> source,
             String docId,
             String docType,
             Set<Space> validSpaces,
             String spaceNameFromRequest) {
-        GetResponse response = client.prepareGet(index, docId).get();
         docType = Strings.capitalize(docType);
 
-        if (!response.isExists()) {
-            return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
-        }
-
-        Map<String, Object> source = response.getSourceAsMap();
         if (source == null || !source.containsKey(Constants.KEY_SPACE)) {
             return String.format(Locale.ROOT, Constants.E_400_RESOURCE_NOT_FOUND, docType, docId);
         }
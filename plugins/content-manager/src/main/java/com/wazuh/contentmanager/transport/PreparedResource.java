@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.transport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.wazuh.contentmanager.rest.model.RestResponse;
+
+/**
+ * Outcome of the blocking stage of a create or update workflow, which parses and validates the
+ * payload and synchronizes it with the external services, before the resource is indexed.
+ *
+ * @param id The ID of the resource.
+ * @param root The root node of the request payload.
+ * @param document The document to index.
+ * @param error The response of a request rejected by the stage, or null if it can proceed.
+ */
+record PreparedResource(String id, JsonNode root, ObjectNode document, RestResponse error) {
+
+    /**
+     * Returns the outcome of a request rejected before indexing.
+     *
+     * @param error The response of the request.
+     * @return The outcome of the stage.
+     */
+    static PreparedResource rejected(RestResponse error) {
+        return new PreparedResource(null, null, null, error);
+    }
+}
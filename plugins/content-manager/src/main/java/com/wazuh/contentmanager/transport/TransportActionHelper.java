@@ -19,15 +19,21 @@ package com.wazuh.contentmanager.transport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchSecurityException;
+import org.opensearch.action.ActionRunnable;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.CheckedSupplier;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.transport.client.Client;
 
 import java.util.Objects;
+import java.util.function.Consumer;
 
+import com.wazuh.contentmanager.action.ContentResponse;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.rest.model.RestResponse;
 import com.wazuh.contentmanager.utils.Constants;
@@ -40,36 +46,149 @@ public final class TransportActionHelper {
     private TransportActionHelper() {}
 
     /**
-     * Checks if the draft policy exists.
+     * Checks asynchronously if the draft policy exists.
      *
-     * @return RestResponse with error if missing, null if ok
+     * @param listener Notified with a RestResponse with error if missing, null if ok. Never failed.
      */
-    public static RestResponse validateDraftPolicyExists(Client client) {
+    public static void validateDraftPolicyExists(Client client, ActionListener<RestResponse> listener) {
+        ActionListener<SearchResponse> searchListener =
+                new ActionListener<>() {
+                    @Override
+                    public void onResponse(SearchResponse response) {
+                        RestResponse error;
+                        try {
+                            error = checkDraftPolicy(response);
+                        } catch (Exception ex) {
+                            error = draftPolicyCheckFailed(ex);
+                        }
+                        listener.onResponse(error);
+                    }
+
+                    @Override
+                    public void onFailure(Exception ex) {
+                        listener.onResponse(draftPolicyCheckFailed(ex));
+                    }
+                };
         try {
-            SearchRequest searchRequest = new SearchRequest(Constants.INDEX_POLICIES);
-            SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
-            sourceBuilder.query(QueryBuilders.termQuery(Constants.Q_SPACE_NAME, Space.DRAFT.toString()));
-            sourceBuilder.size(0);
-            searchRequest.source(sourceBuilder);
-
-            SearchResponse response = client.search(searchRequest).actionGet();
-
-            if (Objects.requireNonNull(response.getHits().getTotalHits()).value() == 0) {
-                log.error(Constants.E_500_MISSING_DRAFT_POLICY);
-                return new RestResponse(
-                        Constants.E_500_MISSING_DRAFT_POLICY, RestStatus.INTERNAL_SERVER_ERROR.getStatus());
-            }
+            client.search(draftPolicyRequest(), searchListener);
         } catch (Exception ex) {
-            OpenSearchSecurityException secEx = extractSecurityException(ex);
-            if (secEx != null) {
-                return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
-            }
+            searchListener.onFailure(ex);
+        }
+    }
+
+    /**
+     * Runs a content workflow once the draft policy is known to exist. The policy is checked
+     * asynchronously, and the workflow chains asynchronous stages: the content indices and the space
+     * service are accessed through their listener-based operations, and only the blocking hooks of
+     * the resources, which call the Engine and the Security Analytics plugin, are forked to the
+     * generic thread pool (see {@link #fork(Client, CheckedSupplier, ActionListener)}). No thread
+     * waits on a cluster round trip. The refreshes of the writes of the workflow are coalesced in a
+     * scope attached to each stage, and the response is sent once the indices written are refreshed,
+     * see {@link RefreshCoordinator#openAsync(Client)}.
+     *
+     * @param client The client, also providing the thread pool.
+     * @param workflow The workflow, notifying the response of the request.
+     * @param listener Notified with the response of the request. Unexpected failures are responded
+     *     with an internal server error.
+     */
+    public static void executeWorkflow(
+            Client client,
+            Consumer<ActionListener<RestResponse>> workflow,
+            ActionListener<ContentResponse> listener) {
+        validateDraftPolicyExists(
+                client,
+                ActionListener.wrap(
+                        policyError -> {
+                            if (policyError != null) {
+                                listener.onResponse(toContentResponse(policyError));
+                            } else {
+                                run(client, workflow, listener);
+                            }
+                        },
+                        e -> listener.onResponse(unexpectedError(e))));
+    }
+
+    /**
+     * Runs a workflow, responding with its result once the indices it wrote to have been refreshed.
+     */
+    private static void run(
+            Client client,
+            Consumer<ActionListener<RestResponse>> workflow,
+            ActionListener<ContentResponse> listener) {
+        RefreshCoordinator.Scope scope = RefreshCoordinator.openAsync(client);
+        ActionListener<RestResponse> respond =
+                ActionListener.wrap(
+                        response -> scope.closeAsync(() -> listener.onResponse(toContentResponse(response))),
+                        e -> scope.closeAsync(() -> listener.onResponse(unexpectedError(e))));
+        scope.run(
+                () -> {
+                    try {
+                        workflow.accept(respond);
+                    } catch (Exception e) {
+                        respond.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Runs a blocking stage of a workflow on the generic thread pool, within the refresh scope of the
+     * calling thread (see {@link RefreshCoordinator#preserve(Runnable)}).
+     *
+     * @param client The client, providing the thread pool.
+     * @param stage The stage, returning its result.
+     * @param listener Notified with the result of the stage, or with its failure.
+     * @param <T> The result type of the stage.
+     */
+    public static <T> void fork(
+            Client client, CheckedSupplier<T, Exception> stage, ActionListener<T> listener) {
+        client
+                .threadPool()
+                .generic()
+                .execute(RefreshCoordinator.preserve(ActionRunnable.supply(listener, stage)));
+    }
+
+    /** Builds the search counting the draft policies. */
+    private static SearchRequest draftPolicyRequest() {
+        SearchRequest searchRequest = new SearchRequest(Constants.INDEX_POLICIES);
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
+        sourceBuilder.query(QueryBuilders.termQuery(Constants.Q_SPACE_NAME, Space.DRAFT.toString()));
+        sourceBuilder.size(0);
+        searchRequest.source(sourceBuilder);
+        return searchRequest;
+    }
+
+    /** Returns the error of a missing draft policy, or null if the search found it. */
+    private static RestResponse checkDraftPolicy(SearchResponse response) {
+        if (Objects.requireNonNull(response.getHits().getTotalHits()).value() == 0) {
+            log.error(Constants.E_500_MISSING_DRAFT_POLICY);
             return new RestResponse(
-                    "Draft policy check failed: " + ex.getMessage(), RestStatus.BAD_REQUEST.getStatus());
+                    Constants.E_500_MISSING_DRAFT_POLICY, RestStatus.INTERNAL_SERVER_ERROR.getStatus());
         }
         return null;
     }
 
+    /** Returns the error of a draft policy check that could not be completed. */
+    private static RestResponse draftPolicyCheckFailed(Exception ex) {
+        OpenSearchSecurityException secEx = extractSecurityException(ex);
+        if (secEx != null) {
+            return new RestResponse(secEx.getMessage(), secEx.status().getStatus());
+        }
+        return new RestResponse(
+                "Draft policy check failed: " + ex.getMessage(), RestStatus.BAD_REQUEST.getStatus());
+    }
+
+    /** Converts the response of a workflow to the response of a transport action. */
+    private static ContentResponse toContentResponse(RestResponse response) {
+        return new ContentResponse(response.getMessage(), RestStatus.fromCode(response.getStatus()));
+    }
+
+    /** Builds the response of a workflow failing unexpectedly. */
+    private static ContentResponse unexpectedError(Exception e) {
+        return new ContentResponse(
+                e.getMessage() != null ? e.getMessage() : "Unexpected error",
+                RestStatus.INTERNAL_SERVER_ERROR);
+    }
+
     /** Walks the exception cause chain looking for an OpenSearchSecurityException. */
     public static OpenSearchSecurityException extractSecurityException(Throwable throwable) {
         Throwable cause = throwable;
@@ -48,6 +48,7 @@ import java.util.Set;
 import com.wazuh.contentmanager.action.MessageStatusResponse;
 import com.wazuh.contentmanager.action.PostPromoteAction;
 import com.wazuh.contentmanager.action.PostPromoteRequest;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.cti.catalog.service.SecurityAnalyticsService;
 import com.wazuh.contentmanager.cti.catalog.service.SpaceService;
@@ -151,14 +152,24 @@ public class TransportPostPromoteAction
                 log.debug(Constants.D_LOG_ENGINE_VALIDATION_COMPLETE, targetSpace);
             }
 
-            // 4. Consolidation Phase
-            this.consolidateChanges(context);
+            // 4. Consolidation Phase, refreshing every index written once. The refresh does not block
+            // the thread handling the request.
+            RefreshCoordinator.Scope scope = this.spaceService.openRefreshScope();
+            try {
+                this.consolidateChanges(context);
 
-            this.spaceService.calculateAndUpdate(List.of(targetSpace.toString()));
+                this.spaceService.calculateAndUpdate(List.of(targetSpace.toString()));
+            } catch (Exception e) {
+                scope.closeAsync(() -> {});
+                throw e;
+            }
 
-            // 5. Response Phase
-            listener.onResponse(
-                    new MessageStatusResponse(Constants.S_200_PROMOTION_COMPLETED, RestStatus.OK));
+            // 5. Response Phase, once the indices written are refreshed
+            scope.closeAsync(
+                    () ->
+                            listener.onResponse(
+                                    new MessageStatusResponse(
+                                            Constants.S_200_PROMOTION_COMPLETED, RestStatus.OK)));
         } catch (IllegalArgumentException e) {
             log.warn(Constants.W_LOG_VALIDATION_FAILED, e.getMessage());
             listener.onResponse(new MessageStatusResponse(e.getMessage(), RestStatus.BAD_REQUEST));
@@ -31,7 +31,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.wazuh.contentmanager.action.UpdateIntegrationAction;
-import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.cti.catalog.service.SecurityAnalyticsService;
 import com.wazuh.contentmanager.engine.service.EngineService;
@@ -63,11 +62,10 @@ public class TransportUpdateIntegrationAction extends AbstractTransportUpdateAct
     }
 
     @Override
-    protected RestResponse preserveMetadata(ContentIndex index, String id, ObjectNode resourceNode) {
-        RestResponse response = super.preserveMetadata(index, id, resourceNode);
+    protected RestResponse preserveMetadata(JsonNode existingDoc, ObjectNode resourceNode) {
+        RestResponse response = super.preserveMetadata(existingDoc, resourceNode);
         if (response != null) return response;
 
-        JsonNode existingDoc = index.getDocument(id);
         if (existingDoc != null && existingDoc.has(Constants.KEY_DOCUMENT)) {
             @SuppressWarnings("unchecked")
             Map<String, Object> existing =
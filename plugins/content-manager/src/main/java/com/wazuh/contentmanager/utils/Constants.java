@@ -122,6 +122,10 @@ public class Constants {
     // Log messages - consumer synchronization (AbstractConsumerService)
     public static final String D_LOG_SYNC_COMPLETED =
             "Synchronization completed for consumer [{}]. Updated: {}";
+    public static final String D_LOG_SYNC_UNCHANGED =
+            "Consumer [{}] did not change since the last synchronization; skipping it.";
+    public static final String D_LOG_SYNC_PROBE_FAILED =
+            "Could not check consumer [{}] for changes: {}. Synchronizing.";
     public static final String D_LOG_CONSUMER_DOC_ABSENT =
             "Consumer [{}] doc not present; skipping status update to [{}]";
     public static final String D_LOG_CONSUMER_STATUS_SET = "Consumer [{}] status set to [{}]";
@@ -134,6 +138,12 @@ public class Constants {
     public static final String W_LOG_CONSUMER_T0_FAILED =
             "Failed to write initial consumer state for [{}]: {}";
     public static final String W_LOG_REFRESH_INDICES_FAILED = "Error refreshing indices: {}";
+    public static final String D_LOG_REFRESH_COALESCED = "Refreshed indices {} written since the last refresh";
+    public static final String W_LOG_REFRESH_COALESCED_FAILED =
+            "Failed to refresh indices {} written since the last refresh: {}";
+    public static final String W_LOG_REFRESH_PENDING_WRITES =
+            "Refreshing indices {} while {} writes are still in flight";
+    public static final String D_LOG_HTTP_CLIENT_STARTED = "Started the HTTP client of [{}]";
     public static final String D_LOG_SNAPSHOTS_DIR_RESOLVE_FAILED =
             "Could not resolve snapshots directory for [{}]: {}";
     public static final String D_LOG_INDEX_SWAP_STARTED =
@@ -155,6 +165,8 @@ public class Constants {
             "Failed to clear existing resources for consumer [{}] during snapshot initialization: {}";
     public static final String D_LOG_SNAPSHOT_INIT_CUSTOM_URL =
             "Initializing snapshot from custom consumer URL: {}";
+    public static final String W_LOG_REMOTE_SNAPSHOT_INCOMPLETE =
+            "Remote snapshot of consumer [{}] loaded without [{}] documents. Keeping the loaded content.";
     public static final String W_LOG_REMOTE_SNAPSHOT_FAILED_FALLBACK =
             "Remote snapshot initialization failed for consumer [{}]. Falling back to local snapshot [{}].";
     public static final String W_LOG_LOCAL_SNAPSHOT_FALLBACK_FAILED =
@@ -211,6 +223,10 @@ public class Constants {
             "Failed to remove the previous content indices for consumer [{}]: {}";
     public static final String I_LOG_CONTENT_UPDATED_NEW_SOURCE =
             "Content updated to the new source for consumer [{}].";
+    public static final String D_LOG_CATCH_UP_PLAN =
+            "Catch-up estimates for consumer [{}]: replay {}s, snapshot reload {}s. Chosen: {}.";
+    public static final String I_LOG_CATCH_UP_SNAPSHOT_RELOAD =
+            "Consumer [{}] is far behind (offset {} → {}); reloading the snapshot at offset {} instead of replaying every change.";
 
     // Log messages - Security Analytics sync (SecurityAnalyticsServiceImpl, ConsumerRulesetService)
     public static final String D_LOG_SAP_DETECTOR_DELETED_THEN_INTEGRATION =
@@ -264,6 +280,8 @@ public class Constants {
     public static final String D_LOG_SNAPSHOT_WAIT_PENDING_BULK =
             "Waiting for pending bulk updates to finish...";
     public static final String E_LOG_SNAPSHOT_PROCESS_FAILED = "Error processing snapshot: {}";
+    public static final String E_LOG_SNAPSHOT_DOCUMENTS_DROPPED =
+            "{} snapshot documents could not be indexed; local offset of [{}] left unchanged.";
     public static final String D_LOG_SNAPSHOT_NO_INDEX_FOR_TYPE =
             "No ContentIndex found for type [{}]. Skipping.";
     public static final String D_LOG_SNAPSHOT_PARSE_LINE_FAILED =
@@ -290,22 +308,53 @@ public class Constants {
             "Snapshot [{}] processed and removed in {} ms";
     public static final String D_LOG_SNAPSHOT_LOCAL_ELAPSED =
             "Local snapshot [{}] processed and removed in {} ms";
+    public static final String I_LOG_SNAPSHOT_RESUMING =
+            "Resuming snapshot load of [{}] from entry [{}], line [{}].";
+    public static final String D_LOG_SNAPSHOT_RESUME_KEEP_CONTENT =
+            "Keeping the content already indexed for [{}] to resume its snapshot load.";
+    public static final String D_LOG_SNAPSHOT_CHECKPOINT_WRITTEN =
+            "Snapshot checkpoint of [{}] written at entry [{}], line [{}].";
+    public static final String W_LOG_SNAPSHOT_CHECKPOINT_STALE =
+            "Snapshot checkpoint of [{}] does not match the current snapshot; discarding it.";
+    public static final String W_LOG_SNAPSHOT_CHECKPOINT_FAILED =
+            "Failed to access the snapshot checkpoint of [{}]: {}";
+    public static final String W_LOG_SNAPSHOT_STREAM_FALLBACK =
+            "Snapshot of [{}] cannot be read while downloading ({}); downloading it first.";
+    public static final String W_LOG_SNAPSHOT_DIFFERENTIAL_FAILED =
+            "Cannot list the content indexed for [{}] ({}); clearing the indices instead.";
+    public static final String W_LOG_SNAPSHOT_DIFFERENTIAL_TOO_LARGE =
+            "Content indexed for [{}] exceeds [{}] documents; clearing the indices instead.";
+    public static final String I_LOG_SNAPSHOT_DIFFERENTIAL_APPLIED =
+            "Snapshot of [{}] applied differentially: [{}] unchanged documents skipped, [{}] documents deleted.";
     public static final String D_LOG_UPDATE_START =
             "Starting content update for consumer [{}] from [{}] to [{}]";
     public static final String E_LOG_UPDATE_FETCH_CHANGES_FAILED = "Failed to fetch changes: {} {}";
     public static final String E_LOG_UPDATE_APPLY_OFFSET_FAILED =
             "Failed to apply offset [{}] (type={}, resource={}): {}";
+    public static final String D_LOG_CHANGE_ALREADY_APPLIED =
+            "Skipping offset [{}] already applied to [{}].";
+    public static final String D_LOG_CHANGES_APPLIED =
+            "Applied [{}] changes as [{}] writes to [{}].";
     public static final String I_LOG_UPDATE_CONSUMER_SUCCESS =
             "Successfully updated consumer [{}] to offset [{}]";
     public static final String E_LOG_UPDATE_FAILED = "Error during content update: {}";
     public static final String W_LOG_UPDATE_NO_INDEX_FOR_TYPE = "No index mapped for type [{}]";
+    public static final String D_LOG_UPDATE_COMPACTED =
+            "Compacted [{}] offsets into [{}] changes of [{}] documents.";
+    public static final String D_LOG_UPDATE_ROUTES_MISSED =
+            "Routed [{}] changed documents from cache, looking up [{}].";
+    public static final String D_LOG_UPDATE_ROUTE_STALE =
+            "Document [{}] is missing from its cached index [{}], looking it up.";
     public static final String D_LOG_UPDATE_SKIP_CVE_DELETE =
             "Skipping DELETE for CVE resource [{}] (CVE removals are not applied).";
     public static final String W_LOG_UPDATE_UNSUPPORTED_OPERATION =
             "Unsupported JSON patch operation [{}]";
     public static final String W_LOG_UPDATE_RESET_CONSUMER =
-            "Resetting consumer [{}] offset to 0 due to update failure.";
-    public static final String E_LOG_UPDATE_RESET_CONSUMER_FAILED = "Failed to reset consumer: {}";
+            "Resetting consumer [{}] offset to 0 due to inconsistent content.";
+    public static final String W_LOG_UPDATE_RESUME_CONSUMER =
+            "Update of consumer [{}] failed; it will resume from offset [{}].";
+    public static final String E_LOG_UPDATE_RESET_CONSUMER_FAILED =
+            "Failed to record the failure of the consumer: {}";
     public static final String D_LOG_IOC_EXPORT_SKIPPED_TEST_ENV =
             "IOCs export skipped: test environment";
     public static final String D_LOG_IOC_TYPE_HASHES_STORED = "IOC type hashes stored successfully.";
@@ -367,9 +416,20 @@ public class Constants {
     public static final String D_LOG_NO_DOCUMENT_FOUND_QUERY =
             "No document found in [{}] with query {}";
     public static final String E_LOG_SEARCH_BY_QUERY_FAILED = "Search by query failed in [{}]: {}";
-    public static final String W_LOG_BULK_INDEXING_FAILURES =
-            "Bulk indexing finished with failures: {}";
     public static final String E_LOG_BULK_INDEX_OPERATION_FAILED = "Bulk index operation failed: {}";
+    public static final String D_LOG_BULK_ITEM_FAILED =
+            "Bulk item [{}] permanently failed in [{}]: {}";
+    public static final String W_LOG_BULK_ITEMS_RETRY =
+            "Retrying {} bulk items rejected by the cluster in {}";
+    public static final String I_LOG_BULK_INGEST_SUMMARY = "Bulk ingestion into [{}]: {} documents";
+    public static final String W_LOG_BULK_INGEST_SUMMARY =
+            "Bulk ingestion into [{}]: {} documents, {} permanently failed";
+    public static final String I_LOG_BULK_CONTROL_STATE =
+            "Bulk ingestion into [{}] settled at {}/{} requests in flight of up to {} documents or {} bytes";
+    public static final String D_LOG_BULK_CONTROL_DECREASED =
+            "Bulk ingestion into [{}] slowed down on {}: {} requests in flight of up to {} documents or {} bytes";
+    public static final String D_LOG_BULK_CONTROL_INCREASED =
+            "Bulk ingestion into [{}] sped up: {} requests in flight of up to {} documents or {} bytes";
     public static final String E_LOG_SEMAPHORE_INTERRUPTED =
             "Interrupted while waiting for semaphore: {}";
     public static final String E_LOG_CLEAR_INDEX_NO_MAPPINGS =
@@ -377,6 +437,19 @@ public class Constants {
     public static final String D_LOG_INDEX_WIPED_RECREATED =
             "[{}] cleared and recreated (backing index [{}]).";
     public static final String E_LOG_CLEAR_INDEX_FAILED = "[{}] clear failed: {}";
+    public static final String W_LOG_BULK_LOAD_LEFTOVER =
+            "Index [{}] was left in bulk-load mode by a previous load, keeping its original settings {}.";
+    public static final String D_LOG_BULK_LOAD_ENTERED =
+            "[{}] switched to bulk-load mode, settings to restore: {}";
+    public static final String D_LOG_BULK_LOAD_EXITED = "[{}] left bulk-load mode.";
+    public static final String W_LOG_BULK_LOAD_ENTER_FAILED =
+            "[{}] cannot be switched to bulk-load mode, loading with its regular settings: {}";
+    public static final String E_LOG_BULK_LOAD_EXIT_FAILED =
+            "[{}] settings could not be restored after bulk-load mode: {}";
+    public static final String W_LOG_BULK_LOAD_FORCE_MERGE_PENDING =
+            "[{}] force merge still running after the client timeout, continuing in the background.";
+    public static final String W_LOG_BULK_LOAD_REPLICAS_PENDING =
+            "[{}] replicas not allocated yet after bulk-load mode, health is [{}].";
     public static final String E_LOG_PROCESS_PAYLOAD_FAILED =
             "Failed to process payload via models: {}";
     public static final String D_LOG_SHADOW_INDEX_CREATED_FOR_ALIAS =
@@ -539,7 +612,13 @@ public class Constants {
     public static final String KEY_INDEX_CODEC = "index.codec";
     public static final String CODEC_ZSTD = "zstd";
     public static final String KEY_INDEX_REFRESH_INTERVAL = "index.refresh_interval";
+    public static final String KEY_INDEX_NUMBER_OF_REPLICAS = "index.number_of_replicas";
+    public static final String KEY_INDEX_AUTO_EXPAND_REPLICAS = "index.auto_expand_replicas";
+    public static final String KEY_INDEX_TRANSLOG_DURABILITY = "index.translog.durability";
+    public static final String TRANSLOG_DURABILITY_ASYNC = "async";
     public static final String REFRESH_INTERVAL_DISABLED = "-1";
+    public static final String KEY_MAPPING_META = "_meta";
+    public static final String KEY_BULK_LOAD_RESTORE = "bulk_load_restore";
 
     // Resource Types Keys
     public static final String KEY_POLICY = "policy";
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.utils;
+
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.net.ssl.SSLContext;
+
+import java.net.URI;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.wazuh.contentmanager.settings.PluginSettings;
+
+/**
+ * Asynchronous HTTP clients shared by the CTI and Console API clients, one per remote host.
+ *
+ * <p>Each client owns its IO reactor threads and a connection pool, sized by {@link
+ * PluginSettings#getHttpMaxConnectionsPerHost()}. Idle connections are kept alive for {@link
+ * PluginSettings#getHttpKeepAlive()} seconds, or less if the server advertises it, so that
+ * consecutive requests to the same host reuse them instead of opening a new TLS session. HTTP/2 is
+ * negotiated with the servers supporting it, which multiplexes the concurrent requests over a
+ * single connection. The socket timeout of a client is that of the host, see {@link #get(String,
+ * long)}.
+ *
+ * <p>The clients of the configured hosts are started when the plugin components are created, and
+ * all clients are closed by {@link #close()} when the plugin is closed. Clients of other hosts are
+ * started on first use.
+ */
+public final class HttpClientPool {
+    private static final Logger log = LogManager.getLogger(HttpClientPool.class);
+
+    /** Running clients, by remote host. Guarded by the class. */
+    private static final Map<String, CloseableHttpAsyncClient> CLIENTS = new HashMap<>();
+
+    private HttpClientPool() {}
+
+    /**
+     * Returns the client of the host of the given URL, building and starting it if needed with the
+     * configured client timeout as socket timeout, see {@link PluginSettings#getClientTimeout()}.
+     *
+     * @param uri An absolute URL of the remote host.
+     * @return The running HTTP client.
+     * @throws IllegalArgumentException if the URL is not absolute.
+     * @throws RuntimeException if the SSL context cannot be initialized.
+     */
+    public static CloseableHttpAsyncClient get(String uri) {
+        return HttpClientPool.get(uri, PluginSettings.getInstance().getClientTimeout());
+    }
+
+    /**
+     * Returns the client of the host of the given URL, building and starting it if needed with the
+     * given socket timeout. A running client keeps the socket timeout it was started with, so the
+     * hosts with their own timeout are expected to always request their client with it.
+     *
+     * @param uri An absolute URL of the remote host.
+     * @param socketTimeout The socket timeout of a new client, in seconds.
+     * @return The running HTTP client.
+     * @throws IllegalArgumentException if the URL is not absolute.
+     * @throws RuntimeException if the SSL context cannot be initialized.
+     */
+    public static synchronized CloseableHttpAsyncClient get(String uri, long socketTimeout) {
+        String host = HttpClientPool.hostOf(uri);
+        CloseableHttpAsyncClient client = CLIENTS.get(host);
+        if (client == null || client.getStatus() != IOReactorStatus.ACTIVE) {
+            client = HttpClientPool.buildClient(socketTimeout);
+            CLIENTS.put(host, client);
+            log.debug(Constants.D_LOG_HTTP_CLIENT_STARTED, host);
+        }
+        return client;
+    }
+
+    /**
+     * Closes every client gracefully. Clients requested afterwards are started again. Called when
+     * the plugin is closed.
+     */
+    public static synchronized void close() {
+        CLIENTS.values().forEach(client -> client.close(CloseMode.GRACEFUL));
+        CLIENTS.clear();
+    }
+
+    /**
+     * Returns the key of the host of the given URL: its scheme, host and port.
+     *
+     * @param uri An absolute URL.
+     * @return The key of the remote host.
+     * @throws IllegalArgumentException if the URL is not absolute.
+     */
+    static String hostOf(String uri) {
+        URI parsed = URI.create(uri);
+        if (parsed.getScheme() == null || parsed.getHost() == null) {
+            throw new IllegalArgumentException("Not an absolute URL: " + uri);
+        }
+        return parsed.getScheme().toLowerCase(Locale.ROOT)
+                + "://"
+                + parsed.getHost().toLowerCase(Locale.ROOT)
+                + (parsed.getPort() == -1 ? "" : ":" + parsed.getPort());
+    }
+
+    /**
+     * Builds and starts an asynchronous HTTP client.
+     *
+     * @param socketTimeout The socket timeout, in seconds.
+     * @return The running HTTP client.
+     * @throws RuntimeException if the SSL context cannot be initialized.
+     */
+    private static CloseableHttpAsyncClient buildClient(long socketTimeout) {
+        PluginSettings settings = PluginSettings.getInstance();
+        IOReactorConfig ioReactorConfig =
+                IOReactorConfig.custom().setSoTimeout(Timeout.ofSeconds(socketTimeout)).build();
+
+        SSLContext sslContext;
+        try {
+            sslContext =
+                    SSLContextBuilder.create().loadTrustMaterial(null, (chains, authType) -> true).build();
+        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+            throw new RuntimeException("Failed to initialize HttpClient", e);
+        }
+
+        List<Header> defaultHeaders =
+                List.of(new BasicHeader(HttpHeaders.USER_AGENT, settings.getUserAgent()));
+
+        TlsConfig tlsConfig = TlsConfig.custom().setVersionPolicy(HttpVersionPolicy.NEGOTIATE).build();
+        TimeValue keepAlive = TimeValue.ofSeconds(settings.getHttpKeepAlive());
+        int maxConnections = settings.getHttpMaxConnectionsPerHost();
+
+        CloseableHttpAsyncClient client =
+                HttpAsyncClients.custom()
+                        .setIOReactorConfig(ioReactorConfig)
+                        .setDefaultHeaders(defaultHeaders)
+                        .setConnectionManager(
+                                PoolingAsyncClientConnectionManagerBuilder.create()
+                                        .setTlsStrategy(
+                                                ClientTlsStrategyBuilder.create().setSslContext(sslContext).build())
+                                        .setDefaultTlsConfig(tlsConfig)
+                                        .setMaxConnPerRoute(maxConnections)
+                                        .setMaxConnTotal(maxConnections)
+                                        .build())
+                        .setKeepAliveStrategy(
+                                (response, context) -> {
+                                    // Servers closing idle connections earlier advertise it
+                                    TimeValue advertised =
+                                            DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(
+                                                    response, context);
+                                    return TimeValue.isPositive(advertised) && advertised.compareTo(keepAlive) < 0
+                                            ? advertised
+                                            : keepAlive;
+                                })
+                        .evictIdleConnections(keepAlive)
+                        .build();
+
+        client.start();
+        return client;
+    }
+}
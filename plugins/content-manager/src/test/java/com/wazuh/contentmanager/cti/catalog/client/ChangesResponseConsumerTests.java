@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.client;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.wazuh.contentmanager.cti.catalog.model.Offset;
+
+/**
+ * Unit tests for {@link ChangesResponseConsumer}. The response bodies are fed in small chunks, so
+ * that changes, and compressed blocks, are split across several reads.
+ */
+public class ChangesResponseConsumerTests extends OpenSearchTestCase {
+
+    // spotless:off
+    private static final String CHANGES =
+        """
+            {
+              "meta": { "data": [ { "ignored": true } ] },
+              "data": [
+                {
+                  "offset": 10,
+                  "resource": "rule-1",
+                  "type": "create",
+                  "payload": { "type": "rule", "id": "rule-1", "tags": [ "a", "b" ], "level": 3 }
+                },
+                {
+                  "offset": 11,
+                  "resource": "rule-2",
+                  "type": "UPDATE",
+                  "operations": [ { "op": "replace", "path": "/name", "value": "Updated" } ]
+                },
+                {
+                  "offset": 12,
+                  "resource": "decoder-1",
+                  "type": "DELETE"
+                }
+              ],
+              "total": 3
+            }""";
+    // spotless:on
+
+    /**
+     * Consumes the given response, feeding its body in chunks of the given size.
+     *
+     * @param code The HTTP status code.
+     * @param body The response body.
+     * @param chunk The size of every chunk.
+     * @return The future result of the consumer.
+     * @throws Exception if the response cannot be consumed.
+     */
+    private CompletableFuture<ChangesResponseConsumer.Result> consume(
+            int code, String body, int chunk) throws Exception {
+        return this.consume(code, null, body.getBytes(StandardCharsets.UTF_8), chunk);
+    }
+
+    /**
+     * Consumes the given encoded response, feeding its body in chunks of the given size.
+     *
+     * @param code The HTTP status code.
+     * @param encoding The content encoding of the body, or null.
+     * @param bytes The response body.
+     * @param chunk The size of every chunk.
+     * @return The future result of the consumer.
+     * @throws Exception if the response cannot be consumed.
+     */
+    private CompletableFuture<ChangesResponseConsumer.Result> consume(
+            int code, String encoding, byte[] bytes, int chunk) throws Exception {
+        CompletableFuture<ChangesResponseConsumer.Result> future = new CompletableFuture<>();
+        ChangesResponseConsumer consumer = new ChangesResponseConsumer();
+        BasicHttpResponse response = new BasicHttpResponse(code);
+        if (encoding != null) {
+            response.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        consumer.consumeResponse(
+                response,
+                new BasicEntityDetails(-1, ContentType.APPLICATION_JSON),
+                null,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(ChangesResponseConsumer.Result result) {
+                        future.complete(result);
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        future.completeExceptionally(ex);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.cancel(false);
+                    }
+                });
+        for (int i = 0; i < bytes.length; i += chunk) {
+            consumer.consume(ByteBuffer.wrap(bytes, i, Math.min(chunk, bytes.length - i)));
+        }
+        consumer.streamEnd(null);
+        consumer.releaseResources();
+        return future;
+    }
+
+    /** The changes of the data array are parsed, regardless of how the body is split. */
+    public void testParsesChanges() throws Exception {
+        ChangesResponseConsumer.Result result = this.consume(200, CHANGES, 7).get();
+
+        Assert.assertEquals(200, result.code());
+        Assert.assertEquals(CHANGES.length(), result.size());
+        Assert.assertEquals(3, result.changes().size());
+
+        Offset create = result.changes().get(0);
+        Assert.assertEquals(10, create.getOffset());
+        Assert.assertEquals(Offset.Type.CREATE, create.getType());
+        Assert.assertEquals("rule-1", create.getResource());
+        Assert.assertEquals("b", create.getPayload().get("tags").get(1).asText());
+        Assert.assertEquals(3, create.getPayload().get("level").asInt());
+
+        Offset update = result.changes().get(1);
+        Assert.assertEquals(Offset.Type.UPDATE, update.getType());
+        Assert.assertEquals(1, update.getOperations().size());
+
+        Offset delete = result.changes().get(2);
+        Assert.assertEquals(Offset.Type.DELETE, delete.getType());
+        Assert.assertEquals("decoder-1", delete.getResource());
+    }
+
+    /** Compressed bodies are decompressed as they are received. */
+    public void testParsesCompressedChanges() throws Exception {
+        byte[] plain = CHANGES.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(plain);
+        }
+        ByteArrayOutputStream zlib = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(zlib)) {
+            out.write(plain);
+        }
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out =
+                new DeflaterOutputStream(raw, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            out.write(plain);
+        }
+
+        for (ChangesResponseConsumer.Result result :
+                List.of(
+                        this.consume(200, "gzip", gzip.toByteArray(), 5).get(),
+                        this.consume(200, "deflate", zlib.toByteArray(), 1).get(),
+                        this.consume(200, "deflate", raw.toByteArray(), 64).get())) {
+            Assert.assertEquals(plain.length, result.size());
+            Assert.assertEquals(3, result.changes().size());
+            Assert.assertEquals("decoder-1", result.changes().get(2).getResource());
+        }
+    }
+
+    /** A corrupted gzip body fails the response. */
+    public void testCorruptedCompressedResponse() throws Exception {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(CHANGES.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] bytes = gzip.toByteArray();
+        // Flip a bit of the CRC32 of the trailer
+        bytes[bytes.length - 8] ^= 1;
+
+        expectThrows(IOException.class, () -> this.consume(200, "gzip", bytes, 32));
+    }
+
+    /** The body of an unsuccessful response is discarded. */
+    public void testDiscardsUnsuccessfulResponse() throws Exception {
+        ChangesResponseConsumer.Result result = this.consume(500, "Internal Error", 4).get();
+
+        Assert.assertEquals(500, result.code());
+        Assert.assertTrue(result.changes().isEmpty());
+    }
+
+    /** A truncated body fails the response. */
+    public void testTruncatedResponse() {
+        String truncated = CHANGES.substring(0, CHANGES.indexOf("\"total\"") - 10);
+
+        expectThrows(IOException.class, () -> this.consume(200, truncated, 16));
+    }
+}
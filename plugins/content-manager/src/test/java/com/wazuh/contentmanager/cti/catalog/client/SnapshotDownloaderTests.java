@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link SnapshotDownloader}, run against a local HTTP stub serving a random file
+ * with support for range requests.
+ */
+public class SnapshotDownloaderTests extends OpenSearchTestCase {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient client;
+    private Path tempDir;
+    private byte[] content;
+    private URI uri;
+
+    /** Range requests received by the stub, as {@code start-end}. */
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+    /** Range starts the stub answers with an error, while {@link #failures} is positive. */
+    private final Set<Long> failingStarts = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /** Range starts the stub answers with a truncated body, once. */
+    private final Set<Long> truncatedStarts = ConcurrentHashMap.newKeySet();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.tempDir = OpenSearchTestCase.createTempDir();
+        this.content = new byte[SEGMENT_SIZE * 5 + 1234];
+        random().nextBytes(this.content);
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.serverExecutor = Executors.newFixedThreadPool(4);
+        this.server.setExecutor(this.serverExecutor);
+        this.server.createContext("/snapshot.zip", this::handle);
+        this.server.start();
+        this.uri =
+                URI.create("http://localhost:" + this.server.getAddress().getPort() + "/snapshot.zip");
+
+        this.client =
+                HttpClients.custom()
+                        .setConnectionManager(
+                                PoolingHttpClientConnectionManagerBuilder.create()
+                                        .setMaxConnPerRoute(4)
+                                        .setMaxConnTotal(4)
+                                        .build())
+                        .build();
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        this.client.close();
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+        this.serverExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    /** Serves {@link #content}, honoring single range requests. */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            if (range == null) {
+                exchange.sendResponseHeaders(200, this.content.length);
+                exchange.getResponseBody().write(this.content);
+                return;
+            }
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            long start = Long.parseLong(bounds[0]);
+            long end = Math.min(Long.parseLong(bounds[1]), this.content.length - 1);
+            this.ranges.add(start + "-" + end);
+
+            if (this.failingStarts.contains(start) && this.failures.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            int length = (int) (end - start + 1);
+            exchange
+                    .getResponseHeaders()
+                    .add("Content-Range", "bytes " + start + "-" + end + "/" + this.content.length);
+            exchange.sendResponseHeaders(206, length);
+            OutputStream body = exchange.getResponseBody();
+            if (this.truncatedStarts.remove(start)) {
+                // Drop the connection halfway through the body.
+                body.write(this.content, (int) start, length / 2);
+                body.flush();
+                return;
+            }
+            body.write(this.content, (int) start, length);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private SnapshotDownloader.RemoteFile remoteFile(SnapshotDownloader.Digest digest) {
+        return new SnapshotDownloader.RemoteFile(this.content.length, "\"v1\"", digest);
+    }
+
+    private SnapshotDownloader.Digest sha256(byte[] data) throws Exception {
+        return new SnapshotDownloader.Digest(
+                "SHA-256", MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    /** Segments are fetched with range requests and assembled into the target file. */
+    public void testDownloadInParallelSegments() throws Exception {
+        Path target = this.tempDir.resolve("snapshot.zip");
+        SnapshotDownloader downloader = new SnapshotDownloader(this.client, 4, SEGMENT_SIZE);
+
+        downloader.download(this.uri, this.remoteFile(this.sha256(this.content)), target);
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(target));
+        Assert.assertEquals(6, this.ranges.size());
+        Assert.assertTrue(this.ranges.contains((5L * SEGMENT_SIZE) + "-" + (this.content.length - 1)));
+        Assert.assertFalse(Files.exists(this.tempDir.resolve("snapshot.zip.part")));
+        Assert.assertFalse(Files.exists(this.tempDir.resolve("snapshot.zip.progress")));
+    }
+
+    /** A connection dropped in the middle of a segment is resumed from the last byte received. */
+    public void testDownloadResumesDroppedSegment() throws Exception {
+        Path target = this.tempDir.resolve("snapshot.zip");
+        this.truncatedStarts.add((long) SEGMENT_SIZE);
+        SnapshotDownloader downloader = new SnapshotDownloader(this.client, 2, SEGMENT_SIZE);
+
+        downloader.download(this.uri, this.remoteFile(null), target);
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(target));
+        String resumed = (SEGMENT_SIZE + SEGMENT_SIZE / 2) + "-" + (2 * SEGMENT_SIZE - 1);
+        Assert.assertTrue(this.ranges.toString(), this.ranges.contains(resumed));
+    }
+
+    /**
+     * A download failing on one segment keeps the progress of the others, and the next download
+     * only fetches the missing segment.
+     */
+    public void testDownloadResumesAfterFailure() throws Exception {
+        Path target = this.tempDir.resolve("snapshot.zip");
+        long failingStart = 3L * SEGMENT_SIZE;
+        this.failingStarts.add(failingStart);
+        this.failures.set(Integer.MAX_VALUE);
+        SnapshotDownloader downloader = new SnapshotDownloader(this.client, 4, SEGMENT_SIZE);
+
+        Assert.assertThrows(
+                IOException.class,
+                () -> downloader.download(this.uri, this.remoteFile(null), target));
+        Assert.assertFalse(Files.exists(target));
+        Assert.assertTrue(Files.exists(this.tempDir.resolve("snapshot.zip.part")));
+        Assert.assertTrue(Files.exists(this.tempDir.resolve("snapshot.zip.progress")));
+
+        this.failures.set(0);
+        this.ranges.clear();
+        downloader.download(this.uri, this.remoteFile(null), target);
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(target));
+        Assert.assertEquals(List.of(failingStart + "-" + (4L * SEGMENT_SIZE - 1)), this.ranges);
+    }
+
+    /** Progress recorded for another version of the remote file is not resumed. */
+    public void testDownloadRestartsWhenRemoteFileChanged() throws Exception {
+        Path target = this.tempDir.resolve("snapshot.zip");
+        this.failingStarts.add(0L);
+        this.failures.set(Integer.MAX_VALUE);
+        SnapshotDownloader downloader = new SnapshotDownloader(this.client, 4, SEGMENT_SIZE);
+        Assert.assertThrows(
+                IOException.class,
+                () -> downloader.download(this.uri, this.remoteFile(null), target));
+
+        this.failures.set(0);
+        this.ranges.clear();
+        downloader.download(
+                this.uri, new SnapshotDownloader.RemoteFile(this.content.length, "\"v2\"", null), target);
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(target));
+        Assert.assertEquals(6, this.ranges.size());
+    }
+
+    /** A file not matching the advertised digest is rejected and not kept for resuming. */
+    public void testDownloadRejectsDigestMismatch() throws Exception {
+        Path target = this.tempDir.resolve("snapshot.zip");
+        SnapshotDownloader downloader = new SnapshotDownloader(this.client, 4, SEGMENT_SIZE);
+
+        Assert.assertThrows(
+                IOException.class,
+                () -> downloader.download(this.uri, this.remoteFile(this.sha256(new byte[] {1})), target));
+        Assert.assertFalse(Files.exists(target));
+        Assert.assertFalse(Files.exists(this.tempDir.resolve("snapshot.zip.part")));
+        Assert.assertFalse(Files.exists(this.tempDir.resolve("snapshot.zip.progress")));
+    }
+
+    /** The probe response describes the remote file only when the server honored the range. */
+    public void testProbe() {
+        BasicHttpResponse partial = new BasicHttpResponse(206);
+        partial.addHeader("Content-Range", "bytes 0-0/4096");
+        partial.addHeader("ETag", "\"abc\"");
+        partial.addHeader("Repr-Digest", "sha-256=:" + Base64.getEncoder().encodeToString(new byte[32]) + ":");
+        SnapshotDownloader.RemoteFile remote = SnapshotDownloader.probe(partial);
+        Assert.assertNotNull(remote);
+        Assert.assertEquals(4096, remote.size());
+        Assert.assertEquals("\"abc\"", remote.etag());
+        Assert.assertEquals("SHA-256", remote.digest().algorithm());
+
+        BasicHttpResponse unknownSize = new BasicHttpResponse(206);
+        unknownSize.addHeader("Content-Range", "bytes 0-0/*");
+        Assert.assertNull(SnapshotDownloader.probe(unknownSize));
+
+        Assert.assertNull(SnapshotDownloader.probe(new BasicHttpResponse(200)));
+    }
+
+    /** Content-MD5 only describes the whole file on complete responses. */
+    public void testDescribeCompleteResponse() {
+        BasicHttpResponse full = new BasicHttpResponse(200);
+        full.addHeader("Content-Length", "10");
+        full.addHeader("Content-MD5", Base64.getEncoder().encodeToString(new byte[16]));
+        full.addHeader("ETag", "W/\"weak\"");
+        SnapshotDownloader.RemoteFile remote = SnapshotDownloader.describe(full);
+        Assert.assertEquals(10, remote.size());
+        Assert.assertNull(remote.etag());
+        Assert.assertEquals("MD5", remote.digest().algorithm());
+    }
+}
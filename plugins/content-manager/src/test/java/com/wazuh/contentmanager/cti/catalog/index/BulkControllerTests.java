@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.Assert;
+import org.junit.Before;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the {@link BulkController} class. Validates that rejections and heap pressure
+ * halve the load, that a growing latency at the same batch size halves the concurrency only, and
+ * that healthy requests grow the load back to the configured ceilings.
+ */
+public class BulkControllerTests extends OpenSearchTestCase {
+
+    private static final String INDEX = "wazuh-threatintel-rules";
+    private static final long MB = 1024L * 1024;
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private int heap;
+    private BulkController controller;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.heap = 0;
+        this.controller = new BulkController(INDEX, 4, 100, 10 * MB, () -> this.heap);
+    }
+
+    /** The controller starts at the configured values. */
+    public void testStartsAtTheCeilings() {
+        this.assertState(4, 100, 10 * MB);
+    }
+
+    /** A rejection halves both the concurrency and the batch size. */
+    public void testOnRejected_HalvesTheLoad() {
+        this.controller.onRejected(System.nanoTime());
+
+        this.assertState(2, 50, 5 * MB);
+    }
+
+    /** Requests sent before a decrease do not decrease the load again. */
+    public void testOnRejected_SingleDecreasePerCongestion() {
+        long sentAt = System.nanoTime();
+        this.controller.onRejected(sentAt);
+        this.controller.onRejected(sentAt);
+        this.assertState(2, 50, 5 * MB);
+
+        this.controller.onRejected(System.nanoTime());
+        this.assertState(1, 25, 2 * MB + MB / 2);
+    }
+
+    /** The batch size is never halved below its floor. */
+    public void testOnRejected_KeepsTheFloors() {
+        for (int i = 0; i < 10; i++) {
+            this.controller.onRejected(System.nanoTime());
+        }
+
+        this.assertState(1, BulkController.MIN_ITEMS, BulkController.MIN_BYTES);
+    }
+
+    /** A request completed while the heap is under pressure halves both values. */
+    public void testOnCompleted_HeapPressure() {
+        this.heap = BulkController.HEAP_PRESSURE_PERCENT;
+
+        this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+
+        this.assertState(2, 50, 5 * MB);
+    }
+
+    /** A latency per document well above the best observed one halves the concurrency only. */
+    public void testOnCompleted_LatencyHalvesConcurrencyOnly() {
+        for (int i = 0; i < 5; i++) {
+            this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+        }
+        this.assertState(4, 100, 10 * MB);
+
+        this.controller.onCompleted(System.nanoTime(), 100, 10_000 * MILLIS);
+
+        this.assertState(2, 100, 10 * MB);
+    }
+
+    /**
+     * The latency of smaller batches is not compared to the baseline of larger ones, and requests
+     * sent before the batch size changed are not compared to the new batches.
+     */
+    public void testOnCompleted_BaselinePerBatchSize() {
+        for (int i = 0; i < 5; i++) {
+            this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+        }
+        long sentBefore = System.nanoTime();
+        this.controller.onRejected(System.nanoTime());
+        this.assertState(2, 50, 5 * MB);
+
+        // Three times the latency per document of the larger batches
+        this.controller.onCompleted(sentBefore, 100, 10_000 * MILLIS);
+        this.controller.onCompleted(System.nanoTime(), 50, 150 * MILLIS);
+        this.assertState(3, 60, 6 * MB);
+    }
+
+    /** Healthy requests grow the load back, one step per round of requests, up to the ceilings. */
+    public void testOnCompleted_GrowsBackToTheCeilings() {
+        this.controller.onRejected(System.nanoTime());
+        this.assertState(2, 50, 5 * MB);
+
+        this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+        this.assertState(2, 50, 5 * MB);
+        this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+        this.assertState(3, 60, 6 * MB);
+
+        for (int i = 0; i < 100; i++) {
+            this.controller.onCompleted(System.nanoTime(), 100, 100 * MILLIS);
+        }
+        this.assertState(4, 100, 10 * MB);
+    }
+
+    private void assertState(int concurrency, int items, long bytes) {
+        Assert.assertEquals(concurrency, this.controller.getConcurrency());
+        Assert.assertEquals(items, this.controller.getMaxItems());
+        Assert.assertEquals(bytes, this.controller.getMaxBytes());
+    }
+}
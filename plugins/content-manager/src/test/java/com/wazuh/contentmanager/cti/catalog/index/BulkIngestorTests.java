@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.opensearch.action.bulk.BackoffPolicy;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.TestThreadPool;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.client.Client;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link BulkIngestor} class. Validates that only the items rejected with {@code
+ * 429} are retried, that any other failure is counted as permanent, and that {@link
+ * BulkIngestor#awaitPending()} waits for the retries to finish.
+ */
+public class BulkIngestorTests extends OpenSearchTestCase {
+
+    private static final String INDEX = "wazuh-threatintel-rules";
+
+    private Client client;
+    private ThreadPool threadPool;
+    private BulkIngestor ingestor;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.client = mock(Client.class);
+        this.threadPool = new TestThreadPool(this.getTestName());
+        when(this.client.threadPool()).thenReturn(this.threadPool);
+        this.ingestor =
+                new BulkIngestor(
+                        this.client,
+                        new BulkController(INDEX, 2, 100, 5L * 1024 * 1024, () -> 0),
+                        BackoffPolicy.constantBackoff(TimeValue.timeValueMillis(1), 2));
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        ThreadPool.terminate(this.threadPool, 10, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    /** All items succeed on the first attempt: no retry, every document counted as indexed. */
+    public void testSubmit_AllSucceed() throws Exception {
+        this.respondWith(Set.of());
+
+        this.ingestor.submit(this.bulkOf(3));
+        this.ingestor.awaitPending();
+
+        verify(this.client, times(1)).bulk(any(BulkRequest.class), any());
+        Assert.assertEquals(3, this.ingestor.getStats().get(INDEX).getSucceeded());
+        Assert.assertEquals(0, this.ingestor.getFailedCount());
+    }
+
+    /** Only the rejected item is re-sent, and it is counted as indexed once the retry succeeds. */
+    public void testSubmit_RetriesOnlyRejectedItems() throws Exception {
+        this.respondWith(Set.of("doc-1"));
+
+        this.ingestor.submit(this.bulkOf(3));
+        this.ingestor.awaitPending();
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.client, times(2)).bulk(captor.capture(), any());
+        BulkRequest retry = captor.getAllValues().get(1);
+        Assert.assertEquals(1, retry.numberOfActions());
+        Assert.assertEquals("doc-1", retry.requests().getFirst().id());
+        Assert.assertEquals(3, this.ingestor.getStats().get(INDEX).getSucceeded());
+        Assert.assertEquals(0, this.ingestor.getFailedCount());
+    }
+
+    /** Items failing with a non-retryable status are counted as failed without being re-sent. */
+    public void testSubmit_NonRetryableFailureIsPermanent() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            BulkRequest request = invocation.getArgument(0);
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            List<BulkItemResponse> items = new ArrayList<>();
+                            for (int i = 0; i < request.numberOfActions(); i++) {
+                                String id = request.requests().get(i).id();
+                                items.add(this.item(i, id, "doc-0".equals(id) ? RestStatus.BAD_REQUEST : null));
+                            }
+                            listener.onResponse(this.response(items));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+
+        this.ingestor.submit(this.bulkOf(2));
+        this.ingestor.awaitPending();
+
+        verify(this.client, times(1)).bulk(any(BulkRequest.class), any());
+        Assert.assertEquals(1, this.ingestor.getStats().get(INDEX).getSucceeded());
+        Assert.assertEquals(1, this.ingestor.getFailedCount());
+    }
+
+    /**
+     * Successful and failed items are keyed by the index of the request, even when it is an alias of
+     * the index that answered them.
+     */
+    public void testSubmit_StatsKeyedByRequestIndex() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            BulkRequest request = invocation.getArgument(0);
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            List<BulkItemResponse> items = new ArrayList<>();
+                            for (int i = 0; i < request.numberOfActions(); i++) {
+                                String id = request.requests().get(i).id();
+                                BulkItemResponse item =
+                                        this.item(i, id, "doc-0".equals(id) ? RestStatus.BAD_REQUEST : null);
+                                when(item.getIndex()).thenReturn(INDEX + "-a");
+                                items.add(item);
+                            }
+                            listener.onResponse(this.response(items));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+
+        this.ingestor.submit(this.bulkOf(2));
+        this.ingestor.awaitPending();
+
+        Assert.assertEquals(Set.of(INDEX), this.ingestor.getStats().keySet());
+        Assert.assertEquals(1, this.ingestor.getStats().get(INDEX).getSucceeded());
+        Assert.assertEquals(1, this.ingestor.getStats().get(INDEX).getFailed());
+    }
+
+    /** Items still rejected once the retries are exhausted are counted as failed. */
+    public void testSubmit_RetriesExhausted() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            BulkRequest request = invocation.getArgument(0);
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            List<BulkItemResponse> items = new ArrayList<>();
+                            for (int i = 0; i < request.numberOfActions(); i++) {
+                                items.add(
+                                        this.item(i, request.requests().get(i).id(), RestStatus.TOO_MANY_REQUESTS));
+                            }
+                            listener.onResponse(this.response(items));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+
+        this.ingestor.submit(this.bulkOf(1));
+        this.ingestor.awaitPending();
+
+        // First attempt plus the two retries allowed by the backoff policy.
+        verify(this.client, times(3)).bulk(any(BulkRequest.class), any());
+        Assert.assertEquals(1, this.ingestor.getFailedCount());
+    }
+
+    /** A request rejected as a whole is retried as a whole. */
+    public void testSubmit_RequestLevelRejectionIsRetried() throws Exception {
+        int[] calls = {0};
+        doAnswer(
+                        invocation -> {
+                            BulkRequest request = invocation.getArgument(0);
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            if (calls[0]++ == 0) {
+                                listener.onFailure(new OpenSearchRejectedExecutionException("queue full"));
+                                return null;
+                            }
+                            List<BulkItemResponse> items = new ArrayList<>();
+                            for (int i = 0; i < request.numberOfActions(); i++) {
+                                items.add(this.item(i, request.requests().get(i).id(), null));
+                            }
+                            listener.onResponse(this.response(items));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+
+        this.ingestor.submit(this.bulkOf(2));
+        this.ingestor.awaitPending();
+
+        verify(this.client, times(2)).bulk(any(BulkRequest.class), any());
+        Assert.assertEquals(2, this.ingestor.getStats().get(INDEX).getSucceeded());
+        Assert.assertEquals(0, this.ingestor.getFailedCount());
+    }
+
+    /** Rejections shrink the concurrency and the batch size callers flush at. */
+    public void testSubmit_RejectionsShrinkTheLoad() throws Exception {
+        this.respondWith(Set.of("doc-0"));
+
+        this.ingestor.submit(this.bulkOf(1));
+        this.ingestor.awaitPending();
+
+        Assert.assertEquals(1, this.ingestor.getConcurrency());
+        Assert.assertEquals(50, this.ingestor.getMaxItems());
+        Assert.assertEquals(5L * 1024 * 1024 / 2, this.ingestor.getMaxBytes());
+        Assert.assertEquals(0, this.ingestor.getFailedCount());
+    }
+
+    /**
+     * A request sent with execute has its rejected items retried, and the final outcome of every
+     * item is returned to the caller instead of being accumulated in the stats.
+     */
+    public void testExecute_ReturnsFinalItems() throws Exception {
+        this.respondWith(Set.of("doc-1"));
+
+        List<BulkItemResponse> items = this.ingestor.execute(this.bulkOf(3)).get(10, TimeUnit.SECONDS);
+
+        verify(this.client, times(2)).bulk(any(BulkRequest.class), any());
+        Assert.assertEquals(3, items.size());
+        Assert.assertTrue(items.stream().noneMatch(BulkItemResponse::isFailed));
+        Assert.assertTrue(this.ingestor.getStats().isEmpty());
+        this.ingestor.awaitPending();
+    }
+
+    /** resetStats clears the accumulated outcomes. */
+    public void testResetStats() throws Exception {
+        this.respondWith(Set.of());
+        this.ingestor.submit(this.bulkOf(1));
+        this.ingestor.awaitPending();
+
+        this.ingestor.resetStats();
+
+        Assert.assertTrue(this.ingestor.getStats().isEmpty());
+    }
+
+    /**
+     * Stubs the client so that the given document ids are rejected with {@code 429} on the first
+     * attempt and succeed afterwards, while every other document succeeds immediately.
+     */
+    private void respondWith(Set<String> rejectedOnce) {
+        Set<String> alreadyRejected = ConcurrentHashMap.newKeySet();
+        doAnswer(
+                        invocation -> {
+                            BulkRequest request = invocation.getArgument(0);
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            List<BulkItemResponse> items = new ArrayList<>();
+                            for (int i = 0; i < request.numberOfActions(); i++) {
+                                String id = request.requests().get(i).id();
+                                boolean reject = rejectedOnce.contains(id) && alreadyRejected.add(id);
+                                items.add(this.item(i, id, reject ? RestStatus.TOO_MANY_REQUESTS : null));
+                            }
+                            listener.onResponse(this.response(items));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+    }
+
+    private BulkRequest bulkOf(int count) {
+        BulkRequest request = new BulkRequest();
+        for (int i = 0; i < count; i++) {
+            request.add(new IndexRequest(INDEX).id("doc-" + i).source("{}", XContentType.JSON));
+        }
+        return request;
+    }
+
+    private BulkItemResponse item(int itemId, String id, RestStatus failure) {
+        BulkItemResponse item = mock(BulkItemResponse.class);
+        when(item.getItemId()).thenReturn(itemId);
+        when(item.getId()).thenReturn(id);
+        when(item.getIndex()).thenReturn(INDEX);
+        when(item.isFailed()).thenReturn(failure != null);
+        when(item.status()).thenReturn(failure != null ? failure : RestStatus.CREATED);
+        return item;
+    }
+
+    private BulkResponse response(List<BulkItemResponse> items) {
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.getItems()).thenReturn(items.toArray(new BulkItemResponse[0]));
+        return response;
+    }
+}
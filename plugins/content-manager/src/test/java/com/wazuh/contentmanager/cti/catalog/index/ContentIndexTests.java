@@ -18,14 +18,34 @@ package com.wazuh.contentmanager.cti.catalog.index;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.opensearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.opensearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.opensearch.action.admin.indices.mapping.get.GetMappingsRequest;
+import org.opensearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.opensearch.action.admin.indices.mapping.put.PutMappingRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.opensearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.cluster.metadata.MappingMetadata;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.transport.client.Client;
 import org.junit.After;
@@ -33,9 +53,14 @@ import org.junit.Assert;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.wazuh.contentmanager.cti.catalog.model.Offset;
 import com.wazuh.contentmanager.cti.catalog.model.Operation;
 import com.wazuh.contentmanager.settings.PluginSettings;
 import com.wazuh.contentmanager.utils.Constants;
@@ -45,7 +70,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -431,6 +459,38 @@ public class ContentIndexTests extends OpenSearchTestCase {
         Assert.assertTrue("Should contain 'space' key", source.has("space"));
     }
 
+    /**
+     * Test creating an already wrapped payload. Validates that it is indexed as it is, without being
+     * modified, and that the decimal numbers of its document keep their decimal digit.
+     */
+    public void testCreate_WrappedPayload_KeepsDecimalScale() throws IOException {
+        // Mock
+        PlainActionFuture<IndexResponse> future = PlainActionFuture.newFuture();
+        future.onResponse(this.indexResponse);
+        when(this.client.index(any(IndexRequest.class))).thenReturn(future);
+
+        ObjectNode payload = this.mapper.createObjectNode();
+        payload.putObject("document").put("id", "R1").put("score", new BigDecimal("5"));
+        payload.putObject("space").put("name", "standard");
+        payload.putObject("hash").put("sha256", "abc");
+        payload.put("offset", new BigDecimal("7"));
+        JsonNode original = payload.deepCopy();
+
+        // Act
+        this.contentIndex.create("R1", payload);
+
+        // Assert
+        ArgumentCaptor<IndexRequest> captor = ArgumentCaptor.forClass(IndexRequest.class);
+        verify(this.client).index(captor.capture());
+
+        String source = captor.getValue().source().utf8ToString();
+        Assert.assertTrue(source.contains("\"score\":5.0"));
+        Assert.assertTrue(source.contains("\"offset\":7"));
+        Assert.assertFalse(source.contains("\"offset\":7.0"));
+        Assert.assertEquals("standard", this.mapper.readTree(source).at("/space/name").asText());
+        Assert.assertEquals(original, payload);
+    }
+
     /** Test update when document does not exist. */
     public void testUpdate_DocumentNotFound() {
         // Arrange
@@ -468,6 +528,100 @@ public class ContentIndexTests extends OpenSearchTestCase {
         Assert.assertEquals("CVE_RECORD", processed.get("document").get("dataType").asText());
     }
 
+    /** Test that serializePayload produces the same document as processPayload. */
+    public void testSerializePayload_MatchesProcessPayload() throws IOException {
+        ContentIndex cveIndex = new ContentIndex(this.client, Constants.INDEX_CVES, MAPPINGS_PATH);
+        JsonNode payload =
+                this.mapper.readTree(
+                        "{\"type\":\"CVE\",\"offset\":3,\"document\":{\"dataType\":\"CVE_RECORD\"}}");
+
+        JsonNode processed = cveIndex.processPayload(payload);
+        byte[] serialized = cveIndex.serializePayload(payload);
+
+        Assert.assertEquals(processed.toString(), new String(serialized, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bulk-load mode disables refreshes and replicas, and leaving it restores the settings in place
+     * before, resetting a leftover disabled refresh interval to its default.
+     */
+    public void testBulkLoadMode_RestoresSettings() throws Exception {
+        Settings current =
+                Settings.builder()
+                        .put(Constants.KEY_INDEX_REFRESH_INTERVAL, Constants.REFRESH_INTERVAL_DISABLED)
+                        .put(Constants.KEY_INDEX_NUMBER_OF_REPLICAS, 2)
+                        .build();
+        PlainActionFuture<GetSettingsResponse> settingsFuture = PlainActionFuture.newFuture();
+        settingsFuture.onResponse(
+                new GetSettingsResponse(Map.of(INDEX_NAME + "-a", current), Map.of()));
+        when(this.client.admin().indices().getSettings(any(GetSettingsRequest.class)))
+                .thenReturn(settingsFuture);
+        this.stubMappingMeta(Map.of());
+        PlainActionFuture<ClusterHealthResponse> healthFuture = PlainActionFuture.newFuture();
+        healthFuture.onResponse(mock(ClusterHealthResponse.class));
+        when(this.client.admin().cluster().health(any(ClusterHealthRequest.class)))
+                .thenReturn(healthFuture);
+
+        this.contentIndex.enterBulkLoadMode();
+        this.contentIndex.exitBulkLoadMode();
+        // Not in bulk-load mode anymore: nothing to restore.
+        this.contentIndex.exitBulkLoadMode();
+
+        // The kept settings are stored in the mapping until restored
+        ArgumentCaptor<PutMappingRequest> markers = ArgumentCaptor.forClass(PutMappingRequest.class);
+        verify(this.client.admin().indices(), times(2)).putMapping(markers.capture());
+        String marker = markers.getAllValues().get(0).source();
+        Assert.assertTrue(marker.contains("\"index.number_of_replicas\":\"2\""));
+        Assert.assertFalse(markers.getAllValues().get(1).source().contains("bulk_load_restore"));
+
+        ArgumentCaptor<UpdateSettingsRequest> captor =
+                ArgumentCaptor.forClass(UpdateSettingsRequest.class);
+        verify(this.client.admin().indices(), times(2)).updateSettings(captor.capture());
+        Settings bulkLoad = captor.getAllValues().get(0).settings();
+        Assert.assertEquals(
+                Constants.REFRESH_INTERVAL_DISABLED, bulkLoad.get(Constants.KEY_INDEX_REFRESH_INTERVAL));
+        Assert.assertEquals("0", bulkLoad.get(Constants.KEY_INDEX_NUMBER_OF_REPLICAS));
+        Assert.assertNull(bulkLoad.get(Constants.KEY_INDEX_TRANSLOG_DURABILITY));
+
+        Settings restored = captor.getAllValues().get(1).settings();
+        Assert.assertTrue(restored.hasValue(Constants.KEY_INDEX_NUMBER_OF_REPLICAS));
+        Assert.assertEquals("2", restored.get(Constants.KEY_INDEX_NUMBER_OF_REPLICAS));
+        Assert.assertTrue(restored.keySet().contains(Constants.KEY_INDEX_REFRESH_INTERVAL));
+        Assert.assertNull(restored.get(Constants.KEY_INDEX_REFRESH_INTERVAL));
+        Assert.assertNull(restored.get(Constants.KEY_INDEX_AUTO_EXPAND_REPLICAS));
+    }
+
+    /**
+     * Tests that the settings stored by a load that did not restore them are kept, instead of the
+     * bulk-load settings it left in place.
+     */
+    public void testBulkLoadMode_KeepsStoredSettings() throws Exception {
+        Map<String, Object> stored = new HashMap<>();
+        stored.put(Constants.KEY_INDEX_NUMBER_OF_REPLICAS, "1");
+        stored.put(Constants.KEY_INDEX_AUTO_EXPAND_REPLICAS, "0-1");
+        stored.put(Constants.KEY_INDEX_REFRESH_INTERVAL, null);
+        this.stubMappingMeta(Map.of(Constants.KEY_BULK_LOAD_RESTORE, stored));
+        PlainActionFuture<ClusterHealthResponse> healthFuture = PlainActionFuture.newFuture();
+        healthFuture.onResponse(mock(ClusterHealthResponse.class));
+        when(this.client.admin().cluster().health(any(ClusterHealthRequest.class)))
+                .thenReturn(healthFuture);
+
+        this.contentIndex.enterBulkLoadMode();
+        this.contentIndex.exitBulkLoadMode();
+
+        verify(this.client.admin().indices(), never()).getSettings(any(GetSettingsRequest.class));
+        ArgumentCaptor<UpdateSettingsRequest> captor =
+                ArgumentCaptor.forClass(UpdateSettingsRequest.class);
+        verify(this.client.admin().indices(), times(2)).updateSettings(captor.capture());
+        Settings restored = captor.getAllValues().get(1).settings();
+        Assert.assertEquals("1", restored.get(Constants.KEY_INDEX_NUMBER_OF_REPLICAS));
+        Assert.assertEquals("0-1", restored.get(Constants.KEY_INDEX_AUTO_EXPAND_REPLICAS));
+        Assert.assertTrue(restored.keySet().contains(Constants.KEY_INDEX_REFRESH_INTERVAL));
+        Assert.assertNull(restored.get(Constants.KEY_INDEX_REFRESH_INTERVAL));
+        // Only the clearing of the stored settings is written
+        verify(this.client.admin().indices(), times(1)).putMapping(any(PutMappingRequest.class));
+    }
+
     /** Test that update with offset injects the offset value into the indexed document. */
     public void testUpdate_WithOffset() throws Exception {
         String id = "offset-test-id";
@@ -507,4 +661,406 @@ public class ContentIndexTests extends OpenSearchTestCase {
         Assert.assertTrue("Should contain 'offset'", updatedDoc.has("offset"));
         Assert.assertEquals(expectedOffset, updatedDoc.get("offset").asLong());
     }
+
+    /**
+     * Test the asynchronous create. Validates that the listener is notified with the response of a
+     * refreshed index request.
+     */
+    public void testCreate_Async() throws Exception {
+        // Mock
+        doAnswer(
+                        invocation -> {
+                            ActionListener<IndexResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.indexResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .index(any(IndexRequest.class), any());
+
+        JsonNode payload =
+                this.mapper.readTree("{\"type\": \"rule\", \"document\": {\"id\": \"R1\"}}");
+
+        // Act
+        PlainActionFuture<IndexResponse> future = PlainActionFuture.newFuture();
+        this.contentIndex.create("R1", payload, future);
+
+        // Assert
+        Assert.assertSame(this.indexResponse, future.actionGet());
+        ArgumentCaptor<IndexRequest> captor = ArgumentCaptor.forClass(IndexRequest.class);
+        verify(this.client).index(captor.capture(), any());
+        Assert.assertEquals("R1", captor.getValue().id());
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, captor.getValue().getRefreshPolicy());
+    }
+
+    /**
+     * Test that a document created within a refresh scope is not refreshed on write, and that its
+     * index is refreshed once the scope is closed.
+     */
+    public void testCreate_WithinRefreshScope() throws Exception {
+        // Arrange
+        PlainActionFuture<IndexResponse> future = PlainActionFuture.newFuture();
+        future.onResponse(this.indexResponse);
+        when(this.client.index(any(IndexRequest.class))).thenReturn(future);
+        JsonNode payload =
+                this.mapper.readTree("{\"type\": \"rule\", \"document\": {\"id\": \"R1\"}}");
+
+        // Act
+        try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client)) {
+            this.contentIndex.create("R1", payload);
+        }
+
+        // Assert
+        ArgumentCaptor<IndexRequest> captor = ArgumentCaptor.forClass(IndexRequest.class);
+        verify(this.client).index(captor.capture());
+        Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, captor.getValue().getRefreshPolicy());
+        ArgumentCaptor<RefreshRequest> refresh = ArgumentCaptor.forClass(RefreshRequest.class);
+        verify(this.client.admin().indices()).refresh(refresh.capture());
+        Assert.assertArrayEquals(
+                new String[] {this.contentIndex.getWriteIndex()}, refresh.getValue().indices());
+    }
+
+    /**
+     * Test the asynchronous update. Validates that the fetched document is patched and written
+     * conditionally on its version, and that a missing document fails the listener.
+     */
+    public void testUpdate_Async() throws Exception {
+        // Mock
+        doAnswer(
+                        invocation -> {
+                            ActionListener<GetResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.getResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .get(any(GetRequest.class), any());
+        when(this.getResponse.isExists()).thenReturn(true);
+        when(this.getResponse.getSourceAsString())
+                .thenReturn(
+                        "{\"type\": \"rule\", \"document\": {\"id\": \"R1\", \"title\": \"Old\"}}");
+        when(this.getResponse.getSeqNo()).thenReturn(4L);
+        when(this.getResponse.getPrimaryTerm()).thenReturn(1L);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<IndexResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.indexResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .index(any(IndexRequest.class), any());
+
+        List<Operation> operations =
+                List.of(new Operation("replace", "/document/title", null, "New"));
+
+        // Act
+        PlainActionFuture<IndexResponse> future = PlainActionFuture.newFuture();
+        this.contentIndex.update("R1", operations, 9L, future);
+
+        // Assert
+        Assert.assertSame(this.indexResponse, future.actionGet());
+        ArgumentCaptor<IndexRequest> captor = ArgumentCaptor.forClass(IndexRequest.class);
+        verify(this.client).index(captor.capture(), any());
+        Assert.assertEquals(4L, captor.getValue().ifSeqNo());
+        Assert.assertEquals(1L, captor.getValue().ifPrimaryTerm());
+        JsonNode written = this.mapper.readTree(captor.getValue().source().utf8ToString());
+        Assert.assertEquals("New", written.at("/document/title").asText());
+        Assert.assertEquals(9L, written.get("offset").asLong());
+
+        // A missing document fails the listener
+        when(this.getResponse.isExists()).thenReturn(false);
+        PlainActionFuture<IndexResponse> missing = PlainActionFuture.newFuture();
+        this.contentIndex.update("R1", operations, 9L, missing);
+        Exception e = expectThrows(Exception.class, missing::actionGet);
+        Assert.assertTrue(e.getMessage().contains("not found"));
+    }
+
+    /** Test the asynchronous exists and getDocument. */
+    public void testExistsAndGetDocument_Async() throws Exception {
+        // Mock
+        doAnswer(
+                        invocation -> {
+                            ActionListener<GetResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.getResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .get(any(GetRequest.class), any());
+        when(this.getResponse.isExists()).thenReturn(true);
+        when(this.getResponse.getSourceAsString()).thenReturn("{\"document\": {\"id\": \"R1\"}}");
+
+        // Act
+        PlainActionFuture<Boolean> exists = PlainActionFuture.newFuture();
+        this.contentIndex.exists("R1", exists);
+        PlainActionFuture<JsonNode> document = PlainActionFuture.newFuture();
+        this.contentIndex.getDocument("R1", document);
+
+        // Assert
+        Assert.assertTrue(exists.actionGet());
+        Assert.assertEquals("R1", document.actionGet().at("/document/id").asText());
+        ArgumentCaptor<GetRequest> captor = ArgumentCaptor.forClass(GetRequest.class);
+        verify(this.client, times(2)).get(captor.capture(), any());
+        Assert.assertFalse(captor.getAllValues().get(0).fetchSourceContext().fetchSource());
+        Assert.assertEquals(INDEX_NAME, captor.getAllValues().get(1).index());
+    }
+
+    /**
+     * Test the asynchronous getDocument. Validates that a missing document is notified as null,
+     * while a failure to fetch it is notified as such.
+     */
+    public void testGetDocument_AsyncFailure() {
+        // Mock
+        when(this.getResponse.isExists()).thenReturn(false);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<GetResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.getResponse);
+                            return null;
+                        })
+                .doAnswer(
+                        invocation -> {
+                            ActionListener<GetResponse> listener = invocation.getArgument(1);
+                            listener.onFailure(new IllegalStateException("shard failure"));
+                            return null;
+                        })
+                .when(this.client)
+                .get(any(GetRequest.class), any());
+
+        // Act
+        PlainActionFuture<JsonNode> missing = PlainActionFuture.newFuture();
+        this.contentIndex.getDocument("R1", missing);
+        PlainActionFuture<JsonNode> failed = PlainActionFuture.newFuture();
+        this.contentIndex.getDocument("R1", failed);
+
+        // Assert
+        Assert.assertNull(missing.actionGet());
+        Exception e = expectThrows(IllegalStateException.class, failed::actionGet);
+        Assert.assertEquals("shard failure", e.getMessage());
+    }
+
+    /**
+     * Test applying a batch of changes. Changes of the same document are applied in memory in offset
+     * order, and only the final state of every document is written with a single refreshed bulk
+     * request.
+     */
+    public void testApplyChanges_SingleBulkRequest() throws Exception {
+        this.respondToBulk();
+
+        JsonNode payload =
+                this.mapper.readTree(
+                        "{"
+                                + "\"type\": \"test\","
+                                + "\"offset\": 5,"
+                                + "\"document\": {"
+                                + "  \"id\": \"R1\","
+                                + "  \"enabled\": true"
+                                + "}"
+                                + "}");
+        List<Operation> operations =
+                List.of(new Operation("replace", "/document/enabled", null, false));
+        List<ContentIndex.Change> changes =
+                List.of(
+                        new ContentIndex.Change(5L, Offset.Type.CREATE, "doc-1", payload, null),
+                        new ContentIndex.Change(6L, Offset.Type.UPDATE, "doc-1", null, operations),
+                        new ContentIndex.Change(7L, Offset.Type.DELETE, "doc-2", null, null));
+
+        // Act
+        this.contentIndex.applyChanges(changes);
+
+        // Assert
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.client).bulk(captor.capture(), any());
+        verify(this.client, never()).multiGet(any());
+        verify(this.client, never()).index(any(IndexRequest.class));
+
+        BulkRequest request = captor.getValue();
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, request.getRefreshPolicy());
+        Assert.assertEquals(2, request.requests().size());
+
+        IndexRequest indexRequest = (IndexRequest) request.requests().get(0);
+        Assert.assertEquals("doc-1", indexRequest.id());
+        JsonNode written = this.mapper.readTree(indexRequest.source().utf8ToString());
+        Assert.assertFalse(written.get("document").get("enabled").asBoolean());
+        Assert.assertEquals(6L, written.get("offset").asLong());
+
+        DeleteRequest deleteRequest = (DeleteRequest) request.requests().get(1);
+        Assert.assertEquals(INDEX_NAME, deleteRequest.index());
+        Assert.assertEquals("doc-2", deleteRequest.id());
+    }
+
+    /**
+     * Test that documents updated by a batch are fetched with a single multi-get, and written back
+     * conditionally on the fetched version.
+     */
+    public void testApplyChanges_ConditionalOnFetchedVersion() throws Exception {
+        String originalDocJson =
+                "{"
+                        + "\"type\": \"test\","
+                        + "\"document\": {"
+                        + "  \"id\": \"R1\","
+                        + "  \"enabled\": true"
+                        + "}"
+                        + "}";
+        when(this.getResponse.getId()).thenReturn("doc-1");
+        when(this.getResponse.isExists()).thenReturn(true);
+        when(this.getResponse.getSourceAsString()).thenReturn(originalDocJson);
+        when(this.getResponse.getSeqNo()).thenReturn(7L);
+        when(this.getResponse.getPrimaryTerm()).thenReturn(2L);
+        PlainActionFuture<MultiGetResponse> multiGetFuture = PlainActionFuture.newFuture();
+        multiGetFuture.onResponse(
+                new MultiGetResponse(
+                        new MultiGetItemResponse[] {new MultiGetItemResponse(this.getResponse, null)}));
+        when(this.client.multiGet(any(MultiGetRequest.class))).thenReturn(multiGetFuture);
+
+        this.respondToBulk();
+
+        List<Operation> first = List.of(new Operation("replace", "/document/enabled", null, false));
+        List<Operation> second = List.of(new Operation("add", "/document/level", null, 3));
+
+        // Act
+        this.contentIndex.applyChanges(
+                List.of(
+                        new ContentIndex.Change(8L, Offset.Type.UPDATE, "doc-1", null, first),
+                        new ContentIndex.Change(9L, Offset.Type.UPDATE, "doc-1", null, second)));
+
+        // Assert
+        ArgumentCaptor<MultiGetRequest> getCaptor = ArgumentCaptor.forClass(MultiGetRequest.class);
+        verify(this.client, times(1)).multiGet(getCaptor.capture());
+        Assert.assertEquals(1, getCaptor.getValue().getItems().size());
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.client).bulk(captor.capture(), any());
+        Assert.assertEquals(1, captor.getValue().requests().size());
+
+        IndexRequest request = (IndexRequest) captor.getValue().requests().get(0);
+        Assert.assertEquals(7L, request.ifSeqNo());
+        Assert.assertEquals(2L, request.ifPrimaryTerm());
+        JsonNode written = this.mapper.readTree(request.source().utf8ToString());
+        Assert.assertFalse(written.get("document").get("enabled").asBoolean());
+        Assert.assertEquals(3, written.get("document").get("level").asInt());
+        Assert.assertEquals(9L, written.get("offset").asLong());
+    }
+
+    /**
+     * Tests that updates already reflected by the offset of the stored document are skipped, so that
+     * a batch can be replayed.
+     *
+     * @throws Exception if applying the changes fails.
+     */
+    public void testApplyChanges_SkipsAppliedUpdates() throws Exception {
+        String storedDocJson =
+                "{"
+                        + "\"type\": \"test\","
+                        + "\"offset\": 9,"
+                        + "\"document\": {"
+                        + "  \"id\": \"R1\","
+                        + "  \"enabled\": false"
+                        + "}"
+                        + "}";
+        when(this.getResponse.getId()).thenReturn("doc-1");
+        when(this.getResponse.isExists()).thenReturn(true);
+        when(this.getResponse.getSourceAsString()).thenReturn(storedDocJson);
+        PlainActionFuture<MultiGetResponse> multiGetFuture = PlainActionFuture.newFuture();
+        multiGetFuture.onResponse(
+                new MultiGetResponse(
+                        new MultiGetItemResponse[] {new MultiGetItemResponse(this.getResponse, null)}));
+        when(this.client.multiGet(any(MultiGetRequest.class))).thenReturn(multiGetFuture);
+
+        List<Operation> operations =
+                List.of(new Operation("replace", "/document/enabled", null, false));
+
+        // Act
+        this.contentIndex.applyChanges(
+                List.of(new ContentIndex.Change(9L, Offset.Type.UPDATE, "doc-1", null, operations)));
+
+        // Assert
+        verify(this.client, never()).bulk(any(BulkRequest.class), any());
+    }
+
+    /**
+     * Tests that, when a batch is replayed, the updates of a document up to its stored offset are
+     * skipped one by one, so that non-idempotent operations are not applied twice.
+     *
+     * @throws Exception if applying the changes fails.
+     */
+    public void testApplyChanges_ReplaySkipsUpdatesUpToStoredOffset() throws Exception {
+        String storedDocJson =
+                "{"
+                        + "\"type\": \"test\","
+                        + "\"offset\": 9,"
+                        + "\"document\": {"
+                        + "  \"id\": \"R1\","
+                        + "  \"references\": [\"a\", \"b\"]"
+                        + "}"
+                        + "}";
+        when(this.getResponse.getId()).thenReturn("doc-1");
+        when(this.getResponse.isExists()).thenReturn(true);
+        when(this.getResponse.getSourceAsString()).thenReturn(storedDocJson);
+        PlainActionFuture<MultiGetResponse> multiGetFuture = PlainActionFuture.newFuture();
+        multiGetFuture.onResponse(
+                new MultiGetResponse(
+                        new MultiGetItemResponse[] {new MultiGetItemResponse(this.getResponse, null)}));
+        when(this.client.multiGet(any(MultiGetRequest.class))).thenReturn(multiGetFuture);
+
+        this.respondToBulk();
+
+        // Offset 9 was applied by the previous attempt, offset 10 was not
+        List<Operation> applied = List.of(new Operation("add", "/document/references/-", null, "b"));
+        List<Operation> pending = List.of(new Operation("add", "/document/level", null, 3));
+
+        // Act
+        this.contentIndex.applyChanges(
+                List.of(
+                        new ContentIndex.Change(9L, Offset.Type.UPDATE, "doc-1", null, applied),
+                        new ContentIndex.Change(10L, Offset.Type.UPDATE, "doc-1", null, pending)));
+
+        // Assert
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.client).bulk(captor.capture(), any());
+        IndexRequest request = (IndexRequest) captor.getValue().requests().get(0);
+        JsonNode written = this.mapper.readTree(request.source().utf8ToString());
+        Assert.assertEquals(2, written.get("document").get("references").size());
+        Assert.assertEquals(3, written.get("document").get("level").asInt());
+        Assert.assertEquals(10L, written.get("offset").asLong());
+    }
+
+    /**
+     * Tests that a document permanently failed by the bulk request, once retried by the ingestor,
+     * fails the batch.
+     */
+    public void testApplyChanges_FailedItemFailsBatch() throws Exception {
+        BulkItemResponse failed = mock(BulkItemResponse.class);
+        when(failed.getId()).thenReturn("doc-2");
+        when(failed.isFailed()).thenReturn(true);
+        when(failed.status()).thenReturn(RestStatus.CONFLICT);
+        when(failed.getFailureMessage()).thenReturn("version conflict");
+        this.respondToBulk(failed);
+
+        Assert.assertThrows(
+                IOException.class,
+                () ->
+                        this.contentIndex.applyChanges(
+                                List.of(new ContentIndex.Change(7L, Offset.Type.DELETE, "doc-2", null, null))));
+        verify(this.client, times(1)).bulk(any(BulkRequest.class), any());
+    }
+
+    /** Stubs the client so that every bulk request is answered with the given items. */
+    private void respondToBulk(BulkItemResponse... items) {
+        doAnswer(
+                        invocation -> {
+                            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(new BulkResponse(items, 1));
+                            return null;
+                        })
+                .when(this.client)
+                .bulk(any(BulkRequest.class), any());
+    }
+
+    /** Stubs the {@code _meta} of the mapping of the index. */
+    private void stubMappingMeta(Map<String, Object> meta) {
+        MappingMetadata mapping = mock(MappingMetadata.class);
+        when(mapping.getSourceAsMap()).thenReturn(Map.of(Constants.KEY_MAPPING_META, meta));
+        PlainActionFuture<GetMappingsResponse> mappingsFuture = PlainActionFuture.newFuture();
+        mappingsFuture.onResponse(new GetMappingsResponse(Map.of(INDEX_NAME + "-a", mapping)));
+        when(this.client.admin().indices().getMappings(any(GetMappingsRequest.class)))
+                .thenReturn(mappingsFuture);
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.index;
+
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
+import org.junit.Assert;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.wazuh.contentmanager.settings.PluginSettings;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the {@link RefreshCoordinator} class. Validates that writes within a scope are
+ * not refreshed, and that the indices they target are refreshed together before a search and when
+ * the outermost scope is closed, on the thread of an offloaded search or without blocking.
+ */
+public class RefreshCoordinatorTests extends OpenSearchTestCase {
+
+    private Client client;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+        PluginSettings.getInstance(Settings.EMPTY);
+    }
+
+    /** Outside a scope, writes are refreshed immediately, or as requested. */
+    public void testPolicy_OutsideScope() {
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, RefreshCoordinator.policy("a"));
+        Assert.assertEquals(
+                WriteRequest.RefreshPolicy.NONE,
+                RefreshCoordinator.policy(WriteRequest.RefreshPolicy.NONE, "a"));
+
+        RefreshCoordinator.beforeSearch();
+
+        verify(this.client, never()).admin();
+    }
+
+    /** Within a scope, writes are not refreshed and every index written is refreshed once. */
+    public void testClose_RefreshesIndicesWrittenOnce() {
+        try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client)) {
+            Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, RefreshCoordinator.policy("a"));
+            Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, RefreshCoordinator.policy("a"));
+            BulkRequest bulk =
+                    new BulkRequest().add(new IndexRequest("b").id("1")).add(new DeleteRequest("c", "2"));
+            Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, RefreshCoordinator.policy(bulk));
+        }
+
+        Assert.assertEquals(List.of(Set.of("a", "b", "c")), this.refreshedIndices(1));
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, RefreshCoordinator.policy("a"));
+    }
+
+    /** A search refreshes the indices written since the last refresh only. */
+    public void testBeforeSearch_RefreshesIndicesWrittenSinceLastRefresh() {
+        try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client)) {
+            RefreshCoordinator.policy("a");
+            RefreshCoordinator.beforeSearch();
+            RefreshCoordinator.beforeSearch();
+            RefreshCoordinator.policy("b");
+        }
+
+        Assert.assertEquals(List.of(Set.of("a"), Set.of("b")), this.refreshedIndices(2));
+    }
+
+    /** A nested scope joins the outer one, which refreshes once closed. */
+    public void testOpen_NestedScopeJoinsOuterScope() {
+        try (RefreshCoordinator.Scope outer = RefreshCoordinator.open(this.client)) {
+            try (RefreshCoordinator.Scope inner = RefreshCoordinator.open(this.client)) {
+                Assert.assertSame(outer, inner);
+                RefreshCoordinator.policy("a");
+            }
+            verify(this.client, never()).admin();
+            RefreshCoordinator.policy("b");
+        }
+
+        Assert.assertEquals(List.of(Set.of("a", "b")), this.refreshedIndices(1));
+    }
+
+    /** Asynchronous writes are awaited before their index is refreshed. */
+    public void testClose_AwaitsTrackedWrites() throws Exception {
+        AtomicBoolean completed = new AtomicBoolean();
+        Thread write;
+        try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client)) {
+            ActionListener<Void> listener =
+                    RefreshCoordinator.track("a", ActionListener.wrap(r -> completed.set(true), e -> {}));
+            write =
+                    new Thread(
+                            () -> {
+                                try {
+                                    Thread.sleep(100);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                listener.onResponse(null);
+                            });
+            write.start();
+        }
+
+        Assert.assertTrue(completed.get());
+        Assert.assertEquals(List.of(Set.of("a")), this.refreshedIndices(1));
+        write.join();
+    }
+
+    /** A refresh taken from a scope runs on another thread, and is not repeated on close. */
+    public void testTakeRefresh_RunsOnAnotherThread() throws Exception {
+        try (RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client)) {
+            RefreshCoordinator.policy("a");
+            Thread search = new Thread(RefreshCoordinator.takeRefresh());
+            search.start();
+            search.join();
+        }
+        RefreshCoordinator.takeRefresh().run();
+
+        Assert.assertEquals(List.of(Set.of("a")), this.refreshedIndices(1));
+    }
+
+    /** Closing without blocking refreshes once the writes complete, then runs the callback. */
+    public void testCloseAsync_RefreshesAfterTrackedWrites() {
+        List<ActionListener<RefreshResponse>> refreshes = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            refreshes.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(this.client.admin().indices())
+                .refresh(any(RefreshRequest.class), any());
+        AtomicBoolean closed = new AtomicBoolean();
+
+        RefreshCoordinator.Scope scope = RefreshCoordinator.open(this.client);
+        RefreshCoordinator.policy("a");
+        ActionListener<Void> write =
+                RefreshCoordinator.track("b", ActionListener.wrap(r -> {}, e -> {}));
+        scope.closeAsync(() -> closed.set(true));
+
+        // The scope is closed, but the refresh waits for the write in flight
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, RefreshCoordinator.policy("a"));
+        Assert.assertTrue(refreshes.isEmpty());
+        write.onResponse(null);
+        Assert.assertEquals(1, refreshes.size());
+        Assert.assertFalse(closed.get());
+
+        refreshes.get(0).onResponse(null);
+        Assert.assertTrue(closed.get());
+        ArgumentCaptor<RefreshRequest> captor = ArgumentCaptor.forClass(RefreshRequest.class);
+        verify(this.client.admin().indices()).refresh(captor.capture(), any());
+        Assert.assertEquals(Set.of("a", "b"), Set.of(captor.getValue().indices()));
+        verify(this.client.admin().indices(), never()).refresh(any(RefreshRequest.class));
+    }
+
+    /**
+     * An asynchronous scope is attached only while its stages run, and to the threads completing
+     * the listeners preserved by them. A search stage runs once the indices written are refreshed.
+     */
+    public void testOpenAsync_PreservesScopeAcrossThreads() throws Exception {
+        List<ActionListener<RefreshResponse>> refreshes = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            refreshes.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(this.client.admin().indices())
+                .refresh(any(RefreshRequest.class), any());
+
+        RefreshCoordinator.Scope scope = RefreshCoordinator.openAsync(this.client);
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, RefreshCoordinator.policy("a"));
+
+        List<ActionListener<Void>> preserved = new ArrayList<>();
+        scope.run(
+                () ->
+                        preserved.add(
+                                RefreshCoordinator.preserve(
+                                        ActionListener.wrap(r -> RefreshCoordinator.policy("a"), e -> {}))));
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, RefreshCoordinator.policy("a"));
+
+        // The listener writes within the scope on the thread completing it
+        Thread response = new Thread(() -> preserved.get(0).onResponse(null));
+        response.start();
+        response.join();
+
+        AtomicBoolean searched = new AtomicBoolean();
+        scope.run(
+                () ->
+                        RefreshCoordinator.beforeSearch(
+                                () ->
+                                        searched.set(
+                                                RefreshCoordinator.policy("b") == WriteRequest.RefreshPolicy.NONE)));
+        Assert.assertEquals(1, refreshes.size());
+        Assert.assertFalse(searched.get());
+        refreshes.get(0).onResponse(null);
+        Assert.assertTrue(searched.get());
+
+        AtomicBoolean closed = new AtomicBoolean();
+        scope.closeAsync(() -> closed.set(true));
+        Assert.assertEquals(2, refreshes.size());
+        refreshes.get(1).onResponse(null);
+        Assert.assertTrue(closed.get());
+
+        ArgumentCaptor<RefreshRequest> captor = ArgumentCaptor.forClass(RefreshRequest.class);
+        verify(this.client.admin().indices(), times(2)).refresh(captor.capture(), any());
+        Assert.assertEquals(
+                List.of(Set.of("a"), Set.of("b")),
+                captor.getAllValues().stream().map(r -> Set.of(r.indices())).toList());
+    }
+
+    /** Returns the indices of every refresh, verifying their number. */
+    private List<Set<String>> refreshedIndices(int refreshes) {
+        ArgumentCaptor<RefreshRequest> captor = ArgumentCaptor.forClass(RefreshRequest.class);
+        verify(this.client.admin().indices(), times(refreshes)).refresh(captor.capture());
+        return captor.getAllValues().stream().map(r -> Set.of(r.indices())).toList();
+    }
+}
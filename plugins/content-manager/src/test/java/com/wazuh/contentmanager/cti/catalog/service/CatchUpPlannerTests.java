@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+import com.wazuh.contentmanager.cti.catalog.model.RemoteConsumer;
+
+/** Unit tests for the {@link CatchUpPlanner} class. */
+public class CatchUpPlannerTests extends OpenSearchTestCase {
+
+    /**
+     * Builds a remote consumer with the given offsets.
+     *
+     * @param offset The remote offset.
+     * @param snapshotLink The link to the latest snapshot.
+     * @param snapshotOffset The offset of the latest snapshot.
+     * @return The remote consumer.
+     */
+    private static RemoteConsumer remote(long offset, String snapshotLink, long snapshotOffset) {
+        ObjectNode data = new ObjectMapper().createObjectNode();
+        data.put("name", "consumer");
+        data.put("context", "context");
+        data.put("last_offset", offset);
+        data.put("last_snapshot_link", snapshotLink);
+        data.put("last_snapshot_offset", snapshotOffset);
+        data.put("is_public", true);
+        return new RemoteConsumer(data, "cti:catalog:consumer:ruleset", "https://cti.example/consumer");
+    }
+
+    /** Small gaps are replayed. */
+    public void testReplaysSmallGap() {
+        CatchUpPlanner planner = new CatchUpPlanner();
+
+        Assert.assertEquals(
+                CatchUpPlanner.Strategy.REPLAY,
+                planner.plan(1_000, remote(1_100, "https://cti.example/snapshot.zip", 1_050)));
+    }
+
+    /** Consumers far behind reload the snapshot. */
+    public void testReloadsLargeGap() {
+        CatchUpPlanner planner = new CatchUpPlanner();
+
+        Assert.assertEquals(
+                CatchUpPlanner.Strategy.RELOAD,
+                planner.plan(1_000, remote(1_001_000, "https://cti.example/snapshot.zip", 1_000_000)));
+    }
+
+    /** Snapshots that are missing, or not ahead of the local offset, are never reloaded. */
+    public void testReplaysWithoutNewerSnapshot() {
+        CatchUpPlanner planner = new CatchUpPlanner();
+
+        Assert.assertEquals(
+                CatchUpPlanner.Strategy.REPLAY, planner.plan(1_000, remote(1_001_000, "", 1_000_000)));
+        Assert.assertEquals(
+                CatchUpPlanner.Strategy.REPLAY,
+                planner.plan(1_000, remote(1_001_000, "https://cti.example/snapshot.zip", 1_000)));
+    }
+
+    /** The observed rates drive the decision; observations too short are ignored. */
+    public void testObservedRates() {
+        CatchUpPlanner planner = new CatchUpPlanner();
+        RemoteConsumer remote = remote(1_001_000, "https://cti.example/snapshot.zip", 1_000_000);
+
+        planner.recordReplay(1_000_000, TimeUnit.MILLISECONDS.toNanos(1));
+        Assert.assertEquals(CatchUpPlanner.DEFAULT_REPLAY_RATE, planner.getReplayRate(), 0);
+
+        // Changes are replayed as fast as the snapshot would be loaded
+        planner.recordReplay(1_000_000, TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertTrue(planner.getReplayRate() > CatchUpPlanner.DEFAULT_LOAD_RATE);
+        Assert.assertEquals(CatchUpPlanner.Strategy.REPLAY, planner.plan(1_000, remote));
+
+        // Snapshot loads are slow
+        CatchUpPlanner slowLoads = new CatchUpPlanner();
+        for (int i = 0; i < 20; i++) {
+            slowLoads.recordLoad(1_000, TimeUnit.SECONDS.toNanos(10));
+        }
+        Assert.assertEquals(CatchUpPlanner.Strategy.REPLAY, slowLoads.plan(1_000, remote));
+    }
+}
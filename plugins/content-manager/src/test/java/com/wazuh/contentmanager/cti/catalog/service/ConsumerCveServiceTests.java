@@ -264,6 +264,55 @@ public class ConsumerCveServiceTests extends OpenSearchTestCase {
         inOrder.verify(this.snapshotService).initialize(eq(localSnapshot), any());
     }
 
+    /**
+     * Tests that a remote snapshot loaded without some documents is kept, instead of being replaced
+     * by the local snapshot.
+     */
+    public void testSynchronizeKeepsRemoteSnapshotWithDroppedDocuments() throws Exception {
+        Path pluginsDir = LuceneTestCase.createTempDir();
+        Path localSnapshot =
+                pluginsDir
+                        .resolve(Constants.PLUGIN_DIR_NAME)
+                        .resolve(Constants.CTI_SNAPSHOTS_DIR)
+                        .resolve(Constants.CVE_SNAPSHOT_FILENAME);
+        Files.createDirectories(localSnapshot.getParent());
+        Files.writeString(localSnapshot, "placeholder");
+
+        ConsumerCveServiceTests.clearPluginSettings();
+        PluginSettings.getInstance(
+                Settings.builder()
+                        .put(
+                                "plugins.content_manager.catalog.vulnerabilities",
+                                "https://cti.example/api/v1/catalog/contexts/t1-vulnerabilities-5/consumers/public-vulnerabilities-5")
+                        .build());
+
+        RemoteConsumer remoteConsumer = mock(RemoteConsumer.class);
+
+        when(this.environment.pluginsDir()).thenReturn(pluginsDir);
+        when(this.client.admin().indices().prepareExists(anyString()).get().isExists())
+                .thenReturn(true);
+        when(this.consumerService.getLocalConsumer()).thenReturn(null);
+        when(this.consumerService.getRemoteConsumer()).thenReturn(remoteConsumer);
+        when(remoteConsumer.getSnapshotLink())
+                .thenReturn("https://cti.example/store/vulnerabilities.zip");
+        when(this.consumersIndex.getConsumer("cti:catalog:consumer:vulnerabilities"))
+                .thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+        when(this.snapshotService.initialize(eq(remoteConsumer))).thenReturn(false);
+        when(this.snapshotService.getDroppedDocuments()).thenReturn(3L);
+
+        TestableConsumerCveService fallbackService =
+                new TestableConsumerCveService(this.client, this.consumersIndex, this.environment);
+        fallbackService.setConsumerService(this.consumerService);
+        fallbackService.setSnapshotService(this.snapshotService);
+
+        fallbackService.synchronize();
+
+        verify(this.snapshotService).initialize(eq(remoteConsumer));
+        verify(this.snapshotService, never()).initialize(eq(localSnapshot), any());
+        assertTrue(Files.exists(localSnapshot));
+    }
+
     /** Tests that a successful remote initialization removes the packaged local snapshot. */
     public void testSynchronizeDeletesLocalSnapshotAfterSuccessfulRemoteInitialization()
             throws Exception {
@@ -312,6 +361,64 @@ public class ConsumerCveServiceTests extends OpenSearchTestCase {
         assertFalse(Files.exists(localSnapshot));
     }
 
+    /**
+     * Tests that synchronizations are skipped while the remote consumer of an up-to-date consumer
+     * does not change, and resumed as soon as it does.
+     */
+    public void testSynchronizeSkipsUnchangedRemoteConsumer() throws Exception {
+        ConsumerCveServiceTests.clearPluginSettings();
+        PluginSettings.getInstance(
+                Settings.builder()
+                        .put(
+                                "plugins.content_manager.catalog.vulnerabilities",
+                                "https://cti.example/api/v1/catalog/contexts/t1-vulnerabilities-5/consumers/public-vulnerabilities-5")
+                        .build());
+
+        RemoteConsumer remoteConsumer = mock(RemoteConsumer.class);
+        when(remoteConsumer.getOffset()).thenReturn(333L);
+        when(this.client.admin().indices().prepareExists(anyString()).get().isExists())
+                .thenReturn(true);
+        when(this.consumerService.getLocalConsumer())
+                .thenReturn(
+                        new LocalConsumer(
+                                "t1-vulnerabilities-5",
+                                "public-vulnerabilities-5",
+                                "cti:catalog:consumer:vulnerabilities",
+                                "https://cti.example/api/v1/catalog/contexts/t1-vulnerabilities-5/consumers/public-vulnerabilities-5",
+                                true,
+                                333,
+                                333));
+        when(this.consumerService.getRemoteConsumer()).thenReturn(remoteConsumer);
+        when(this.consumersIndex.getConsumer("cti:catalog:consumer:vulnerabilities"))
+                .thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+
+        TestableConsumerCveService fallbackService =
+                new TestableConsumerCveService(this.client, this.consumersIndex, this.environment);
+        fallbackService.setConsumerService(this.consumerService);
+        fallbackService.setSnapshotService(this.snapshotService);
+
+        // The first check has no entity tag yet, and finds the same offset
+        fallbackService.synchronize();
+        when(this.consumerService.probeRemoteConsumer(null))
+                .thenReturn(new ConsumerService.RemoteProbe(true, 333, "\"v1\""));
+        fallbackService.synchronize();
+        // The next checks are conditional
+        when(this.consumerService.probeRemoteConsumer("\"v1\""))
+                .thenReturn(new ConsumerService.RemoteProbe(false, -1, "\"v1\""));
+        fallbackService.synchronize();
+
+        verify(this.consumerService, org.mockito.Mockito.times(1)).getRemoteConsumer();
+        verify(this.consumerService).probeRemoteConsumer("\"v1\"");
+
+        // The remote consumer changed
+        when(this.consumerService.probeRemoteConsumer("\"v1\""))
+                .thenReturn(new ConsumerService.RemoteProbe(true, 400, "\"v2\""));
+        fallbackService.synchronize();
+
+        verify(this.consumerService, org.mockito.Mockito.times(2)).getRemoteConsumer();
+    }
+
     /**
      * Tests that status updates during synchronize preserve existing manifest-derived identity
      * fields.
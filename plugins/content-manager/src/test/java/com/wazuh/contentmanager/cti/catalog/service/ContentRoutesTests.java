@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2024-2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.cti.catalog.service;
+
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.Assert;
+
+/** Unit tests for the {@link ContentRoutes} class. */
+public class ContentRoutesTests extends OpenSearchTestCase {
+
+    /** The least recently used routes are evicted once the capacity is reached. */
+    public void testEvictsLeastRecentlyUsed() {
+        ContentRoutes routes = new ContentRoutes(2);
+        routes.put("a", "rule");
+        routes.put("b", "decoder");
+        Assert.assertEquals("rule", routes.get("a"));
+
+        routes.put("c", "rule");
+
+        Assert.assertEquals(2, routes.size());
+        Assert.assertEquals("rule", routes.get("a"));
+        Assert.assertNull(routes.get("b"));
+        Assert.assertEquals("rule", routes.get("c"));
+    }
+
+    /** A zero capacity disables the cache. */
+    public void testDisabled() {
+        ContentRoutes routes = new ContentRoutes(0);
+        routes.put("a", "rule");
+
+        Assert.assertNull(routes.get("a"));
+        Assert.assertEquals(0, routes.size());
+    }
+
+    /** Removed and cleared routes are forgotten. */
+    public void testRemoveAndClear() {
+        ContentRoutes routes = new ContentRoutes(10);
+        routes.put("a", "rule");
+        routes.put("b", "decoder");
+
+        routes.remove("a");
+        Assert.assertNull(routes.get("a"));
+        Assert.assertEquals("decoder", routes.get("b"));
+
+        routes.clear();
+        Assert.assertEquals(0, routes.size());
+    }
+}
@@ -18,7 +18,10 @@ package com.wazuh.contentmanager.cti.catalog.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import org.opensearch.action.DocWriteRequest;
 import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
@@ -27,6 +30,7 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -34,27 +38,37 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import com.wazuh.contentmanager.cti.catalog.client.SnapshotClient;
+import com.wazuh.contentmanager.cti.catalog.index.BulkIngestor;
 import com.wazuh.contentmanager.cti.catalog.index.ConsumersIndex;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
 import com.wazuh.contentmanager.cti.catalog.model.LocalConsumer;
 import com.wazuh.contentmanager.cti.catalog.model.RemoteConsumer;
+import com.wazuh.contentmanager.cti.catalog.model.SnapshotCheckpoint;
 import com.wazuh.contentmanager.settings.PluginSettings;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -76,6 +90,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
     @Mock private SnapshotClient snapshotClient;
     @Mock private ConsumersIndex consumersIndex;
     @Mock private ContentIndex contentIndexMock;
+    @Mock private BulkIngestor bulkIngestor;
     @Mock private Environment environment;
     @Mock private RemoteConsumer remoteConsumer;
 
@@ -108,9 +123,14 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.setSnapshotClient(this.snapshotClient);
 
         // Updated matchers to use JsonNode instead of JsonObject
-        when(this.contentIndexMock.processPayload(any(JsonNode.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(this.contentIndexMock.serializePayload(any(JsonNode.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0).toString().getBytes(StandardCharsets.UTF_8));
         when(this.contentIndexMock.getWriteIndex()).thenReturn(".test-context-test-consumer-kvdb");
+        when(this.contentIndexMock.getBulkIngestor()).thenReturn(this.bulkIngestor);
+        when(this.bulkIngestor.getMaxItems())
+                .thenAnswer(invocation -> PluginSettings.getInstance().getMaxItemsPerBulk());
+        when(this.bulkIngestor.getMaxBytes())
+                .thenAnswer(invocation -> PluginSettings.getInstance().getMaxBulkBytes());
     }
 
     @After
@@ -202,7 +222,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
 
         // Assert
         verify(this.contentIndexMock, never()).clear();
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
         verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
 
@@ -252,7 +272,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
         verify(this.contentIndexMock).executeBulk(bulkCaptor.capture());
 
@@ -282,8 +302,8 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        // Verify delegation to ContentIndex.processPayload
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        // Verify delegation to ContentIndex.serializePayload
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         verify(this.contentIndexMock).executeBulk(any(BulkRequest.class));
     }
 
@@ -307,7 +327,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         verify(this.contentIndexMock).executeBulk(any(BulkRequest.class));
     }
 
@@ -354,10 +374,40 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         verify(this.contentIndexMock).executeBulk(any(BulkRequest.class));
     }
 
+    /**
+     * Tests that top-level fields not used for routing are skipped by the streaming line reader, and
+     * that the offset is injected into the indexed source.
+     */
+    public void testInitialize_StreamingReaderSkipsUnusedFields() throws Exception {
+        String url = "http://example.com/extra_fields.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+
+        // spotless:off
+        String jsonContent =
+            """
+                {"extra": {"nested": [1, 2, {"a": "b"}]}, "offset": 7, "payload": {"type": "kvdb", "document": {"id": "k1"}}, "tags": ["x"], "name": "k1"}""";
+        // spotless:on
+        Path zipPath = this.createZipFileWithContent("extra.json", jsonContent);
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+        this.snapshotService.initialize(this.remoteConsumer);
+
+        ArgumentCaptor<JsonNode> payloadCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(this.contentIndexMock).serializePayload(payloadCaptor.capture());
+        Assert.assertEquals(7L, payloadCaptor.getValue().get("offset").asLong());
+        Assert.assertFalse(payloadCaptor.getValue().has("extra"));
+
+        ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.contentIndexMock).executeBulk(bulkCaptor.capture());
+        IndexRequest request = (IndexRequest) bulkCaptor.getValue().requests().getFirst();
+        Assert.assertEquals("k1", request.id());
+        Assert.assertTrue(request.source().utf8ToString().contains("\"offset\":7"));
+    }
+
     /**
      * Tests that if a file contains a mix of valid JSON and corrupt lines (parsing errors), the
      * service logs the error, skips the bad line, and continues indexing the valid ones.
@@ -384,7 +434,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        verify(this.contentIndexMock, atLeastOnce()).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock, atLeastOnce()).serializePayload(any(JsonNode.class));
         ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
         verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
 
@@ -418,7 +468,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         this.snapshotService.initialize(this.remoteConsumer);
 
         // Assert
-        verify(this.contentIndexMock).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock).serializePayload(any(JsonNode.class));
         verify(this.contentIndexMock).executeBulk(any(BulkRequest.class));
     }
 
@@ -607,6 +657,504 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         }
     }
 
+    /**
+     * Snapshot lines are parsed by several workers in parallel. Every document of every entry must
+     * be indexed exactly once, no bulk request may exceed the document-count cap, and the highest
+     * offset must be tracked regardless of the order in which workers complete.
+     */
+    public void testInitialize_ParallelWorkersIndexEveryDocument() throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("data_1.json", this.buildPaddedNdjson(1500, 16));
+        entries.put("data_2.json", this.buildPaddedNdjson(2500, 16));
+        Path localZip = this.createZipFileWithEntries(entries);
+
+        GetResponse absent = mock(GetResponse.class);
+        when(absent.isExists()).thenReturn(false);
+        when(this.consumersIndex.getConsumer("cti:catalog:consumer:ruleset")).thenReturn(absent);
+
+        this.snapshotService.initialize(localZip, null);
+
+        ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+
+        int totalActions = 0;
+        for (BulkRequest request : bulkCaptor.getAllValues()) {
+            Assert.assertTrue(
+                    request.numberOfActions() <= PluginSettings.getInstance().getMaxItemsPerBulk());
+            totalActions += request.numberOfActions();
+        }
+        Assert.assertEquals(4000, totalActions);
+        Assert.assertEquals(2500L, this.snapshotService.getMaxOffsetSeen());
+        verify(this.contentIndexMock, times(4000)).serializePayload(any(JsonNode.class));
+    }
+
+    /**
+     * Documents are batched per target index: each index only receives bulks with its own documents
+     * and the completion barrier waits on every index written to.
+     */
+    public void testInitialize_BatchesPerTargetIndex() throws Exception {
+        ContentIndex kvdbIndex = mock(ContentIndex.class);
+        ContentIndex decoderIndex = mock(ContentIndex.class);
+        for (ContentIndex index : List.of(kvdbIndex, decoderIndex)) {
+            when(index.serializePayload(any(JsonNode.class)))
+                    .thenAnswer(
+                            invocation -> invocation.getArgument(0).toString().getBytes(StandardCharsets.UTF_8));
+            when(index.getBulkIngestor()).thenReturn(this.bulkIngestor);
+        }
+        when(kvdbIndex.getWriteIndex()).thenReturn("kvdb-index");
+        when(decoderIndex.getWriteIndex()).thenReturn("decoder-index");
+
+        Map<String, ContentIndex> indicesMap = new HashMap<>();
+        indicesMap.put("kvdb", kvdbIndex);
+        indicesMap.put("decoder", decoderIndex);
+        SnapshotServiceImpl service =
+                new SnapshotServiceImpl(
+                        "cti:catalog:consumer:ruleset", indicesMap, this.consumersIndex, this.environment);
+        service.setSnapshotClient(this.snapshotClient);
+
+        String url = "http://example.com/mixed_types.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+        // spotless:off
+        String jsonContent =
+            """
+                {"name": "k1", "offset": 1, "payload": {"type": "kvdb", "document": {"id": "k1"}}}
+                {"name": "d1", "offset": 2, "payload": {"type": "decoder", "document": {"name": "d1"}}}
+                {"name": "k2", "offset": 3, "payload": {"type": "kvdb", "document": {"id": "k2"}}}""";
+        // spotless:on
+        Path zipPath = this.createZipFileWithContent("mixed_types.json", jsonContent);
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+        service.initialize(this.remoteConsumer);
+
+        ArgumentCaptor<BulkRequest> kvdbCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(kvdbIndex).executeBulk(kvdbCaptor.capture());
+        Assert.assertEquals(2, kvdbCaptor.getValue().numberOfActions());
+        kvdbCaptor.getValue().requests().forEach(r -> Assert.assertEquals("kvdb-index", r.index()));
+
+        ArgumentCaptor<BulkRequest> decoderCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(decoderIndex).executeBulk(decoderCaptor.capture());
+        Assert.assertEquals(1, decoderCaptor.getValue().numberOfActions());
+        Assert.assertEquals("decoder-index", decoderCaptor.getValue().requests().getFirst().index());
+
+        verify(kvdbIndex).waitForPendingUpdates();
+        verify(decoderIndex).waitForPendingUpdates();
+    }
+
+    /**
+     * Re-initializes the {@link PluginSettings} singleton with a single parser worker, tiny bulks and
+     * the given checkpoint interval, and returns a fresh {@link SnapshotServiceImpl} bound to it. The
+     * caller is responsible for resetting the singleton when done.
+     */
+    private SnapshotServiceImpl serviceWithCheckpointInterval(int interval) {
+        return this.serviceWithSettings(
+                Settings.builder().put("plugins.content_manager.snapshot.checkpoint_interval", interval));
+    }
+
+    /**
+     * Re-initializes the {@link PluginSettings} singleton with a single parser worker, tiny bulks and
+     * the given extra settings, and returns a fresh {@link SnapshotServiceImpl} bound to it. The
+     * caller is responsible for resetting the singleton when done.
+     */
+    private SnapshotServiceImpl serviceWithSettings(Settings.Builder extra) {
+        PluginSettings.resetForTesting();
+        Settings settings =
+                extra
+                        .put("path.home", this.tempDir.toString())
+                        .put("plugins.content_manager.max_items_per_bulk", 10)
+                        .put("plugins.content_manager.snapshot.parser_workers", 1)
+                        .build();
+        PluginSettings.getInstance(settings);
+
+        Map<String, ContentIndex> indicesMap = new HashMap<>();
+        indicesMap.put("kvdb", this.contentIndexMock);
+        SnapshotServiceImpl service =
+                new SnapshotServiceImpl(
+                        "cti:catalog:consumer:ruleset", indicesMap, this.consumersIndex, this.environment);
+        service.setSnapshotClient(this.snapshotClient);
+        return service;
+    }
+
+    /**
+     * Once armed, checkpoints are persisted while loading, bound to the snapshot link and size, and
+     * removed when the load completes.
+     */
+    public void testInitialize_WritesCheckpoints() throws Exception {
+        SnapshotServiceImpl service = this.serviceWithCheckpointInterval(1);
+        try {
+            String url = "http://example.com/checkpoints.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(1000, 16));
+            long zipSize = Files.size(zipPath);
+            when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+            Assert.assertFalse(service.enableCheckpoints(this.remoteConsumer));
+            service.initialize(this.remoteConsumer);
+
+            ArgumentCaptor<SnapshotCheckpoint> checkpointCaptor =
+                    ArgumentCaptor.forClass(SnapshotCheckpoint.class);
+            verify(this.consumersIndex, atLeastOnce()).setCheckpoint(checkpointCaptor.capture());
+            for (SnapshotCheckpoint checkpoint : checkpointCaptor.getAllValues()) {
+                Assert.assertTrue(checkpoint.matches(url, zipSize));
+                Assert.assertEquals("data.json", checkpoint.getEntry());
+                Assert.assertEquals(0, checkpoint.getLine() % 256);
+                Assert.assertEquals(checkpoint.getLine(), checkpoint.getMaxOffset());
+            }
+            verify(this.consumersIndex).deleteCheckpoint("cti:catalog:consumer:ruleset");
+
+            ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+            Assert.assertEquals(
+                    1000, bulkCaptor.getAllValues().stream().mapToInt(BulkRequest::numberOfActions).sum());
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /** Without armed checkpoints, no progress is persisted. */
+    public void testInitialize_NoCheckpointsUnlessEnabled() throws Exception {
+        SnapshotServiceImpl service = this.serviceWithCheckpointInterval(1);
+        try {
+            String url = "http://example.com/no_checkpoints.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(1000, 16));
+            when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+            service.initialize(this.remoteConsumer);
+
+            verify(this.consumersIndex, never()).setCheckpoint(any(SnapshotCheckpoint.class));
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /**
+     * A load resuming from a checkpoint skips the entries sorting before the checkpoint entry and
+     * the lines of that entry already indexed.
+     */
+    public void testInitialize_ResumesFromCheckpoint() throws Exception {
+        String url = "http://example.com/resume.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("data_2.json", this.buildPaddedNdjson(500, 16));
+        entries.put("data_1.json", this.buildPaddedNdjson(100, 16));
+        Path zipPath = this.createZipFileWithEntries(entries);
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+        when(this.consumersIndex.getCheckpoint("cti:catalog:consumer:ruleset"))
+                .thenReturn(
+                        new SnapshotCheckpoint(
+                                "cti:catalog:consumer:ruleset",
+                                url,
+                                Files.size(zipPath),
+                                "data_2.json",
+                                300,
+                                300));
+
+        Assert.assertTrue(this.snapshotService.enableCheckpoints(this.remoteConsumer));
+        this.snapshotService.initialize(this.remoteConsumer);
+
+        ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+        List<String> ids =
+                bulkCaptor.getAllValues().stream()
+                        .flatMap(request -> request.requests().stream())
+                        .map(request -> request.id())
+                        .toList();
+        Assert.assertEquals(200, ids.size());
+        Assert.assertTrue(ids.contains("doc-300"));
+        Assert.assertFalse(ids.contains("doc-299"));
+        Assert.assertEquals(500L, this.snapshotService.getMaxOffsetSeen());
+        verify(this.consumersIndex).deleteCheckpoint("cti:catalog:consumer:ruleset");
+    }
+
+    /** A checkpoint taken on another snapshot link is discarded and the load starts over. */
+    public void testEnableCheckpoints_DiscardsStaleCheckpoint() throws Exception {
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn("http://example.com/new.zip");
+        when(this.consumersIndex.getCheckpoint("cti:catalog:consumer:ruleset"))
+                .thenReturn(
+                        new SnapshotCheckpoint(
+                                "cti:catalog:consumer:ruleset",
+                                "http://example.com/old.zip",
+                                10,
+                                "data.json",
+                                256,
+                                256));
+
+        Assert.assertFalse(this.snapshotService.enableCheckpoints(this.remoteConsumer));
+        verify(this.consumersIndex).deleteCheckpoint("cti:catalog:consumer:ruleset");
+    }
+
+    /**
+     * A checkpoint matching the link but not the size of the downloaded archive cannot be resumed:
+     * the checkpoint is dropped, the indices are cleared and the archive already downloaded is
+     * loaded from scratch, without keeping the highest offset observed by a previous load.
+     */
+    public void testInitialize_CheckpointSizeMismatchLoadsFromScratch() throws Exception {
+        String previousUrl = "http://example.com/previous.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(previousUrl);
+        Path previousZip = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(100, 16));
+        when(this.snapshotClient.downloadFile(previousUrl)).thenReturn(previousZip);
+        this.snapshotService.initialize(this.remoteConsumer);
+        Assert.assertEquals(100L, this.snapshotService.getMaxOffsetSeen());
+
+        String url = "http://example.com/resized.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+        Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(10, 16));
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+        when(this.consumersIndex.getCheckpoint("cti:catalog:consumer:ruleset"))
+                .thenReturn(
+                        new SnapshotCheckpoint(
+                                "cti:catalog:consumer:ruleset",
+                                url,
+                                Files.size(zipPath) + 1,
+                                "data.json",
+                                5,
+                                50));
+
+        Assert.assertTrue(this.snapshotService.enableCheckpoints(this.remoteConsumer));
+        this.snapshotService.initialize(this.remoteConsumer);
+
+        verify(this.contentIndexMock).clear();
+        ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+        Assert.assertEquals(
+                110, bulkCaptor.getAllValues().stream().mapToInt(BulkRequest::numberOfActions).sum());
+        Assert.assertEquals(10L, this.snapshotService.getMaxOffsetSeen());
+        verify(this.consumersIndex, atLeastOnce()).deleteCheckpoint("cti:catalog:consumer:ruleset");
+    }
+
+    /** Stubs {@link SnapshotClient#streamFile} to hand the given bytes to the stream handler. */
+    private void stubStreamFile(String url, byte[] body) throws Exception {
+        when(this.snapshotClient.streamFile(eq(url), any(SnapshotClient.StreamHandler.class)))
+                .thenAnswer(
+                        invocation -> {
+                            SnapshotClient.StreamHandler handler = invocation.getArgument(1);
+                            handler.handle(new ByteArrayInputStream(body));
+                            return true;
+                        });
+    }
+
+    /** In streaming mode, entries are indexed from the response body, without downloading to disk. */
+    public void testInitialize_StreamingIndexesWithoutDownload() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder().put("plugins.content_manager.snapshot.streaming", true));
+        try {
+            String url = "http://example.com/streamed.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put("data_1.json", this.buildPaddedNdjson(300, 16));
+            entries.put("nested/data_2.json", this.buildPaddedNdjson(50, 16));
+            this.stubStreamFile(url, Files.readAllBytes(this.createZipFileWithEntries(entries)));
+
+            Assert.assertFalse(service.enableCheckpoints(this.remoteConsumer));
+            service.initialize(this.remoteConsumer);
+
+            verify(this.snapshotClient, never()).downloadFile(anyString());
+            ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+            Assert.assertEquals(
+                    300, bulkCaptor.getAllValues().stream().mapToInt(BulkRequest::numberOfActions).sum());
+            Assert.assertEquals(300L, service.getMaxOffsetSeen());
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /** A body that cannot be read sequentially falls back to downloading the snapshot to disk. */
+    public void testInitialize_StreamingFallsBackToDownload() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder().put("plugins.content_manager.snapshot.streaming", true));
+        try {
+            String url = "http://example.com/fallback.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            this.stubStreamFile(url, "not a zip archive".getBytes(StandardCharsets.UTF_8));
+            Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(20, 16));
+            when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+            service.initialize(this.remoteConsumer);
+
+            verify(this.snapshotClient).downloadFile(url);
+            ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+            Assert.assertEquals(
+                    20, bulkCaptor.getAllValues().stream().mapToInt(BulkRequest::numberOfActions).sum());
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /** A failed streaming request fails the initialization without retrying a regular download. */
+    public void testInitialize_StreamingRequestFails() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder().put("plugins.content_manager.snapshot.streaming", true));
+        try {
+            String url = "http://example.com/missing.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            when(this.snapshotClient.streamFile(eq(url), any(SnapshotClient.StreamHandler.class)))
+                    .thenReturn(false);
+
+            Assert.assertFalse(service.initialize(this.remoteConsumer));
+            verify(this.snapshotClient, never()).downloadFile(anyString());
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /** Returns every request sent in bulk to the content index mock. */
+    private List<DocWriteRequest<?>> sentRequests() {
+        ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(this.contentIndexMock, atLeastOnce()).executeBulk(bulkCaptor.capture());
+        return bulkCaptor.getAllValues().stream().flatMap(bulk -> bulk.requests().stream()).toList();
+    }
+
+    /**
+     * A differential apply only writes the new and changed documents, and deletes the indexed
+     * documents missing from the snapshot.
+     */
+    public void testInitialize_DifferentialApply() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder()
+                                .put("plugins.content_manager.snapshot.differential", true)
+                                .put("plugins.content_manager.snapshot.checkpoint_interval", 1));
+        try {
+            String url = "http://example.com/differential.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(20, 16));
+            when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+            when(this.contentIndexMock.serializeDocument(any(JsonNode.class)))
+                    .thenAnswer(
+                            invocation -> {
+                                JsonNode payload = invocation.getArgument(0);
+                                return new ContentIndex.SerializedDocument(
+                                        payload.toString().getBytes(StandardCharsets.UTF_8),
+                                        "offset:" + payload.get("offset").asLong());
+                            });
+            Map<String, String> indexed = new ConcurrentHashMap<>();
+            for (int i = 0; i < 10; i++) {
+                indexed.put("doc-" + i, "offset:" + (i + 1));
+            }
+            indexed.put("doc-10", "outdated");
+            indexed.put("doc-old-1", "offset:100");
+            indexed.put("doc-old-2", "offset:101");
+            when(this.contentIndexMock.fingerprints(anyInt())).thenReturn(indexed);
+
+            Assert.assertFalse(service.enableCheckpoints(this.remoteConsumer));
+            Assert.assertTrue(service.enableDifferentialApply());
+            service.initialize(this.remoteConsumer);
+
+            List<DocWriteRequest<?>> requests = this.sentRequests();
+            List<String> written =
+                    requests.stream().filter(r -> r instanceof IndexRequest).map(DocWriteRequest::id).toList();
+            List<String> deleted =
+                    requests.stream().filter(r -> r instanceof DeleteRequest).map(DocWriteRequest::id).toList();
+            Assert.assertEquals(10, written.size());
+            Assert.assertTrue(written.contains("doc-10"));
+            Assert.assertFalse(written.contains("doc-9"));
+            Assert.assertEquals(2, deleted.size());
+            Assert.assertTrue(deleted.containsAll(List.of("doc-old-1", "doc-old-2")));
+            Assert.assertEquals(20L, service.getMaxOffsetSeen());
+            verify(this.contentIndexMock, never()).clear();
+            verify(this.consumersIndex, never()).setCheckpoint(any(SnapshotCheckpoint.class));
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /**
+     * The differential apply is only armed when enabled, and when the indexed content can be listed.
+     */
+    public void testEnableDifferentialApply_Disabled() throws Exception {
+        Assert.assertFalse(this.snapshotService.enableDifferentialApply());
+        verify(this.contentIndexMock, never()).fingerprints(anyInt());
+
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder().put("plugins.content_manager.snapshot.differential", true));
+        try {
+            when(this.contentIndexMock.fingerprints(anyInt()))
+                    .thenThrow(new ExecutionException("no such index", null));
+            Assert.assertFalse(service.enableDifferentialApply());
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /**
+     * The differential apply is not armed when the indexed content exceeds the configured maximum,
+     * which bounds the listing.
+     */
+    public void testEnableDifferentialApply_TooLarge() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder()
+                                .put("plugins.content_manager.snapshot.differential", true)
+                                .put("plugins.content_manager.snapshot.differential_max_documents", 100));
+        try {
+            when(this.contentIndexMock.fingerprints(100)).thenReturn(null);
+            Assert.assertFalse(service.enableDifferentialApply());
+            verify(this.contentIndexMock).fingerprints(100);
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
+    /**
+     * The content indices are in bulk-load mode while the snapshot is loaded, and leave it once every
+     * bulk request completed.
+     */
+    public void testInitialize_BulkLoadMode() throws Exception {
+        String url = "http://example.com/bulk_load.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+        Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(20, 16));
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+        this.snapshotService.initialize(this.remoteConsumer);
+
+        InOrder order = inOrder(this.contentIndexMock);
+        order.verify(this.contentIndexMock).enterBulkLoadMode();
+        order.verify(this.contentIndexMock, atLeastOnce()).executeBulk(any(BulkRequest.class));
+        order.verify(this.contentIndexMock).waitForPendingUpdates();
+        order.verify(this.contentIndexMock).exitBulkLoadMode();
+    }
+
+    /** A load whose indices cannot leave bulk-load mode does not advance the consumer state. */
+    public void testInitialize_BulkLoadRestoreFails() throws Exception {
+        String url = "http://example.com/bulk_load_fails.zip";
+        when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+        Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(20, 16));
+        when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+        doThrow(new TimeoutException("settings update timed out"))
+                .when(this.contentIndexMock)
+                .exitBulkLoadMode();
+
+        Assert.assertFalse(this.snapshotService.initialize(this.remoteConsumer));
+        verify(this.consumersIndex, never()).deleteCheckpoint(anyString());
+        verify(this.consumersIndex, never()).setConsumer(any(LocalConsumer.class));
+    }
+
+    /** Without bulk-load mode, the index settings are left untouched. */
+    public void testInitialize_BulkLoadModeDisabled() throws Exception {
+        SnapshotServiceImpl service =
+                this.serviceWithSettings(
+                        Settings.builder().put("plugins.content_manager.snapshot.bulk_load.enabled", false));
+        try {
+            String url = "http://example.com/no_bulk_load.zip";
+            when(this.remoteConsumer.getSnapshotLink()).thenReturn(url);
+            Path zipPath = this.createZipFileWithContent("data.json", this.buildPaddedNdjson(20, 16));
+            when(this.snapshotClient.downloadFile(url)).thenReturn(zipPath);
+
+            service.initialize(this.remoteConsumer);
+
+            verify(this.contentIndexMock, never()).enterBulkLoadMode();
+            verify(this.contentIndexMock, never()).exitBulkLoadMode();
+        } finally {
+            PluginSettings.resetForTesting();
+        }
+    }
+
     /** Helper to create a temporary ZIP file containing a single file with specific content. */
     private Path createZipFileWithContent(String fileName, String content) throws IOException {
         Path zipPath = this.tempDir.resolve("test_" + System.nanoTime() + ".zip");
@@ -677,7 +1225,7 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         verify(this.contentIndexMock, atLeastOnce()).clear();
 
         // Documents should be processed and indexed
-        verify(this.contentIndexMock, atLeastOnce()).processPayload(any(JsonNode.class));
+        verify(this.contentIndexMock, atLeastOnce()).serializePayload(any(JsonNode.class));
         verify(this.contentIndexMock, atLeastOnce()).executeBulk(any(BulkRequest.class));
         verify(this.contentIndexMock).waitForPendingUpdates();
 
@@ -765,6 +1313,27 @@ public class SnapshotServiceImplTests extends OpenSearchTestCase {
         Assert.assertEquals(42L, persisted.getRemoteOffset());
     }
 
+    /**
+     * When documents are permanently dropped by the bulk ingestor, the rest of the snapshot is kept,
+     * the dropped documents are counted and the consumer's local_offset is not advanced.
+     */
+    public void testInitializeFromPath_DroppedDocumentsKeepLocalOffset() throws Exception {
+        String dataJson =
+                "{\"name\":\"kvdb-1\",\"offset\":42,\"payload\":{\"type\":\"kvdb\",\"document\":{\"id\":\"kvdb-1\"}}}";
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("data.json", dataJson);
+        Path localZip = this.createZipFileWithEntries(entries);
+        when(this.bulkIngestor.getFailedCount()).thenReturn(1L);
+
+        boolean initialized = this.snapshotService.initialize(localZip, null);
+
+        Assert.assertFalse(initialized);
+        Assert.assertEquals(1L, this.snapshotService.getDroppedDocuments());
+        verify(this.bulkIngestor).resetStats();
+        verify(this.consumersIndex, never()).setConsumer(any(LocalConsumer.class));
+        verify(this.consumersIndex, never()).getConsumer(anyString());
+    }
+
     /**
      * When no t0 document exists, the partial local_offset update is skipped (returning false). The
      * snapshot data is still indexed, but no consumer document is written by {@code
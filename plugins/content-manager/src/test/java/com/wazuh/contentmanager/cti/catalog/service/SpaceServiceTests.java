@@ -16,13 +16,16 @@
  */
 package com.wazuh.contentmanager.cti.catalog.service;
 
+import org.opensearch.action.admin.indices.exists.indices.IndicesExistsRequest;
 import org.opensearch.action.admin.indices.exists.indices.IndicesExistsRequestBuilder;
 import org.opensearch.action.admin.indices.exists.indices.IndicesExistsResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.PlainActionFuture;
 import org.opensearch.common.action.ActionFuture;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.search.SearchHits;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.transport.client.AdminClient;
@@ -32,6 +35,7 @@ import org.junit.After;
 import org.junit.Before;
 
 import java.util.List;
+import java.util.Set;
 
 import com.wazuh.contentmanager.cti.catalog.model.Space;
 import com.wazuh.contentmanager.settings.PluginSettings;
@@ -40,6 +44,7 @@ import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -104,6 +109,31 @@ public class SpaceServiceTests extends OpenSearchTestCase {
         verify(this.client, never()).search(any(SearchRequest.class));
     }
 
+    /**
+     * Tests that the asynchronous calculateAndUpdate reports no changed space, without searching the
+     * policies, when the policy index does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public void testCalculateAndUpdateAsyncSkipsWhenPolicyIndexDoesNotExist() {
+        when(this.client.admin()).thenReturn(this.adminClient);
+        when(this.adminClient.indices()).thenReturn(this.indicesAdminClient);
+        when(this.indicesExistsResponse.isExists()).thenReturn(false);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<IndicesExistsResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(this.indicesExistsResponse);
+                            return null;
+                        })
+                .when(this.indicesAdminClient)
+                .exists(any(IndicesExistsRequest.class), any());
+
+        PlainActionFuture<Set<String>> future = PlainActionFuture.newFuture();
+        this.policyHashService.calculateAndUpdate(List.of(Space.DRAFT.toString()), future);
+
+        assertTrue(future.actionGet().isEmpty());
+        verify(this.client, never()).search(any(SearchRequest.class), any());
+    }
+
     /**
      * Tests that calculateAndUpdate handles empty policy search results without performing bulk
      * updates.
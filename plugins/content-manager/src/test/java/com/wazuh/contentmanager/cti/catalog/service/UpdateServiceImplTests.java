@@ -17,34 +17,53 @@
 package com.wazuh.contentmanager.cti.catalog.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
-import org.apache.hc.core5.http.ContentType;
 import org.apache.lucene.tests.util.LuceneTestCase;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.support.WriteRequest;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import com.wazuh.contentmanager.cti.catalog.client.ApiClient;
+import com.wazuh.contentmanager.cti.catalog.client.ChangesResponseConsumer;
 import com.wazuh.contentmanager.cti.catalog.index.ConsumersIndex;
 import com.wazuh.contentmanager.cti.catalog.index.ContentIndex;
+import com.wazuh.contentmanager.cti.catalog.index.InconsistentContentException;
+import com.wazuh.contentmanager.cti.catalog.index.RefreshCoordinator;
+import com.wazuh.contentmanager.cti.catalog.model.Changes;
 import com.wazuh.contentmanager.cti.catalog.model.LocalConsumer;
+import com.wazuh.contentmanager.cti.catalog.model.Offset;
+import com.wazuh.contentmanager.cti.catalog.model.Operation;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +81,10 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
     private AutoCloseable closeable;
 
     @Mock private ApiClient apiClient;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Client indexClient;
+
     @Mock private ConsumersIndex consumersIndex;
     @Mock private ContentIndex ruleIndex;
     @Mock private ContentIndex decoderIndex;
@@ -94,6 +117,7 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                         CONSUMER_TYPE,
                         CONSUMER_URI,
                         this.apiClient,
+                        this.indexClient,
                         this.consumersIndex,
                         indices);
     }
@@ -107,6 +131,22 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         super.tearDown();
     }
 
+    /**
+     * Builds the response of the changes endpoint for the given body.
+     *
+     * @param code The HTTP status code.
+     * @param body The JSON body.
+     * @return A completed response.
+     * @throws IOException if the body cannot be parsed.
+     */
+    private Future<ChangesResponseConsumer.Result> changes(int code, String body)
+            throws IOException {
+        List<Offset> offsets =
+                code == 200 ? new ObjectMapper().readValue(body, Changes.class).get() : List.of();
+        return CompletableFuture.completedFuture(
+                new ChangesResponseConsumer.Result(code, offsets, body.length()));
+    }
+
     /**
      * Tests a successful update flow containing CREATE, UPDATE, and DELETE operations.
      *
@@ -141,13 +181,11 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         // spotless:on
 
         // Mock
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
-        when(this.ruleIndex.exists("rule-2")).thenReturn(true);
-        when(this.decoderIndex.exists("decoder-1")).thenReturn(true);
+        when(this.ruleIndex.existing(anyCollection())).thenReturn(Set.of("rule-2"));
+        when(this.decoderIndex.existing(anyCollection())).thenReturn(Set.of("decoder-1"));
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -164,14 +202,22 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
 
         // Assert
         Assert.assertTrue("update() should return true on success", result);
-        // Verify CREATE
-        verify(this.ruleIndex).create(eq("rule-1"), any(JsonNode.class));
-
-        // Verify UPDATE (offset is now passed as the third argument)
-        verify(this.ruleIndex).update(eq("rule-2"), any(List.class), any());
+        // Verify CREATE and UPDATE, applied to the rule index as a single batch in offset order
+        List<ContentIndex.Change> ruleChanges = this.appliedChanges(this.ruleIndex);
+        Assert.assertEquals(2, ruleChanges.size());
+        Assert.assertEquals(Offset.Type.CREATE, ruleChanges.get(0).type());
+        Assert.assertEquals("rule-1", ruleChanges.get(0).id());
+        Assert.assertEquals(10L, ruleChanges.get(0).payload().get("offset").asLong());
+        Assert.assertEquals(Offset.Type.UPDATE, ruleChanges.get(1).type());
+        Assert.assertEquals("rule-2", ruleChanges.get(1).id());
+        Assert.assertEquals(11L, ruleChanges.get(1).offset());
+        Assert.assertEquals(1, ruleChanges.get(1).operations().size());
 
         // Verify DELETE
-        verify(this.decoderIndex).delete("decoder-1");
+        List<ContentIndex.Change> decoderChanges = this.appliedChanges(this.decoderIndex);
+        Assert.assertEquals(1, decoderChanges.size());
+        Assert.assertEquals(Offset.Type.DELETE, decoderChanges.get(0).type());
+        Assert.assertEquals("decoder-1", decoderChanges.get(0).id());
 
         // Verify Consumer State Update
         ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
@@ -188,7 +234,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
     }
 
     /**
-     * Tests that consumer identity fields are preserved during reset after an update exception.
+     * Tests that consumer identity fields are preserved during reset after the indexed content is
+     * found inconsistent.
      *
      * @throws Exception
      */
@@ -209,14 +256,12 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                 }""";
         // spotless:on
 
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
-        doThrow(new RuntimeException("Simulated Indexing Failure"))
+        doThrow(new InconsistentContentException("Simulated patch failure"))
                 .when(this.ruleIndex)
-                .create(anyString(), any(JsonNode.class));
+                .applyChanges(anyList());
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -270,10 +315,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                 }""";
         // spotless:on
 
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
         // Mock
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
@@ -284,8 +327,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
 
         // Assert
         Assert.assertTrue("update() should return true on success", result);
-        verify(this.ruleIndex, never()).create(anyString(), any(JsonNode.class));
-        verify(this.decoderIndex, never()).create(anyString(), any(JsonNode.class));
+        verify(this.ruleIndex, never()).applyChanges(anyList());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
 
         ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
         verify(this.consumersIndex).setConsumer(consumerCaptor.capture());
@@ -299,23 +342,25 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
      */
     public void testUpdate_ApiFailure() throws Exception {
         // Mock
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(SimpleHttpResponse.create(500, "Internal Error", ContentType.TEXT_PLAIN));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(500, "Internal Error"));
 
         // Act
         LuceneTestCase.expectThrows(RuntimeException.class, () -> this.updateService.update(1, 5));
 
         // Assert
-        verify(this.ruleIndex, never()).create(anyString(), any(JsonNode.class));
+        verify(this.ruleIndex, never()).applyChanges(anyList());
         ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
         verify(this.consumersIndex).setConsumer(consumerCaptor.capture());
-        Assert.assertEquals(0, consumerCaptor.getValue().getLocalOffset());
+        // Transient failure: resume from the last committed offset instead of resetting
+        Assert.assertEquals(1, consumerCaptor.getValue().getLocalOffset());
         Assert.assertEquals(LocalConsumer.Status.FAILED, consumerCaptor.getValue().getStatus());
     }
 
 
     /**
-     * Tests that the consumer state is reset to 0 if an exception occurs during processing.
+     * Tests that the consumer state is reset to 0 if the indexed content is found inconsistent with
+     * the changes.
      *
      * @throws Exception
      */
@@ -337,14 +382,12 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         // spotless:on
 
         // Mock
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
-        doThrow(new RuntimeException("Simulated Indexing Failure"))
+        doThrow(new InconsistentContentException("Simulated patch failure"))
                 .when(this.ruleIndex)
-                .create(anyString(), any(JsonNode.class));
+                .applyChanges(anyList());
 
         // Act
         LuceneTestCase.expectThrows(RuntimeException.class, () -> this.updateService.update(29, 30));
@@ -382,10 +425,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         // spotless:on
 
         // Mock
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -396,8 +437,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
 
         // Assert
         Assert.assertTrue("update() should return true on success", result);
-        verify(this.ruleIndex, never()).create(anyString(), any(JsonNode.class));
-        verify(this.decoderIndex, never()).create(anyString(), any(JsonNode.class));
+        verify(this.ruleIndex, never()).applyChanges(anyList());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
 
         ArgumentCaptor<LocalConsumer> captor = ArgumentCaptor.forClass(LocalConsumer.class);
         verify(this.consumersIndex).setConsumer(captor.capture());
@@ -419,20 +460,19 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                     {
                       "offset": 50,
                       "resource": "fake-id",
-                      "type": "DELETE"
+                      "type": "UPDATE",
+                      "operations": [ { "op": "replace", "path": "/name", "value": "Renamed" } ]
                     }
                   ]
                 }""";
         // spotless:on
 
         // Mock
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
-        when(this.ruleIndex.exists("fake-id")).thenReturn(false);
-        when(this.decoderIndex.exists("fake-id")).thenReturn(false);
+        when(this.ruleIndex.existing(anyCollection())).thenReturn(Set.of());
+        when(this.decoderIndex.existing(anyCollection())).thenReturn(Set.of());
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -442,8 +482,141 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         LuceneTestCase.expectThrows(RuntimeException.class, () -> this.updateService.update(49, 50));
 
         // Assert
-        verify(this.ruleIndex, never()).delete(anyString());
-        verify(this.decoderIndex, never()).delete(anyString());
+        verify(this.ruleIndex, never()).applyChanges(anyList());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
+
+        // A missing document means inconsistent content: the consumer is reset
+        ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
+        verify(this.consumersIndex).setConsumer(consumerCaptor.capture());
+        Assert.assertEquals(0, consumerCaptor.getValue().getLocalOffset());
+    }
+
+    /**
+     * Tests that a DELETE of a document missing from every index is considered already applied, so
+     * that a page can be replayed.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_DeleteMissingIsSkipped() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 50,
+                      "resource": "fake-id",
+                      "type": "DELETE"
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+
+        Assert.assertTrue(this.updateService.update(49, 50));
+
+        verify(this.ruleIndex, never()).applyChanges(anyList());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
+        ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
+        verify(this.consumersIndex).setConsumer(consumerCaptor.capture());
+        Assert.assertEquals(50, consumerCaptor.getValue().getLocalOffset());
+    }
+
+    /**
+     * Tests that a document created over an existing one and then deleted by the same page is
+     * deleted, instead of the creation and deletion cancelling out.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_DeleteAfterCreateOfExistingDocument() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 60,
+                      "resource": "rule-x",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-x", "name": "Rule X" }
+                    },
+                    {
+                      "offset": 61,
+                      "resource": "rule-x",
+                      "type": "DELETE"
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+        when(this.ruleIndex.existing(anyCollection())).thenReturn(Set.of("rule-x"));
+
+        Assert.assertTrue(this.updateService.update(59, 61));
+
+        List<ContentIndex.Change> changes = this.appliedChanges(this.ruleIndex);
+        Assert.assertEquals(1, changes.size());
+        Assert.assertEquals(Offset.Type.DELETE, changes.get(0).type());
+        Assert.assertEquals(61L, changes.get(0).offset());
+    }
+
+    /**
+     * Tests that the offset of every applied page is committed, and that a transient failure keeps
+     * the committed offset instead of resetting the consumer.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_FailureKeepsCommittedPages() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 1,
+                      "resource": "rule-1",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-1", "name": "Rule One" }
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+        // The second page fails to be written
+        doNothing()
+                .doThrow(new IOException("Simulated bulk failure"))
+                .when(this.ruleIndex)
+                .applyChanges(anyList());
+
+        PluginSettings.resetForTesting();
+        PluginSettings.getInstance(
+                Settings.builder().put("plugins.content_manager.max_items_per_bulk", 10).build());
+        try {
+            LuceneTestCase.expectThrows(RuntimeException.class, () -> this.updateService.update(0, 25));
+        } finally {
+            PluginSettings.resetForTesting();
+            PluginSettings.getInstance(Settings.EMPTY);
+        }
+
+        ArgumentCaptor<LocalConsumer> consumerCaptor = ArgumentCaptor.forClass(LocalConsumer.class);
+        verify(this.consumersIndex, times(2)).setConsumer(consumerCaptor.capture());
+        LocalConsumer committed = consumerCaptor.getAllValues().get(0);
+        Assert.assertEquals(10, committed.getLocalOffset());
+        LocalConsumer failed = consumerCaptor.getAllValues().get(1);
+        Assert.assertEquals(10, failed.getLocalOffset());
+        Assert.assertEquals(25, failed.getRemoteOffset());
+        Assert.assertEquals(LocalConsumer.Status.FAILED, failed.getStatus());
     }
 
     /**
@@ -466,10 +639,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                 }""";
         // spotless:on
 
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -478,8 +649,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         boolean result = this.updateService.update(59, 60);
 
         Assert.assertTrue("update() should return true on success", result);
-        verify(this.ruleIndex, never()).delete(anyString());
-        verify(this.decoderIndex, never()).delete(anyString());
+        verify(this.ruleIndex, never()).applyChanges(anyList());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
 
         ArgumentCaptor<LocalConsumer> captor = ArgumentCaptor.forClass(LocalConsumer.class);
         verify(this.consumersIndex).setConsumer(captor.capture());
@@ -507,10 +678,8 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
                 }""";
         // spotless:on
 
-        when(this.apiClient.getChanges(anyString(), anyLong(), anyLong()))
-                .thenReturn(
-                        SimpleHttpResponse.create(
-                                200, changesJson.getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
 
         when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
         when(this.getResponse.isExists()).thenReturn(true);
@@ -519,9 +688,353 @@ public class UpdateServiceImplTests extends OpenSearchTestCase {
         boolean result = this.updateService.update(69, 70);
 
         Assert.assertTrue("update() should return true on success", result);
-        ArgumentCaptor<JsonNode> payloadCaptor = ArgumentCaptor.forClass(JsonNode.class);
-        verify(this.cveIndex).create(eq("TID-123"), payloadCaptor.capture());
-        Assert.assertEquals("TID", payloadCaptor.getValue().get("type").asText());
-        Assert.assertEquals(70L, payloadCaptor.getValue().get("offset").asLong());
+        List<ContentIndex.Change> changes = this.appliedChanges(this.cveIndex);
+        Assert.assertEquals("TID-123", changes.get(0).id());
+        JsonNode payload = changes.get(0).payload();
+        Assert.assertEquals("TID", payload.get("type").asText());
+        Assert.assertEquals(70L, payload.get("offset").asLong());
+    }
+
+    /**
+     * Tests that changes of a document created earlier in the same page are routed to its index
+     * without looking the document up, each with its own offset.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_ChangesAfterCreateInSamePage() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 80,
+                      "resource": "rule-new",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-new", "name": "New Rule" }
+                    },
+                    {
+                      "offset": 81,
+                      "resource": "rule-new",
+                      "type": "UPDATE",
+                      "operations": [ { "op": "replace", "path": "/name", "value": "Renamed" } ]
+                    },
+                    {
+                      "offset": 82,
+                      "resource": "rule-new",
+                      "type": "UPDATE",
+                      "operations": [ { "op": "add", "path": "/level", "value": 3 } ]
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+
+        Assert.assertTrue(this.updateService.update(79, 82));
+
+        List<ContentIndex.Change> changes = this.appliedChanges(this.ruleIndex);
+        Assert.assertEquals(
+                List.of(Offset.Type.CREATE, Offset.Type.UPDATE, Offset.Type.UPDATE),
+                changes.stream().map(ContentIndex.Change::type).toList());
+        Assert.assertEquals(
+                List.of(80L, 81L, 82L), changes.stream().map(ContentIndex.Change::offset).toList());
+        verify(this.ruleIndex, never()).existing(anyCollection());
+        verify(this.decoderIndex, never()).existing(anyCollection());
+        verify(this.decoderIndex, never()).applyChanges(anyList());
+    }
+
+    /**
+     * Tests that the next pages of changes are requested while a page is applied.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_ReadsAhead() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 1,
+                      "resource": "rule-1",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-1", "name": "Rule One" }
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+
+        // Record the pages requested by the time every page is applied
+        List<Integer> requested = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            requested.add(Mockito.mockingDetails(this.apiClient).getInvocations().size());
+                            return null;
+                        })
+                .when(this.ruleIndex)
+                .applyChanges(anyList());
+
+        PluginSettings.resetForTesting();
+        PluginSettings.getInstance(
+                Settings.builder()
+                        .put("plugins.content_manager.max_items_per_bulk", 10)
+                        .put("plugins.content_manager.catalog.read_ahead.pages", 2)
+                        .build());
+        try {
+            Assert.assertTrue(this.updateService.update(0, 25));
+        } finally {
+            PluginSettings.resetForTesting();
+            PluginSettings.getInstance(Settings.EMPTY);
+        }
+
+        verify(this.apiClient).requestChanges(CONSUMER_URI, 0L, 10L);
+        verify(this.apiClient).requestChanges(CONSUMER_URI, 10L, 20L);
+        verify(this.apiClient).requestChanges(CONSUMER_URI, 20L, 25L);
+        Assert.assertEquals(List.of(3, 3, 3), requested);
+    }
+
+    /**
+     * Tests that the writes of every page are not refreshed one by one, and that the indices written
+     * by a page are refreshed once it is committed.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_RefreshesEveryPage() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 1,
+                      "resource": "rule-1",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-1", "name": "Rule One" }
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+
+        // Record the refresh policy of the writes of every page
+        List<WriteRequest.RefreshPolicy> policies = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            policies.add(RefreshCoordinator.policy("wazuh-threatintel-rules"));
+                            return null;
+                        })
+                .when(this.ruleIndex)
+                .applyChanges(anyList());
+
+        PluginSettings.resetForTesting();
+        PluginSettings.getInstance(
+                Settings.builder().put("plugins.content_manager.max_items_per_bulk", 10).build());
+        try {
+            Assert.assertTrue(this.updateService.update(0, 20));
+        } finally {
+            PluginSettings.resetForTesting();
+            PluginSettings.getInstance(Settings.EMPTY);
+        }
+
+        Assert.assertEquals(
+                List.of(WriteRequest.RefreshPolicy.NONE, WriteRequest.RefreshPolicy.NONE), policies);
+        ArgumentCaptor<RefreshRequest> captor = ArgumentCaptor.forClass(RefreshRequest.class);
+        verify(this.indexClient.admin().indices(), times(2)).refresh(captor.capture());
+        for (RefreshRequest request : captor.getAllValues()) {
+            Assert.assertArrayEquals(new String[] {"wazuh-threatintel-rules"}, request.indices());
+        }
+        // The scope of the last page is closed
+        Assert.assertEquals(
+                WriteRequest.RefreshPolicy.IMMEDIATE,
+                RefreshCoordinator.policy("wazuh-threatintel-rules"));
+    }
+
+    /** Tests the folding of the changes of a page into the minimal changes per document. */
+    public void testCompact() {
+        List<Operation> first = List.of(new Operation("replace", "/name", null, "A"));
+        List<Operation> second = List.of(new Operation("replace", "/name", null, "B"));
+        List<ContentIndex.Change> changes =
+                List.of(
+                        // Created and deleted: deleted, as it may have existed before the page
+                        new ContentIndex.Change(1L, Offset.Type.CREATE, "a", null, null),
+                        new ContentIndex.Change(2L, Offset.Type.UPDATE, "a", null, first),
+                        new ContentIndex.Change(3L, Offset.Type.DELETE, "a", null, null),
+                        // Updated then deleted: deleted
+                        new ContentIndex.Change(4L, Offset.Type.UPDATE, "b", null, first),
+                        new ContentIndex.Change(5L, Offset.Type.DELETE, "b", null, null),
+                        // Updated twice: both kept, with their own offsets
+                        new ContentIndex.Change(6L, Offset.Type.UPDATE, "c", null, first),
+                        new ContentIndex.Change(7L, Offset.Type.UPDATE, "c", null, second),
+                        // Deleted then updated: kept, so the update fails
+                        new ContentIndex.Change(8L, Offset.Type.DELETE, "d", null, null),
+                        new ContentIndex.Change(9L, Offset.Type.UPDATE, "d", null, first),
+                        // Deleted then created: created
+                        new ContentIndex.Change(10L, Offset.Type.DELETE, "e", null, null),
+                        new ContentIndex.Change(11L, Offset.Type.CREATE, "e", null, null));
+
+        Map<String, List<ContentIndex.Change>> compacted = UpdateServiceImpl.compact(changes);
+
+        Assert.assertEquals(List.of("a", "b", "c", "d", "e"), List.copyOf(compacted.keySet()));
+        Assert.assertEquals(List.of(changes.get(2)), compacted.get("a"));
+        Assert.assertEquals(List.of(changes.get(4)), compacted.get("b"));
+
+        Assert.assertEquals(List.of(changes.get(5), changes.get(6)), compacted.get("c"));
+
+        Assert.assertEquals(List.of(changes.get(7), changes.get(8)), compacted.get("d"));
+        Assert.assertEquals(List.of(changes.get(10)), compacted.get("e"));
+    }
+
+    /**
+     * Tests that documents with a known route are not looked up, that looked up documents are
+     * routed afterwards, and that routes follow the documents created and deleted.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_RoutesChanges() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 90,
+                      "resource": "rule-cached",
+                      "type": "UPDATE",
+                      "operations": [ { "op": "replace", "path": "/name", "value": "Renamed" } ]
+                    },
+                    {
+                      "offset": 91,
+                      "resource": "decoder-1",
+                      "type": "DELETE"
+                    },
+                    {
+                      "offset": 92,
+                      "resource": "rule-new",
+                      "type": "CREATE",
+                      "payload": { "type": "rule", "id": "rule-new", "name": "New Rule" }
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+        when(this.ruleIndex.existing(anyCollection())).thenReturn(Set.of("rule-cached"));
+        when(this.decoderIndex.existing(anyCollection())).thenReturn(Set.of("decoder-1"));
+
+        Map<String, ContentIndex> indices = new HashMap<>();
+        indices.put("rule", this.ruleIndex);
+        indices.put("decoder", this.decoderIndex);
+        ContentRoutes routes = new ContentRoutes(10);
+        routes.put("rule-cached", "rule");
+        UpdateServiceImpl service =
+                new UpdateServiceImpl(
+                        CONTEXT,
+                        CONSUMER,
+                        CONSUMER_TYPE,
+                        CONSUMER_URI,
+                        this.apiClient,
+                        this.indexClient,
+                        this.consumersIndex,
+                        indices,
+                        routes);
+
+        Assert.assertTrue(service.update(89, 92));
+
+        // The routed document is only checked in its index, the other is looked up in every index
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> lookups = ArgumentCaptor.forClass(Collection.class);
+        verify(this.decoderIndex).existing(lookups.capture());
+        Assert.assertEquals(Set.of("decoder-1"), Set.copyOf(lookups.getValue()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> checks = ArgumentCaptor.forClass(Collection.class);
+        verify(this.ruleIndex, atLeastOnce()).existing(checks.capture());
+        Assert.assertEquals(Set.of("rule-cached"), Set.copyOf(checks.getAllValues().get(0)));
+        Assert.assertEquals(1, this.appliedChanges(this.decoderIndex).size());
+        Assert.assertEquals(2, this.appliedChanges(this.ruleIndex).size());
+
+        Assert.assertEquals("rule", routes.get("rule-cached"));
+        Assert.assertEquals("rule", routes.get("rule-new"));
+        Assert.assertNull(routes.get("decoder-1"));
+    }
+
+    /**
+     * Tests that a document missing from its routed index is looked up in every index, instead of
+     * resetting the consumer, and that its stale route is replaced.
+     *
+     * @throws Exception if update execution fails.
+     */
+    public void testUpdate_StaleRouteIsLookedUp() throws Exception {
+        // spotless:off
+        String changesJson =
+            """
+                {
+                  "data": [
+                    {
+                      "offset": 95,
+                      "resource": "rule-moved",
+                      "type": "UPDATE",
+                      "operations": [ { "op": "replace", "path": "/name", "value": "Renamed" } ]
+                    }
+                  ]
+                }""";
+        // spotless:on
+
+        when(this.apiClient.requestChanges(anyString(), anyLong(), anyLong()))
+                .thenReturn(this.changes(200, changesJson));
+        when(this.consumersIndex.getConsumer(CONSUMER_TYPE)).thenReturn(this.getResponse);
+        when(this.getResponse.isExists()).thenReturn(false);
+        when(this.ruleIndex.existing(anyCollection())).thenReturn(Set.of());
+        when(this.decoderIndex.existing(anyCollection())).thenReturn(Set.of("rule-moved"));
+
+        Map<String, ContentIndex> indices = new HashMap<>();
+        indices.put("rule", this.ruleIndex);
+        indices.put("decoder", this.decoderIndex);
+        ContentRoutes routes = new ContentRoutes(10);
+        routes.put("rule-moved", "rule");
+        UpdateServiceImpl service =
+                new UpdateServiceImpl(
+                        CONTEXT,
+                        CONSUMER,
+                        CONSUMER_TYPE,
+                        CONSUMER_URI,
+                        this.apiClient,
+                        this.indexClient,
+                        this.consumersIndex,
+                        indices,
+                        routes);
+
+        Assert.assertTrue(service.update(94, 95));
+
+        List<ContentIndex.Change> applied = this.appliedChanges(this.decoderIndex);
+        Assert.assertEquals(1, applied.size());
+        Assert.assertEquals("rule-moved", applied.get(0).id());
+        verify(this.ruleIndex, never()).applyChanges(any());
+        verify(this.consumersIndex, never()).setConsumer(argThat(c -> c.getLocalOffset() == 0));
+        Assert.assertEquals("decoder", routes.get("rule-moved"));
+    }
+
+    /** Returns the changes applied to the given index, which must have been applied once. */
+    @SuppressWarnings("unchecked")
+    private List<ContentIndex.Change> appliedChanges(ContentIndex index) throws Exception {
+        ArgumentCaptor<List<ContentIndex.Change>> captor = ArgumentCaptor.forClass(List.class);
+        verify(index, times(1)).applyChanges(captor.capture());
+        return captor.getValue();
     }
 }
@@ -36,6 +36,7 @@ import com.wazuh.contentmanager.cti.console.service.AuthServiceImpl;
 import com.wazuh.contentmanager.cti.console.service.PlansService;
 import com.wazuh.contentmanager.cti.console.service.PlansServiceImpl;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 import org.mockito.Mock;
 
 import static org.mockito.Mockito.*;
@@ -69,7 +70,7 @@ public class CtiConsoleTests extends OpenSearchTestCase {
         this.mockClient = mock(ApiClient.class);
 
         // Create service and replace its client with the mock
-        // Note: This creates a real ApiClient internally first, which needs to be closed
+        // Note: This starts the shared HTTP client of the Console first, which needs to be closed
         this.authService = new AuthServiceImpl();
         this.plansService = new PlansServiceImpl();
         this.authService.setClient(this.mockClient);
@@ -87,6 +88,7 @@ public class CtiConsoleTests extends OpenSearchTestCase {
 
         this.authService.close();
         this.plansService.close();
+        HttpClientPool.close();
     }
 
     /**
@@ -32,6 +32,7 @@ import com.wazuh.contentmanager.cti.console.client.ApiClient;
 import com.wazuh.contentmanager.cti.console.model.Subscription;
 import com.wazuh.contentmanager.cti.console.model.Token;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 import org.mockito.Mock;
 
 import static org.mockito.Mockito.*;
@@ -73,10 +74,11 @@ public class AuthServiceTests extends OpenSearchTestCase {
     @After
     public void tearDown() throws Exception {
         super.tearDown();
-        // Close the service to properly shut down the HTTP client
+        // Close the service and the shared HTTP client it used
         if (this.authService != null) {
             this.authService.close();
         }
+        HttpClientPool.close();
     }
 
     /**
@@ -36,6 +36,7 @@ import com.wazuh.contentmanager.cti.console.model.Feature;
 import com.wazuh.contentmanager.cti.console.model.Plan;
 import com.wazuh.contentmanager.cti.console.model.Token;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 import org.mockito.Mock;
 
 import static org.mockito.Mockito.any;
@@ -80,6 +81,7 @@ public class PlansServiceTests extends OpenSearchTestCase {
         if (this.plansService != null) {
             this.plansService.close();
         }
+        HttpClientPool.close();
         clearPluginSettingsInstance();
         super.tearDown();
     }
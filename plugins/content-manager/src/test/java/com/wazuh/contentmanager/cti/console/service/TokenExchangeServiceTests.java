@@ -31,6 +31,7 @@ import java.util.concurrent.TimeoutException;
 import com.wazuh.contentmanager.cti.console.client.ApiClient;
 import com.wazuh.contentmanager.cti.console.model.Token;
 import com.wazuh.contentmanager.settings.PluginSettings;
+import com.wazuh.contentmanager.utils.HttpClientPool;
 import org.mockito.Mock;
 
 import static org.mockito.Mockito.*;
@@ -68,6 +69,7 @@ public class TokenExchangeServiceTests extends OpenSearchTestCase {
         if (this.tokenExchangeService != null) {
             this.tokenExchangeService.close();
         }
+        HttpClientPool.close();
     }
 
     /**
@@ -27,6 +27,8 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
@@ -158,4 +160,26 @@ public class CatalogSyncJobTests extends OpenSearchTestCase {
         verifyNoInteractions(this.consumersIndex);
         Assert.assertFalse("Semaphore must be released after a skipped pass", job.isRunning());
     }
+
+    /** Consumers being synchronized are skipped by the next passes until they complete. */
+    public void testTrigger_busyConsumersAreSkipped() {
+        List<Runnable> tasks = new ArrayList<>();
+        ExecutorService queueingExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> tasks.add(invocation.getArgument(0)))
+                .when(queueingExecutor)
+                .execute(any(Runnable.class));
+        when(this.threadPool.generic()).thenReturn(queueingExecutor);
+
+        CatalogSyncJob job = spy(this.catalogSyncJob);
+        doReturn(false).when(job).waitForSetup();
+
+        job.trigger();
+        Assert.assertTrue(job.isRunning());
+
+        job.trigger();
+        Assert.assertEquals("Busy consumers must not be synchronized again", 1, tasks.size());
+
+        tasks.get(0).run();
+        Assert.assertFalse("Locks must be released after a skipped pass", job.isRunning());
+    }
 }
@@ -146,6 +146,57 @@ public class PluginSettingsTests extends OpenSearchTestCase {
         Assert.assertThrows(IllegalArgumentException.class, () -> PluginSettings.getInstance(settings));
     }
 
+    /** Tests that snapshot.parser_workers defaults to 4, capped by the available processors. */
+    public void testSnapshotParserWorkersDefault() {
+        PluginSettings pluginSettings = PluginSettings.getInstance(Settings.EMPTY);
+        Assert.assertEquals(
+                Math.min(4, Runtime.getRuntime().availableProcessors()),
+                pluginSettings.getSnapshotParserWorkers());
+    }
+
+    /** Tests that a snapshot.parser_workers above the ceiling of 16 is rejected. */
+    public void testSnapshotParserWorkersAboveMaxThrows() {
+        Settings settings =
+                Settings.builder().put("plugins.content_manager.snapshot.parser_workers", 17).build();
+        Assert.assertThrows(IllegalArgumentException.class, () -> PluginSettings.getInstance(settings));
+    }
+
+    /** Tests that a snapshot.parser_workers below 1 is rejected. */
+    public void testSnapshotParserWorkersBelowMinThrows() {
+        Settings settings =
+                Settings.builder().put("plugins.content_manager.snapshot.parser_workers", 0).build();
+        Assert.assertThrows(IllegalArgumentException.class, () -> PluginSettings.getInstance(settings));
+    }
+
+    /** Tests that snapshot.checkpoint_interval defaults to 50 and accepts 0 to disable checkpoints. */
+    public void testSnapshotCheckpointInterval() throws Exception {
+        Assert.assertEquals(50, PluginSettings.getInstance(Settings.EMPTY).getSnapshotCheckpointInterval());
+        PluginSettingsTests.clearInstance();
+        Settings settings =
+                Settings.builder().put("plugins.content_manager.snapshot.checkpoint_interval", 0).build();
+        Assert.assertEquals(0, PluginSettings.getInstance(settings).getSnapshotCheckpointInterval());
+    }
+
+    /** Tests that snapshot.download_connections defaults to 4 and rejects values above 16. */
+    public void testSnapshotDownloadConnections() {
+        Assert.assertEquals(4, PluginSettings.getInstance(Settings.EMPTY).getSnapshotDownloadConnections());
+        Settings settings =
+                Settings.builder().put("plugins.content_manager.snapshot.download_connections", 17).build();
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> PluginSettings.SNAPSHOT_DOWNLOAD_CONNECTIONS.get(settings));
+    }
+
+    /** Tests that the HTTP pool settings default to 8 connections per host and 60 seconds. */
+    public void testHttpPoolSettings() {
+        PluginSettings pluginSettings = PluginSettings.getInstance(Settings.EMPTY);
+        Assert.assertEquals(8, pluginSettings.getHttpMaxConnectionsPerHost());
+        Assert.assertEquals(60, pluginSettings.getHttpKeepAlive());
+        Settings settings =
+                Settings.builder().put("plugins.content_manager.http.max_connections_per_host", 0).build();
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> PluginSettings.HTTP_MAX_CONNECTIONS_PER_HOST.get(settings));
+    }
+
     /** Tests that getUserAgent returns the fallback value when no version has been set. */
     public void testGetUserAgentDefaultsToUnknown() {
         PluginSettings pluginSettings = PluginSettings.getInstance(Settings.EMPTY);
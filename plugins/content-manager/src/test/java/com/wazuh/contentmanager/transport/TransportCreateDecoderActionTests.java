@@ -17,17 +17,19 @@
 package com.wazuh.contentmanager.transport;
 
 import org.apache.lucene.search.TotalHits;
+import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.common.SuppressForbidden;
-import org.opensearch.common.action.ActionFuture;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.search.SearchHits;
 import org.opensearch.tasks.Task;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportService;
 import org.opensearch.transport.client.Client;
 import org.junit.After;
@@ -56,6 +58,10 @@ public class TransportCreateDecoderActionTests extends OpenSearchTestCase {
         Settings settings = Settings.builder().put("plugins.content_manager.engine.mock", true).build();
         PluginSettings.getInstance(settings);
         this.client = mock(Client.class);
+        // Run the forked workflows on the calling thread
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.generic()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
+        when(this.client.threadPool()).thenReturn(threadPool);
         this.engineService = mock(EngineService.class);
         this.action =
                 new TransportCreateDecoderAction(
@@ -87,18 +93,28 @@ public class TransportCreateDecoderActionTests extends OpenSearchTestCase {
                         new TotalHits(1, TotalHits.Relation.EQUAL_TO),
                         0.0f);
         when(searchResponse.getHits()).thenReturn(searchHits);
-        ActionFuture<SearchResponse> future = mock(ActionFuture.class);
-        when(future.actionGet()).thenReturn(searchResponse);
-        when(this.client.search(any())).thenReturn(future);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(searchResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
     }
 
     @SuppressWarnings("unchecked")
     private void mockDraftPolicyMissing() {
         SearchResponse searchResponse = mock(SearchResponse.class);
         when(searchResponse.getHits()).thenReturn(SearchHits.empty());
-        ActionFuture<SearchResponse> future = mock(ActionFuture.class);
-        when(future.actionGet()).thenReturn(searchResponse);
-        when(this.client.search(any())).thenReturn(future);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(searchResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
     }
 
     public void testDoExecute_EmptyBody() {
@@ -181,7 +197,9 @@ public class TransportCreateDecoderActionTests extends OpenSearchTestCase {
     }
 
     public void testDoExecute_DraftPolicyCheckException() {
-        when(this.client.search(any())).thenThrow(new RuntimeException("Search failed"));
+        doThrow(new RuntimeException("Search failed"))
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
         ContentCreateRequest request =
                 new ContentCreateRequest(
                         RestRequest.Method.POST,
@@ -17,17 +17,21 @@
 package com.wazuh.contentmanager.transport;
 
 import org.apache.lucene.search.TotalHits;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.common.SuppressForbidden;
-import org.opensearch.common.action.ActionFuture;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.search.SearchHits;
 import org.opensearch.tasks.Task;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportService;
 import org.opensearch.transport.client.Client;
 import org.junit.After;
@@ -56,6 +60,10 @@ public class TransportUpdateDecoderActionTests extends OpenSearchTestCase {
         Settings settings = Settings.builder().put("plugins.content_manager.engine.mock", true).build();
         PluginSettings.getInstance(settings);
         this.client = mock(Client.class);
+        // Run the forked workflows on the calling thread
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.generic()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
+        when(this.client.threadPool()).thenReturn(threadPool);
         this.engineService = mock(EngineService.class);
         this.action =
                 new TransportUpdateDecoderAction(
@@ -87,18 +95,28 @@ public class TransportUpdateDecoderActionTests extends OpenSearchTestCase {
                         new TotalHits(1, TotalHits.Relation.EQUAL_TO),
                         0.0f);
         when(searchResponse.getHits()).thenReturn(searchHits);
-        ActionFuture<SearchResponse> future = mock(ActionFuture.class);
-        when(future.actionGet()).thenReturn(searchResponse);
-        when(this.client.search(any())).thenReturn(future);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(searchResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
     }
 
     @SuppressWarnings("unchecked")
     private void mockDraftPolicyMissing() {
         SearchResponse searchResponse = mock(SearchResponse.class);
         when(searchResponse.getHits()).thenReturn(SearchHits.empty());
-        ActionFuture<SearchResponse> future = mock(ActionFuture.class);
-        when(future.actionGet()).thenReturn(searchResponse);
-        when(this.client.search(any())).thenReturn(future);
+        doAnswer(
+                        invocation -> {
+                            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+                            listener.onResponse(searchResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
     }
 
     public void testDoExecute_EmptyBody() {
@@ -139,8 +157,21 @@ public class TransportUpdateDecoderActionTests extends OpenSearchTestCase {
                                 }));
     }
 
+    @SuppressWarnings("unchecked")
     public void testDoExecute_InvalidJson() {
         mockDraftPolicyExists();
+        GetResponse getResponse = mock(GetResponse.class);
+        when(getResponse.isExists()).thenReturn(true);
+        when(getResponse.getSourceAsString())
+                .thenReturn("{\"space\":{\"name\":\"draft\"},\"document\":{}}");
+        doAnswer(
+                        invocation -> {
+                            ActionListener<GetResponse> getListener = invocation.getArgument(1);
+                            getListener.onResponse(getResponse);
+                            return null;
+                        })
+                .when(this.client)
+                .get(any(GetRequest.class), any());
         ContentUpdateRequest request =
                 new ContentUpdateRequest(
                         RestRequest.Method.PUT,
@@ -152,13 +183,12 @@ public class TransportUpdateDecoderActionTests extends OpenSearchTestCase {
         ActionListener<ContentResponse> listener = mock(ActionListener.class);
         this.action.doExecute(mock(Task.class), request, listener);
 
-        // The update flow checks index existence before parsing body,
-        // so without full index mocking we get ISE from the client mock
+        // The existing draft document is fetched before the body is parsed
         verify(listener)
                 .onResponse(
                         argThat(
                                 response -> {
-                                    Assert.assertNotNull(response.getStatus());
+                                    Assert.assertEquals(RestStatus.BAD_REQUEST, response.getStatus());
                                     return true;
                                 }));
     }
@@ -187,7 +217,9 @@ public class TransportUpdateDecoderActionTests extends OpenSearchTestCase {
     }
 
     public void testDoExecute_DraftPolicyCheckException() {
-        when(this.client.search(any())).thenThrow(new RuntimeException("Search failed"));
+        doThrow(new RuntimeException("Search failed"))
+                .when(this.client)
+                .search(any(SearchRequest.class), any());
         ContentUpdateRequest request =
                 new ContentUpdateRequest(
                         RestRequest.Method.PUT,
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026, Wazuh Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.wazuh.contentmanager.utils;
+
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.test.OpenSearchTestCase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+
+import com.wazuh.contentmanager.settings.PluginSettings;
+
+/**
+ * Unit tests for the {@link HttpClientPool} class. Validates that the requests to a host share a
+ * running client, that each host has its own, and that closing the pool stops them.
+ */
+public class HttpClientPoolTests extends OpenSearchTestCase {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        PluginSettings.getInstance(Settings.EMPTY);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        HttpClientPool.close();
+        super.tearDown();
+    }
+
+    /** The URLs of a host share its running client. */
+    public void testGet_SameHostSharesClient() {
+        CloseableHttpAsyncClient client = HttpClientPool.get("https://cti.wazuh.com/api/v1");
+
+        Assert.assertEquals(IOReactorStatus.ACTIVE, client.getStatus());
+        Assert.assertSame(client, HttpClientPool.get("https://CTI.wazuh.com/api/v1/catalog/plans"));
+        Assert.assertNotSame(client, HttpClientPool.get("https://api.pre.cloud.wazuh.com"));
+        Assert.assertNotSame(client, HttpClientPool.get("https://cti.wazuh.com:8443/api/v1"));
+    }
+
+    /** A host with its own socket timeout has its own client, kept by its later requests. */
+    public void testGet_SocketTimeoutPerHost() {
+        CloseableHttpAsyncClient console = HttpClientPool.get("https://api.pre.cloud.wazuh.com", 5);
+
+        Assert.assertEquals(IOReactorStatus.ACTIVE, console.getStatus());
+        Assert.assertSame(console, HttpClientPool.get("https://api.pre.cloud.wazuh.com/api/v1", 5));
+        Assert.assertNotSame(console, HttpClientPool.get("https://cti.wazuh.com/api/v1"));
+    }
+
+    /** Closing the pool stops its clients, and the next request starts a new one. */
+    public void testClose_StopsClients() {
+        CloseableHttpAsyncClient client = HttpClientPool.get("https://cti.wazuh.com/api/v1");
+
+        HttpClientPool.close();
+
+        Assert.assertNotEquals(IOReactorStatus.ACTIVE, client.getStatus());
+        CloseableHttpAsyncClient restarted = HttpClientPool.get("https://cti.wazuh.com/api/v1");
+        Assert.assertNotSame(client, restarted);
+        Assert.assertEquals(IOReactorStatus.ACTIVE, restarted.getStatus());
+    }
+
+    /** The host of a URL is keyed by its scheme, host and port, and relative URLs are rejected. */
+    public void testHostOf() {
+        Assert.assertEquals("https://cti.wazuh.com", HttpClientPool.hostOf("HTTPS://CTI.wazuh.com/a?b"));
+        Assert.assertEquals("http://localhost:8080", HttpClientPool.hostOf("http://localhost:8080/a"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> HttpClientPool.hostOf("/api/v1"));
+    }
+}